@@ -2,12 +2,22 @@
 {-# LANGUAGE OverloadedStrings #-}
 {-# LANGUAGE DeriveGeneric #-}
 
+import qualified "bytestring" Data.ByteString as B
 import qualified "bytestring" Data.ByteString.Lazy as BL
+import qualified "bytestring" Data.ByteString.Lazy.Char8 as BLC
 import Data.Aeson
 import GHC.Generics
-import Control.Monad (replicateM)
-import System.Random (randomRIO)
-import Data.List (sortOn)
+import Control.Exception (SomeException, evaluate, try)
+import Control.Monad (replicateM, unless, when)
+import System.Environment (getArgs)
+import System.IO (BufferMode(..), hFlush, hSetBinaryMode, hSetBuffering, isEOF, stdin, stdout)
+import Codec.CBOR.JSON (decodeValue, encodeValue)
+import Codec.CBOR.Read (deserialiseFromBytes)
+import Codec.CBOR.Write (toLazyByteString)
+import System.Random (mkStdGen, randomRIO, setStdGen)
+import Data.Char (isDigit, toUpper)
+import Data.Function (on)
+import Data.List (groupBy, sortOn)
 import Data.Ord (Down(..))
 
 -- Input domain types matching Java JSON schema
@@ -104,12 +114,34 @@ instance FromJSON SchedulingProblem where
                       <*> o .: "rooms"
                       <*> o .: "timeSlots"
 
+-- Optional top-level "seed" sent by the Java client for reproducible (cacheable) runs
+newtype Seed = Seed (Maybe Int)
+
+instance FromJSON Seed where
+  parseJSON = withObject "Seed" $ \o -> Seed <$> o .:? "seed"
+
+-- Optional top-level "maxGenerations" bounding an anytime run (--anytime)
+newtype MaxGenerations = MaxGenerations (Maybe Int)
+
+instance FromJSON MaxGenerations where
+  parseJSON = withObject "MaxGenerations" $ \o -> MaxGenerations <$> o .:? "maxGenerations"
+
+defaultAnytimeGenerations :: Int
+defaultAnytimeGenerations = 500
+
 -- Internal GA representation
 
+-- A time slot as (day, start, end) in minutes, see interval
+type Interval = (String, Int, Int)
+
+-- A time slot paired with its interval, parsed once per problem (slotsOf) and shared by every assignment to it
+type Slot = (TimeSlot, Interval)
+
 data Assignment = Assignment
   { aLecture :: Lecture
   , aRoom :: Room
   , aTimeSlot :: TimeSlot
+  , aInterval :: Interval
   } deriving (Show, Eq)
 
 type Chromosome = [Assignment]
@@ -141,30 +173,54 @@ assignmentToOut a = AssignmentOut
   }
 
 -- Random construction
-randomAssignment :: [Room] -> [TimeSlot] -> Lecture -> IO Assignment
+randomAssignment :: [Room] -> [Slot] -> Lecture -> IO Assignment
 randomAssignment rooms timeSlots lecture = do
   r <- randomRIO (0, length rooms - 1)
   t <- randomRIO (0, length timeSlots - 1)
-  pure $ Assignment lecture (rooms !! r) (timeSlots !! t)
+  let (ts, iv) = timeSlots !! t
+  pure $ Assignment lecture (rooms !! r) ts iv
 
-randomChromosome :: [Lecture] -> [Room] -> [TimeSlot] -> IO Chromosome
+randomChromosome :: [Lecture] -> [Room] -> [Slot] -> IO Chromosome
 randomChromosome lectures rooms timeSlots =
   mapM (randomAssignment rooms timeSlots) lectures
 
--- Fitness: +1 per assignment that fits room capacity; -1 per room/time conflict
--- Fixed: avoid double-counting conflicts by using i<j pairs
+-- Minutes since midnight of an "H:MM" or "HH:MM" time (up to 24:00)
+minutes :: String -> Maybe Int
+minutes t = case break (== ':') t of
+  (h, ':' : m)
+    | length h `elem` [1, 2], length m == 2, all isDigit (h ++ m) ->
+        let mins = read m :: Int
+            total = (read h :: Int) * 60 + mins
+        in if mins < 60 && total <= 1440 then Just total else Nothing
+  _ -> Nothing
+
+-- A time slot as (day, start, end) in minutes; slots whose times do not parse get a day of their own
+-- (keyed by their id) so that they only conflict with themselves
+interval :: TimeSlot -> Interval
+interval ts = case (minutes (timeSlotStart' ts), minutes (timeSlotEnd' ts)) of
+  (Just s, Just e) | s < e -> (map toUpper (timeSlotDay' ts), s, e)
+  _ -> ('#' : getTimeSlotId ts, 0, 1)
+
+slotsOf :: [TimeSlot] -> [Slot]
+slotsOf = map (\ts -> (ts, interval ts))
+
+-- Overlapping pairs among intervals: sweep them by start, each one overlaps the earlier ones still running
+overlapPairs :: [(Int, Int)] -> Int
+overlapPairs = go [] . sortOn fst
+  where
+    go _ [] = 0
+    go active ((s, e) : rest) =
+      let running = filter (> s) active
+      in length running + go (e : running) rest
+
+-- Fitness: +1 per assignment that fits room capacity; -1 per pair of assignments in the same room at
+-- overlapping times (differently named slots can overlap), found per (room, day) with a sweep line
 fitness :: Chromosome -> Int
 fitness chrom =
   let fits = [ if getCapacity (aRoom a) >= getEnrollment (aLecture a) then 1 else 0 | a <- chrom ]
-      indexed = zip [0..] chrom
-      conflicts = length
-        [ ()
-        | (i, a1) <- indexed
-        , (j, a2) <- indexed
-        , i < j
-        , getRoomId (aRoom a1) == getRoomId (aRoom a2)
-        , getTimeSlotId (aTimeSlot a1) == getTimeSlotId (aTimeSlot a2)
-        ]
+      keyed = [ ((getRoomId (aRoom a), day), (s, e)) | a <- chrom, let (day, s, e) = aInterval a ]
+      groups = groupBy ((==) `on` fst) (sortOn fst keyed)
+      conflicts = sum [ overlapPairs (map snd g) | g <- groups ]
   in sum fits - conflicts
 
 -- Selection: take top n by fitness
@@ -180,7 +236,7 @@ crossover c1 c2 =
        ) (zip c1 c2)
 
 -- Mutation: reassign one random lecture to a random room/time
-mutate :: [Room] -> [TimeSlot] -> Chromosome -> IO Chromosome
+mutate :: [Room] -> [Slot] -> Chromosome -> IO Chromosome
 mutate rooms timeSlots chrom
   | null chrom = pure chrom
   | otherwise = do
@@ -190,7 +246,7 @@ mutate rooms timeSlots chrom
       pure $ before ++ [newAssignment] ++ after
 
 -- One generation demo (can be extended to multiple generations if needed)
-geneticStep :: [Lecture] -> [Room] -> [TimeSlot] -> Int -> IO Chromosome
+geneticStep :: [Lecture] -> [Room] -> [Slot] -> Int -> IO Chromosome
 geneticStep lectures rooms timeSlots populationSize = do
   pop <- replicateM populationSize (randomChromosome lectures rooms timeSlots)
   let scored = [(c, fitness c) | c <- pop]
@@ -202,23 +258,128 @@ geneticStep lectures rooms timeSlots populationSize = do
       final  = selectBest [(c, fitness c) | c <- newPop] 1
   pure (head final)
 
-main :: IO ()
-main = do
-  input <- BL.getContents
-  case eitherDecode input :: Either String SchedulingProblem of
-    Left err -> do
-      -- Print a JSON error for consistency (stderr would be preferable, but HaskellGAClient
-      -- only reads stdout; returning non-zero is handled in the shell wrapper if this is compiled)
-      BL.putStr $ encode $ object ["error" .= ("Error parsing JSON: " <> err)]
-    Right problem -> do
-      let cs = inCourses problem
-          ls = inLectures problem
+-- One generation of an ongoing run: keep the better half, refill with mutated crossover children
+evolve :: [Room] -> [Slot] -> [Chromosome] -> IO [Chromosome]
+evolve rooms timeSlots pop = do
+  let keepN = max 2 (length pop `div` 2)
+      best  = selectBest [(c, fitness c) | c <- pop] keepN
+  children <- mapM (\(p1, p2) -> crossover p1 p2) (zip best (reverse best))
+  mutated  <- mapM (mutate rooms timeSlots) children
+  pure (best ++ mutated)
+
+bestOf :: [Chromosome] -> Chromosome
+bestOf pop = head (selectBest [(c, fitness c) | c <- pop] 1)
+
+-- Schedule line of an anytime run; "partial" marks a best-so-far snapshot, the final line has it false
+anytimeOut :: Int -> Bool -> Chromosome -> Value
+anytimeOut gens partial chrom = object
+  [ "assignments" .= map assignmentToOut chrom
+  , "score" .= (fromIntegral (fitness chrom) :: Double)
+  , "generations" .= gens
+  , "partial" .= partial
+  ]
+
+-- Anytime mode: evolve for up to maxGenerations (stopping early at the best possible fitness), printing
+-- the best schedule so far as one JSON line whenever it improves, then the final best. A caller that
+-- stops the process at its deadline keeps the last complete line it read.
+anytime :: BL.ByteString -> IO ()
+anytime input = do
+  hSetBuffering stdout LineBuffering
+  case eitherDecode input :: Either String Value of
+    Left err -> BLC.putStrLn $ encode $ parseError err
+    Right v -> case fromJSON v :: Result SchedulingProblem of
+      Error err -> BLC.putStrLn $ encode $ parseError err
+      Success problem -> do
+        case fromJSON v of
+          Success (Seed (Just seed)) -> setStdGen (mkStdGen seed)
+          _ -> pure ()
+        let maxGens = case fromJSON v of
+              Success (MaxGenerations (Just g)) -> g
+              _ -> defaultAnytimeGenerations
+            ls = inLectures problem
+            rs = inRooms problem
+            ts = slotsOf (inTimeSlots problem)
+            perfect = length ls
+            emit gens partial chrom = BLC.putStrLn (encode (anytimeOut gens partial chrom)) >> hFlush stdout
+            loop gen pop bestFit
+              | gen >= maxGens || bestFit >= perfect = pure (gen, bestOf pop)
+              | otherwise = do
+                  pop' <- evolve rs ts pop
+                  let b = bestOf pop'
+                      f = fitness b
+                  when (f > bestFit) $ emit (gen + 1) True b
+                  loop (gen + 1) pop' (max f bestFit)
+        pop0 <- replicateM 20 (randomChromosome ls rs ts)
+        let b0 = bestOf pop0
+        emit 0 True b0
+        (gens, final) <- loop 0 pop0 (fitness b0)
+        emit gens False final
+
+-- Decode one problem, run the GA and encode the resulting schedule (or a JSON error object)
+solve :: BL.ByteString -> IO BL.ByteString
+solve input =
+  case eitherDecode input :: Either String Value of
+    -- Print a JSON error for consistency (stderr would be preferable, but HaskellGAClient
+    -- only reads stdout; returning non-zero is handled in the shell wrapper if this is compiled)
+    Left err -> pure $ encode $ parseError err
+    Right v -> encode <$> solveValue v
+
+-- Same as solve, with the problem and the answer encoded as CBOR (the JSON data model in binary form)
+solveCbor :: BL.ByteString -> IO BL.ByteString
+solveCbor input =
+  case deserialiseFromBytes (decodeValue False) input of
+    Left err -> pure $ toLazyByteString $ encodeValue $ parseError (show err)
+    Right (_, v) -> toLazyByteString . encodeValue <$> solveValue v
+
+parseError :: String -> Value
+parseError err = object ["error" .= ("Error parsing JSON: " <> err)]
+
+solveValue :: Value -> IO Value
+solveValue v =
+  case fromJSON v :: Result SchedulingProblem of
+    Error err -> pure (parseError err)
+    Success problem -> do
+      case fromJSON v of
+        Success (Seed (Just seed)) -> setStdGen (mkStdGen seed)
+        _ -> pure ()
+      let ls = inLectures problem
           rs = inRooms problem
-          ts = inTimeSlots problem
+          ts = slotsOf (inTimeSlots problem)
       -- Run a small population; adjust as needed
       scheduleChrom <- geneticStep ls rs ts 20
       let sc = fromIntegral (fitness scheduleChrom) :: Double
           out = ScheduleOut { assignments = map assignmentToOut scheduleChrom
                             , score = Just sc
                             }
-      BL.putStr (encode out)
\ No newline at end of file
+      pure (toJSON out)
+
+-- Resident worker mode: one problem JSON per input line, one schedule JSON per output line.
+-- Keeps the runtime (and the interpreted/compiled program) warm across requests; failures are
+-- reported as {"error": ...} lines so the Java pool can recycle the worker.
+serve :: IO ()
+serve = do
+  hSetBuffering stdout LineBuffering
+  let loop = do
+        eof <- isEOF
+        unless eof $ do
+          line <- B.getLine
+          unless (B.null line) $ do
+            result <- try (solve (BL.fromStrict line) >>= evaluate . BL.toStrict)
+            case result of
+              Left e -> BLC.putStrLn $ encode $ object ["error" .= show (e :: SomeException)]
+              Right out -> B.putStr out >> BLC.putStrLn ""
+            hFlush stdout
+          loop
+  loop
+
+main :: IO ()
+main = do
+  args <- getArgs
+  if "--serve" `elem` args
+    then serve
+    else if "--anytime" `elem` args
+    then BL.getContents >>= anytime
+    else if "--cbor" `elem` args
+      then hSetBinaryMode stdin True >> hSetBinaryMode stdout True
+             >> BL.getContents >>= solveCbor >>= BL.putStr
+      else BL.getContents >>= solve >>= BL.putStr
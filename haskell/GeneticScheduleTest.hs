@@ -2,6 +2,10 @@
 
 -- Minimal, standalone tests for the fitness function
 
+import Data.Char (isDigit, toUpper)
+import Data.Function (on)
+import Data.List (groupBy, sortOn)
+
 -- Types aligned with main code
 data Lecture = Lecture
   { lectureId' :: String
@@ -27,6 +31,7 @@ data Assignment = Assignment
   { aLecture :: Lecture
   , aRoom :: Room
   , aTimeSlot :: TimeSlot
+  , aInterval :: (String, Int, Int)
   } deriving (Show, Eq)
 
 type Chromosome = [Assignment]
@@ -43,19 +48,40 @@ getRoomId = roomId'
 getTimeSlotId :: TimeSlot -> String
 getTimeSlotId = timeSlotId'
 
--- Fitness: +1 per capacity-fit; -1 per room/time conflict (i<j to avoid double count)
+-- Minutes since midnight of an "H:MM" or "HH:MM" time (up to 24:00)
+minutes :: String -> Maybe Int
+minutes t = case break (== ':') t of
+  (h, ':' : m)
+    | length h `elem` [1, 2], length m == 2, all isDigit (h ++ m) ->
+        let mins = read m :: Int
+            total = (read h :: Int) * 60 + mins
+        in if mins < 60 && total <= 1440 then Just total else Nothing
+  _ -> Nothing
+
+-- A time slot as (day, start, end) in minutes; slots whose times do not parse get a day of their own
+-- (keyed by their id) so that they only conflict with themselves
+interval :: TimeSlot -> (String, Int, Int)
+interval ts = case (minutes (timeSlotStart' ts), minutes (timeSlotEnd' ts)) of
+  (Just s, Just e) | s < e -> (map toUpper (timeSlotDay' ts), s, e)
+  _ -> ('#' : getTimeSlotId ts, 0, 1)
+
+-- Overlapping pairs among intervals: sweep them by start, each one overlaps the earlier ones still running
+overlapPairs :: [(Int, Int)] -> Int
+overlapPairs = go [] . sortOn fst
+  where
+    go _ [] = 0
+    go active ((s, e) : rest) =
+      let running = filter (> s) active
+      in length running + go (e : running) rest
+
+-- Fitness: +1 per assignment that fits room capacity; -1 per pair of assignments in the same room at
+-- overlapping times (differently named slots can overlap), found per (room, day) with a sweep line
 fitness :: Chromosome -> Int
 fitness chrom =
   let fits = [ if getCapacity (aRoom a) >= getEnrollment (aLecture a) then 1 else 0 | a <- chrom ]
-      indexed = zip [0..] chrom
-      conflicts = length
-        [ ()
-        | (i, a1) <- indexed
-        , (j, a2) <- indexed
-        , i < j
-        , getRoomId (aRoom a1) == getRoomId (aRoom a2)
-        , getTimeSlotId (aTimeSlot a1) == getTimeSlotId (aTimeSlot a2)
-        ]
+      keyed = [ ((getRoomId (aRoom a), day), (s, e)) | a <- chrom, let (day, s, e) = aInterval a ]
+      groups = groupBy ((==) `on` fst) (sortOn fst keyed)
+      conflicts = sum [ overlapPairs (map snd g) | g <- groups ]
   in sum fits - conflicts
 
 -- Test data
@@ -65,12 +91,20 @@ roomA = Room "R1" "RoomA" 30
 roomB = Room "R2" "RoomB" 15
 timeslot1 = TimeSlot "T1" "Mon" "09:00" "10:00"
 timeslot2 = TimeSlot "T2" "Tue" "10:00" "11:00"
+timeslot3 = TimeSlot "T3" "MON" "09:30" "10:30"  -- overlaps timeslot1
+timeslot4 = TimeSlot "T4" "Mon" "10:00" "11:00"  -- starts when timeslot1 ends
+
+-- Assignments carry their slot's parsed interval, as built once per problem in the main code
+assign :: Lecture -> Room -> TimeSlot -> Assignment
+assign l r ts = Assignment l r ts (interval ts)
 
-assignment1 = Assignment lecture1 roomA timeslot1
-assignment2 = Assignment lecture2 roomB timeslot2
+assignment1 = assign lecture1 roomA timeslot1
+assignment2 = assign lecture2 roomB timeslot2
 
 chromosomeNoConflict = [assignment1, assignment2]  -- No conflict, capacities fit
-chromosomeConflict = [assignment1, Assignment lecture2 roomA timeslot1]  -- Room + time conflict
+chromosomeConflict = [assignment1, assign lecture2 roomA timeslot1]  -- Room + time conflict
+chromosomeOverlap = [assignment1, assign lecture2 roomA timeslot3]  -- Different slots, overlapping times
+chromosomeAdjacent = [assignment1, assign lecture2 roomA timeslot4]  -- Back-to-back slots do not overlap
 
 check :: String -> Int -> Int -> IO ()
 check label actual expected =
@@ -83,4 +117,6 @@ main = do
   putStrLn "Running unit tests for fitness..."
   check "no conflict, all fit" (fitness chromosomeNoConflict) 2
   check "room/time conflict" (fitness chromosomeConflict) 1
+  check "overlapping slots conflict" (fitness chromosomeOverlap) 1
+  check "adjacent slots do not conflict" (fitness chromosomeAdjacent) 2
   putStrLn "All tests passed."
\ No newline at end of file
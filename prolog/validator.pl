@@ -5,8 +5,24 @@
 %   timeslot(Id, Day, Start, End).
 %   assignment(LectureId, RoomId, TimeSlotId).
 % Emits JSON: {"valid": Bool, "violations": [ {code, message, lectureId, roomId, timeSlotId}, ... ] }
+% Conflicts are between lectures whose timeslots overlap in time ('H:MM'/'HH:MM' Start and End on the
+% same Day), not only between lectures in the same timeslot; they carry the overlap as
+% "overlap": {day, start, end} unless a timeslot's times do not parse (then only equal ids conflict).
+% Timeslots are parsed once per request (once per problem in batch/0) into the slot_iv/4 table, and
+% the overlapping pairs of them into slot_overlap/3, which drives the conflict joins.
+%
+% Entry points:
+%   main/0  - one-shot: read facts until end of input, print one result and halt.
+%   serve/0 - long-running worker: each request is a batch of facts terminated by
+%             `end_of_request.`; the worker prints one JSON line per request and
+%             retracts all facts before reading the next one. Errors are reported
+%             as {"error": Message} and terminate the worker.
+%   batch/0 - many schedules for one problem: room/lecture/timeslot facts are read
+%             once up to `end_of_problem.`; then each schedule's assignment facts
+%             are terminated by `end_of_request.` and answered with one JSON line,
+%             after which only the assignments are retracted. Ends at end of input.
 
-:- module(validator, [main/0]).
+:- module(validator, [main/0, serve/0, batch/0]).
 :- use_module(library(readutil)).
 :- use_module(library(http/json)).
 
@@ -14,14 +30,79 @@
 :- dynamic lecture/3.
 :- dynamic timeslot/4.
 :- dynamic assignment/3.
+:- dynamic slot_iv/4.
+:- dynamic slot_overlap/3.
 
 main :-
     read_and_assert_facts,
+    index_slots,
+    write_result,
+    halt(0).
+
+serve :-
+    set_prolog_flag(tty_control, false),
+    repeat,
+        catch(serve_request(Status), E, (report_error(E), halt(1))),
+        Status == eof,
+    !,
+    halt(0).
+
+batch :-
+    set_prolog_flag(tty_control, false),
+    catch((read_problem_facts, index_slots, batch_loop), E, (report_error(E), halt(1))),
+    halt(0).
+
+read_problem_facts :-
+    read_term(user_input, Term, []),
+    (   Term == end_of_file -> true
+    ;   Term == end_of_problem -> true
+    ;   assert_if_fact(Term),
+        read_problem_facts
+    ).
+
+batch_loop :-
+    read_request_facts(Status),
+    (   Status == eof -> true
+    ;   write_result,
+        retractall(assignment(_,_,_)),
+        batch_loop
+    ).
+
+serve_request(Status) :-
+    read_request_facts(Status),
+    (   Status == eof -> true
+    ;   index_slots,
+        write_result,
+        retract_facts
+    ).
+
+read_request_facts(Status) :-
+    read_term(user_input, Term, []),
+    (   Term == end_of_file -> Status = eof
+    ;   Term == end_of_request -> Status = done
+    ;   assert_if_fact(Term),
+        read_request_facts(Status)
+    ).
+
+write_result :-
     collect_violations(Vs),
     ( Vs = [] -> Valid = true ; Valid = false ),
     Result = _{valid:Valid, violations:Vs},
     json_write_dict(current_output, Result, [width(0)]), nl,
-    halt(0).
+    flush_output.
+
+retract_facts :-
+    retractall(room(_,_)),
+    retractall(lecture(_,_,_)),
+    retractall(timeslot(_,_,_,_)),
+    retractall(assignment(_,_,_)),
+    retractall(slot_iv(_,_,_,_)),
+    retractall(slot_overlap(_,_,_)).
+
+report_error(E) :-
+    format(string(Msg), '~q', [E]),
+    json_write_dict(current_output, _{error:Msg}, [width(0)]), nl,
+    flush_output.
 
 read_and_assert_facts :-
     set_prolog_flag(tty_control, false),
@@ -61,21 +142,92 @@ capacity_violation(_{code:"capacity_exceeded", message:Msg, lectureId:L, roomId:
     Enroll > Cap,
     format(string(Msg), 'Enrollment (~w) exceeds room capacity (~w).', [Enroll,Cap]).
 
-% No two different lectures in the same room and same timeslot
-double_booking_violation(_{code:"room_double_booked", message:Msg, lectureId:L1, roomId:R, timeSlotId:TS}) :-
-    assignment(L1,R,TS),
-    assignment(L2,R,TS),
+% No two different lectures in the same room at overlapping times; TS2 is bound from the slots
+% overlapping TS1 before the second assignment is looked up by room and slot
+double_booking_violation(V) :-
+    assignment(L1,R,TS1),
+    slots_overlap(TS1,TS2,Window),
+    assignment(L2,R,TS2),
     L1 \= L2,
     order_pair(L1,L2,L1,_),
-    format(string(Msg), 'Room booked by multiple lectures at the same time: ~w and ~w.', [L1,L2]).
+    format(string(Msg), 'Room booked by multiple lectures at the same time: ~w and ~w.', [L1,L2]),
+    with_overlap(_{code:"room_double_booked", message:Msg, lectureId:L1, roomId:R, timeSlotId:TS1}, Window, V).
 
-% Lectures of same course cannot overlap in same timeslot
-same_course_overlap_violation(_{code:"same_course_overlap", message:Msg, lectureId:L1, roomId:R1, timeSlotId:TS}) :-
-    assignment(L1,R1,TS),
-    assignment(L2,_R2,TS),
-    L1 \= L2,
+% Lectures of same course cannot overlap in time; the course is bound before the second assignment,
+% so only lectures of one course are paired
+same_course_overlap_violation(V) :-
+    assignment(L1,R1,TS1),
     lecture(L1,C,_), lecture(L2,C,_),
-    order_pair(L1,L2,L1,_),
-    format(string(Msg), 'Two lectures of the same course overlap: ~w and ~w.', [L1,L2]).
+    L1 @< L2,
+    assignment(L2,_R2,TS2),
+    slots_overlap(TS1,TS2,Window),
+    format(string(Msg), 'Two lectures of the same course overlap: ~w and ~w.', [L1,L2]),
+    with_overlap(_{code:"same_course_overlap", message:Msg, lectureId:L1, roomId:R1, timeSlotId:TS1}, Window, V).
 
 order_pair(A,B,Min,Max) :- (A@<B -> Min=A, Max=B ; Min=B, Max=A).
+
+% Two timeslots conflict when their intervals overlap on the same day (Window is the overlap), or,
+% if TS1's times do not parse, when they are the same timeslot (Window = none).
+% With TS1 bound, enumerates the conflicting TS2 from the slot_overlap/3 table.
+slots_overlap(TS1, TS2, Window) :-
+    (   slot_iv(TS1, _, _, _)
+    ->  slot_overlap(TS1, TS2, w(Day, Start, End)),
+        Window = _{day:Day, start:Start, end:End}
+    ;   TS2 = TS1,
+        Window = none
+    ).
+
+% slot_iv(TS, Day, S, E) for every timeslot whose times parse, and slot_overlap(TS1, TS2, Window)
+% (Window = w(Day, Start, End)) for every ordered pair of them, a slot with itself included, that
+% overlaps, replacing any previous tables
+index_slots :-
+    retractall(slot_iv(_,_,_,_)),
+    retractall(slot_overlap(_,_,_)),
+    forall(timeslot(TS,_,_,_),
+           (   \+ slot_iv(TS,_,_,_),
+               slot_interval(TS, Day, S, E)
+           ->  assertz(slot_iv(TS, Day, S, E))
+           ;   true
+           )),
+    forall(( slot_iv(TS1, Day, S1, E1),
+             slot_iv(TS2, Day, S2, E2),
+             S1 < E2, S2 < E1
+           ),
+           (   S is max(S1, S2), E is min(E1, E2),
+               clock(S, Start), clock(E, End),
+               assertz(slot_overlap(TS1, TS2, w(Day, Start, End)))
+           )).
+
+% A timeslot (its first definition) as the minute interval [S, E) on Day, upper case
+slot_interval(TS, Day, S, E) :-
+    once(timeslot(TS, D, Start, End)),
+    upcase_atom(D, Day),
+    once(minutes(Start, S)),
+    once(minutes(End, E)),
+    S < E.
+
+% Minutes since midnight of an 'H:MM' or 'HH:MM' time, up to 24:00
+minutes(Time, M) :-
+    atomic(Time),
+    atom_codes(Time, Cs),
+    append(HCs, [0':|MCs], Cs),
+    length(HCs, HL), between(1, 2, HL),
+    length(MCs, 2),
+    maplist(digit_code, HCs),
+    maplist(digit_code, MCs),
+    number_codes(H, HCs),
+    number_codes(Mi, MCs),
+    Mi =< 59,
+    M is H * 60 + Mi,
+    M =< 1440.
+
+digit_code(C) :- between(0'0, 0'9, C).
+
+% 'HH:MM' for minutes since midnight
+clock(M, Clock) :-
+    H is M // 60,
+    Mi is M mod 60,
+    format(string(Clock), '~|~`0t~d~2+:~|~`0t~d~2+', [H, Mi]).
+
+with_overlap(V, none, V) :- !.
+with_overlap(V0, Window, V) :- put_dict(overlap, V0, Window, V).
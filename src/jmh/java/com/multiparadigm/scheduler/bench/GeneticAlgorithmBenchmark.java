@@ -0,0 +1,52 @@
+package com.multiparadigm.scheduler.bench;
+
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.IslandGeneticAlgorithm;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-island, single-thread GA run of a fixed number of generations, so the score is dominated by
+ * fitness evaluation (population x generations evaluations of all lectures) plus selection and variation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneticAlgorithmBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int lectures;
+
+    @Param({ "0.8" })
+    public double roomTightness;
+
+    @Param({ "0.5" })
+    public double courseClustering;
+
+    private CompiledProblem problem;
+    private IslandGeneticAlgorithm ga;
+
+    @Setup
+    public void setup() {
+        problem = CompiledProblem.of(SyntheticProblems.generate(lectures, roomTightness, courseClustering, 42));
+        // 1 island x 60 individuals x 10 generations, no time budget or plateau stop
+        ga = new IslandGeneticAlgorithm(new IslandGeneticAlgorithm.Settings(
+                1, 60, 10, 10, 0, 2, 1.0, 3, null, 0, 1, 42L));
+    }
+
+    @TearDown
+    public void tearDown() {
+        ga.close();
+    }
+
+    @Benchmark
+    public Schedule tenGenerations() {
+        return ga.generate(problem, GenerationOptions.defaults());
+    }
+}
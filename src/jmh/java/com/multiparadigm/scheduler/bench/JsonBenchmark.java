@@ -0,0 +1,67 @@
+package com.multiparadigm.scheduler.bench;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.util.JsonUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of problems and schedules through {@link JsonUtil}, i.e. the cost paid on every
+ * REST call and every exchange with the external engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "10", "1000", "50000" })
+    public int lectures;
+
+    private SchedulingProblem problem;
+    private Schedule schedule;
+    private String problemJson;
+    private byte[] problemBytes;
+    private String scheduleJson;
+
+    @Setup
+    public void setup() {
+        problem = SyntheticProblems.generate(lectures, 0.8, 0.5, 42);
+        schedule = SyntheticProblems.randomSchedule(problem, 42);
+        problemJson = JsonUtil.toJson(problem);
+        problemBytes = problemJson.getBytes(StandardCharsets.UTF_8);
+        scheduleJson = JsonUtil.toJson(schedule);
+    }
+
+    @Benchmark
+    public String serializeProblem() {
+        return JsonUtil.toJson(problem);
+    }
+
+    @Benchmark
+    public SchedulingProblem deserializeProblem() {
+        return JsonUtil.fromJson(problemJson, SchedulingProblem.class);
+    }
+
+    @Benchmark
+    public SchedulingProblem deserializeProblemFromStream() throws IOException {
+        return JsonUtil.fromJson(new ByteArrayInputStream(problemBytes), SchedulingProblem.class);
+    }
+
+    @Benchmark
+    public String serializeSchedule() {
+        return JsonUtil.toJson(schedule);
+    }
+
+    @Benchmark
+    public Schedule deserializeSchedule() {
+        return JsonUtil.fromJson(scheduleJson, Schedule.class);
+    }
+}
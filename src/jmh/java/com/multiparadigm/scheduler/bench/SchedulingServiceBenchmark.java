@@ -0,0 +1,73 @@
+package com.multiparadigm.scheduler.bench;
+
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.cache.SchedulingCaches;
+import com.multiparadigm.scheduler.exec.CommandResult;
+import com.multiparadigm.scheduler.exec.CommandRunner;
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.HaskellGAClient;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.service.SchedulingService;
+import com.multiparadigm.scheduler.util.JsonUtil;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import com.multiparadigm.scheduler.validation.PrologValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link SchedulingService#generateAndValidate} with the external engines replaced by stub runners
+ * that answer instantly with precomputed output. What remains is the Java-side overhead of a request:
+ * problem JSON and Prolog facts encoding, output parsing, hashing and caching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingServiceBenchmark {
+
+    @Param({ "10", "1000", "50000" })
+    public int lectures;
+
+    private SchedulingProblem problem;
+    private SchedulingService uncached;
+    private SchedulingService cached;
+
+    /** Answers every command with the same stdout, ignoring stdin. */
+    private record StubRunner(String stdout) implements CommandRunner {
+        @Override
+        public CommandResult run(List<String> command, String stdin, Duration timeout) {
+            return new CommandResult(0, stdout, "", false);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        problem = SyntheticProblems.generate(lectures, 0.8, 0.5, 42);
+        Schedule schedule = SyntheticProblems.randomSchedule(problem, 42);
+        String scheduleJson = JsonUtil.toJson(schedule);
+        String validationJson = JsonUtil.toJson(new JavaScheduleValidator().validate(problem, schedule));
+
+        HaskellGAClient ga = new HaskellGAClient(new StubRunner(scheduleJson), List.of("ga"), Duration.ofSeconds(10));
+        PrologValidator prolog = new PrologValidator(new StubRunner(validationJson), List.of("swipl"), Duration.ofSeconds(10));
+        uncached = SchedulingService.builder(ga, prolog).build();
+        ResultCache.Settings on = new ResultCache.Settings(true, 16, 0, null);
+        cached = SchedulingService.builder(ga, prolog).caches(SchedulingCaches.of(on, on)).build();
+    }
+
+    @Benchmark
+    public SchedulingService.Result generateAndValidate() {
+        return uncached.generateAndValidate(problem);
+    }
+
+    /** Seeded request answered from the result caches after the first call: hashing dominates. */
+    @Benchmark
+    public SchedulingService.Result generateAndValidateCached() {
+        return cached.generateAndValidate(problem, GenerationOptions.defaults().withSeed(1L));
+    }
+}
@@ -0,0 +1,95 @@
+package com.multiparadigm.scheduler.bench;
+
+import com.multiparadigm.scheduler.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of university-scale {@link SchedulingProblem}s for benchmarks.
+ * <p>
+ * The week has 5 days of 9 one-hour slots. Room count follows from the lecture count and
+ * {@code roomTightness} (expected share of room-slots that must be used: 0.5 is relaxed, 1.0 leaves no
+ * slack); room capacities and enrollments follow the same skewed size distribution, so large lectures
+ * compete for few large rooms. {@code courseClustering} controls how many lectures share a course
+ * (0 gives one lecture per course, 1 gives courses of about 20 lectures), i.e. how much same-course
+ * overlap pressure there is. Equal arguments always produce the same problem.
+ */
+public final class SyntheticProblems {
+    private static final String[] DAYS = { "MON", "TUE", "WED", "THU", "FRI" };
+    private static final int SLOTS_PER_DAY = 9;
+    private static final int[] SIZES = { 20, 30, 40, 60, 80, 120, 200, 300 };
+
+    private SyntheticProblems() {}
+
+    /**
+     * @param lectures number of lectures (e.g., 10 to 50,000)
+     * @param roomTightness lectures per available room-slot, in (0, 1]
+     * @param courseClustering knob in [0, 1] for the average course size, which is
+     *        {@code 1 + round(19 * courseClustering)} lectures: 0 gives one lecture per course, 1 about 20
+     * @param seed random seed
+     */
+    public static SchedulingProblem generate(int lectures, double roomTightness, double courseClustering, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<TimeSlot> timeSlots = new ArrayList<>(DAYS.length * SLOTS_PER_DAY);
+        for (String day : DAYS) {
+            for (int h = 0; h < SLOTS_PER_DAY; h++) {
+                int hour = 8 + h;
+                timeSlots.add(new TimeSlot(day + "-" + hour, day, pad(hour) + ":00", pad(hour + 1) + ":00"));
+            }
+        }
+
+        double tightness = Math.min(1.0, Math.max(0.05, roomTightness));
+        int roomCount = Math.max(1, (int) Math.ceil(lectures / (timeSlots.size() * tightness)));
+        List<Room> rooms = new ArrayList<>(roomCount);
+        for (int r = 0; r < roomCount; r++) {
+            rooms.add(new Room("R" + r, "Room " + r, size(random)));
+        }
+
+        double clustering = Math.min(1.0, Math.max(0.0, courseClustering));
+        int perCourse = 1 + (int) Math.round(clustering * 19);
+        int courseCount = Math.max(1, (lectures + perCourse - 1) / perCourse);
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            courses.add(new Course("C" + c, "Course " + c));
+        }
+
+        List<Lecture> lectureList = new ArrayList<>(lectures);
+        for (int l = 0; l < lectures; l++) {
+            int course = clustering == 0 ? l % courseCount : random.nextInt(courseCount);
+            int enrollment = Math.max(5, size(random) - random.nextInt(15));
+            lectureList.add(new Lecture("L" + l, "C" + course, "Lecture " + l, enrollment));
+        }
+        return new SchedulingProblem(courses, lectureList, rooms, timeSlots);
+    }
+
+    /**
+     * Random schedule for the problem, preferring rooms that are large enough, so it contains a realistic
+     * mix of capacity violations, double bookings and course overlaps.
+     */
+    public static Schedule randomSchedule(SchedulingProblem problem, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CompiledProblem compiled = CompiledProblem.of(problem);
+        int[] room = new int[compiled.lectureCount()];
+        int[] slot = new int[compiled.lectureCount()];
+        for (int l = 0; l < room.length; l++) {
+            int[] fits = compiled.feasibleRoomList(l);
+            room[l] = fits.length > 0 && random.nextInt(10) != 0
+                    ? fits[random.nextInt(fits.length)]
+                    : random.nextInt(compiled.roomCount());
+            slot[l] = random.nextInt(compiled.timeSlotCount());
+        }
+        return compiled.toSchedule(room, slot, null);
+    }
+
+    // Skewed towards small rooms and classes
+    private static int size(SplittableRandom random) {
+        double u = random.nextDouble();
+        return SIZES[(int) (u * u * SIZES.length)];
+    }
+
+    private static String pad(int hour) {
+        return hour < 10 ? "0" + hour : Integer.toString(hour);
+    }
+}
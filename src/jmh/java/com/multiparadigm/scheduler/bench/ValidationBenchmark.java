@@ -0,0 +1,86 @@
+package com.multiparadigm.scheduler.bench;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import com.multiparadigm.scheduler.validation.PrologValidator;
+import com.multiparadigm.scheduler.validation.ValidationSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation-side hot paths: compiling the problem, the in-JVM validator, building the Prolog facts sent to
+ * {@code swipl}, and opening an incremental validation session plus a single edit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({ "10", "1000", "50000" })
+    public int lectures;
+
+    @Param({ "0.6", "0.95" })
+    public double roomTightness;
+
+    @Param({ "0.2", "0.8" })
+    public double courseClustering;
+
+    private SchedulingProblem problem;
+    private CompiledProblem compiled;
+    private Schedule schedule;
+    private final JavaScheduleValidator validator = new JavaScheduleValidator();
+    private ValidationSession session;
+    private String movedLecture;
+    private String[] roomIds;
+    private String[] slotIds;
+    private int edit;
+
+    @Setup
+    public void setup() {
+        problem = SyntheticProblems.generate(lectures, roomTightness, courseClustering, 42);
+        compiled = CompiledProblem.of(problem);
+        schedule = SyntheticProblems.randomSchedule(problem, 7);
+        session = new ValidationSession("bench", problem, schedule);
+        movedLecture = problem.lectures().get(lectures / 2).id();
+        roomIds = problem.rooms().stream().map(r -> r.id()).toArray(String[]::new);
+        slotIds = problem.timeSlots().stream().map(t -> t.id()).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public CompiledProblem compileProblem() {
+        return CompiledProblem.of(problem);
+    }
+
+    @Benchmark
+    public ValidationResult javaValidator() {
+        return validator.validate(problem, schedule);
+    }
+
+    @Benchmark
+    public ValidationResult javaValidatorPrecompiled() {
+        return validator.validate(compiled, schedule);
+    }
+
+    @Benchmark
+    public String prologFacts() {
+        return PrologValidator.toFacts(problem, schedule);
+    }
+
+    @Benchmark
+    public ValidationSession openSession() {
+        return new ValidationSession("bench", problem, schedule);
+    }
+
+    @Benchmark
+    public ValidationSession.Delta sessionMove() {
+        int i = edit++;
+        return session.move(movedLecture, roomIds[i % roomIds.length], slotIds[(i / roomIds.length) % slotIds.length]);
+    }
+}
@@ -1,45 +1,363 @@
 package com.multiparadigm.scheduler;
 
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.cache.SchedulingCaches;
+import com.multiparadigm.scheduler.cache.SingleFlight;
+import com.multiparadigm.scheduler.exec.Bulkhead;
 import com.multiparadigm.scheduler.exec.CommandRunner;
 import com.multiparadigm.scheduler.exec.DefaultCommandRunner;
+import com.multiparadigm.scheduler.exec.ProcessWorkerPool;
+import com.multiparadigm.scheduler.exec.StreamingCommandRunner;
+import com.multiparadigm.scheduler.ga.BulkheadScheduleGenerator;
+import com.multiparadigm.scheduler.ga.DecomposingScheduleGenerator;
+import com.multiparadigm.scheduler.ga.GeneratorEngines;
 import com.multiparadigm.scheduler.ga.HaskellGAClient;
+import com.multiparadigm.scheduler.ga.IslandGeneticAlgorithm;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.ga.SizeRoutingScheduleGenerator;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.repair.MinConflictsRepair;
+import com.multiparadigm.scheduler.solver.BacktrackingSolver;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import com.multiparadigm.scheduler.store.SegmentLog;
+import com.multiparadigm.scheduler.validation.BulkheadScheduleValidator;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
 import com.multiparadigm.scheduler.validation.PrologValidator;
+import com.multiparadigm.scheduler.validation.ScheduleValidator;
+import com.multiparadigm.scheduler.validation.ShadowScheduleValidator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class ProjectConfig {
 
+    /**
+     * Per-stage timers and counters of the scheduling pipeline, published through Actuator
+     * ({@code /actuator/prometheus}).
+     */
     @Bean
-    public CommandRunner commandRunner() {
-        return new DefaultCommandRunner();
+    public SchedulerMetrics schedulerMetrics(MeterRegistry registry) {
+        return new SchedulerMetrics(registry);
+    }
+
+    @Bean
+    public CommandRunner commandRunner(
+            SchedulerMetrics metrics,
+            @Value("${app.process.runner:streaming}") String runner,
+            @Value("${app.process.max-output-bytes:67108864}") long maxOutputBytes
+    ) {
+        return switch (runner.trim().toLowerCase()) {
+            case "streaming" -> new StreamingCommandRunner(maxOutputBytes, metrics);
+            case "default" -> new DefaultCommandRunner();
+            default -> throw new IllegalArgumentException("Unknown app.process.runner: " + runner);
+        };
     }
 
     @Bean
     public HaskellGAClient haskellGAClient(
             CommandRunner runner,
+            SchedulerMetrics metrics,
             @Value("${app.haskell.ga.command:haskell/ga-exec}") String haskellCommand,
-            @Value("${app.process.timeout.seconds:10}") int timeoutSeconds
+            @Value("${app.process.timeout.seconds:10}") int timeoutSeconds,
+            @Value("${app.haskell.ga.mode:process}") String mode,
+            @Value("${app.haskell.ga.pool.command:haskell/ga-exec --serve}") String poolCommand,
+            @Value("${app.haskell.ga.pool.size:2}") int poolSize,
+            @Value("${app.haskell.ga.pool.max-jobs:0}") int maxJobs,
+            @Value("${app.haskell.ga.pool.health-check-interval.seconds:60}") int healthCheckSeconds,
+            @Value("${app.haskell.ga.pool.startup-timeout.seconds:300}") int startupTimeoutSeconds,
+            @Value("${app.haskell.ga.format:json}") String format,
+            @Value("${app.haskell.ga.anytime.enabled:false}") boolean anytime,
+            @Value("${app.haskell.ga.anytime.max-generations:500}") int anytimeGenerations
     ) {
+        if ("pool".equalsIgnoreCase(mode.trim())) {
+            // Resident workers answer with one final schedule line; there are no snapshots to fall back on
+            if (anytime) {
+                throw new IllegalArgumentException("app.haskell.ga.anytime.enabled requires app.haskell.ga.mode=process");
+            }
+            ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                    "Haskell GA",
+                    splitCommand(poolCommand),
+                    poolSize,
+                    maxJobs,
+                    Duration.ofSeconds(timeoutSeconds),
+                    HaskellGAClient.PROBE_REQUEST,
+                    Duration.ofSeconds(healthCheckSeconds),
+                    Duration.ofSeconds(startupTimeoutSeconds)
+            ));
+            HaskellGAClient client = new HaskellGAClient(pool, metrics);
+            // Warm up while the context boots so the first request does not pay stack/runghc startup;
+            // requests arriving earlier simply wait for a worker to become idle.
+            Thread.ofVirtual().name("haskell-ga-warmup").start(client::warmUp);
+            return client;
+        }
+        HaskellGAClient.Format wire = switch (format.trim().toLowerCase()) {
+            case "json" -> HaskellGAClient.Format.JSON;
+            case "cbor" -> HaskellGAClient.Format.CBOR;
+            default -> throw new IllegalArgumentException("Unknown app.haskell.ga.format: " + format);
+        };
+        if (wire == HaskellGAClient.Format.CBOR && !(runner instanceof StreamingCommandRunner)) {
+            throw new IllegalArgumentException("app.haskell.ga.format=cbor requires app.process.runner=streaming");
+        }
+        // Snapshots of a killed run only survive if stdout is read while the GA is running
+        if (anytime && !(runner instanceof StreamingCommandRunner)) {
+            throw new IllegalArgumentException("app.haskell.ga.anytime.enabled requires app.process.runner=streaming");
+        }
         List<String> cmd = splitCommand(haskellCommand);
-        return new HaskellGAClient(runner, cmd, Duration.ofSeconds(timeoutSeconds));
+        return new HaskellGAClient(runner, cmd, Duration.ofSeconds(timeoutSeconds), metrics, wire,
+                anytime ? new HaskellGAClient.Anytime(true, anytimeGenerations) : HaskellGAClient.Anytime.OFF);
     }
 
     @Bean
     public PrologValidator prologValidator(
             CommandRunner runner,
+            SchedulerMetrics metrics,
             @Value("${app.prolog.validator.command:swipl -q -s prolog/validator.pl -t main}") String prologCommand,
-            @Value("${app.process.timeout.seconds:10}") int timeoutSeconds
+            @Value("${app.process.timeout.seconds:10}") int timeoutSeconds,
+            @Value("${app.prolog.validator.mode:process}") String mode,
+            @Value("${app.prolog.validator.pool.command:swipl -q -s prolog/validator.pl -t serve}") String poolCommand,
+            @Value("${app.prolog.validator.pool.size:4}") int poolSize,
+            @Value("${app.prolog.validator.pool.max-jobs:500}") int maxJobs,
+            @Value("${app.prolog.validator.pool.health-check-interval.seconds:30}") int healthCheckSeconds,
+            @Value("${app.prolog.validator.batch.command:swipl -q -s prolog/validator.pl -t batch}") String batchCommand,
+            @Value("${app.prolog.validator.batch.parallelism:4}") int batchParallelism
     ) {
+        PrologValidator.Batch batch = new PrologValidator.Batch(runner, splitCommand(batchCommand), batchParallelism);
+        if ("pool".equalsIgnoreCase(mode.trim())) {
+            ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                    "Prolog validator",
+                    splitCommand(poolCommand),
+                    poolSize,
+                    maxJobs,
+                    Duration.ofSeconds(timeoutSeconds),
+                    PrologValidator.END_OF_REQUEST,
+                    Duration.ofSeconds(healthCheckSeconds)
+            ));
+            pool.start();
+            return new PrologValidator(pool, metrics, batch);
+        }
         List<String> cmd = splitCommand(prologCommand);
-        return new PrologValidator(runner, cmd, Duration.ofSeconds(timeoutSeconds));
+        return new PrologValidator(runner, cmd, Duration.ofSeconds(timeoutSeconds), metrics, batch);
+    }
+
+    /**
+     * In-JVM island-model GA; always available as the "java" engine for per-request engine selection.
+     */
+    @Bean
+    public IslandGeneticAlgorithm islandGeneticAlgorithm(
+            @Value("${app.ga.java.islands:0}") int islands,
+            @Value("${app.ga.java.population:60}") int population,
+            @Value("${app.ga.java.max-generations:500}") int maxGenerations,
+            @Value("${app.ga.java.migration-interval:20}") int migrationInterval,
+            @Value("${app.ga.java.migrants:2}") int migrants,
+            @Value("${app.ga.java.elite:2}") int elite,
+            @Value("${app.ga.java.mutations:1.0}") double mutations,
+            @Value("${app.ga.java.tournament:3}") int tournament,
+            @Value("${app.ga.java.time-budget.millis:5000}") long timeBudgetMillis,
+            @Value("${app.ga.java.plateau-generations:100}") int plateauGenerations,
+            @Value("${app.ga.java.parallelism:0}") int parallelism,
+            @Value("${app.ga.java.seed:#{null}}") Long seed
+    ) {
+        return new IslandGeneticAlgorithm(new IslandGeneticAlgorithm.Settings(
+                islands, population, maxGenerations, migrationInterval, migrants, elite, mutations, tournament,
+                Duration.ofMillis(timeBudgetMillis), plateauGenerations, parallelism, seed));
+    }
+
+    /**
+     * Exact bitset backtracking solver for small and medium problems; the "exact" engine and {@code /solve}.
+     */
+    @Bean
+    public BacktrackingSolver backtrackingSolver(
+            @Value("${app.solver.time-limit.millis:2000}") long timeLimitMillis,
+            @Value("${app.solver.restart-base:100}") int restartBase
+    ) {
+        return new BacktrackingSolver(new BacktrackingSolver.Settings(Duration.ofMillis(timeLimitMillis), restartBase));
+    }
+
+    /**
+     * Admission control shared by all generator engines: at most {@code max-concurrent} runs, up to
+     * {@code max-queued} waiting for {@code max-wait.millis}; 0 concurrent disables the limit.
+     */
+    @Bean
+    public Bulkhead generatorBulkhead(
+            SchedulerMetrics metrics,
+            @Value("${app.bulkhead.generator.max-concurrent:4}") int maxConcurrent,
+            @Value("${app.bulkhead.generator.max-queued:16}") int maxQueued,
+            @Value("${app.bulkhead.generator.max-wait.millis:5000}") long maxWaitMillis
+    ) {
+        return new Bulkhead(new Bulkhead.Settings("generator", maxConcurrent, maxQueued,
+                Duration.ofMillis(maxWaitMillis)), metrics);
+    }
+
+    /**
+     * Admission control for the configured validator engine, independent of the generator's, so a burst of
+     * GA runs cannot starve validation and vice versa.
+     */
+    @Bean
+    public Bulkhead validatorBulkhead(
+            SchedulerMetrics metrics,
+            @Value("${app.bulkhead.validator.max-concurrent:8}") int maxConcurrent,
+            @Value("${app.bulkhead.validator.max-queued:64}") int maxQueued,
+            @Value("${app.bulkhead.validator.max-wait.millis:2000}") long maxWaitMillis
+    ) {
+        return new Bulkhead(new Bulkhead.Settings("validator", maxConcurrent, maxQueued,
+                Duration.ofMillis(maxWaitMillis)), metrics);
+    }
+
+    /**
+     * Generator engines by name ("haskell", "java", "exact"), each optionally splitting problems into independent
+     * parts solved in parallel, every part behind the generator bulkhead (one permit per engine run), plus "auto",
+     * which sends problems of at most {@code app.generator.auto.max-lectures} lectures to "exact" and larger ones,
+     * or ones it times out on, to {@code app.generator.auto.fallback}; the primary one is {@code app.generator.engine}.
+     */
+    @Bean
+    public GeneratorEngines generatorEngines(
+            HaskellGAClient haskellGAClient,
+            IslandGeneticAlgorithm islandGeneticAlgorithm,
+            BacktrackingSolver backtrackingSolver,
+            Bulkhead generatorBulkhead,
+            @Value("${app.generator.engine:haskell}") String engine,
+            @Value("${app.generator.decomposition.enabled:false}") boolean decompose,
+            @Value("${app.generator.decomposition.max-parts:4}") int maxParts,
+            @Value("${app.generator.auto.max-lectures:300}") int autoMaxLectures,
+            @Value("${app.generator.auto.fallback:haskell}") String autoFallback
+    ) {
+        DecomposingScheduleGenerator.Settings decomposition = new DecomposingScheduleGenerator.Settings(decompose, maxParts);
+        Map<String, ScheduleGenerator> engines = new LinkedHashMap<>();
+        // Parts take their own permits, so the bulkhead keeps bounding concurrent engine runs (e.g. GHC processes)
+        engines.put("haskell", new DecomposingScheduleGenerator(
+                new BulkheadScheduleGenerator(haskellGAClient, generatorBulkhead), decomposition));
+        engines.put("java", new DecomposingScheduleGenerator(
+                new BulkheadScheduleGenerator(islandGeneticAlgorithm, generatorBulkhead), decomposition));
+        engines.put("exact", new DecomposingScheduleGenerator(
+                new BulkheadScheduleGenerator(backtrackingSolver, generatorBulkhead), decomposition));
+        ScheduleGenerator fallback = engines.get(autoFallback.trim().toLowerCase());
+        if (fallback == null) {
+            throw new IllegalArgumentException("Unknown app.generator.auto.fallback: " + autoFallback);
+        }
+        engines.put("auto", new SizeRoutingScheduleGenerator(engines.get("exact"), fallback, autoMaxLectures));
+        String primary = engine.trim().toLowerCase();
+        if (!engines.containsKey(primary)) {
+            throw new IllegalArgumentException("Unknown app.generator.engine: " + engine);
+        }
+        return new GeneratorEngines(primary, engines);
+    }
+
+    /**
+     * Generator used by the service: "haskell" (external GA process or pool), "java" (in-JVM island-model GA),
+     * "exact" (in-JVM backtracking solver) or "auto" (exact for small problems, a GA otherwise).
+     */
+    @Bean
+    @Primary
+    public ScheduleGenerator scheduleGenerator(GeneratorEngines engines) {
+        return engines.get(engines.primary());
+    }
+
+    /**
+     * Validator used by the service: "prolog" (external SWI-Prolog), "java" (in-JVM indexed validator),
+     * or "shadow" (serves the Prolog result and compares it against the Java validator, counting mismatches in
+     * {@code scheduler.validator.shadow.*}), behind the validator bulkhead.
+     */
+    @Bean
+    @Primary
+    public ScheduleValidator scheduleValidator(
+            PrologValidator prologValidator,
+            Bulkhead validatorBulkhead,
+            SchedulerMetrics metrics,
+            @Value("${app.validator.engine:prolog}") String engine
+    ) {
+        ScheduleValidator validator = switch (engine.trim().toLowerCase()) {
+            case "java" -> new JavaScheduleValidator();
+            case "shadow" -> {
+                ShadowScheduleValidator shadow = new ShadowScheduleValidator(prologValidator, new JavaScheduleValidator());
+                metrics.shadowValidator(shadow);
+                yield shadow;
+            }
+            case "prolog" -> prologValidator;
+            default -> throw new IllegalArgumentException("Unknown app.validator.engine: " + engine);
+        };
+        return new BulkheadScheduleValidator(validator, validatorBulkhead);
+    }
+
+    /**
+     * Min-conflicts/tabu repair of near-miss schedules ({@code /repair}, optional last stage of generate-and-validate)
+     * and warm-start rescheduling ({@code /reschedule}).
+     */
+    @Bean
+    public MinConflictsRepair minConflictsRepair(
+            @Value("${app.repair.time-budget.millis:200}") long timeBudgetMillis,
+            @Value("${app.repair.max-steps:200000}") int maxSteps,
+            @Value("${app.repair.tabu-tenure:7}") int tabuTenure,
+            @Value("${app.reschedule.move-penalty:0.5}") double movePenalty
+    ) {
+        return new MinConflictsRepair(new MinConflictsRepair.Settings(
+                Duration.ofMillis(timeBudgetMillis), maxSteps, tabuTenure, movePenalty));
+    }
+
+    /**
+     * Content-addressed result caches for generation (seeded runs only) and validation.
+     */
+    @Bean
+    public SchedulingCaches schedulingCaches(
+            SchedulerMetrics metrics,
+            @Value("${app.cache.generation.enabled:true}") boolean generationEnabled,
+            @Value("${app.cache.generation.max-entries:256}") int generationEntries,
+            @Value("${app.cache.generation.max-weight:200000}") long generationWeight,
+            @Value("${app.cache.generation.ttl.minutes:60}") long generationTtlMinutes,
+            @Value("${app.cache.validation.enabled:true}") boolean validationEnabled,
+            @Value("${app.cache.validation.max-entries:1024}") int validationEntries,
+            @Value("${app.cache.validation.max-weight:200000}") long validationWeight,
+            @Value("${app.cache.validation.ttl.minutes:60}") long validationTtlMinutes
+    ) {
+        SchedulingCaches caches = SchedulingCaches.of(
+                new ResultCache.Settings(generationEnabled, generationEntries, generationWeight,
+                        Duration.ofMinutes(generationTtlMinutes)),
+                new ResultCache.Settings(validationEnabled, validationEntries, validationWeight,
+                        Duration.ofMinutes(validationTtlMinutes)));
+        metrics.cache("generation", caches.generation());
+        metrics.cache("validation", caches.validation());
+        return caches;
+    }
+
+    /**
+     * Coalescing of identical concurrent generate/validate calls into one run, cancelled only when all its
+     * callers have gone.
+     */
+    @Bean
+    public SingleFlight requestCoalescing(SchedulerMetrics metrics,
+                                          @Value("${app.coalescing.enabled:true}") boolean enabled) {
+        SingleFlight flights = new SingleFlight(enabled);
+        metrics.singleFlight("requests", flights);
+        return flights;
+    }
+
+    /**
+     * Durable store for problems, schedules and finished jobs: an append-only segment log replayed at startup.
+     */
+    @Bean
+    public ScheduleStore scheduleStore(
+            @Value("${app.store.enabled:true}") boolean enabled,
+            @Value("${app.store.dir:data/store}") String dir,
+            @Value("${app.store.segment-bytes:67108864}") long segmentBytes,
+            @Value("${app.store.sync:true}") boolean sync,
+            @Value("${app.store.compaction.interval.seconds:300}") long compactionSeconds,
+            @Value("${app.store.compaction.min-garbage-ratio:0.5}") double minGarbageRatio
+    ) throws IOException {
+        if (!enabled) return ScheduleStore.disabled();
+        return ScheduleStore.open(new SegmentLog.Settings(Path.of(dir), segmentBytes, sync,
+                Duration.ofSeconds(compactionSeconds), minGarbageRatio));
     }
 
     @Bean
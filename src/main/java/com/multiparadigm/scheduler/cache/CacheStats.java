@@ -0,0 +1,25 @@
+package com.multiparadigm.scheduler.cache;
+
+/**
+ * Point-in-time counters of a {@link ResultCache}.
+ * @param hits lookups answered from the cache
+ * @param misses lookups that had to compute the value
+ * @param evictions entries dropped to respect the entry or weight bound
+ * @param expirations entries dropped because they outlived the TTL
+ * @param size current number of entries
+ * @param weight current total weight of all entries
+ */
+public record CacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long expirations,
+        int size,
+        long weight
+) {
+    /** Fraction of lookups served from the cache (0 when there were none). */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,73 @@
+package com.multiparadigm.scheduler.cache;
+
+import com.multiparadigm.scheduler.model.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Content hashes of problems and schedules that do not depend on list order, so that payloads which
+ * differ only in how their courses, lectures, rooms, time slots or assignments are ordered share a key.
+ * <p>
+ * Every element is serialized field by field with length prefixes (no separator ambiguity, nulls kept
+ * distinct from empty strings), each list is sorted by those encodings and the result is SHA-256 hashed.
+ */
+public final class CanonicalHash {
+    private CanonicalHash() {}
+
+    /** Hex SHA-256 of the problem, insensitive to the order of each of its lists. */
+    public static String of(SchedulingProblem problem) {
+        MessageDigest digest = sha256();
+        section(digest, "courses", problem.courses(), c -> fields(c.id(), c.name()));
+        section(digest, "lectures", problem.lectures(),
+                l -> fields(l.id(), l.courseId(), l.title(), Integer.toString(l.enrollment())));
+        section(digest, "rooms", problem.rooms(), r -> fields(r.id(), r.name(), Integer.toString(r.capacity())));
+        section(digest, "timeSlots", problem.timeSlots(), t -> fields(t.id(), t.day(), t.start(), t.end()));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hex SHA-256 of the schedule's assignments, insensitive to their order.
+     * The GA score is not part of the key: it does not influence validation.
+     */
+    public static String of(Schedule schedule) {
+        MessageDigest digest = sha256();
+        section(digest, "assignments", schedule.assignments(),
+                a -> fields(a.lectureId(), a.roomId(), a.timeSlotId()));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static <T> void section(MessageDigest digest, String name, List<T> items, Function<T, String> encode) {
+        List<String> encoded = new ArrayList<>(items == null ? 0 : items.size());
+        if (items != null) {
+            for (T item : items) encoded.add(item == null ? "~" : encode.apply(item));
+        }
+        encoded.sort(null);
+        digest.update(fields(name, Integer.toString(encoded.size())).getBytes(StandardCharsets.UTF_8));
+        for (String e : encoded) {
+            digest.update(e.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String fields(String... values) {
+        StringBuilder sb = new StringBuilder();
+        for (String v : values) {
+            if (v == null) sb.append('~');
+            else sb.append(v.length()).append(':').append(v);
+        }
+        return sb.append(';').toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
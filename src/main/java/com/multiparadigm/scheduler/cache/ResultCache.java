@@ -0,0 +1,145 @@
+package com.multiparadigm.scheduler.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-memory cache for computed results, evicting least-recently-used entries once either the
+ * entry count or the total weight exceeds its limit, and expiring entries after a time-to-live.
+ * <p>
+ * Values are computed outside the lock, so concurrent misses for the same key may both compute;
+ * the last one to finish wins. Failed computations are not cached.
+ */
+public class ResultCache<V> {
+
+    /**
+     * Cache configuration.
+     * @param enabled when false every lookup computes and nothing is stored
+     * @param maxEntries maximum number of entries
+     * @param maxWeight maximum total weight of all entries (0 or less means unbounded)
+     * @param ttl time an entry stays valid after it was stored (null or zero means forever)
+     */
+    public record Settings(
+            boolean enabled,
+            int maxEntries,
+            long maxWeight,
+            Duration ttl
+    ) {
+        public Settings {
+            maxEntries = Math.max(1, maxEntries);
+            maxWeight = maxWeight <= 0 ? Long.MAX_VALUE : maxWeight;
+            ttl = ttl == null || ttl.isNegative() || ttl.isZero() ? null : ttl;
+        }
+
+        /** Settings that turn caching off. */
+        public static Settings disabled() { return new Settings(false, 1, 0, null); }
+    }
+
+    private record Entry<V>(V value, long weight, long expiresAt) {}
+
+    private final Settings settings;
+    private final ToLongFunction<V> weigher;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public ResultCache(Settings settings, ToLongFunction<V> weigher) {
+        this(settings, weigher, System::nanoTime);
+    }
+
+    ResultCache(Settings settings, ToLongFunction<V> weigher, LongSupplier clock) {
+        this.settings = Objects.requireNonNull(settings);
+        this.weigher = Objects.requireNonNull(weigher);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public Settings settings() { return settings; }
+
+    /**
+     * Return the cached value for {@code key}, or compute, store and return it.
+     * Exceptions from {@code compute} propagate and leave the cache unchanged.
+     */
+    public V get(String key, Supplier<V> compute) {
+        if (!settings.enabled()) {
+            return compute.get();
+        }
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = compute.get();
+        if (value != null) put(key, value);
+        return value;
+    }
+
+    /** Return the cached value for {@code key}, or null (counted as a miss) if there is none. */
+    public V getIfPresent(String key) {
+        if (!settings.enabled()) return null;
+        synchronized (this) {
+            Entry<V> e = entries.get(key);
+            if (e != null && !expired(e)) {
+                hits++;
+                return e.value();
+            }
+            if (e != null) {
+                remove(key);
+                expirations++;
+            }
+            misses++;
+            return null;
+        }
+    }
+
+    /** Store a value, evicting older entries as needed. Values heavier than the weight limit are not stored. */
+    public void put(String key, V value) {
+        if (!settings.enabled()) return;
+        long w = Math.max(1, weigher.applyAsLong(value));
+        if (w > settings.maxWeight()) return;
+        long expiresAt = settings.ttl() == null ? Long.MAX_VALUE : clock.getAsLong() + settings.ttl().toNanos();
+        synchronized (this) {
+            remove(key);
+            entries.put(key, new Entry<>(value, w, expiresAt));
+            weight += w;
+            evictOverflow();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, expirations, entries.size(), weight);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry<V>>> it = entries.entrySet().iterator();
+        while ((entries.size() > settings.maxEntries() || weight > settings.maxWeight()) && it.hasNext()) {
+            Entry<V> eldest = it.next().getValue();
+            it.remove();
+            weight -= eldest.weight();
+            if (expired(eldest)) expirations++;
+            else evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        Entry<V> old = entries.remove(key);
+        if (old != null) weight -= old.weight();
+    }
+
+    private boolean expired(Entry<V> e) {
+        return e.expiresAt() != Long.MAX_VALUE && clock.getAsLong() - e.expiresAt() >= 0;
+    }
+}
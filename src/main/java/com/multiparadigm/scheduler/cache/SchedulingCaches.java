@@ -0,0 +1,42 @@
+package com.multiparadigm.scheduler.cache;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+import java.util.Objects;
+
+/**
+ * The result caches used by the scheduling service, one per operation.
+ * @param generation generated schedules, keyed by problem hash and seed; weighted by assignment count
+ * @param validation validation results, keyed by problem and schedule hash; weighted by violation count
+ */
+public record SchedulingCaches(
+        ResultCache<Schedule> generation,
+        ResultCache<ValidationResult> validation
+) {
+    public SchedulingCaches {
+        Objects.requireNonNull(generation);
+        Objects.requireNonNull(validation);
+    }
+
+    public static SchedulingCaches of(ResultCache.Settings generation, ResultCache.Settings validation) {
+        return new SchedulingCaches(
+                new ResultCache<>(generation, s -> 1L + (s.assignments() == null ? 0 : s.assignments().size())),
+                new ResultCache<>(validation, v -> 1L + (v.violations() == null ? 0 : v.violations().size())));
+    }
+
+    /** Caches that never store anything. */
+    public static SchedulingCaches disabled() {
+        return of(ResultCache.Settings.disabled(), ResultCache.Settings.disabled());
+    }
+
+    /** Key of a seeded generation run. */
+    public static String generationKey(String problemHash, long seed) {
+        return problemHash + ":" + seed;
+    }
+
+    /** Key of a validation run. */
+    public static String validationKey(String problemHash, String scheduleHash) {
+        return problemHash + ":" + scheduleHash;
+    }
+}
@@ -0,0 +1,119 @@
+package com.multiparadigm.scheduler.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent computations: the first caller of a key starts the work on a thread of its own,
+ * and every caller arriving before it finishes waits for the same result (or exception) instead of starting the
+ * work again.
+ * <p>
+ * Cancellation is reference-counted: a caller interrupted while waiting detaches, and the work is cancelled (its
+ * thread interrupted, which kills external processes) only when the last waiter has gone. Callers must therefore
+ * be interruptible when their client gives up; the REST endpoints wait on a thread of their own per request and
+ * interrupt it when the request times out or fails. Nothing is kept once
+ * the work has finished; remembering results is left to {@link ResultCache}. When disabled, every call computes
+ * on the caller's thread.
+ */
+public class SingleFlight {
+
+    /**
+     * @param started computations started
+     * @param joined calls that waited for a computation another call had started
+     * @param cancelled computations cancelled because all their waiters had gone
+     * @param inFlight computations running now
+     */
+    public record Stats(long started, long joined, long cancelled, int inFlight) {}
+
+    private static final class Flight {
+        private FutureTask<Object> task;
+        private int waiters = 1;
+    }
+
+    private final boolean enabled;
+    private final Map<String, Flight> flights = new HashMap<>();
+    private long started;
+    private long joined;
+    private long cancelled;
+
+    public SingleFlight() {
+        this(true);
+    }
+
+    public SingleFlight(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static SingleFlight disabled() {
+        return new SingleFlight(false);
+    }
+
+    public boolean enabled() { return enabled; }
+
+    /**
+     * Run {@code work} for {@code key}, or wait for the run already in flight for it.
+     * @throws RuntimeException whatever the work threw, or if this caller was interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V call(String key, Supplier<V> work) {
+        if (!enabled) return work.get();
+        Flight flight;
+        boolean leader = false;
+        synchronized (this) {
+            flight = flights.get(key);
+            if (flight != null) {
+                flight.waiters++;
+                joined++;
+            } else {
+                Flight created = new Flight();
+                created.task = new FutureTask<>(() -> {
+                    try {
+                        return work.get();
+                    } finally {
+                        finished(key, created);
+                    }
+                });
+                flight = created;
+                flights.put(key, flight);
+                started++;
+                leader = true;
+            }
+        }
+        if (leader) Thread.ofVirtual().name("single-flight").start(flight.task);
+        try {
+            return (V) flight.task.get();
+        } catch (InterruptedException e) {
+            leave(key, flight);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a shared computation", e);
+        } catch (CancellationException e) {
+            throw new RuntimeException("Shared computation was cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException r) throw r;
+            if (cause instanceof Error err) throw err;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(started, joined, cancelled, flights.size());
+    }
+
+    /** Detach a waiter; the last one to leave cancels the work. */
+    private synchronized void leave(String key, Flight flight) {
+        if (--flight.waiters > 0 || flight.task.isDone()) return;
+        // Later callers start afresh rather than join a cancelled run
+        flights.remove(key, flight);
+        cancelled++;
+        flight.task.cancel(true);
+    }
+
+    private synchronized void finished(String key, Flight flight) {
+        flights.remove(key, flight);
+    }
+}
@@ -0,0 +1,119 @@
+package com.multiparadigm.scheduler.exec;
+
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency limit for one engine with a bounded, deadline-limited wait queue.
+ * <p>
+ * At most {@code maxConcurrent} calls run at once; up to {@code maxQueued} more wait in FIFO order for at most
+ * {@code maxWait}. Calls arriving at a full queue, or still waiting at the deadline, are rejected with a
+ * {@link BulkheadRejectedException} whose retry hint is derived from the recent average call duration and the
+ * queue depth, so that bursts are shed quickly instead of piling up processes and latency.
+ * Queue depth, active calls, wait time and rejections are recorded as metrics.
+ */
+public class Bulkhead {
+
+    /**
+     * @param name metric tag and error-message label (e.g. "generator")
+     * @param maxConcurrent maximum concurrent calls (0 or less disables the bulkhead)
+     * @param maxQueued maximum number of waiting calls (0 rejects whenever all permits are taken)
+     * @param maxWait longest time a call may wait for a permit
+     */
+    public record Settings(String name, int maxConcurrent, int maxQueued, Duration maxWait) {
+        public Settings {
+            Objects.requireNonNull(name);
+            maxQueued = Math.max(0, maxQueued);
+            maxWait = maxWait == null ? Duration.ZERO : maxWait;
+        }
+
+        public boolean enabled() { return maxConcurrent > 0; }
+    }
+
+    // Weight of the newest sample in the moving average of call durations
+    private static final double ALPHA = 0.2;
+
+    private final Settings settings;
+    private final SchedulerMetrics metrics;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile double averageNanos;
+
+    public Bulkhead(Settings settings, SchedulerMetrics metrics) {
+        this.settings = Objects.requireNonNull(settings);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.permits = new Semaphore(Math.max(1, settings.maxConcurrent()), true);
+        if (settings.enabled()) metrics.bulkhead(this);
+    }
+
+    public Settings settings() { return settings; }
+
+    /** Calls currently waiting for a permit. */
+    public int queued() { return queued.get(); }
+
+    /** Calls currently running. */
+    public int active() { return active.get(); }
+
+    /**
+     * Run {@code task} once a permit is available.
+     * @throws BulkheadRejectedException if the queue is full or the wait exceeds {@code maxWait}
+     */
+    public <T> T call(Supplier<T> task) {
+        if (!settings.enabled()) return task.get();
+        long start = System.nanoTime();
+        acquire();
+        metrics.bulkheadWait(settings.name(), System.nanoTime() - start);
+        active.incrementAndGet();
+        long started = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+            long took = System.nanoTime() - started;
+            double avg = averageNanos;
+            averageNanos = avg == 0 ? took : avg + ALPHA * (took - avg);
+        }
+    }
+
+    private void acquire() {
+        try {
+            // A zero-timeout tryAcquire honours fairness, so arrivals do not overtake waiting calls
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) return;
+            if (queued.incrementAndGet() > settings.maxQueued()) {
+                queued.decrementAndGet();
+                throw reject("queue is full", true);
+            }
+            try {
+                if (!permits.tryAcquire(settings.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw reject("timed out after " + settings.maxWait().toMillis() + " ms in queue", false);
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(settings.name() + " bulkhead interrupted while waiting", e);
+        }
+    }
+
+    private BulkheadRejectedException reject(String reason, boolean queueFull) {
+        metrics.bulkheadRejected(settings.name(), queueFull ? "queue_full" : "wait_timeout");
+        return new BulkheadRejectedException("Too many concurrent " + settings.name() + " requests: " + reason,
+                retryAfter(), queueFull);
+    }
+
+    /** Time for the calls ahead (running and queued) to drain at the recent average pace. */
+    private Duration retryAfter() {
+        double ahead = (double) (queued.get() + 1) / Math.max(1, settings.maxConcurrent());
+        long seconds = (long) Math.ceil(averageNanos * ahead / 1e9);
+        return Duration.ofSeconds(Math.max(1, seconds));
+    }
+}
@@ -0,0 +1,24 @@
+package com.multiparadigm.scheduler.exec;
+
+import java.time.Duration;
+
+/**
+ * Raised when a {@link Bulkhead} turns a call away, either because its wait queue is full or because the
+ * call waited longer than the queue-time deadline. Carries a hint for when to retry.
+ */
+public class BulkheadRejectedException extends RuntimeException {
+    private final Duration retryAfter;
+    private final boolean queueFull;
+
+    public BulkheadRejectedException(String message, Duration retryAfter, boolean queueFull) {
+        super(message);
+        this.retryAfter = retryAfter;
+        this.queueFull = queueFull;
+    }
+
+    /** Suggested delay before retrying (at least one second). */
+    public Duration retryAfter() { return retryAfter; }
+
+    /** True if the queue was full on arrival, false if the queue-time deadline passed. */
+    public boolean queueFull() { return queueFull; }
+}
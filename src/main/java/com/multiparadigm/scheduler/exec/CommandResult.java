@@ -6,5 +6,10 @@ package com.multiparadigm.scheduler.exec;
  * @param stdout captured standard output (UTF-8)
  * @param stderr captured standard error (UTF-8)
  * @param timedOut true if the process was forcibly terminated due to timeout
+ * @param outputLimitExceeded true if the process was killed because it wrote more than the runner's output limit
  */
-public record CommandResult(int exitCode, String stdout, String stderr, boolean timedOut) {}
+public record CommandResult(int exitCode, String stdout, String stderr, boolean timedOut, boolean outputLimitExceeded) {
+    public CommandResult(int exitCode, String stdout, String stderr, boolean timedOut) {
+        this(exitCode, stdout, stderr, timedOut, false);
+    }
+}
@@ -1,5 +1,8 @@
 package com.multiparadigm.scheduler.exec;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 
@@ -15,4 +18,32 @@ public interface CommandRunner {
      * @return result with exit code, stdout, stderr, and timeout flag
      */
     CommandResult run(List<String> command, String stdin, Duration timeout) throws Exception;
+
+    /**
+     * Execute a command and hand its stdout to {@code handler} instead of collecting it into a string.
+     * The default implementation buffers the output via {@link #run} and invokes the handler only for a
+     * successful run (exit code 0, no timeout); streaming implementations feed the live stream.
+     */
+    default <T> StreamedCommandResult<T> runStreaming(List<String> command, String stdin, Duration timeout,
+                                                      StdoutHandler<T> handler) throws Exception {
+        CommandResult r = run(command, stdin, timeout);
+        T value = null;
+        if (!r.timedOut() && !r.outputLimitExceeded() && r.exitCode() == 0) {
+            String out = r.stdout() == null ? "" : r.stdout();
+            value = handler.handle(new ByteArrayInputStream(out.getBytes(StandardCharsets.UTF_8)));
+        }
+        return new StreamedCommandResult<>(r.exitCode(), value, r.stderr(), r.timedOut(), r.outputLimitExceeded());
+    }
+
+    /**
+     * Like {@link #runStreaming(List, String, Duration, StdoutHandler)}, with stdin produced by a writer.
+     * The default implementation renders the input into memory and passes it on as UTF-8 text, so it is
+     * only suitable for text protocols; streaming implementations write to the pipe directly.
+     */
+    default <T> StreamedCommandResult<T> runPiped(List<String> command, StdinWriter stdin, Duration timeout,
+                                                  StdoutHandler<T> handler) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        stdin.write(buffer);
+        return runStreaming(command, buffer.toString(StandardCharsets.UTF_8), timeout, handler);
+    }
 }
@@ -0,0 +1,360 @@
+package com.multiparadigm.scheduler.exec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pool of long-lived external worker processes speaking a line-framed request/response protocol:
+ * the caller writes one request to the worker's stdin and the worker answers with exactly one line on stdout.
+ * <p>
+ * Workers are spawned lazily up to {@code size} (or eagerly via {@link #start()}), recycled after
+ * {@code maxJobsPerWorker} jobs or on any error, and killed and replaced when they do not answer within
+ * the per-job timeout. Idle workers are periodically probed with a health-check request.
+ */
+public class ProcessWorkerPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ProcessWorkerPool.class);
+
+    /**
+     * Pool configuration.
+     * @param name human-readable name used in error messages (e.g., "Prolog validator")
+     * @param command worker command and arguments
+     * @param size maximum number of live workers
+     * @param maxJobsPerWorker number of jobs after which a worker is recycled (0 or less disables recycling)
+     * @param timeout maximum time one exchange may take, waiting for a free worker and a retry included
+     * @param healthCheckRequest request sent to idle workers during health checks (null disables probing)
+     * @param healthCheckInterval interval between health checks (null or zero disables the scheduler)
+     * @param startupTimeout time allowed for a worker's first job, which includes process startup
+     *                       (null means the same as {@code timeout})
+     */
+    public record Settings(
+            String name,
+            List<String> command,
+            int size,
+            int maxJobsPerWorker,
+            Duration timeout,
+            String healthCheckRequest,
+            Duration healthCheckInterval,
+            Duration startupTimeout
+    ) {
+        public Settings {
+            Objects.requireNonNull(name);
+            command = List.copyOf(command);
+            size = Math.max(1, size);
+            timeout = timeout == null ? Duration.ofSeconds(10) : timeout;
+            startupTimeout = startupTimeout == null || startupTimeout.compareTo(timeout) < 0 ? timeout : startupTimeout;
+        }
+
+        public Settings(String name, List<String> command, int size, int maxJobsPerWorker, Duration timeout,
+                        String healthCheckRequest, Duration healthCheckInterval) {
+            this(name, command, size, maxJobsPerWorker, timeout, healthCheckRequest, healthCheckInterval, null);
+        }
+    }
+
+    private final Settings settings;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService healthChecker;
+    private volatile boolean open = true;
+
+    public ProcessWorkerPool(Settings settings) {
+        this.settings = Objects.requireNonNull(settings);
+        Duration interval = settings.healthCheckInterval();
+        if (settings.healthCheckRequest() != null && interval != null && !interval.isZero() && !interval.isNegative()) {
+            this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "worker-pool-health");
+                t.setDaemon(true);
+                return t;
+            });
+            long millis = interval.toMillis();
+            this.healthChecker.scheduleWithFixedDelay(this::healthCheck, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.healthChecker = null;
+        }
+    }
+
+    public Settings settings() { return settings; }
+
+    /** Number of workers currently alive (idle or busy). */
+    public int liveWorkers() { return live.get(); }
+
+    /** Number of workers currently waiting for a job. */
+    public int idleWorkers() { return idle.size(); }
+
+    /**
+     * Eagerly spawn workers up to the configured size so the first requests do not pay process startup.
+     */
+    public void start() {
+        while (open && tryReserve()) {
+            Worker w = spawnOrRelease();
+            if (w == null) break;
+            idle.offer(w);
+        }
+    }
+
+    /**
+     * Spawn all workers and push the health-check request through each of them, so that runtime
+     * initialisation (interpreters, compilation, library loading) is paid before the first real job.
+     */
+    public void warmUp() {
+        start();
+        healthCheck();
+    }
+
+    /**
+     * Send a request to a worker and return its single-line answer unchanged.
+     * @throws RuntimeException on timeout, worker failure, or when no worker becomes available in time
+     */
+    public String exchange(String request) {
+        return exchange(request, Function.identity());
+    }
+
+    /**
+     * Send a request to a worker and convert its single-line answer with the given handler.
+     * If the handler throws, the worker is considered unhealthy and is recycled before the exception propagates.
+     * @throws RuntimeException on timeout, worker failure, or when no worker becomes available in time
+     */
+    public <T> T exchange(String request, Function<String, T> handler) {
+        return exchange(request, null, handler);
+    }
+
+    /**
+     * Like {@link #exchange(String, Function)}, but with a per-call time limit that replaces the configured
+     * timeout: the wait for a free worker, the job and a retry after a worker died all share it. Only a freshly
+     * spawned worker's first job may take up to {@code startupTimeout} instead, so short limits cannot keep
+     * killing workers that are still starting. A worker that misses its limit is killed.
+     * @param timeout per-call limit, or null for the pool's configured timeout
+     */
+    public <T> T exchange(String request, Duration timeout, Function<String, T> handler) {
+        return exchange(StdinWriter.of(request), timeout, handler);
+    }
+
+    /**
+     * Like {@link #exchange(String, Duration, Function)}, but the request is encoded straight into the worker's
+     * stdin. The writer must produce one complete request and may be invoked again on a fresh worker when the
+     * first one turns out to have died; the worker's stdin stays open afterwards.
+     */
+    public <T> T exchange(StdinWriter request, Duration timeout, Function<String, T> handler) {
+        long deadline = System.nanoTime() + (timeout != null ? timeout : settings.timeout()).toNanos();
+        Worker worker;
+        String line;
+        // A worker that died while idle is only noticed once we talk to it; requests are idempotent,
+        // so retry once on a fresh worker before reporting the failure.
+        for (int attempt = 1; ; attempt++) {
+            try {
+                worker = borrow(deadline);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(settings.name() + " interrupted while waiting for a worker", e);
+            }
+            try {
+                line = worker.exchange(request, deadline);
+                break;
+            } catch (WorkerExitedException e) {
+                discard(worker);
+                if (attempt >= 2) throw e;
+            } catch (RuntimeException e) {
+                discard(worker);
+                throw e;
+            }
+        }
+        T value;
+        try {
+            value = handler.apply(line);
+        } catch (RuntimeException e) {
+            discard(worker);
+            throw e;
+        }
+        release(worker);
+        return value;
+    }
+
+    /**
+     * Probe every currently idle worker with the health-check request, replacing the ones that fail.
+     */
+    public void healthCheck() {
+        if (settings.healthCheckRequest() == null) return;
+        List<Worker> batch = new ArrayList<>();
+        idle.drainTo(batch);
+        for (Worker w : batch) {
+            if (!open) {
+                discard(w);
+                continue;
+            }
+            try {
+                String answer = w.exchange(settings.healthCheckRequest());
+                if (answer == null || answer.isBlank()) {
+                    throw new IllegalStateException("empty health-check answer");
+                }
+                idle.offer(w);
+            } catch (RuntimeException e) {
+                log.warn("{} worker failed health check, replacing: {}", settings.name(), e.getMessage());
+                discard(w);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        if (healthChecker != null) healthChecker.shutdownNow();
+        Worker w;
+        while ((w = idle.poll()) != null) {
+            w.destroy();
+            live.decrementAndGet();
+        }
+        io.shutdownNow();
+    }
+
+    private Worker borrow(long deadline) throws InterruptedException {
+        while (true) {
+            if (!open) throw new IllegalStateException(settings.name() + " pool is closed");
+            Worker w = idle.poll();
+            if (w == null && tryReserve()) {
+                w = spawnOrRelease();
+                if (w == null) {
+                    throw new RuntimeException("Failed to start " + settings.name() + " worker");
+                }
+            }
+            if (w == null) {
+                long remaining = deadline - System.nanoTime();
+                w = remaining > 0 ? idle.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (w == null) {
+                    throw new RuntimeException(settings.name() + " timed out waiting for a free worker");
+                }
+            }
+            if (w.isAlive()) return w;
+            discard(w);
+        }
+    }
+
+    private void release(Worker w) {
+        if (!open) {
+            discard(w);
+        } else if (settings.maxJobsPerWorker() > 0 && w.jobs >= settings.maxJobsPerWorker()) {
+            discard(w);
+        } else {
+            idle.offer(w);
+        }
+    }
+
+    /** Kill a worker and asynchronously spawn a replacement so the pool stays warm. */
+    private void discard(Worker w) {
+        w.destroy();
+        live.decrementAndGet();
+        if (open) {
+            io.execute(this::replenish);
+        }
+    }
+
+    private void replenish() {
+        if (open && tryReserve()) {
+            Worker w = spawnOrRelease();
+            if (w != null) {
+                if (open) idle.offer(w);
+                else {
+                    w.destroy();
+                    live.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int n = live.get();
+            if (n >= settings.size()) return false;
+            if (live.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    private Worker spawnOrRelease() {
+        try {
+            ProcessBuilder pb = new ProcessBuilder(settings.command());
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            return new Worker(pb.start());
+        } catch (IOException e) {
+            live.decrementAndGet();
+            log.warn("Failed to start {} worker: {}", settings.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    private final class Worker {
+        private final Process process;
+        private final OutputStream in;
+        private final BufferedReader out;
+        private int jobs;
+
+        Worker(Process process) {
+            this.process = process;
+            this.in = process.getOutputStream();
+            this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        boolean isAlive() { return process.isAlive(); }
+
+        /**
+         * Write the request and read one line; both happen on a virtual thread so a hung worker
+         * (full pipe or no answer) can be abandoned after the timeout and killed.
+         */
+        String exchange(String request) {
+            return exchange(StdinWriter.of(request), System.nanoTime() + settings.timeout().toNanos());
+        }
+
+        /** Like {@link #exchange(String)}, answering by {@code deadline} ({@link System#nanoTime()}). */
+        String exchange(StdinWriter request, long deadline) {
+            Future<String> f = io.submit(() -> {
+                request.write(in);
+                in.flush();
+                return out.readLine();
+            });
+            long limit = deadline - System.nanoTime();
+            if (jobs == 0) limit = Math.max(limit, settings.startupTimeout().toNanos());
+            String line;
+            try {
+                line = f.get(Math.max(0, limit), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                f.cancel(true);
+                throw new RuntimeException(settings.name() + " worker timed out");
+            } catch (InterruptedException e) {
+                f.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(settings.name() + " interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                if (cause instanceof IOException) {
+                    throw new WorkerExitedException(settings.name() + " worker failed: " + cause.getMessage());
+                }
+                throw new RuntimeException(settings.name() + " worker failed: " + cause.getMessage(), cause);
+            }
+            if (line == null) {
+                throw new WorkerExitedException(settings.name() + " worker exited unexpectedly");
+            }
+            jobs++;
+            return line;
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+
+    /** Raised when a worker's pipes are closed before it answered, i.e. the process has died. */
+    private static final class WorkerExitedException extends RuntimeException {
+        WorkerExitedException(String message) { super(message); }
+    }
+}
@@ -0,0 +1,26 @@
+package com.multiparadigm.scheduler.exec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Produces a process's standard input by writing straight to the pipe, e.g. an encoder that renders
+ * a request without first materializing it as a {@link String}.
+ */
+@FunctionalInterface
+public interface StdinWriter {
+    /**
+     * Write the whole input. The stream is not buffered by the runner, so implementations should write in large
+     * chunks. Runners close it after this returns, while a {@link ProcessWorkerPool} keeps a worker's stdin open
+     * for its next request; implementations must not close it themselves.
+     */
+    void write(OutputStream stdin) throws IOException;
+
+    /** Writer for a text input encoded as UTF-8 (nothing for null). */
+    static StdinWriter of(String text) {
+        return out -> {
+            if (text != null) out.write(text.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.multiparadigm.scheduler.exec;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes a process's standard output as it is produced, e.g. by feeding it straight into a JSON parser.
+ * @param <T> type of the value parsed from stdout
+ */
+@FunctionalInterface
+public interface StdoutHandler<T> {
+    /**
+     * Read (part of) the stream and return the parsed value. Bytes left unread are drained by the runner.
+     */
+    T handle(InputStream stdout) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.multiparadigm.scheduler.exec;
+
+/**
+ * Result of a command whose stdout was consumed incrementally by a {@link StdoutHandler}.
+ * @param exitCode process exit code (undefined if timedOut=true)
+ * @param value value produced by the handler (null if the process timed out, failed, or exceeded the output limit)
+ * @param stderr captured standard error (UTF-8)
+ * @param timedOut true if the process was forcibly terminated due to timeout
+ * @param outputLimitExceeded true if the process was killed because it wrote more than the runner's output limit
+ * @param <T> handler result type
+ */
+public record StreamedCommandResult<T>(int exitCode, T value, String stderr, boolean timedOut, boolean outputLimitExceeded) {}
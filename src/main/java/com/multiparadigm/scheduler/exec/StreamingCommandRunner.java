@@ -0,0 +1,241 @@
+package com.multiparadigm.scheduler.exec;
+
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link CommandRunner} that writes stdin and drains stdout/stderr concurrently on virtual threads.
+ * <p>
+ * Unlike {@link DefaultCommandRunner}, stdin is written on its own thread while both output streams are
+ * already being drained, so a process that produces output before consuming all of its input cannot
+ * deadlock on a full pipe. Output is read as raw bytes and decoded once; a process writing more than
+ * {@code maxOutputBytes} to either stream is killed and reported with {@code outputLimitExceeded}.
+ * {@link #runStreaming} hands the live stdout stream to a parser instead of buffering it, and {@link #runPiped}
+ * additionally lets a {@link StdinWriter} encode the request straight into the stdin pipe.
+ * On timeout or interruption the whole process tree is killed.
+ * <p>
+ * Each run records spawn time, time to the first stdout byte ({@code compute}), time from the first byte
+ * until the handler is done ({@code read}), the outcome and the output sizes, tagged with the executable name.
+ */
+public class StreamingCommandRunner implements CommandRunner {
+    /** Default per-stream output limit (64 MiB). */
+    public static final long DEFAULT_MAX_OUTPUT_BYTES = 64L * 1024 * 1024;
+
+    // Extra time granted to the drains after the process has exited (pipes may still hold buffered data)
+    private static final long DRAIN_GRACE_MILLIS = 2_000;
+
+    private static final ExecutorService IO = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long maxOutputBytes;
+    private final SchedulerMetrics metrics;
+
+    public StreamingCommandRunner() {
+        this(DEFAULT_MAX_OUTPUT_BYTES);
+    }
+
+    public StreamingCommandRunner(long maxOutputBytes) {
+        this(maxOutputBytes, SchedulerMetrics.NOOP);
+    }
+
+    public StreamingCommandRunner(long maxOutputBytes, SchedulerMetrics metrics) {
+        this.maxOutputBytes = maxOutputBytes > 0 ? maxOutputBytes : Long.MAX_VALUE;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CommandResult run(List<String> command, String stdin, Duration timeout) throws Exception {
+        StreamedCommandResult<byte[]> r = runStreaming(command, stdin, timeout, InputStream::readAllBytes);
+        String stdout = r.value() == null ? "" : new String(r.value(), StandardCharsets.UTF_8);
+        return new CommandResult(r.exitCode(), stdout, r.stderr(), r.timedOut(), r.outputLimitExceeded());
+    }
+
+    @Override
+    public <T> StreamedCommandResult<T> runStreaming(List<String> command, String stdin, Duration timeout,
+                                                     StdoutHandler<T> handler) throws Exception {
+        return runPiped(command, StdinWriter.of(stdin), timeout, handler);
+    }
+
+    @Override
+    public <T> StreamedCommandResult<T> runPiped(List<String> command, StdinWriter stdin, Duration timeout,
+                                                 StdoutHandler<T> handler) throws Exception {
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        String name = executableName(command);
+        Process process = new ProcessBuilder(command).start();
+        long spawned = System.nanoTime();
+        metrics.processStage(name, "spawn", spawned - started);
+        AtomicBoolean overflow = new AtomicBoolean();
+        Runnable onOverflow = () -> {
+            if (overflow.compareAndSet(false, true)) destroyTree(process);
+        };
+        try {
+            LimitedInputStream out = new LimitedInputStream(process.getInputStream(), maxOutputBytes, onOverflow);
+            LimitedInputStream err = new LimitedInputStream(process.getErrorStream(), maxOutputBytes, onOverflow);
+            Future<T> outFuture = IO.submit(() -> {
+                try {
+                    return handler.handle(out);
+                } finally {
+                    out.drain();
+                    if (out.firstByteAt != 0) {
+                        metrics.processStage(name, "compute", out.firstByteAt - spawned);
+                        metrics.processStage(name, "read", System.nanoTime() - out.firstByteAt);
+                    }
+                }
+            });
+            Future<byte[]> errFuture = IO.submit(err::readAllBytes);
+            Future<?> inFuture = IO.submit(() -> writeStdin(process, stdin));
+
+            boolean finished = process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!finished) {
+                destroyTree(process);
+            }
+            boolean timedOut = !finished;
+            int exit = finished ? process.exitValue() : -1;
+
+            long drainMillis = Math.max(DRAIN_GRACE_MILLIS, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            byte[] errBytes = awaitQuietly(errFuture, drainMillis);
+            String stderr = errBytes == null ? "" : new String(errBytes, StandardCharsets.UTF_8);
+
+            // Output of a killed process is truncated; a failed run may still print diagnostics on stdout
+            T value = null;
+            boolean cutOff = timedOut || overflow.get();
+            boolean failed = cutOff || exit != 0;
+            String outcome = timedOut ? "timeout" : overflow.get() ? "output_limit" : exit != 0 ? "exit_nonzero" : "ok";
+            try {
+                // I/O errors on stdin are swallowed by writeStdin; anything else is a bug in the writer
+                Throwable writeFailure = failure(inFuture, drainMillis);
+                if (writeFailure != null) {
+                    outcome = "error";
+                    throw new RuntimeException("Failed to write process input: " + writeFailure.getMessage(), writeFailure);
+                }
+                value = outFuture.get(drainMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (!failed) {
+                    outcome = "error";
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    throw new RuntimeException("Failed to read process output: " + cause.getMessage(), cause);
+                }
+            } catch (TimeoutException e) {
+                outFuture.cancel(true);
+                destroyTree(process);
+                if (!failed) {
+                    outcome = "error";
+                    throw new RuntimeException("Timed out reading process output");
+                }
+            } finally {
+                metrics.process(name, outcome, System.nanoTime() - started, out.count, err.count);
+            }
+            return new StreamedCommandResult<>(exit, cutOff ? null : value, stderr, timedOut, overflow.get());
+        } finally {
+            if (process.isAlive()) destroyTree(process);
+        }
+    }
+
+    private static void writeStdin(Process process, StdinWriter stdin) {
+        try (OutputStream os = process.getOutputStream()) {
+            stdin.write(os);
+        } catch (IOException ignored) {
+            // The process closed its stdin (e.g. exited early); its exit code and output tell the story
+        }
+    }
+
+    /** What the task threw, or null if it completed normally or did not finish within {@code millis}. */
+    private static Throwable failure(Future<?> f, long millis) throws InterruptedException {
+        try {
+            f.get(millis, TimeUnit.MILLISECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause() == null ? e : e.getCause();
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            return null;
+        }
+    }
+
+    private static <T> T awaitQuietly(Future<T> f, long millis) {
+        try {
+            return f.get(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            f.cancel(true);
+            return null;
+        }
+    }
+
+    /** Metric tag for a command: the file name of its executable, e.g. {@code swipl} or {@code ga-exec}. */
+    static String executableName(List<String> command) {
+        if (command.isEmpty()) return "unknown";
+        String exe = command.get(0);
+        return exe.substring(Math.max(exe.lastIndexOf('/'), exe.lastIndexOf('\\')) + 1);
+    }
+
+    /** Kill the process and everything it spawned (e.g. the GHC runtime started by {@code stack script}). */
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /** Counts bytes and trips the overflow callback once the limit is crossed. */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private final Runnable onOverflow;
+        volatile long count;
+        volatile long firstByteAt;
+
+        LimitedInputStream(InputStream in, long limit, Runnable onOverflow) {
+            super(in);
+            this.limit = limit;
+            this.onOverflow = onOverflow;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        private void count(long n) throws IOException {
+            if (count == 0) firstByteAt = System.nanoTime();
+            count += n;
+            if (count > limit) {
+                onOverflow.run();
+                throw new IOException("Process output exceeded " + limit + " bytes");
+            }
+        }
+
+        /**
+         * Discard whatever the handler left unread so the process never blocks on a full pipe; the discarded
+         * bytes still count towards the limit, so a process that keeps writing is killed once it crosses it.
+         */
+        void drain() {
+            byte[] sink = new byte[8192];
+            try {
+                int n;
+                while ((n = in.read(sink)) >= 0) {
+                    if (n > 0) count(n);
+                }
+            } catch (IOException ignored) {
+                // stream closed, process killed or output limit exceeded
+            }
+        }
+    }
+}
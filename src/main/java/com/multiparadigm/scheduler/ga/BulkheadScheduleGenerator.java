@@ -0,0 +1,37 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.exec.Bulkhead;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+import java.util.Objects;
+
+/**
+ * Runs every generation of the wrapped engine inside a {@link Bulkhead}, so bursts queue briefly and are then
+ * rejected instead of starting an unbounded number of GA runs (external processes or in-JVM islands).
+ */
+public class BulkheadScheduleGenerator implements ScheduleGenerator {
+    private final ScheduleGenerator delegate;
+    private final Bulkhead bulkhead;
+
+    public BulkheadScheduleGenerator(ScheduleGenerator delegate, Bulkhead bulkhead) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.bulkhead = Objects.requireNonNull(bulkhead);
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem) {
+        return bulkhead.call(() -> delegate.generate(problem));
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        return bulkhead.call(() -> delegate.generate(problem, options));
+    }
+
+    @Override
+    public Schedule generate(CompiledProblem problem, GenerationOptions options) {
+        return bulkhead.call(() -> delegate.generate(problem, options));
+    }
+}
@@ -0,0 +1,129 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.model.Assignment;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.ProblemDecomposition;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Splits each problem into independent sub-problems ({@link ProblemDecomposition}) and runs the wrapped engine
+ * on them in parallel, so runtime follows the largest part instead of the whole problem.
+ * <p>
+ * Parts share no courses and no time slots, so their schedules are merged by concatenation (in the problem's
+ * lecture order) without introducing conflicts; scores are summed, which matches the additive fitness of both
+ * GAs; the merged schedule is partial if any part is. Seeded runs give part {@code i} the seed {@code seed + i} and
+ * stay reproducible, and every part gets the request's deadline. Progress reports sum the
+ * latest snapshot of every part. Problems that do not split go to the engine unchanged.
+ */
+public class DecomposingScheduleGenerator implements ScheduleGenerator {
+
+    /**
+     * @param enabled whether to decompose at all
+     * @param maxParts upper bound on sub-problems per request, and so on concurrent engine runs per request
+     */
+    public record Settings(boolean enabled, int maxParts) {
+        public Settings {
+            maxParts = Math.max(1, maxParts);
+        }
+    }
+
+    private final ScheduleGenerator delegate;
+    private final Settings settings;
+
+    public DecomposingScheduleGenerator(ScheduleGenerator delegate, Settings settings) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.settings = Objects.requireNonNull(settings);
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem) {
+        return generate(problem, GenerationOptions.defaults());
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        return generate(CompiledProblem.of(problem), options);
+    }
+
+    @Override
+    public Schedule generate(CompiledProblem problem, GenerationOptions options) {
+        List<SchedulingProblem> parts = settings.enabled() && settings.maxParts() > 1
+                ? ProblemDecomposition.partition(problem, settings.maxParts())
+                : List.of();
+        if (parts.size() <= 1) return delegate.generate(problem, options);
+
+        PartProgress progress = new PartProgress(parts.size(), options.progress());
+        List<Future<Schedule>> futures = new ArrayList<>(parts.size());
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("part-", 0).factory());
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                SchedulingProblem part = parts.get(i);
+                int index = i;
+                GenerationOptions partOptions = options.withProgress(p -> progress.update(index, p))
+                        .withSeed(options.seed() == null ? null : options.seed() + i);
+                futures.add(executor.submit(() -> delegate.generate(part, partOptions)));
+            }
+            List<Assignment> assignments = new ArrayList<>(problem.lectureCount());
+            Double score = 0.0;
+            Integer generations = null;
+            Boolean partial = null;
+            for (Future<Schedule> f : futures) {
+                Schedule s = f.get();
+                if (s == null || s.assignments() == null) {
+                    throw new RuntimeException("Generator returned no schedule for a sub-problem");
+                }
+                assignments.addAll(s.assignments());
+                score = score == null || s.score() == null ? null : score + s.score();
+                if (s.generations() != null) generations = generations == null ? s.generations() : Math.max(generations, s.generations());
+                if (s.partial() != null) partial = Boolean.TRUE.equals(partial) || s.partial();
+            }
+            assignments.sort(Comparator.comparingInt(a -> problem.lectureIndex(a.lectureId())));
+            return new Schedule(assignments, score, generations, partial);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Sub-problem generation failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Decomposed generation interrupted", e);
+        } finally {
+            // Once one part fails the merged schedule is lost; interrupt the others so they stop their engines
+            executor.shutdownNow();
+        }
+    }
+
+    /** Latest snapshot per part, reported as one aggregate. */
+    private static final class PartProgress {
+        private final GenerationProgress[] latest;
+        private final ProgressListener listener;
+
+        PartProgress(int parts, ProgressListener listener) {
+            this.latest = new GenerationProgress[parts];
+            this.listener = listener;
+        }
+
+        synchronized void update(int part, GenerationProgress progress) {
+            latest[part] = progress;
+            int generation = 0;
+            double fitness = 0;
+            int violations = 0;
+            for (GenerationProgress p : latest) {
+                if (p == null) continue;
+                generation = Math.max(generation, p.generation());
+                fitness += p.bestFitness();
+                violations += p.violations();
+            }
+            listener.onProgress(new GenerationProgress(generation, fitness, violations));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.multiparadigm.scheduler.ga;
+
+import java.time.Duration;
+
+/**
+ * Per-request options for a {@link ScheduleGenerator} run.
+ * @param progress receives best-so-far updates; generators that cannot report progress ignore it
+ * @param seed random seed making the run reproducible (null lets the generator pick one);
+ *             only seeded runs are eligible for result caching
+ * @param deadline how long this run may take (null for the engine's own limit); anytime engines return their
+ *                 best schedule so far, marked {@code partial}, when it expires
+ */
+public record GenerationOptions(
+        ProgressListener progress,
+        Long seed,
+        Duration deadline
+) {
+    public GenerationOptions {
+        progress = progress == null ? ProgressListener.NONE : progress;
+    }
+
+    public GenerationOptions(ProgressListener progress, Long seed) {
+        this(progress, seed, null);
+    }
+
+    /** Options with no progress reporting, no fixed seed and no deadline. */
+    public static GenerationOptions defaults() { return new GenerationOptions(ProgressListener.NONE, null, null); }
+
+    public GenerationOptions withProgress(ProgressListener listener) { return new GenerationOptions(listener, seed, deadline); }
+
+    public GenerationOptions withSeed(Long seed) { return new GenerationOptions(progress, seed, deadline); }
+
+    public GenerationOptions withDeadline(Duration deadline) { return new GenerationOptions(progress, seed, deadline); }
+}
@@ -0,0 +1,13 @@
+package com.multiparadigm.scheduler.ga;
+
+/**
+ * Best-so-far snapshot reported by a generator while it is running.
+ * @param generation number of generations completed so far
+ * @param bestFitness fitness of the best schedule found so far (higher is better)
+ * @param violations hard-constraint violations of that schedule
+ */
+public record GenerationProgress(
+        int generation,
+        double bestFitness,
+        int violations
+) {}
@@ -0,0 +1,38 @@
+package com.multiparadigm.scheduler.ga;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Named generator engines available to per-request engine selection (e.g. portfolio runs).
+ * @param primary name of the engine used when a request does not pick one
+ * @param engines engines by name, e.g. {@code haskell} and {@code java}
+ */
+public record GeneratorEngines(String primary, Map<String, ScheduleGenerator> engines) {
+    public GeneratorEngines {
+        engines = new LinkedHashMap<>(engines);
+        if (!engines.containsKey(Objects.requireNonNull(primary))) {
+            throw new IllegalArgumentException("Unknown generator engine: " + primary);
+        }
+    }
+
+    /** A single engine registered under {@code name}. */
+    public static GeneratorEngines of(String name, ScheduleGenerator generator) {
+        return new GeneratorEngines(name, Map.of(name, generator));
+    }
+
+    public Set<String> names() { return engines.keySet(); }
+
+    /**
+     * @throws IllegalArgumentException if no engine has this name
+     */
+    public ScheduleGenerator get(String name) {
+        ScheduleGenerator generator = engines.get(name);
+        if (generator == null) {
+            throw new IllegalArgumentException("Unknown generator engine: " + name);
+        }
+        return generator;
+    }
+}
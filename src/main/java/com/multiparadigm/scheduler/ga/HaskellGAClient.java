@@ -1,53 +1,256 @@
 package com.multiparadigm.scheduler.ga;
 
-import com.multiparadigm.scheduler.exec.CommandResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.multiparadigm.scheduler.exec.CommandRunner;
+import com.multiparadigm.scheduler.exec.ProcessWorkerPool;
+import com.multiparadigm.scheduler.exec.StdinWriter;
+import com.multiparadigm.scheduler.exec.StreamedCommandResult;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
 import com.multiparadigm.scheduler.model.Schedule;
 import com.multiparadigm.scheduler.model.SchedulingProblem;
 import com.multiparadigm.scheduler.util.JsonUtil;
+import io.micrometer.core.instrument.Tags;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Client wrapper around an external Haskell Genetic Algorithm process.
  * Sends a {@link SchedulingProblem} as JSON via stdin and
  * expects a {@link Schedule} JSON via stdout.
+ * <p>
+ * The GA either runs as one process per request through a {@link CommandRunner}, or as a
+ * {@link ProcessWorkerPool} of resident workers started with {@code ga-exec --serve}, which read one
+ * problem JSON per line and answer with one schedule JSON per line.
+ * <p>
+ * In both modes the request is serialized straight into the GA's stdin and the answer parsed straight
+ * from its stdout. With {@link Format#CBOR} both directions use CBOR instead of JSON text (the GA is started
+ * with {@code --cbor}); this needs a runner that streams bytes, i.e. {@code StreamingCommandRunner}.
+ * <p>
+ * In {@link Anytime} mode the GA ({@code --anytime}) evolves for up to {@code maxGenerations}, printing every
+ * improved best-so-far schedule as a JSON line. The client keeps the latest line, so when the request's deadline
+ * (or the process timeout) expires it returns that schedule, marked {@code partial}, instead of failing.
  */
-public class HaskellGAClient {
+public class HaskellGAClient implements ScheduleGenerator, AutoCloseable {
+    /** Smallest valid problem; used to warm up and health-check resident workers. */
+    public static final String PROBE_REQUEST = "{\"courses\":[],\"lectures\":[],\"rooms\":[],\"timeSlots\":[]}\n";
+
+    private static final String ENGINE = "haskell";
+
+    /** Wire encoding of requests and answers in per-request process mode. */
+    public enum Format { JSON, CBOR }
+
+    /**
+     * Anytime runs in process mode.
+     * @param enabled start the GA with {@code --anytime} and keep its latest best-so-far schedule
+     * @param maxGenerations generation limit sent with each request
+     */
+    public record Anytime(boolean enabled, int maxGenerations) {
+        public static final Anytime OFF = new Anytime(false, 0);
+    }
+
+    /** Problem plus the optional top-level seed and generation limit, serialized without an intermediate tree. */
+    private record Request(
+            @JsonUnwrapped SchedulingProblem problem,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Long seed,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Integer maxGenerations
+    ) {}
+
     private final CommandRunner runner;
     private final List<String> command;
     private final Duration timeout;
+    private final ProcessWorkerPool pool;
+    private final SchedulerMetrics metrics;
+    private final Format format;
+    private final Anytime anytime;
 
     public HaskellGAClient(CommandRunner runner, List<String> command, Duration timeout) {
+        this(runner, command, timeout, SchedulerMetrics.NOOP, Format.JSON);
+    }
+
+    public HaskellGAClient(CommandRunner runner, List<String> command, Duration timeout, SchedulerMetrics metrics,
+                           Format format) {
+        this(runner, command, timeout, metrics, format, Anytime.OFF);
+    }
+
+    /**
+     * @throws IllegalArgumentException if anytime mode is combined with CBOR (snapshots are JSON lines)
+     */
+    public HaskellGAClient(CommandRunner runner, List<String> command, Duration timeout, SchedulerMetrics metrics,
+                           Format format, Anytime anytime) {
         this.runner = Objects.requireNonNull(runner);
-        this.command = List.copyOf(command);
+        this.format = Objects.requireNonNull(format);
+        this.anytime = Objects.requireNonNull(anytime);
+        if (anytime.enabled() && format == Format.CBOR) {
+            throw new IllegalArgumentException("Anytime GA runs exchange JSON lines and cannot use CBOR");
+        }
+        List<String> cmd = new ArrayList<>(command);
+        if (format == Format.CBOR) cmd.add("--cbor");
+        if (anytime.enabled()) cmd.add("--anytime");
+        this.command = List.copyOf(cmd);
         this.timeout = timeout == null ? Duration.ofSeconds(10) : timeout;
+        this.pool = null;
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Create a client backed by a pool of resident GA workers.
+     * The pool is owned by this client and closed with it.
+     */
+    public HaskellGAClient(ProcessWorkerPool pool) {
+        this(pool, SchedulerMetrics.NOOP);
+    }
+
+    /** Resident workers answer with a single schedule line, so pool mode has no anytime runs. */
+    public HaskellGAClient(ProcessWorkerPool pool, SchedulerMetrics metrics) {
+        this.runner = null;
+        this.command = List.of();
+        this.pool = Objects.requireNonNull(pool);
+        this.timeout = pool.settings().timeout();
+        this.metrics = Objects.requireNonNull(metrics);
+        this.format = Format.JSON;
+        this.anytime = Anytime.OFF;
+    }
+
+    /**
+     * Start all resident workers and run the probe problem through each of them.
+     * No-op in per-request process mode.
+     */
+    public void warmUp() {
+        if (pool != null) pool.warmUp();
     }
 
     /**
      * Invoke the external GA with the given problem and parse the resulting schedule.
-     * @throws RuntimeException on timeout, non-zero exit, or empty output
+     * @throws RuntimeException on timeout, oversized output, non-zero exit, or empty output
      */
+    @Override
     public Schedule generate(SchedulingProblem problem) {
-        String input = JsonUtil.toJson(problem);
-        CommandResult result;
+        return generate(problem, GenerationOptions.defaults());
+    }
+
+    /**
+     * Invoke the external GA; a seed in {@code options} is sent as the optional {@code "seed"} field
+     * of the problem JSON, which makes the GA reseed its generator for this run. A deadline in {@code options}
+     * replaces the configured timeout; in pool mode it bounds both the wait for a worker and the exchange.
+     */
+    @Override
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        Tags size = SchedulerMetrics.sizeTags(problem);
+        Request request = new Request(problem, options.seed(), anytime.enabled() ? anytime.maxGenerations() : null);
+        Duration limit = options.deadline() != null ? options.deadline() : timeout;
+        long start = System.nanoTime();
+        try {
+            if (pool != null) {
+                StdinWriter line = out -> {
+                    long encodeStart = System.nanoTime();
+                    JsonUtil.writeJson(out, request);
+                    out.write('\n');
+                    metrics.stage(ENGINE, "encode", size, System.nanoTime() - encodeStart);
+                };
+                return pool.exchange(line, options.deadline(), HaskellGAClient::parseWorkerAnswer);
+            }
+            ObjectMapper mapper = format == Format.CBOR ? JsonUtil.cbor() : JsonUtil.mapper();
+            StdinWriter input = out -> {
+                long encodeStart = System.nanoTime();
+                JsonUtil.write(mapper, out, request);
+                metrics.stage(ENGINE, "encode", size, System.nanoTime() - encodeStart);
+            };
+            return anytime.enabled() ? runAnytime(input, limit) : runProcess(mapper, input, limit);
+        } catch (RuntimeException e) {
+            if (pool != null) metrics.failure(ENGINE, "error");
+            throw e;
+        } finally {
+            metrics.stage(ENGINE, "process", size, System.nanoTime() - start);
+        }
+    }
+
+    private Schedule runProcess(ObjectMapper mapper, StdinWriter input, Duration limit) {
+        StreamedCommandResult<Schedule> result;
+        try {
+            result = runner.runPiped(command, input, limit, out -> JsonUtil.read(mapper, out, Schedule.class));
+        } catch (Exception e) {
+            metrics.failure(ENGINE, "error");
+            throw new RuntimeException("Failed to invoke Haskell GA: " + e.getMessage(), e);
+        }
+        return checked(result);
+    }
+
+    /**
+     * Read best-so-far lines until the GA finishes or the deadline kills it; on timeout the latest complete
+     * snapshot is returned as a partial result.
+     */
+    private Schedule runAnytime(StdinWriter input, Duration limit) {
+        AtomicReference<Schedule> latest = new AtomicReference<>();
+        StreamedCommandResult<Schedule> result;
         try {
-            result = runner.run(command, input, timeout);
+            result = runner.runPiped(command, input, limit, out -> {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(out, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) latest.set(parseWorkerAnswer(line));
+                }
+                return latest.get();
+            });
         } catch (Exception e) {
+            metrics.failure(ENGINE, "error");
             throw new RuntimeException("Failed to invoke Haskell GA: " + e.getMessage(), e);
         }
+        Schedule snapshot = latest.get();
+        if (result.timedOut() && snapshot != null) {
+            return new Schedule(snapshot.assignments(), snapshot.score(), snapshot.generations(), true);
+        }
+        return checked(result);
+    }
+
+    private Schedule checked(StreamedCommandResult<Schedule> result) {
+        String failure = SchedulerMetrics.failureReason(result);
+        if (failure != null) metrics.failure(ENGINE, failure);
         if (result.timedOut()) {
             throw new RuntimeException("Haskell GA process timed out");
         }
+        if (result.outputLimitExceeded()) {
+            throw new RuntimeException("Haskell GA exceeded the output limit");
+        }
         if (result.exitCode() != 0) {
             throw new RuntimeException("Haskell GA exited with code " + result.exitCode() + ": " + result.stderr());
         }
-        String stdout = result.stdout();
-        if (stdout == null || stdout.isBlank()) {
+        if (result.value() == null) {
+            throw new RuntimeException("Haskell GA returned no output");
+        }
+        return result.value();
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.close();
+    }
+
+    /**
+     * Parse one answer line of a resident worker; workers report failures as {@code {"error": "..."}}.
+     */
+    private static Schedule parseWorkerAnswer(String line) {
+        if (line == null || line.isBlank()) {
             throw new RuntimeException("Haskell GA returned no output");
         }
-        return JsonUtil.fromJson(stdout, Schedule.class);
+        JsonNode node = JsonUtil.fromJson(line, JsonNode.class);
+        if (node.hasNonNull("error")) {
+            throw new RuntimeException("Haskell GA failed: " + node.get("error").asText());
+        }
+        try {
+            return JsonUtil.mapper().treeToValue(node, Schedule.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize JSON to Schedule", e);
+        }
     }
 }
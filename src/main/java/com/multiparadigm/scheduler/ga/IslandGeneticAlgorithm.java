@@ -0,0 +1,340 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.model.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-JVM multi-generation genetic algorithm using the island model.
+ * <p>
+ * Each island evolves its own population (tournament selection, uniform crossover, capacity-aware
+ * mutation, elitism). Islands run in parallel on a {@link ForkJoinPool} for {@code migrationInterval}
+ * generations at a time; between epochs the best individuals of every island replace the worst ones of
+ * the next island in a ring, and progress is reported to the request's {@link ProgressListener}. The search
+ * stops when a conflict-free schedule is found, the generation limit, the time budget or the request's deadline
+ * is reached, or the best fitness has not improved for {@code plateauGenerations}. The schedule reports the
+ * generations run, and is marked {@code partial} if the request's deadline cut the search short. Interrupting the
+ * calling thread stops the islands within one generation; the call still waits for them before it returns.
+ * <p>
+ * The problem is compiled once ({@link CompiledProblem}); genes are dense {@code room * slots + slot}
+ * integers and capacity checks use the precomputed feasible-room sets, so fitness is computed in O(n)
+ * with occupancy counters instead of pairwise comparisons; a lecture in a slot that overlaps other (differently named)
+ * slots also counts the occupants of those. Fitness follows the Haskell GA (+1 per lecture that fits its room, -1 per
+ * pair of lectures in the same room at overlapping times) and additionally subtracts same-course overlapping pairs.
+ */
+public class IslandGeneticAlgorithm implements ScheduleGenerator, AutoCloseable {
+
+    /**
+     * GA configuration.
+     * @param islands number of islands (0 or less means one per worker thread)
+     * @param populationSize individuals per island
+     * @param maxGenerations generation limit per island
+     * @param migrationInterval generations between migrations
+     * @param migrants individuals sent to the neighbouring island on each migration
+     * @param eliteCount best individuals copied unchanged into the next generation
+     * @param mutations expected number of mutated genes per child
+     * @param tournamentSize individuals compared in each tournament selection
+     * @param timeBudget wall-clock limit for one {@link #generate} call (null means unlimited)
+     * @param plateauGenerations stop after this many generations without improvement (0 or less disables)
+     * @param parallelism worker threads (0 or less means all available processors)
+     * @param seed random seed for reproducible runs (null means random)
+     */
+    public record Settings(
+            int islands,
+            int populationSize,
+            int maxGenerations,
+            int migrationInterval,
+            int migrants,
+            int eliteCount,
+            double mutations,
+            int tournamentSize,
+            Duration timeBudget,
+            int plateauGenerations,
+            int parallelism,
+            Long seed
+    ) {
+        public Settings {
+            parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            islands = islands > 0 ? islands : parallelism;
+            populationSize = Math.max(4, populationSize);
+            maxGenerations = Math.max(1, maxGenerations);
+            migrationInterval = Math.max(1, migrationInterval);
+            eliteCount = Math.max(0, Math.min(eliteCount, populationSize - 1));
+            migrants = Math.max(0, Math.min(migrants, populationSize - 1));
+            tournamentSize = Math.max(1, tournamentSize);
+            mutations = Math.max(0, mutations);
+        }
+
+        /** Defaults sized for one request using every core of the node. */
+        public static Settings defaults() {
+            return new Settings(0, 60, 500, 20, 2, 2, 1.0, 3, Duration.ofSeconds(5), 100, 0, null);
+        }
+    }
+
+    private final Settings settings;
+    private final ForkJoinPool pool;
+
+    public IslandGeneticAlgorithm(Settings settings) {
+        this.settings = Objects.requireNonNull(settings);
+        this.pool = new ForkJoinPool(settings.parallelism());
+    }
+
+    public Settings settings() { return settings; }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem) {
+        return generate(problem, GenerationOptions.defaults());
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        return generate(CompiledProblem.of(problem), options);
+    }
+
+    @Override
+    public Schedule generate(CompiledProblem enc, GenerationOptions options) {
+        if (enc.lectureCount() == 0) {
+            return new Schedule(List.of(), 0.0);
+        }
+        if (enc.roomCount() == 0 || enc.timeSlotCount() == 0) {
+            throw new IllegalArgumentException("Problem has lectures but no rooms or time slots");
+        }
+
+        Long fixed = options.seed() != null ? options.seed() : settings.seed();
+        long seed = fixed != null ? fixed : new SplittableRandom().nextLong();
+        SplittableRandom root = new SplittableRandom(seed);
+        Island[] islands = new Island[settings.islands()];
+        for (int i = 0; i < islands.length; i++) {
+            islands[i] = new Island(enc, root.split());
+        }
+
+        long now = System.nanoTime();
+        long budget = settings.timeBudget() == null ? Long.MAX_VALUE : now + settings.timeBudget().toNanos();
+        long requested = options.deadline() == null ? Long.MAX_VALUE : now + options.deadline().toNanos();
+        long deadline = Math.min(budget, requested);
+        // Set when the caller is interrupted; the islands run on pool threads, so they poll this instead
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Individual best = null;
+        int generation = 0;
+        int lastImprovement = 0;
+        while (generation < settings.maxGenerations()) {
+            int step = Math.min(settings.migrationInterval(), settings.maxGenerations() - generation);
+            List<Future<?>> epoch = new ArrayList<>(islands.length);
+            for (Island island : islands) {
+                epoch.add(pool.submit(() -> island.evolve(step, deadline, cancelled)));
+            }
+            awaitAll(epoch, cancelled);
+            generation += step;
+
+            Individual epochBest = best;
+            for (Island island : islands) {
+                Individual candidate = island.best();
+                if (epochBest == null || candidate.fitness > epochBest.fitness) epochBest = candidate;
+            }
+            if (best == null || epochBest.fitness > best.fitness) {
+                best = epochBest.copy();
+                lastImprovement = generation;
+            }
+            options.progress().onProgress(new GenerationProgress(generation, best.fitness, best.violations));
+            if (best.violations == 0 || System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) break;
+            if (settings.plateauGenerations() > 0 && generation - lastImprovement >= settings.plateauGenerations()) break;
+            migrate(islands);
+        }
+        // Cut short by the request's deadline (not by the engine's own budget): best so far, marked partial
+        boolean partial = best.violations > 0 && requested < budget && System.nanoTime() >= requested
+                && generation < settings.maxGenerations();
+        return decode(enc, best, generation, partial);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static Schedule decode(CompiledProblem enc, Individual individual, int generations, boolean partial) {
+        int slots = enc.timeSlotCount();
+        int[] room = new int[individual.genes.length];
+        int[] slot = new int[individual.genes.length];
+        for (int i = 0; i < room.length; i++) {
+            room[i] = individual.genes[i] / slots;
+            slot[i] = individual.genes[i] % slots;
+        }
+        Schedule schedule = enc.toSchedule(room, slot, (double) individual.fitness);
+        return new Schedule(schedule.assignments(), schedule.score(), generations, partial);
+    }
+
+    private void migrate(Island[] islands) {
+        if (islands.length < 2 || settings.migrants() == 0) return;
+        List<Individual[]> outgoing = new ArrayList<>(islands.length);
+        for (Island island : islands) outgoing.add(island.emigrants(settings.migrants()));
+        for (int i = 0; i < islands.length; i++) {
+            islands[(i + 1) % islands.length].immigrate(outgoing.get(i));
+        }
+    }
+
+    /**
+     * Wait until every island of the epoch has stopped, so their populations can be read. An interrupt or a
+     * failed island sets {@code cancelled}, which stops the others within one generation; the interrupt is
+     * restored once they have.
+     */
+    private static void awaitAll(List<Future<?>> futures, AtomicBoolean cancelled) {
+        boolean interrupted = false;
+        RuntimeException failure = null;
+        for (Future<?> f : futures) {
+            while (true) {
+                try {
+                    f.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    cancelled.set(true);
+                } catch (ExecutionException e) {
+                    cancelled.set(true);
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    if (failure == null) failure = new RuntimeException("Java GA failed: " + cause.getMessage(), cause);
+                    break;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (failure != null) throw failure;
+    }
+
+    private static final class Individual {
+        final int[] genes;
+        int fitness;
+        int violations;
+
+        Individual(int[] genes) { this.genes = genes; }
+
+        Individual copy() {
+            Individual c = new Individual(genes.clone());
+            c.fitness = fitness;
+            c.violations = violations;
+            return c;
+        }
+    }
+
+    private final class Island {
+        private final CompiledProblem enc;
+        private final SplittableRandom random;
+        private final int[] roomSlotCount;
+        private final int[] courseSlotCount;
+        private Individual[] population;
+
+        Island(CompiledProblem enc, SplittableRandom random) {
+            this.enc = enc;
+            this.random = random;
+            this.roomSlotCount = new int[enc.roomCount() * enc.timeSlotCount()];
+            this.courseSlotCount = new int[enc.courseCount() * enc.timeSlotCount()];
+            this.population = new Individual[settings.populationSize()];
+            for (int p = 0; p < population.length; p++) {
+                int[] genes = new int[enc.lectureCount()];
+                for (int i = 0; i < genes.length; i++) genes[i] = randomGene(i);
+                population[p] = evaluate(new Individual(genes));
+            }
+            sort();
+        }
+
+        void evolve(int generations, long deadline, AtomicBoolean cancelled) {
+            for (int g = 0; g < generations; g++) {
+                if (population[0].violations == 0 || System.nanoTime() >= deadline || cancelled.get()) return;
+                Individual[] next = new Individual[population.length];
+                int elites = settings.eliteCount();
+                System.arraycopy(population, 0, next, 0, elites);
+                for (int p = elites; p < next.length; p++) {
+                    Individual child = crossover(tournament(), tournament());
+                    mutate(child.genes);
+                    next[p] = evaluate(child);
+                }
+                population = next;
+                sort();
+            }
+        }
+
+        Individual best() { return population[0]; }
+
+        Individual[] emigrants(int count) {
+            Individual[] out = new Individual[count];
+            for (int i = 0; i < count; i++) out[i] = population[i].copy();
+            return out;
+        }
+
+        void immigrate(Individual[] migrants) {
+            for (int i = 0; i < migrants.length; i++) {
+                population[population.length - 1 - i] = migrants[i];
+            }
+            sort();
+        }
+
+        private Individual tournament() {
+            Individual winner = population[random.nextInt(population.length)];
+            for (int i = 1; i < settings.tournamentSize(); i++) {
+                Individual c = population[random.nextInt(population.length)];
+                if (c.fitness > winner.fitness) winner = c;
+            }
+            return winner;
+        }
+
+        private Individual crossover(Individual a, Individual b) {
+            int[] genes = new int[a.genes.length];
+            for (int i = 0; i < genes.length; i++) {
+                genes[i] = random.nextBoolean() ? a.genes[i] : b.genes[i];
+            }
+            return new Individual(genes);
+        }
+
+        private void mutate(int[] genes) {
+            double rate = settings.mutations() / genes.length;
+            for (int i = 0; i < genes.length; i++) {
+                if (random.nextDouble() < rate) genes[i] = randomGene(i);
+            }
+        }
+
+        /** Random (room, slot) gene, preferring rooms large enough for the lecture. */
+        private int randomGene(int lecture) {
+            int[] fits = enc.feasibleRoomList(lecture);
+            int room = fits.length > 0 && random.nextInt(10) != 0
+                    ? fits[random.nextInt(fits.length)]
+                    : random.nextInt(enc.roomCount());
+            return room * enc.timeSlotCount() + random.nextInt(enc.timeSlotCount());
+        }
+
+        private Individual evaluate(Individual ind) {
+            int slots = enc.timeSlotCount();
+            int[] genes = ind.genes;
+            int fits = 0;
+            int roomConflicts = 0;
+            int courseConflicts = 0;
+            for (int i = 0; i < genes.length; i++) {
+                int gene = genes[i];
+                int room = gene / slots, slot = gene % slots, course = enc.course(i) * slots;
+                if (enc.fits(i, room)) fits++;
+                roomConflicts += roomSlotCount[gene]++;
+                courseConflicts += courseSlotCount[course + slot]++;
+                // Lectures counted earlier in overlapping slots
+                for (int other : enc.overlappingSlots(slot)) {
+                    roomConflicts += roomSlotCount[room * slots + other];
+                    courseConflicts += courseSlotCount[course + other];
+                }
+            }
+            for (int i = 0; i < genes.length; i++) {
+                int gene = genes[i];
+                roomSlotCount[gene] = 0;
+                courseSlotCount[enc.course(i) * slots + gene % slots] = 0;
+            }
+            ind.fitness = fits - roomConflicts - courseConflicts;
+            ind.violations = (genes.length - fits) + roomConflicts + courseConflicts;
+            return ind;
+        }
+
+        private void sort() {
+            Arrays.sort(population, (x, y) -> Integer.compare(y.fitness, x.fitness));
+        }
+    }
+}
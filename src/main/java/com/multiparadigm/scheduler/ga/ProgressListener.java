@@ -0,0 +1,12 @@
+package com.multiparadigm.scheduler.ga;
+
+/**
+ * Callback receiving {@link GenerationProgress} updates from a running generator.
+ * Invoked on the generator's thread; implementations must be fast and must not throw.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    ProgressListener NONE = progress -> {};
+
+    void onProgress(GenerationProgress progress);
+}
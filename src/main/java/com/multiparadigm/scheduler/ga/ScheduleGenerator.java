@@ -0,0 +1,33 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+/**
+ * Produces candidate schedules for a {@link SchedulingProblem}.
+ * Implementations may run in-process or delegate to an external engine.
+ */
+public interface ScheduleGenerator {
+    /**
+     * Generate a candidate schedule assigning every lecture to a room and a time slot.
+     * @throws RuntimeException if the engine fails or cannot produce a schedule
+     */
+    Schedule generate(SchedulingProblem problem);
+
+    /**
+     * Generate a candidate schedule with per-request options.
+     * The default implementation ignores the options.
+     */
+    default Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        return generate(problem);
+    }
+
+    /**
+     * Generate from a problem that was already compiled for this request (e.g. shared with the validator).
+     * The default implementation generates from the original problem.
+     */
+    default Schedule generate(CompiledProblem problem, GenerationOptions options) {
+        return generate(problem.problem(), options);
+    }
+}
@@ -0,0 +1,47 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Picks an engine by problem size: problems of at most {@code maxLectures} lectures go to {@code small} (e.g. the
+ * exact solver), larger ones to {@code large}. A {@code partial} result from {@code small} means it ran out of
+ * time, so the problem is handed to {@code large} with whatever remains of the request's deadline.
+ */
+public class SizeRoutingScheduleGenerator implements ScheduleGenerator {
+    private final ScheduleGenerator small;
+    private final ScheduleGenerator large;
+    private final int maxLectures;
+
+    public SizeRoutingScheduleGenerator(ScheduleGenerator small, ScheduleGenerator large, int maxLectures) {
+        this.small = Objects.requireNonNull(small);
+        this.large = Objects.requireNonNull(large);
+        this.maxLectures = maxLectures;
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem) {
+        return generate(CompiledProblem.of(problem), GenerationOptions.defaults());
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        return generate(CompiledProblem.of(problem), options);
+    }
+
+    @Override
+    public Schedule generate(CompiledProblem problem, GenerationOptions options) {
+        if (problem.lectureCount() > maxLectures) return large.generate(problem, options);
+        long start = System.nanoTime();
+        Schedule schedule = small.generate(problem, options);
+        if (!Boolean.TRUE.equals(schedule.partial())) return schedule;
+        if (options.deadline() == null) return large.generate(problem, options);
+        Duration remaining = options.deadline().minusNanos(System.nanoTime() - start);
+        if (remaining.isNegative() || remaining.isZero()) return schedule;
+        return large.generate(problem, options.withDeadline(remaining));
+    }
+}
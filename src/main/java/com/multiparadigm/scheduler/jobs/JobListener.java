@@ -0,0 +1,14 @@
+package com.multiparadigm.scheduler.jobs;
+
+import com.multiparadigm.scheduler.ga.GenerationProgress;
+
+/**
+ * Receives updates of a single scheduling job. Callbacks run on the job's thread and must not block.
+ */
+public interface JobListener {
+    /** Called for every best-so-far update reported by the generator. */
+    void onProgress(GenerationProgress progress);
+
+    /** Called exactly once when the job reaches a terminal state. */
+    void onFinished(JobStatus status);
+}
@@ -0,0 +1,17 @@
+package com.multiparadigm.scheduler.jobs;
+
+/**
+ * Lifecycle state of an asynchronous scheduling job.
+ */
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    /** Whether the job has finished and will not change state again. */
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,27 @@
+package com.multiparadigm.scheduler.jobs;
+
+import com.multiparadigm.scheduler.ga.GenerationProgress;
+
+import java.time.Instant;
+
+/**
+ * Externally visible snapshot of a scheduling job.
+ * @param id job identifier
+ * @param state current lifecycle state
+ * @param createdAt submission time
+ * @param startedAt time the job started running (null while queued)
+ * @param finishedAt time the job reached a terminal state (null while active)
+ * @param progress latest best-so-far progress reported by the generator (null if none yet)
+ * @param violations violation count of the validated result (null until validated)
+ * @param error failure message (only for FAILED jobs)
+ */
+public record JobStatus(
+        String id,
+        JobState state,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        GenerationProgress progress,
+        Integer violations,
+        String error
+) {}
@@ -0,0 +1,121 @@
+package com.multiparadigm.scheduler.jobs;
+
+import com.multiparadigm.scheduler.ga.GenerationProgress;
+import com.multiparadigm.scheduler.service.SchedulingService;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mutable, thread-safe state of one asynchronous scheduling job.
+ * State transitions happen under the job's monitor; listeners are notified outside of it.
+ */
+public final class SchedulingJob {
+    private final String id;
+    private final Instant createdAt = Instant.now();
+    private final List<JobListener> listeners = new ArrayList<>();
+    private JobState state = JobState.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private GenerationProgress progress;
+    private SchedulingService.Result result;
+    private String error;
+    private Thread worker;
+    private boolean cancelRequested;
+
+    SchedulingJob(String id) {
+        this.id = id;
+    }
+
+    public String id() { return id; }
+
+    public synchronized JobState state() { return state; }
+
+    /** Result of a SUCCEEDED job, otherwise null. */
+    public synchronized SchedulingService.Result result() { return result; }
+
+    public synchronized Instant finishedAt() { return finishedAt; }
+
+    public synchronized JobStatus status() {
+        Integer violations = result == null || result.validation() == null ? null : result.validation().violations().size();
+        return new JobStatus(id, state, createdAt, startedAt, finishedAt, progress, violations, error);
+    }
+
+    /**
+     * Register a listener; if the job already finished, the listener is told so immediately.
+     */
+    public void addListener(JobListener listener) {
+        JobStatus finished = null;
+        synchronized (this) {
+            if (state.isTerminal()) finished = status();
+            else listeners.add(listener);
+        }
+        if (finished != null) listener.onFinished(finished);
+    }
+
+    public synchronized void removeListener(JobListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Request cancellation; the job's thread is interrupted whether it is queued or running. */
+    void cancel() {
+        synchronized (this) {
+            if (state.isTerminal()) return;
+            cancelRequested = true;
+            if (worker != null) worker.interrupt();
+        }
+        if (state() == JobState.QUEUED) finish(JobState.CANCELLED, null, null);
+    }
+
+    synchronized boolean isCancelRequested() { return cancelRequested; }
+
+    /** Bind the thread executing this job so {@link #cancel()} can interrupt it. */
+    synchronized void bind(Thread thread) {
+        worker = thread;
+        if (cancelRequested) thread.interrupt();
+    }
+
+    synchronized void unbind() {
+        worker = null;
+    }
+
+    synchronized boolean markRunning() {
+        if (state != JobState.QUEUED || cancelRequested) return false;
+        state = JobState.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    void progress(GenerationProgress update) {
+        List<JobListener> targets;
+        synchronized (this) {
+            if (state.isTerminal()) return;
+            progress = update;
+            targets = List.copyOf(listeners);
+        }
+        for (JobListener l : targets) l.onProgress(update);
+    }
+
+    void succeed(SchedulingService.Result value) { finish(JobState.SUCCEEDED, value, null); }
+
+    void fail(String message) { finish(JobState.FAILED, null, message); }
+
+    void cancelled() { finish(JobState.CANCELLED, null, null); }
+
+    private void finish(JobState terminal, SchedulingService.Result value, String message) {
+        List<JobListener> targets;
+        JobStatus snapshot;
+        synchronized (this) {
+            if (state.isTerminal()) return;
+            state = terminal;
+            result = value;
+            error = message;
+            finishedAt = Instant.now();
+            snapshot = status();
+            targets = List.copyOf(listeners);
+            listeners.clear();
+        }
+        for (JobListener l : targets) l.onFinished(snapshot);
+    }
+}
@@ -0,0 +1,169 @@
+package com.multiparadigm.scheduler.jobs;
+
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.service.SchedulingService;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs schedule generation (and optional validation) as asynchronous jobs so that long GA runs do not
+ * hold servlet threads or run into client timeouts.
+ * <p>
+ * Every job gets its own virtual thread, but at most {@code maxConcurrent} jobs run at a time; up to
+ * {@code maxQueued} more wait for a slot and further submissions are rejected. Finished jobs are kept
+ * for {@code retention} so their status and result can still be fetched; they are also written to the
+ * {@link ScheduleStore} (when enabled), from which {@link #stored} serves them after retention or a restart.
+ */
+@Service
+public class SchedulingJobService {
+    private static final Logger log = LoggerFactory.getLogger(SchedulingJobService.class);
+    public static final String JOB = "job";
+
+    private final SchedulingService service;
+    private final ScheduleStore store;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration retention;
+    private final Semaphore running;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentHashMap<String, SchedulingJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("schedule-job-", 0).factory());
+
+    public SchedulingJobService(
+            SchedulingService service,
+            @Value("${app.jobs.max-concurrent:4}") int maxConcurrent,
+            @Value("${app.jobs.max-queued:64}") int maxQueued,
+            @Value("${app.jobs.retention.minutes:60}") long retentionMinutes,
+            ScheduleStore store
+    ) {
+        this.service = service;
+        this.store = store;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.running = new Semaphore(this.maxConcurrent, true);
+    }
+
+    /**
+     * Submit an unseeded generation job.
+     * @param validate whether to validate the generated schedule before completing the job
+     * @throws RejectedExecutionException if the running and queued limits are exhausted
+     */
+    public JobStatus submit(SchedulingProblem problem, boolean validate) {
+        return submit(problem, validate, null);
+    }
+
+    /**
+     * Submit a generation job.
+     * @param validate whether to validate the generated schedule before completing the job
+     * @param seed random seed for a reproducible (and cacheable) run; null for a random one
+     * @throws RejectedExecutionException if the running and queued limits are exhausted
+     */
+    public JobStatus submit(SchedulingProblem problem, boolean validate, Long seed) {
+        purgeExpired();
+        if (inFlight.incrementAndGet() > maxConcurrent + maxQueued) {
+            inFlight.decrementAndGet();
+            throw new RejectedExecutionException("Too many scheduling jobs in flight; retry later");
+        }
+        SchedulingJob job = new SchedulingJob(UUID.randomUUID().toString());
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job, problem, validate, seed));
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            jobs.remove(job.id());
+            throw e;
+        }
+        return job.status();
+    }
+
+    public Optional<SchedulingJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /** A finished job from the store, e.g. one purged after retention or run before a restart. */
+    public Optional<StoredJob> stored(String id) {
+        return store.get(JOB, id, StoredJob.class);
+    }
+
+    /**
+     * Cancel a queued or running job; running external processes are interrupted.
+     */
+    public Optional<JobStatus> cancel(String id) {
+        SchedulingJob job = jobs.get(id);
+        if (job == null) return Optional.empty();
+        job.cancel();
+        return Optional.of(job.status());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(SchedulingJob job, SchedulingProblem problem, boolean validate, Long seed) {
+        job.bind(Thread.currentThread());
+        try {
+            running.acquire();
+            try {
+                if (!job.markRunning()) return;
+                GenerationOptions options = GenerationOptions.defaults().withSeed(seed).withProgress(job::progress);
+                SchedulingService.Result result;
+                if (validate) {
+                    result = service.generateAndValidate(problem, options);
+                } else {
+                    Schedule schedule = service.generate(problem, options);
+                    result = new SchedulingService.Result(schedule, null);
+                }
+                if (job.isCancelRequested()) job.cancelled();
+                else job.succeed(result);
+            } finally {
+                running.release();
+            }
+        } catch (InterruptedException e) {
+            job.cancelled();
+        } catch (RuntimeException e) {
+            if (job.isCancelRequested() || Thread.currentThread().isInterrupted()) job.cancelled();
+            else job.fail(e.getMessage());
+        } finally {
+            job.unbind();
+            if (job.isCancelRequested()) job.cancelled();
+            persist(job);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void persist(SchedulingJob job) {
+        if (!store.enabled()) return;
+        SchedulingService.Result result = job.result();
+        try {
+            store.put(JOB, job.id(), new StoredJob(job.status(),
+                    result == null ? null : result.schedule(), result == null ? null : result.validation()));
+        } catch (RuntimeException e) {
+            // The job's outcome is still served from memory until retention ends
+            log.warn("Failed to store job {}: {}", job.id(), e.getMessage());
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(j -> {
+            Instant finished = j.finishedAt();
+            return finished != null && finished.isBefore(cutoff);
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.multiparadigm.scheduler.jobs;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * A finished job as persisted in the store, so its status and result outlive the in-memory retention and restarts.
+ * @param status terminal status of the job
+ * @param schedule generated schedule (null unless the job succeeded)
+ * @param validation validation of the schedule (null if not validated)
+ */
+public record StoredJob(
+        JobStatus status,
+        Schedule schedule,
+        ValidationResult validation
+) {}
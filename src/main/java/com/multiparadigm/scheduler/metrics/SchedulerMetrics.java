@@ -0,0 +1,151 @@
+package com.multiparadigm.scheduler.metrics;
+
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.cache.SingleFlight;
+import com.multiparadigm.scheduler.exec.Bulkhead;
+import com.multiparadigm.scheduler.exec.StreamedCommandResult;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.validation.ShadowScheduleValidator;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Meters for the scheduling pipeline, so a slow request can be attributed to a stage and plotted
+ * against input size.
+ * <ul>
+ *   <li>{@code scheduler.service} (timer): whole service operations, tagged {@code operation} and {@code outcome}</li>
+ *   <li>{@code scheduler.engine.stage} (timer): per-engine stages such as {@code encode} (JSON / Prolog facts)
+ *       and {@code process} (the whole external exchange, including streamed encoding and decoding), tagged {@code engine} and {@code stage};
+ *       engine {@code service} holds the per-request {@code compile} and {@code hash} stages</li>
+ *   <li>{@code scheduler.engine.failures} (counter): tagged {@code engine} and {@code reason}
+ *       ({@code timeout}, {@code exit_nonzero}, {@code output_limit}, {@code no_output}, {@code error})</li>
+ *   <li>{@code scheduler.process.stage} (timer): child process {@code spawn}, {@code compute} (until the first
+ *       stdout byte) and {@code read} (first byte until stdout is parsed), tagged {@code command}</li>
+ *   <li>{@code scheduler.process} (timer) and {@code scheduler.process.output} (bytes): whole child process runs
+ *       tagged {@code command} and {@code outcome}, and output sizes tagged {@code command} and {@code stream}</li>
+ * </ul>
+ * Bulkheads publish {@code scheduler.bulkhead.queued} and {@code .active} (gauges), {@code scheduler.bulkhead.wait}
+ * (timer) and {@code scheduler.bulkhead.rejected} (counter, tagged {@code reason}), all tagged {@code bulkhead}.
+ * <p>
+ * Result caches are exposed as {@code scheduler.cache.hits}, {@code .misses}, {@code .evictions} (counters) and
+ * {@code scheduler.cache.size} (gauge), tagged {@code cache}.
+ * <p>
+ * In shadow validation mode, {@code scheduler.validator.shadow.comparisons}, {@code .mismatches} and
+ * {@code .failures} (counters) count how often the shadow engine agreed with the served one.
+ * <p>
+ * Service and engine meters carry {@code lectures}, {@code rooms} and {@code slots} size buckets. Timers publish
+ * percentile histograms.
+ */
+public class SchedulerMetrics {
+    /** Metrics that record nothing (a registry without backends). */
+    public static final SchedulerMetrics NOOP = new SchedulerMetrics(new CompositeMeterRegistry());
+
+    private static final List<Integer> BUCKETS = List.of(10, 100, 1_000, 10_000);
+
+    private final MeterRegistry registry;
+
+    public SchedulerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry registry() { return registry; }
+
+    /** Size-bucket tags of a problem, e.g. {@code lectures=le1000}. */
+    public static Tags sizeTags(SchedulingProblem problem) {
+        return Tags.of(
+                "lectures", bucket(problem.lectures() == null ? 0 : problem.lectures().size()),
+                "rooms", bucket(problem.rooms() == null ? 0 : problem.rooms().size()),
+                "slots", bucket(problem.timeSlots() == null ? 0 : problem.timeSlots().size()));
+    }
+
+    /** Upper bound bucket label: {@code le10}, {@code le100}, {@code le1000}, {@code le10000} or {@code gt10000}. */
+    public static String bucket(int n) {
+        for (int b : BUCKETS) {
+            if (n <= b) return "le" + b;
+        }
+        return "gt" + BUCKETS.get(BUCKETS.size() - 1);
+    }
+
+    /** Failure reason tag of an external run, or null if it produced a value. */
+    public static String failureReason(StreamedCommandResult<?> result) {
+        if (result.timedOut()) return "timeout";
+        if (result.outputLimitExceeded()) return "output_limit";
+        if (result.exitCode() != 0) return "exit_nonzero";
+        if (result.value() == null) return "no_output";
+        return null;
+    }
+
+    public void service(String operation, String outcome, Tags size, long nanos) {
+        timer("scheduler.service", size.and("operation", operation, "outcome", outcome)).record(Duration.ofNanos(nanos));
+    }
+
+    public void stage(String engine, String stage, Tags size, long nanos) {
+        timer("scheduler.engine.stage", size.and("engine", engine, "stage", stage)).record(Duration.ofNanos(nanos));
+    }
+
+    public void failure(String engine, String reason) {
+        registry.counter("scheduler.engine.failures", "engine", engine, "reason", reason).increment();
+    }
+
+    public void processStage(String command, String stage, long nanos) {
+        timer("scheduler.process.stage", Tags.of("command", command, "stage", stage)).record(Duration.ofNanos(nanos));
+    }
+
+    public void process(String command, String outcome, long nanos, long stdoutBytes, long stderrBytes) {
+        timer("scheduler.process", Tags.of("command", command, "outcome", outcome)).record(Duration.ofNanos(nanos));
+        output(command, "stdout").record(stdoutBytes);
+        output(command, "stderr").record(stderrBytes);
+    }
+
+    /** Expose a result cache's statistics, read on scrape. */
+    public void cache(String name, ResultCache<?> cache) {
+        FunctionCounter.builder("scheduler.cache.hits", cache, c -> c.stats().hits()).tag("cache", name).register(registry);
+        FunctionCounter.builder("scheduler.cache.misses", cache, c -> c.stats().misses()).tag("cache", name).register(registry);
+        FunctionCounter.builder("scheduler.cache.evictions", cache, c -> c.stats().evictions()).tag("cache", name).register(registry);
+        Gauge.builder("scheduler.cache.size", cache, c -> c.stats().size()).tag("cache", name).register(registry);
+    }
+
+    /** Expose how often identical concurrent calls were coalesced, read on scrape. */
+    public void singleFlight(String name, SingleFlight flights) {
+        FunctionCounter.builder("scheduler.coalescing.started", flights, f -> f.stats().started()).tag("flights", name).register(registry);
+        FunctionCounter.builder("scheduler.coalescing.joined", flights, f -> f.stats().joined()).tag("flights", name).register(registry);
+        FunctionCounter.builder("scheduler.coalescing.cancelled", flights, f -> f.stats().cancelled()).tag("flights", name).register(registry);
+        Gauge.builder("scheduler.coalescing.in-flight", flights, f -> f.stats().inFlight()).tag("flights", name).register(registry);
+    }
+
+    /** Expose the shadow validator's comparison, mismatch and failure counts, read on scrape. */
+    public void shadowValidator(ShadowScheduleValidator shadow) {
+        FunctionCounter.builder("scheduler.validator.shadow.comparisons", shadow, ShadowScheduleValidator::comparisons).register(registry);
+        FunctionCounter.builder("scheduler.validator.shadow.mismatches", shadow, ShadowScheduleValidator::mismatches).register(registry);
+        FunctionCounter.builder("scheduler.validator.shadow.failures", shadow, ShadowScheduleValidator::shadowFailures).register(registry);
+    }
+
+    /** Expose a bulkhead's queue depth and active calls, read on scrape. */
+    public void bulkhead(Bulkhead bulkhead) {
+        String name = bulkhead.settings().name();
+        Gauge.builder("scheduler.bulkhead.queued", bulkhead, Bulkhead::queued).tag("bulkhead", name).register(registry);
+        Gauge.builder("scheduler.bulkhead.active", bulkhead, Bulkhead::active).tag("bulkhead", name).register(registry);
+    }
+
+    public void bulkheadWait(String bulkhead, long nanos) {
+        timer("scheduler.bulkhead.wait", Tags.of("bulkhead", bulkhead)).record(Duration.ofNanos(nanos));
+    }
+
+    public void bulkheadRejected(String bulkhead, String reason) {
+        registry.counter("scheduler.bulkhead.rejected", "bulkhead", bulkhead, "reason", reason).increment();
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name).tags(tags).publishPercentileHistogram().register(registry);
+    }
+
+    private DistributionSummary output(String command, String stream) {
+        return DistributionSummary.builder("scheduler.process.output")
+                .baseUnit("bytes")
+                .tags("command", command, "stream", stream)
+                .register(registry);
+    }
+}
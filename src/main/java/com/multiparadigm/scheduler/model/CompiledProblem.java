@@ -0,0 +1,289 @@
+package com.multiparadigm.scheduler.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Integer-indexed view of a {@link SchedulingProblem}, built once per request and shared by the engines.
+ * <p>
+ * Lectures, rooms and time slots are addressed by their position in the problem's lists; course ids are
+ * interned to dense ints. Enrollment, capacity and course are kept in primitive arrays, and the rooms large
+ * enough for each lecture are precomputed as a bitset (and as an index array for random sampling), so hot
+ * loops compare ints instead of hashing and comparing strings. Ids map back to the public records at the edges.
+ * <p>
+ * Time slots are parsed once into minute intervals ({@link SlotInterval}) with interned days, and a sweep over
+ * each day's slots sorted by start precomputes which distinct slots overlap, so engines that count conflicts per
+ * (room, slot) only have to look at the few overlapping slots instead of comparing times. Slots whose times do not
+ * parse only conflict with themselves.
+ * <p>
+ * When ids are duplicated the first occurrence is the one found by id, matching the validators.
+ * Instances are immutable; the arrays returned by accessors must not be modified.
+ */
+public final class CompiledProblem {
+
+    private final SchedulingProblem problem;
+    private final Lecture[] lectures;
+    private final Room[] rooms;
+    private final TimeSlot[] timeSlots;
+    private final Map<String, Integer> lectureIndex;
+    private final Map<String, Integer> roomIndex;
+    private final Map<String, Integer> timeSlotIndex;
+    private final String[] courseIds;
+    private final int[] enrollment;
+    private final int[] course;
+    private final int[] capacity;
+    private final BitSet[] feasible;
+    private final int[][] feasibleList;
+    private final SlotInterval[] intervals;
+    private final int days;
+    private final int[] slotDay;
+    private final int[][] overlapping;
+    private final boolean anyOverlap;
+
+    private CompiledProblem(SchedulingProblem problem) {
+        this.problem = problem;
+        this.lectures = problem.lectures() == null ? new Lecture[0] : problem.lectures().toArray(Lecture[]::new);
+        this.rooms = problem.rooms() == null ? new Room[0] : problem.rooms().toArray(Room[]::new);
+        this.timeSlots = problem.timeSlots() == null ? new TimeSlot[0] : problem.timeSlots().toArray(TimeSlot[]::new);
+        this.lectureIndex = index(lectures, Lecture::id);
+        this.roomIndex = index(rooms, Room::id);
+        this.timeSlotIndex = index(timeSlots, TimeSlot::id);
+
+        this.capacity = new int[rooms.length];
+        for (int r = 0; r < rooms.length; r++) capacity[r] = rooms[r].capacity();
+
+        Map<String, Integer> courses = new HashMap<>();
+        List<String> courseList = new ArrayList<>();
+        this.enrollment = new int[lectures.length];
+        this.course = new int[lectures.length];
+        this.feasible = new BitSet[lectures.length];
+        this.feasibleList = new int[lectures.length][];
+        int[] fits = new int[rooms.length];
+        for (int l = 0; l < lectures.length; l++) {
+            enrollment[l] = lectures[l].enrollment();
+            course[l] = courses.computeIfAbsent(lectures[l].courseId(), k -> {
+                courseList.add(k);
+                return courseList.size() - 1;
+            });
+            BitSet bits = new BitSet(rooms.length);
+            int n = 0;
+            for (int r = 0; r < rooms.length; r++) {
+                if (capacity[r] >= enrollment[l]) {
+                    bits.set(r);
+                    fits[n++] = r;
+                }
+            }
+            feasible[l] = bits;
+            feasibleList[l] = Arrays.copyOf(fits, n);
+        }
+        this.courseIds = courseList.toArray(String[]::new);
+
+        this.intervals = new SlotInterval[timeSlots.length];
+        this.slotDay = new int[timeSlots.length];
+        Map<String, Integer> dayIndex = new HashMap<>();
+        for (int t = 0; t < timeSlots.length; t++) {
+            intervals[t] = SlotInterval.of(timeSlots[t]);
+            slotDay[t] = intervals[t] == null ? -1 : dayIndex.computeIfAbsent(intervals[t].day(), k -> dayIndex.size());
+        }
+        this.days = dayIndex.size();
+        for (int t = 0; t < timeSlots.length; t++) if (slotDay[t] < 0) slotDay[t] = days + t;
+        this.overlapping = overlaps();
+        boolean any = false;
+        for (int[] o : overlapping) any |= o.length > 0;
+        this.anyOverlap = any;
+    }
+
+    /** Per slot, the other slots overlapping it: slots sorted by (day, start), each compared only with those still running. */
+    private int[][] overlaps() {
+        Integer[] order = new Integer[timeSlots.length];
+        int n = 0;
+        for (int t = 0; t < timeSlots.length; t++) if (intervals[t] != null) order[n++] = t;
+        Arrays.sort(order, 0, n, (a, b) -> slotDay[a] != slotDay[b] ? Integer.compare(slotDay[a], slotDay[b])
+                : Integer.compare(intervals[a].start(), intervals[b].start()));
+        List<List<Integer>> found = new ArrayList<>(timeSlots.length);
+        for (int t = 0; t < timeSlots.length; t++) found.add(new ArrayList<>());
+        int[] active = new int[n];
+        int live = 0;
+        for (int i = 0; i < n; i++) {
+            int t = order[i];
+            int kept = 0;
+            for (int a = 0; a < live; a++) {
+                int u = active[a];
+                if (slotDay[u] != slotDay[t] || intervals[u].end() <= intervals[t].start()) continue;
+                active[kept++] = u;
+                found.get(t).add(u);
+                found.get(u).add(t);
+            }
+            live = kept;
+            active[live++] = t;
+        }
+        int[][] out = new int[timeSlots.length][];
+        for (int t = 0; t < out.length; t++) {
+            out[t] = found.get(t).stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+        return out;
+    }
+
+    public static CompiledProblem of(SchedulingProblem problem) {
+        return new CompiledProblem(Objects.requireNonNull(problem));
+    }
+
+    /** The problem this view was compiled from. */
+    public SchedulingProblem problem() { return problem; }
+
+    public int lectureCount() { return lectures.length; }
+    public int roomCount() { return rooms.length; }
+    public int timeSlotCount() { return timeSlots.length; }
+    public int courseCount() { return courseIds.length; }
+
+    public Lecture lecture(int l) { return lectures[l]; }
+    public Room room(int r) { return rooms[r]; }
+    public TimeSlot timeSlot(int t) { return timeSlots[t]; }
+    public String courseId(int c) { return courseIds[c]; }
+
+    /** Index of the lecture with this id, or -1 if the problem has none. */
+    public int lectureIndex(String id) { return indexOf(lectureIndex, id); }
+    /** Index of the room with this id, or -1 if the problem has none. */
+    public int roomIndex(String id) { return indexOf(roomIndex, id); }
+    /** Index of the time slot with this id, or -1 if the problem has none. */
+    public int timeSlotIndex(String id) { return indexOf(timeSlotIndex, id); }
+
+    /** Slot {@code t} as a minute interval, or null if its times do not parse. */
+    public SlotInterval interval(int t) { return t < timeSlots.length ? intervals[t] : null; }
+
+    /** Number of distinct days among the slots whose times parse. */
+    public int dayCount() { return days; }
+
+    /**
+     * Day key of slot index {@code t} for sweeps: parsed slots share the keys {@code [0, dayCount())} by day; any
+     * other slot, including indexes {@code >= timeSlotCount()} of slots unknown to the problem, has a key of its own.
+     */
+    public int slotDay(int t) { return t < timeSlots.length ? slotDay[t] : days + t; }
+
+    /** Start minute of slot {@code t}; 0 for slots without an interval. */
+    public int slotStart(int t) { return interval(t) == null ? 0 : intervals[t].start(); }
+
+    /** End minute of slot {@code t}; 1 for slots without an interval. */
+    public int slotEnd(int t) { return interval(t) == null ? 1 : intervals[t].end(); }
+
+    /** The other slots whose intervals overlap slot {@code t}, ascending (empty if none); do not modify. */
+    public int[] overlappingSlots(int t) { return overlapping[t]; }
+
+    /** Whether slots {@code t} and {@code u} are the same slot or overlap in time. */
+    public boolean slotsOverlap(int t, int u) {
+        if (t == u) return true;
+        SlotInterval a = interval(t), b = interval(u);
+        return a != null && b != null && a.overlaps(b);
+    }
+
+    /** Whether any two distinct slots of the problem overlap in time. */
+    public boolean hasOverlappingSlots() { return anyOverlap; }
+
+    /**
+     * Approximate size of the compiled form in array elements, for memory-bounded caches: a feasible-room bitset
+     * and list per lecture (lectures × rooms), the slot-overlap lists, and the per-lecture, room and slot arrays.
+     */
+    public long footprint() {
+        long n = (long) lectures.length * rooms.length + lectures.length + rooms.length + timeSlots.length;
+        for (int[] o : overlapping) n += o.length;
+        return n;
+    }
+
+    /** The window in which slots {@code t} and {@code u} overlap, or null if they do not or either has no interval. */
+    public TimeWindow overlapWindow(int t, int u) {
+        SlotInterval a = interval(t), b = interval(u);
+        return a == null || b == null ? null : a.overlap(b);
+    }
+
+    public int enrollment(int l) { return enrollment[l]; }
+    public int capacity(int r) { return capacity[r]; }
+    /** Interned course of a lecture, in {@code [0, courseCount())}. */
+    public int course(int l) { return course[l]; }
+
+    /** Whether room {@code r} can seat lecture {@code l}. */
+    public boolean fits(int l, int r) { return feasible[l].get(r); }
+
+    /** Rooms that can seat lecture {@code l} as a bitset over room indexes; do not modify. */
+    public BitSet feasibleRooms(int l) { return feasible[l]; }
+
+    /** Rooms that can seat lecture {@code l} in ascending order (empty if none); do not modify. */
+    public int[] feasibleRoomList(int l) { return feasibleList[l]; }
+
+    /** Public record for lecture {@code l} placed in room {@code r} at slot {@code t}. */
+    public Assignment assignment(int l, int r, int t) {
+        return new Assignment(lectures[l].id(), rooms[r].id(), timeSlots[t].id());
+    }
+
+    /**
+     * Public schedule from per-lecture room and slot indexes.
+     * @param room room index per lecture
+     * @param slot time-slot index per lecture
+     */
+    public Schedule toSchedule(int[] room, int[] slot, Double score) {
+        List<Assignment> out = new ArrayList<>(lectures.length);
+        for (int l = 0; l < lectures.length; l++) out.add(assignment(l, room[l], slot[l]));
+        return new Schedule(out, score);
+    }
+
+    /**
+     * Index the assignments of a schedule against this problem.
+     * Room and slot ids the problem does not know are interned after the known ones, so conflicts between
+     * them are still detected; lectures the problem does not know get index -1.
+     */
+    public CompiledSchedule compile(Schedule schedule) {
+        List<Assignment> list = schedule == null || schedule.assignments() == null ? List.of() : schedule.assignments();
+        int n = list.size();
+        int[] lecture = new int[n];
+        int[] room = new int[n];
+        int[] slot = new int[n];
+        Map<String, Integer> extraRooms = new HashMap<>();
+        Map<String, Integer> extraSlots = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Assignment a = list.get(i);
+            lecture[i] = lectureIndex(a.lectureId());
+            int r = roomIndex(a.roomId());
+            room[i] = r >= 0 ? r : rooms.length + extraRooms.computeIfAbsent(String.valueOf(a.roomId()), k -> extraRooms.size());
+            int t = timeSlotIndex(a.timeSlotId());
+            slot[i] = t >= 0 ? t : timeSlots.length + extraSlots.computeIfAbsent(String.valueOf(a.timeSlotId()), k -> extraSlots.size());
+        }
+        return new CompiledSchedule(list, lecture, room, slot,
+                rooms.length + extraRooms.size(), timeSlots.length + extraSlots.size());
+    }
+
+    /**
+     * Assignments of a schedule as parallel index arrays.
+     * @param assignments the original assignments, in order
+     * @param lecture lecture index per assignment (-1 for lectures unknown to the problem)
+     * @param room room index per assignment; indexes {@code >= roomCount()} are rooms unknown to the problem
+     * @param slot slot index per assignment; indexes {@code >= timeSlotCount()} are slots unknown to the problem
+     * @param roomSpace number of distinct room indexes in use
+     * @param slotSpace number of distinct slot indexes in use
+     */
+    public record CompiledSchedule(
+            List<Assignment> assignments,
+            int[] lecture,
+            int[] room,
+            int[] slot,
+            int roomSpace,
+            int slotSpace
+    ) {
+        public int size() { return lecture.length; }
+    }
+
+    private static <T> Map<String, Integer> index(T[] items, Function<T, String> id) {
+        Map<String, Integer> map = new HashMap<>(items.length * 2);
+        for (int i = 0; i < items.length; i++) map.putIfAbsent(id.apply(items[i]), i);
+        return map;
+    }
+
+    private static int indexOf(Map<String, Integer> index, String id) {
+        Integer i = index.get(id);
+        return i == null ? -1 : i;
+    }
+}
@@ -0,0 +1,166 @@
+package com.multiparadigm.scheduler.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits a problem into sub-problems that can be solved separately and merged without creating conflicts.
+ * <p>
+ * Lectures interact through their course (same-course overlap) and through rooms they could share at the same
+ * time (double booking). Feasibility is by capacity only, so the feasible-room sets are nested and the largest
+ * room fits every lecture that fits anywhere: over shared rooms, every problem is a single connected component.
+ * The coupling through rooms is therefore cut by time instead: lectures are grouped into their course components,
+ * the groups are packed into parts of similar size, and each part gets all rooms but its own disjoint range of
+ * time slots, so no two parts can use the same room-slot pair or the same course.
+ * <p>
+ * A split is only used if every part keeps enough slots to seat its lectures, so it never turns a solvable
+ * room/slot packing into an unsolvable one; otherwise the problem stays whole. Problems with overlapping time slots
+ * also stay whole, since slots in different ranges could still overlap.
+ */
+public final class ProblemDecomposition {
+
+    /**
+     * Lectures that must be solved together (one course).
+     * @param lectures lecture indexes of the compiled problem, ascending
+     */
+    public record Component(int[] lectures) {
+        public int size() { return lectures.length; }
+    }
+
+    private ProblemDecomposition() {}
+
+    /** Course components of the problem, largest first. */
+    public static List<Component> components(CompiledProblem p) {
+        int[] count = new int[p.courseCount()];
+        for (int l = 0; l < p.lectureCount(); l++) count[p.course(l)]++;
+        int[][] byCourse = new int[p.courseCount()][];
+        for (int c = 0; c < byCourse.length; c++) byCourse[c] = new int[count[c]];
+        int[] fill = new int[p.courseCount()];
+        for (int l = 0; l < p.lectureCount(); l++) byCourse[p.course(l)][fill[p.course(l)]++] = l;
+        List<Component> out = new ArrayList<>(byCourse.length);
+        for (int[] lectures : byCourse) out.add(new Component(lectures));
+        out.sort(Comparator.comparingInt(Component::size).reversed());
+        return out;
+    }
+
+    /**
+     * Split the problem into at most {@code maxParts} sub-problems with disjoint courses and time-slot ranges,
+     * packing components largest first into the currently smallest part. Fewer parts are tried when the slots
+     * cannot be shared out among more.
+     * @return the sub-problems in slot order, or the whole problem as a single part if it does not split
+     *         (including when any of its time slots overlap)
+     */
+    public static List<SchedulingProblem> partition(CompiledProblem p, int maxParts) {
+        if (p.hasOverlappingSlots()) return List.of(p.problem());
+        List<Component> components = components(p);
+        for (int parts = Math.min(maxParts, components.size()); parts > 1; parts--) {
+            List<List<Component>> bins = pack(components, parts);
+            int[] slots = slotShares(p, bins);
+            if (slots == null) continue;
+            List<SchedulingProblem> out = new ArrayList<>(parts);
+            int from = 0;
+            for (int i = 0; i < bins.size(); i++) {
+                out.add(subProblem(p, bins.get(i), from, from + slots[i]));
+                from += slots[i];
+            }
+            return out;
+        }
+        return List.of(p.problem());
+    }
+
+    /** Longest-processing-time packing of components (largest first) into {@code parts} bins. */
+    private static List<List<Component>> pack(List<Component> components, int parts) {
+        List<List<Component>> bins = new ArrayList<>(parts);
+        int[] load = new int[parts];
+        for (int i = 0; i < parts; i++) bins.add(new ArrayList<>());
+        for (Component c : components) {
+            int smallest = 0;
+            for (int i = 1; i < parts; i++) if (load[i] < load[smallest]) smallest = i;
+            bins.get(smallest).add(c);
+            load[smallest] += c.size();
+        }
+        return bins;
+    }
+
+    /**
+     * Slots per part: each part first gets the minimum it needs, the rest goes to the parts with the most
+     * lectures per slot. Null if the minimums do not fit into the problem's slots.
+     */
+    private static int[] slotShares(CompiledProblem p, List<List<Component>> bins) {
+        int[] share = new int[bins.size()];
+        int[] size = new int[bins.size()];
+        int used = 0;
+        for (int i = 0; i < bins.size(); i++) {
+            int[] lectures = lecturesOf(bins.get(i));
+            size[i] = lectures.length;
+            share[i] = slotsNeeded(p, lectures);
+            used += share[i];
+        }
+        if (used > p.timeSlotCount()) return null;
+        for (; used < p.timeSlotCount(); used++) {
+            int best = 0;
+            for (int i = 1; i < share.length; i++) {
+                if ((long) size[i] * share[best] > (long) size[best] * share[i]) best = i;
+            }
+            share[best]++;
+        }
+        return share;
+    }
+
+    /**
+     * Fewest slots in which these lectures fit without double booking or course overlap, given all rooms.
+     * Feasible room sets are nested by capacity, so by Hall's theorem the k-th largest lecture (1-based) needs
+     * at least {@code k} room-slots among the rooms that fit it; each course also needs one slot per lecture.
+     * Lectures no room fits violate capacity wherever they go and only need some free room-slot.
+     */
+    static int slotsNeeded(CompiledProblem p, int[] lectures) {
+        Integer[] order = new Integer[lectures.length];
+        for (int i = 0; i < lectures.length; i++) order[i] = lectures[i];
+        Arrays.sort(order, (a, b) -> Integer.compare(p.enrollment(b), p.enrollment(a)));
+        int need = 1;
+        int k = 0;
+        for (int l : order) {
+            k++;
+            int fitting = p.feasibleRoomList(l).length;
+            int rooms = fitting > 0 ? fitting : p.roomCount();
+            if (rooms > 0) need = Math.max(need, (k + rooms - 1) / rooms);
+        }
+        int[] perCourse = new int[p.courseCount()];
+        for (int l : lectures) need = Math.max(need, ++perCourse[p.course(l)]);
+        return need;
+    }
+
+    /** The problem restricted to the components' lectures and courses (original order), all rooms and slots {@code [from, to)}. */
+    static SchedulingProblem subProblem(CompiledProblem p, List<Component> components, int from, int to) {
+        int[] ls = lecturesOf(components);
+        List<Lecture> lectures = new ArrayList<>(ls.length);
+        Set<String> courseIds = new HashSet<>();
+        for (int l : ls) {
+            lectures.add(p.lecture(l));
+            courseIds.add(p.lecture(l).courseId());
+        }
+        List<TimeSlot> slots = new ArrayList<>(to - from);
+        for (int t = from; t < to; t++) slots.add(p.timeSlot(t));
+        SchedulingProblem original = p.problem();
+        List<Course> courses = original.courses() == null ? null
+                : original.courses().stream().filter(c -> courseIds.contains(c.id())).toList();
+        return new SchedulingProblem(courses, lectures, original.rooms(), slots);
+    }
+
+    private static int[] lecturesOf(List<Component> components) {
+        int n = 0;
+        for (Component c : components) n += c.size();
+        int[] out = new int[n];
+        int i = 0;
+        for (Component c : components) {
+            System.arraycopy(c.lectures(), 0, out, i, c.size());
+            i += c.size();
+        }
+        Arrays.sort(out);
+        return out;
+    }
+}
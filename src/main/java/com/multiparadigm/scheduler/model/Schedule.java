@@ -1,13 +1,23 @@
 package com.multiparadigm.scheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
  * A candidate schedule produced by the GA.
  * @param assignments list of lecture-to-room-time assignments
  * @param score optional GA fitness score; higher is better
+ * @param generations generations the GA ran to produce it, if the engine reports it
+ * @param partial true if the run was cut short by its deadline and this is the best schedule found so far
  */
 public record Schedule(
         List<Assignment> assignments,
-        Double score // optional GA fitness score; higher is better
-) {}
+        Double score, // optional GA fitness score; higher is better
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer generations,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean partial
+) {
+    public Schedule(List<Assignment> assignments, Double score) {
+        this(assignments, score, null, null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.multiparadigm.scheduler.model;
+
+import java.util.Locale;
+
+/**
+ * A {@link TimeSlot} parsed into the half-open minute interval {@code [start, end)} on a day, so that
+ * differently named slots can be checked for overlap.
+ * @param day day name, upper case
+ * @param start minutes since midnight
+ * @param end minutes since midnight, greater than {@code start}
+ */
+public record SlotInterval(String day, int start, int end) {
+
+    /**
+     * Parse a slot whose start and end are {@code H:MM} or {@code HH:MM} times.
+     * @return the interval, or null if the day is missing, a time does not parse or the range is empty
+     */
+    public static SlotInterval of(TimeSlot slot) {
+        if (slot == null || slot.day() == null) return null;
+        int start = minutes(slot.start());
+        int end = minutes(slot.end());
+        if (start < 0 || end <= start) return null;
+        return new SlotInterval(slot.day().toUpperCase(Locale.ROOT), start, end);
+    }
+
+    public boolean overlaps(SlotInterval other) {
+        return day.equals(other.day) && start < other.end && other.start < end;
+    }
+
+    /** The overlap with another interval, or null if they do not overlap. */
+    public TimeWindow overlap(SlotInterval other) {
+        if (!overlaps(other)) return null;
+        return new TimeWindow(day, clock(Math.max(start, other.start)), clock(Math.min(end, other.end)));
+    }
+
+    /** {@code HH:MM} for minutes since midnight. */
+    public static String clock(int minutes) {
+        return String.format(Locale.ROOT, "%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    /** Minutes since midnight of {@code H:MM}/{@code HH:MM} (up to 24:00), or -1. */
+    private static int minutes(String time) {
+        if (time == null) return -1;
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || time.length() != colon + 3) return -1;
+        int hours = digits(time, 0, colon);
+        int minutes = digits(time, colon + 1, colon + 3);
+        if (hours < 0 || minutes < 0 || minutes > 59) return -1;
+        int total = hours * 60 + minutes;
+        return total <= 24 * 60 ? total : -1;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+}
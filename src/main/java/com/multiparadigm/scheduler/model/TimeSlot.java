@@ -2,6 +2,7 @@ package com.multiparadigm.scheduler.model;
 
 /**
  * Represents a time window on a particular day.
+ * Slots are compared by their times ({@link SlotInterval}): two differently named slots that overlap conflict.
  * @param id stable identifier of the time slot (e.g., "T1")
  * @param day short day name (e.g., MON, TUE)
  * @param start start time in 24h format (e.g., 09:00)
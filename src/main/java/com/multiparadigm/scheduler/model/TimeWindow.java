@@ -0,0 +1,13 @@
+package com.multiparadigm.scheduler.model;
+
+/**
+ * The window in which two time slots overlap.
+ * @param day day both slots are on, upper case (e.g., MON)
+ * @param start start of the overlap in 24h format (e.g., 10:00)
+ * @param end end of the overlap in 24h format (e.g., 10:30)
+ */
+public record TimeWindow(
+        String day,
+        String start,
+        String end
+) {}
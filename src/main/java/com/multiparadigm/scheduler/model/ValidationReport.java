@@ -0,0 +1,48 @@
+package com.multiparadigm.scheduler.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Validation result with summary counts, possibly grouped and cut off at a maximum number of violations.
+ * @param valid whether the schedule satisfies all constraints (exact even when truncated)
+ * @param violationCount number of violations in the schedule, whether listed or not; a lower bound unless
+ *                       {@code countsExact}
+ * @param counts number of violations per code, over the same violations as {@code violationCount}
+ * @param countsExact whether the counts are totals; false when validation stopped early and only knows that
+ *                    there are at least this many
+ * @param truncated whether there are more violations than listed
+ * @param violations the violations, in the engine's order
+ */
+public record ValidationReport(
+        boolean valid,
+        int violationCount,
+        Map<String, Integer> counts,
+        boolean countsExact,
+        boolean truncated,
+        List<Violation> violations
+) {
+    /**
+     * Report of a complete result, keeping at most {@code maxViolations} of its violations (0 for all) but
+     * counting all of them.
+     */
+    public static ValidationReport of(ValidationResult result, int maxViolations) {
+        return of(result, maxViolations, true);
+    }
+
+    /**
+     * Report of a result, keeping at most {@code maxViolations} of its violations (0 for all).
+     * @param complete whether {@code result} lists every violation; if not, the counts are lower bounds
+     */
+    public static ValidationReport of(ValidationResult result, int maxViolations, boolean complete) {
+        List<Violation> all = result.violations() == null ? List.of() : result.violations();
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Violation v : all) {
+            counts.merge(v.code(), 1, Integer::sum);
+        }
+        boolean truncated = maxViolations > 0 && all.size() > maxViolations;
+        List<Violation> listed = truncated ? all.subList(0, maxViolations) : all;
+        return new ValidationReport(result.valid(), all.size(), counts, complete, truncated, List.copyOf(listed));
+    }
+}
@@ -1,5 +1,9 @@
 package com.multiparadigm.scheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 /**
  * A single constraint violation reported by the validator.
  * @param code machine-readable violation code (e.g., "capacity_exceeded")
@@ -7,11 +11,26 @@ package com.multiparadigm.scheduler.model;
  * @param lectureId related lecture identifier (if applicable)
  * @param roomId related room identifier (if applicable)
  * @param timeSlotId related time slot identifier (if applicable)
+ * @param overlap for conflicts between two lectures, the window in which their time slots overlap
+ *                (null for other violations, and when a slot's times do not parse); for a grouped conflict, the
+ *                window in which all of its lectures overlap (null if they only overlap one after another)
+ * @param lectureIds for a grouped conflict, every lecture of the group in id order (null for other violations)
  */
 public record Violation(
         String code,
         String message,
         String lectureId,
         String roomId,
-        String timeSlotId
-) {}
+        String timeSlotId,
+        @JsonInclude(JsonInclude.Include.NON_NULL) TimeWindow overlap,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<String> lectureIds
+) {
+    public Violation(String code, String message, String lectureId, String roomId, String timeSlotId) {
+        this(code, message, lectureId, roomId, timeSlotId, null, null);
+    }
+
+    public Violation(String code, String message, String lectureId, String roomId, String timeSlotId,
+                     TimeWindow overlap) {
+        this(code, message, lectureId, roomId, timeSlotId, overlap, null);
+    }
+}
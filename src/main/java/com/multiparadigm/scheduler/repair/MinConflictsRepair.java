@@ -0,0 +1,457 @@
+package com.multiparadigm.scheduler.repair;
+
+import com.multiparadigm.scheduler.model.Assignment;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Min-conflicts local search with a tabu list that turns a near-miss schedule into a conflict-free one.
+ * <p>
+ * Conflicts are counted exactly as the validators count violations: one per lecture whose room is too small, one per
+ * pair of lectures in the same room at overlapping times, one per pair of same-course lectures at overlapping times.
+ * Occupancy counts per (room, slot) and (course, slot), and intrusive occupant lists, are kept up to date on every
+ * move, so evaluating a candidate position costs O(1 + overlapping slots) and only the occupants of the cells a
+ * lecture leaves and enters (and of the cells of slots overlapping them) are re-examined. Each step picks a random
+ * conflicted lecture and moves it to the position with the fewest conflicts (rooms that fit it, any slot), ties
+ * broken at random; the position it left is tabu for {@code tabuTenure} steps unless moving back beats the best
+ * schedule seen. The search stops when no conflict is left, after {@code maxSteps} or at the time budget, and returns
+ * the best schedule seen.
+ * <p>
+ * The first assignment of each lecture of the problem is movable; assignments in rooms or slots the problem does
+ * not know are first placed greedily. Other assignments (unknown lectures, repeated lectures) are kept as they
+ * are and still occupy their cells. Unassigned lectures stay unassigned. Instances are thread-safe.
+ * <p>
+ * {@link #reschedule} warm-starts the same search from a previous schedule after the problem changed: lectures
+ * keep their old position where the room and slot still exist, new and displaced lectures are placed greedily,
+ * and leaving an old position costs {@code movePenalty} conflicts. Only lectures in conflict are ever moved, so
+ * the work done is proportional to the conflicts the change introduced rather than to the size of the problem.
+ */
+public class MinConflictsRepair {
+
+    /**
+     * @param timeBudget wall-clock limit of one repair
+     * @param maxSteps upper bound on moves
+     * @param tabuTenure steps during which a lecture may not return to the position it left
+     * @param movePenalty cost, in conflicts, of moving a lecture away from its previous position when rescheduling
+     */
+    public record Settings(Duration timeBudget, int maxSteps, int tabuTenure, double movePenalty) {
+        public Settings(Duration timeBudget, int maxSteps, int tabuTenure) {
+            this(timeBudget, maxSteps, tabuTenure, 0.5);
+        }
+
+        public static Settings defaults() { return new Settings(Duration.ofMillis(200), 200_000, 7); }
+    }
+
+    /**
+     * @param schedule the best schedule found (score cleared, since the generator's fitness no longer applies)
+     * @param initialViolations violations of the input schedule
+     * @param violations violations of the returned schedule
+     * @param steps moves made
+     */
+    public record Result(Schedule schedule, int initialViolations, int violations, int steps) {
+        public boolean feasible() { return violations == 0; }
+    }
+
+    private final Settings settings;
+
+    public MinConflictsRepair() {
+        this(Settings.defaults());
+    }
+
+    public MinConflictsRepair(Settings settings) {
+        this.settings = Objects.requireNonNull(settings);
+    }
+
+    /**
+     * Repair {@code schedule} for {@code problem}.
+     * @param seed random seed for reproducible repairs (null picks one)
+     */
+    public Result repair(CompiledProblem problem, Schedule schedule, Long seed) {
+        Search search = new Search(problem, schedule, random(seed), 0);
+        return search.run(settings);
+    }
+
+    /**
+     * Reschedule a changed problem starting from the previous schedule. The result has one assignment per lecture
+     * of {@code problem}, in problem order; assignments of lectures the problem no longer has are dropped.
+     * @param seed random seed for reproducible rescheduling (null picks one)
+     */
+    public Result reschedule(CompiledProblem problem, Schedule previous, Long seed) {
+        Map<String, Assignment> before = new HashMap<>();
+        if (previous != null && previous.assignments() != null) {
+            for (Assignment a : previous.assignments()) before.putIfAbsent(a.lectureId(), a);
+        }
+        List<Assignment> start = new ArrayList<>(problem.lectureCount());
+        for (int l = 0; l < problem.lectureCount(); l++) {
+            String id = problem.lecture(l).id();
+            Assignment a = before.get(id);
+            start.add(a != null ? a : new Assignment(id, null, null));
+        }
+        long penalty = Math.max(0, Math.round(settings.movePenalty() * Search.SCALE));
+        Search search = new Search(problem, new Schedule(start, null), random(seed), penalty);
+        return search.run(settings);
+    }
+
+    private static SplittableRandom random(Long seed) {
+        return seed == null ? new SplittableRandom() : new SplittableRandom(seed);
+    }
+
+    private static final class Search {
+        // Objective units per conflict; a move penalty is expressed in the same units
+        static final long SCALE = 1000;
+
+        private final CompiledProblem p;
+        private final List<Assignment> original;
+        private final int slots;
+        private final SplittableRandom rng;
+        // Movable lecture per assignment index, -1 for fixed assignments
+        private final int[] movable;
+        private final int[] room;
+        private final int[] slot;
+        private final int[] roomOcc;
+        private final int[] courseOcc;
+        // Intrusive doubly-linked occupant lists of movable lectures per (room, slot) and (course, slot)
+        private final int[] roomHead, roomNext, roomPrev;
+        private final int[] courseHead, courseNext, coursePrev;
+        // Indexed set of movable lectures with at least one conflict
+        private final int[] conflicted;
+        private final int[] conflictPos;
+        private int conflictCount;
+        private final Map<Long, Integer> tabu = new HashMap<>();
+        private int total;
+        // Position each lecture started at (-1 if it had none) and how many lectures are away from theirs
+        private final int[] anchorRoom;
+        private final int[] anchorSlot;
+        private final long movePenalty;
+        private int displaced;
+
+        Search(CompiledProblem p, Schedule schedule, SplittableRandom rng, long movePenalty) {
+            this.p = p;
+            this.movePenalty = movePenalty;
+            this.rng = rng;
+            this.original = schedule == null || schedule.assignments() == null ? List.of() : schedule.assignments();
+            this.slots = p.timeSlotCount();
+            int lectures = p.lectureCount();
+            int roomCells = p.roomCount() * slots;
+            int courseCells = p.courseCount() * slots;
+            this.movable = new int[original.size()];
+            this.room = new int[lectures];
+            this.slot = new int[lectures];
+            Arrays.fill(room, -1);
+            this.roomOcc = new int[roomCells];
+            this.courseOcc = new int[courseCells];
+            this.roomHead = filled(roomCells);
+            this.courseHead = filled(courseCells);
+            this.roomNext = filled(lectures);
+            this.roomPrev = filled(lectures);
+            this.courseNext = filled(lectures);
+            this.coursePrev = filled(lectures);
+            this.conflicted = new int[lectures];
+            this.conflictPos = filled(lectures);
+            this.anchorRoom = filled(lectures);
+            this.anchorSlot = filled(lectures);
+
+            List<Integer> unplaced = new ArrayList<>();
+            boolean[] seen = new boolean[lectures];
+            for (int i = 0; i < original.size(); i++) {
+                Assignment a = original.get(i);
+                int l = p.lectureIndex(a.lectureId());
+                int r = p.roomIndex(a.roomId());
+                int t = p.timeSlotIndex(a.timeSlotId());
+                if (l >= 0 && !seen[l] && p.roomCount() > 0 && slots > 0) {
+                    seen[l] = true;
+                    movable[i] = l;
+                    if (r >= 0 && t >= 0) {
+                        place(l, r, t);
+                        anchorRoom[l] = r;
+                        anchorSlot[l] = t;
+                    } else {
+                        unplaced.add(l);
+                    }
+                } else {
+                    movable[i] = -1;
+                    // Fixed occupants still conflict with lectures moved into their cells
+                    if (r >= 0 && t >= 0) {
+                        roomOcc[r * slots + t]++;
+                        if (l >= 0) courseOcc[p.course(l) * slots + t]++;
+                    }
+                }
+            }
+            total = countViolations();
+            for (int l : unplaced) {
+                int[] best = bestMove(l, -1, Long.MAX_VALUE);
+                place(l, best[0], best[1]);
+                total += best[2];
+            }
+            for (int l = 0; l < lectures; l++) if (room[l] >= 0) refresh(l);
+        }
+
+        Result run(Settings settings) {
+            int initial = initialViolations();
+            int bestViolations = total;
+            long best = rank(total, displaced);
+            int[] bestRoom = room.clone();
+            int[] bestSlot = slot.clone();
+            long deadline = System.nanoTime() + settings.timeBudget().toNanos();
+            int step = 0;
+            while (total > 0 && conflictCount > 0 && step < settings.maxSteps()) {
+                if ((step & 63) == 0 && System.nanoTime() > deadline) break;
+                step++;
+                int l = conflicted[rng.nextInt(conflictCount)];
+                int[] move = bestMove(l, step, best);
+                if (movePenalty > 0 && conflictCount > 1) {
+                    // Of two conflicted lectures move the one that gains more, so lectures that can stay put do
+                    int other = conflicted[rng.nextInt(conflictCount)];
+                    int[] otherMove = other == l ? null : bestMove(other, step, best);
+                    if (otherMove != null && (move == null || delta(otherMove) < delta(move))) {
+                        l = other;
+                        move = otherMove;
+                    }
+                }
+                if (move == null) continue;
+                int fromR = room[l], fromT = slot[l];
+                unplace(l);
+                place(l, move[0], move[1]);
+                total += move[2];
+                displaced += move[3];
+                tabu.put(key(l, fromR, fromT), step + settings.tabuTenure());
+                refreshCell(fromR, fromT, p.course(l));
+                refreshCell(move[0], move[1], p.course(l));
+                if (rank(total, displaced) < best) {
+                    best = rank(total, displaced);
+                    bestViolations = total;
+                    System.arraycopy(room, 0, bestRoom, 0, room.length);
+                    System.arraycopy(slot, 0, bestSlot, 0, slot.length);
+                }
+            }
+            if (movePenalty > 0 && rank(total, displaced) == best) {
+                settle();
+                System.arraycopy(room, 0, bestRoom, 0, room.length);
+                System.arraycopy(slot, 0, bestSlot, 0, slot.length);
+            }
+            List<Assignment> out = new ArrayList<>(original.size());
+            for (int i = 0; i < original.size(); i++) {
+                int l = movable[i];
+                out.add(l < 0 ? original.get(i) : p.assignment(l, bestRoom[l], bestSlot[l]));
+            }
+            return new Result(new Schedule(out, null), initial, bestViolations, step);
+        }
+
+        /**
+         * Cheapest position for {@code l} other than its current one, as {room, slot, conflict delta, displaced
+         * delta}. Positions are compared by conflicts plus move penalty; tabu positions are skipped unless they would
+         * beat the {@code best} {@link #rank}. Null if every position is tabu.
+         */
+        private int[] bestMove(int l, int step, long best) {
+            int c = p.course(l);
+            int[] rooms = p.feasibleRoomList(l);
+            int roomCount = rooms.length > 0 ? rooms.length : p.roomCount();
+            int current = room[l] < 0 ? 0 : cost(l, room[l], slot[l]);
+            int away = room[l] < 0 ? 0 : displacement(l, room[l], slot[l]);
+            long bestCost = Long.MAX_VALUE;
+            int bestR = -1, bestT = -1, bestConflicts = 0, ties = 0;
+            for (int i = 0; i < roomCount; i++) {
+                int r = rooms.length > 0 ? rooms[i] : i;
+                int capacity = p.fits(l, r) ? 0 : 1;
+                for (int t = 0; t < slots; t++) {
+                    if (r == room[l] && t == slot[l]) continue;
+                    int conflicts = capacity + occupants(l, r, c, t);
+                    long cost = conflicts * SCALE + displacement(l, r, t) * movePenalty;
+                    if (cost > bestCost) continue;
+                    if (step >= 0) {
+                        Integer until = tabu.get(key(l, r, t));
+                        if (until != null && until >= step && rank(total + conflicts - current,
+                                displaced + displacement(l, r, t) - away) >= best) continue;
+                    }
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        ties = 0;
+                    }
+                    // Reservoir sampling keeps a uniformly random one among equally good positions
+                    if (rng.nextInt(++ties) == 0) {
+                        bestR = r;
+                        bestT = t;
+                        bestConflicts = conflicts;
+                    }
+                }
+            }
+            if (bestR < 0) return null;
+            return new int[] { bestR, bestT, bestConflicts - current, displacement(l, bestR, bestT) - away };
+        }
+
+        /**
+         * Move displaced lectures back to their starting position wherever that adds no conflict, until none can go
+         * back: the search leaves lectures wherever their last conflict was resolved, even if their old cell has
+         * since been vacated.
+         */
+        private void settle() {
+            for (boolean changed = true; changed; ) {
+                changed = false;
+                for (int l = 0; l < room.length; l++) {
+                    if (room[l] < 0 || displacement(l, room[l], slot[l]) == 0) continue;
+                    int r = anchorRoom[l], t = anchorSlot[l];
+                    int there = cost(l, r, t);
+                    int here = cost(l, room[l], slot[l]);
+                    if (there > here) continue;
+                    unplace(l);
+                    place(l, r, t);
+                    total += there - here;
+                    displaced--;
+                    changed = true;
+                }
+            }
+        }
+
+        /** 1 if lecture {@code l} at (r, t) is away from the position it started at, else 0. */
+        private int displacement(int l, int r, int t) {
+            return anchorRoom[l] < 0 || (anchorRoom[l] == r && anchorSlot[l] == t) ? 0 : 1;
+        }
+
+        private long delta(int[] move) {
+            return move[2] * SCALE + move[3] * movePenalty;
+        }
+
+        /**
+         * Orders schedules by conflicts, then by lectures away from their starting position: the penalty steers the
+         * search, but a schedule with fewer conflicts is always the better result.
+         */
+        private long rank(int conflicts, int away) {
+            return (long) conflicts * (room.length + 1) + away;
+        }
+
+        /** Conflicts lecture {@code l} has (or would have) at (r, t), not counting itself. */
+        private int cost(int l, int r, int t) {
+            return (p.fits(l, r) ? 0 : 1) + occupants(l, r, p.course(l), t);
+        }
+
+        /**
+         * Lectures in room {@code r} plus lectures of course {@code c} at slot {@code t} or a slot overlapping it,
+         * not counting {@code l} itself where it currently is.
+         */
+        private int occupants(int l, int r, int c, int t) {
+            int n = roomOcc[r * slots + t] + courseOcc[c * slots + t];
+            for (int u : p.overlappingSlots(t)) n += roomOcc[r * slots + u] + courseOcc[c * slots + u];
+            if (room[l] >= 0 && p.slotsOverlap(slot[l], t)) n -= room[l] == r ? 2 : 1;
+            return n;
+        }
+
+        private int countViolations() {
+            int v = 0;
+            for (int l = 0; l < room.length; l++) if (room[l] >= 0 && !p.fits(l, room[l])) v++;
+            return v + pairs(roomOcc) + pairs(courseOcc);
+        }
+
+        /** Pairs of occupants within each cell and across the cells of overlapping slots of the same row. */
+        private int pairs(int[] occ) {
+            int v = 0;
+            for (int cell = 0; cell < occ.length; cell++) {
+                int n = occ[cell];
+                if (n == 0) continue;
+                v += n * (n - 1) / 2;
+                int row = cell - cell % slots;
+                for (int u : p.overlappingSlots(cell % slots)) if (u > cell % slots) v += n * occ[row + u];
+            }
+            return v;
+        }
+
+        /** Violations of the input as the validator would count them (unplaced lectures excluded). */
+        private int initialViolations() {
+            Map<Long, Integer> byRoom = new HashMap<>();
+            Map<Long, Integer> byCourse = new HashMap<>();
+            int v = 0;
+            for (Assignment a : original) {
+                int l = p.lectureIndex(a.lectureId());
+                int r = p.roomIndex(a.roomId());
+                int t = p.timeSlotIndex(a.timeSlotId());
+                if (l >= 0 && r >= 0 && !p.fits(l, r)) v++;
+                if (r >= 0 && t >= 0) v += earlier(byRoom, (long) r * slots, t);
+                if (l >= 0 && t >= 0) v += earlier(byCourse, (long) p.course(l) * slots, t);
+            }
+            return v;
+        }
+
+        /** Count one more occupant of (row, t) and return the occupants already at t or overlapping slots. */
+        private int earlier(Map<Long, Integer> counts, long row, int t) {
+            int n = counts.merge(row + t, 1, Integer::sum) - 1;
+            for (int u : p.overlappingSlots(t)) n += counts.getOrDefault(row + u, 0);
+            return n;
+        }
+
+        private void place(int l, int r, int t) {
+            room[l] = r;
+            slot[l] = t;
+            int rc = r * slots + t;
+            int cc = p.course(l) * slots + t;
+            roomOcc[rc]++;
+            courseOcc[cc]++;
+            link(roomHead, roomNext, roomPrev, rc, l);
+            link(courseHead, courseNext, coursePrev, cc, l);
+        }
+
+        private void unplace(int l) {
+            int rc = room[l] * slots + slot[l];
+            int cc = p.course(l) * slots + slot[l];
+            roomOcc[rc]--;
+            courseOcc[cc]--;
+            unlink(roomHead, roomNext, roomPrev, rc, l);
+            unlink(courseHead, courseNext, coursePrev, cc, l);
+        }
+
+        /** Re-examine the movable occupants of a (room, slot) and a (course, slot) cell and of overlapping slots. */
+        private void refreshCell(int r, int t, int c) {
+            refreshOccupants(r, t, c);
+            for (int u : p.overlappingSlots(t)) refreshOccupants(r, u, c);
+        }
+
+        private void refreshOccupants(int r, int t, int c) {
+            for (int l = roomHead[r * slots + t]; l >= 0; l = roomNext[l]) refresh(l);
+            for (int l = courseHead[c * slots + t]; l >= 0; l = courseNext[l]) refresh(l);
+        }
+
+        private void refresh(int l) {
+            boolean conflict = cost(l, room[l], slot[l]) > 0;
+            if (conflict && conflictPos[l] < 0) {
+                conflictPos[l] = conflictCount;
+                conflicted[conflictCount++] = l;
+            } else if (!conflict && conflictPos[l] >= 0) {
+                int last = conflicted[--conflictCount];
+                conflicted[conflictPos[l]] = last;
+                conflictPos[last] = conflictPos[l];
+                conflictPos[l] = -1;
+            }
+        }
+
+        private long key(int l, int r, int t) {
+            return ((long) l * p.roomCount() + r) * slots + t;
+        }
+
+        private static void link(int[] head, int[] next, int[] prev, int cell, int l) {
+            next[l] = head[cell];
+            prev[l] = -1;
+            if (head[cell] >= 0) prev[head[cell]] = l;
+            head[cell] = l;
+        }
+
+        private static void unlink(int[] head, int[] next, int[] prev, int cell, int l) {
+            if (prev[l] >= 0) next[prev[l]] = next[l];
+            else head[cell] = next[l];
+            if (next[l] >= 0) prev[next[l]] = prev[l];
+            next[l] = prev[l] = -1;
+        }
+
+        private static int[] filled(int n) {
+            int[] a = new int[n];
+            Arrays.fill(a, -1);
+            return a;
+        }
+    }
+}
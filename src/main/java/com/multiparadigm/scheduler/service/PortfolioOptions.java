@@ -0,0 +1,20 @@
+package com.multiparadigm.scheduler.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Settings of one portfolio (race) generation request.
+ * @param runs number of concurrent generator runs
+ * @param deadline time after which the best candidate so far is returned and the remaining runs are cancelled
+ * @param engines generator engines assigned to the runs round-robin (empty means the primary engine)
+ * @param seed base seed; run {@code i} uses {@code seed + i} (null picks random seeds)
+ */
+public record PortfolioOptions(int runs, Duration deadline, List<String> engines, Long seed) {
+    public PortfolioOptions {
+        if (runs < 1) throw new IllegalArgumentException("runs must be at least 1");
+        Objects.requireNonNull(deadline);
+        engines = engines == null ? List.of() : List.copyOf(engines);
+    }
+}
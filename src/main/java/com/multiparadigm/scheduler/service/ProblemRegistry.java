@@ -0,0 +1,77 @@
+package com.multiparadigm.scheduler.service;
+
+import com.multiparadigm.scheduler.cache.CacheStats;
+import com.multiparadigm.scheduler.cache.CanonicalHash;
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Problems registered once and then referenced by id, so that repeated validate, generate and repair calls
+ * during a planning session neither resend, re-parse nor re-index the problem.
+ * <p>
+ * The id is the problem's {@link CanonicalHash}, so registering the same problem again returns the same id.
+ * Registered problems are kept compiled in a bounded LRU (by count and by {@link CompiledProblem#footprint()},
+ * which grows with lectures × rooms); they are also written to the {@link ScheduleStore} when it is enabled, and
+ * a problem evicted from memory (or registered before a restart) is loaded back from there on its next use.
+ */
+@Service
+public class ProblemRegistry {
+    private final ResultCache<RegisteredProblem> problems;
+    private final ScheduleStore store;
+
+    @Autowired
+    public ProblemRegistry(
+            @Value("${app.registry.max-entries:64}") int maxEntries,
+            @Value("${app.registry.max-weight:20000000}") long maxWeight,
+            @Value("${app.registry.ttl.minutes:0}") long ttlMinutes,
+            ScheduleStore store
+    ) {
+        this(new ResultCache.Settings(true, maxEntries, maxWeight, Duration.ofMinutes(ttlMinutes)), store);
+    }
+
+    public ProblemRegistry(ResultCache.Settings settings, ScheduleStore store) {
+        this.problems = new ResultCache<>(settings, ProblemRegistry::weight);
+        this.store = Objects.requireNonNull(store);
+    }
+
+    /** Register a problem (idempotent) and return its compiled entry. */
+    public RegisteredProblem register(SchedulingProblem problem) {
+        String id = CanonicalHash.of(Objects.requireNonNull(problem));
+        RegisteredProblem registered = problems.getIfPresent(id);
+        if (registered != null) return registered;
+        if (store.enabled()) store.putProblem(problem);
+        registered = new RegisteredProblem(id, CompiledProblem.of(problem), Instant.now());
+        problems.put(id, registered);
+        return registered;
+    }
+
+    /** The registered problem with this id, loading it from the store if it is no longer in memory. */
+    public Optional<RegisteredProblem> find(String id) {
+        if (id == null) return Optional.empty();
+        RegisteredProblem registered = problems.getIfPresent(id);
+        if (registered != null) return Optional.of(registered);
+        return store.problem(id).map(problem -> {
+            RegisteredProblem loaded = new RegisteredProblem(id, CompiledProblem.of(problem), Instant.now());
+            problems.put(id, loaded);
+            return loaded;
+        });
+    }
+
+    public CacheStats stats() {
+        return problems.stats();
+    }
+
+    private static long weight(RegisteredProblem p) {
+        return 1L + p.compiled().footprint();
+    }
+}
@@ -0,0 +1,21 @@
+package com.multiparadigm.scheduler.service;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+
+import java.time.Instant;
+
+/**
+ * A problem held by the {@link ProblemRegistry}: parsed, compiled and hashed once, then reused by every request
+ * that refers to it by id.
+ * @param id registry id, which is the problem's canonical content hash
+ * @param compiled the compiled problem (its {@code problem()} is the original)
+ * @param registeredAt time the problem was (re)loaded into the registry
+ */
+public record RegisteredProblem(
+        String id,
+        CompiledProblem compiled,
+        Instant registeredAt
+) {
+    /** Content hash of the problem; equal to {@link #id()}. */
+    public String hash() { return id; }
+}
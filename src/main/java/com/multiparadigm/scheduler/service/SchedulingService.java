@@ -1,50 +1,628 @@
 package com.multiparadigm.scheduler.service;
 
-import com.multiparadigm.scheduler.ga.HaskellGAClient;
+import com.multiparadigm.scheduler.cache.CanonicalHash;
+import com.multiparadigm.scheduler.cache.SchedulingCaches;
+import com.multiparadigm.scheduler.cache.SingleFlight;
+import com.multiparadigm.scheduler.exec.BulkheadRejectedException;
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.ProgressListener;
+import com.multiparadigm.scheduler.ga.GeneratorEngines;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.model.Assignment;
+import com.multiparadigm.scheduler.model.CompiledProblem;
 import com.multiparadigm.scheduler.model.Schedule;
 import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationReport;
 import com.multiparadigm.scheduler.model.ValidationResult;
-import com.multiparadigm.scheduler.validation.PrologValidator;
+import com.multiparadigm.scheduler.repair.MinConflictsRepair;
+import com.multiparadigm.scheduler.solver.BacktrackingSolver;
+import com.multiparadigm.scheduler.validation.ScheduleValidator;
+import com.multiparadigm.scheduler.validation.ValidationOptions;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
 /**
- * Application service orchestrating GA generation and Prolog validation.
+ * Application service orchestrating schedule generation, validation, repair and solving, with result caching
+ * and coalescing of identical concurrent calls. Methods taking a {@link RegisteredProblem} reuse the compiled
+ * form and hash paid for once at registration. Calls are timed per operation with problem-size tags.
  */
 @Service
 public class SchedulingService {
-    private final HaskellGAClient gaClient;
-    private final PrologValidator validator;
+    private final ScheduleGenerator generator;
+    private final ScheduleValidator validator;
+    private final SchedulingCaches caches;
+    private final SchedulerMetrics metrics;
+    private final GeneratorEngines engines;
+    private final MinConflictsRepair repair;
+    private final BacktrackingSolver solver;
+    private final SingleFlight flights;
 
-    public SchedulingService(HaskellGAClient gaClient, PrologValidator validator) {
-        this.gaClient = gaClient;
+    /**
+     * @param engines engines selectable per portfolio run; the primary one should be {@code generator}
+     * @param repair local search used by {@link #repair} and repairing generate-and-validate
+     * @param solver exact solver used by {@link #solve}
+     * @param flights coalescing of identical concurrent calls
+     */
+    @Autowired
+    public SchedulingService(ScheduleGenerator generator, ScheduleValidator validator, SchedulingCaches caches,
+                             SchedulerMetrics metrics, GeneratorEngines engines, MinConflictsRepair repair,
+                             BacktrackingSolver solver, SingleFlight flights) {
+        this.generator = generator;
         this.validator = validator;
+        this.caches = caches;
+        this.metrics = metrics;
+        this.engines = engines;
+        this.repair = repair;
+        this.solver = solver;
+        this.flights = flights;
+    }
+
+    /**
+     * A service with default collaborators: no caches, no metrics, {@code generator} as the only engine and
+     * coalescing enabled; mainly for tests and benchmarks.
+     */
+    public static Builder builder(ScheduleGenerator generator, ScheduleValidator validator) {
+        return new Builder(generator, validator);
     }
 
+    public SchedulingCaches caches() { return caches; }
+
     /**
-     * Generate a candidate schedule for the given problem using the Haskell GA.
+     * Generate a candidate schedule for the given problem using the configured generator engine.
      */
     public Schedule generate(SchedulingProblem problem) {
-        return gaClient.generate(problem);
+        return generate(problem, GenerationOptions.defaults());
+    }
+
+    /**
+     * Generate a candidate schedule with per-request options (e.g. progress reporting). The schedule is cached
+     * by problem hash only when the caller fixes a seed, as an unseeded run is expected to differ every time,
+     * and never when it is a deadline-bound partial schedule, since a longer run may do better.
+     * <p>
+     * Identical concurrent calls (same problem, seed and deadline) are coalesced: later callers wait for the run
+     * already in flight and share its result, so an unseeded run answers every identical unseeded call, as any
+     * run would. Calls reporting progress always run alone. See {@link SingleFlight} for when a shared run is
+     * cancelled.
+     */
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        Request request = new Request(problem);
+        return coalesce("generate", request, options, false, () -> generate(request, options));
+    }
+
+    /**
+     * Generate for a problem from the {@link ProblemRegistry}, reusing its compiled form and hash.
+     */
+    public Schedule generate(RegisteredProblem problem, GenerationOptions options) {
+        Request request = new Request(problem);
+        return coalesce("generate", request, options, false, () -> generate(request, options));
     }
 
     /**
-     * Validate the given schedule against the problem using the Prolog validator.
+     * Validate the given schedule against the problem using the configured validator engine. Validation is
+     * deterministic, so results are cached by problem and schedule hash, and identical concurrent calls are
+     * coalesced into one validator run.
      */
     public ValidationResult validate(SchedulingProblem problem, Schedule schedule) {
-        return validator.validate(problem, schedule);
+        return validateShared(new Request(problem), schedule);
+    }
+
+    /**
+     * Validate against a problem from the {@link ProblemRegistry}, reusing its compiled form and hash.
+     */
+    public ValidationResult validate(RegisteredProblem problem, Schedule schedule) {
+        return validateShared(new Request(problem), schedule);
+    }
+
+    /**
+     * Validate and report with counts per code, optionally grouping conflicts per room or course and time, and
+     * stopping at {@code options.maxViolations()}. A cached complete result answers any report; otherwise the
+     * validator may stop early, and its result is only cached if it turned out complete and pairwise.
+     */
+    public ValidationReport validateReport(SchedulingProblem problem, Schedule schedule, ValidationOptions options) {
+        return validateReport(new Request(problem), schedule, options);
+    }
+
+    /**
+     * Validation report for a problem from the {@link ProblemRegistry}.
+     */
+    public ValidationReport validateReport(RegisteredProblem problem, Schedule schedule, ValidationOptions options) {
+        return validateReport(new Request(problem), schedule, options);
+    }
+
+    private ValidationReport validateReport(Request request, Schedule schedule, ValidationOptions options) {
+        if (options.equals(ValidationOptions.FULL)) return ValidationReport.of(validate(request, schedule), 0);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            boolean cached = caches.validation().settings().enabled();
+            String key = cached ? SchedulingCaches.validationKey(request.hash(), CanonicalHash.of(schedule)) : null;
+            ValidationResult complete = cached ? caches.validation().getIfPresent(key) : null;
+            ValidationReport report;
+            if (complete != null) {
+                report = options.report(request.compiled(), schedule, complete);
+            } else {
+                report = validator.validate(request.compiled(), schedule, options);
+                if (cached && !options.grouped() && !report.truncated()) {
+                    caches.validation().put(key, new ValidationResult(report.valid(), report.violations()));
+                }
+            }
+            outcome = report.truncated() ? "truncated" : "success";
+            return report;
+        } finally {
+            metrics.service("report", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Validate many schedules against one problem. The problem is compiled and hashed once, cached results
+     * are reused, and the remaining schedules go to the validator as one batch.
+     * @return one result per schedule, in the order of {@code schedules}
+     */
+    public List<ValidationResult> validateAll(SchedulingProblem problem, List<Schedule> schedules) {
+        return validateAll(new Request(problem), schedules);
+    }
+
+    /**
+     * Validate many schedules against a problem from the {@link ProblemRegistry}.
+     */
+    public List<ValidationResult> validateAll(RegisteredProblem problem, List<Schedule> schedules) {
+        return validateAll(new Request(problem), schedules);
+    }
+
+    private List<ValidationResult> validateAll(Request request, List<Schedule> schedules) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            ValidationResult[] results = new ValidationResult[schedules.size()];
+            String[] keys = new String[schedules.size()];
+            List<Integer> pending = new ArrayList<>();
+            boolean cached = caches.validation().settings().enabled();
+            for (int i = 0; i < schedules.size(); i++) {
+                if (cached) {
+                    keys[i] = SchedulingCaches.validationKey(request.hash(), CanonicalHash.of(schedules.get(i)));
+                    results[i] = caches.validation().getIfPresent(keys[i]);
+                }
+                if (results[i] == null) pending.add(i);
+            }
+            if (!pending.isEmpty()) {
+                List<Schedule> batch = pending.stream().map(schedules::get).toList();
+                List<ValidationResult> validated = validator.validateAll(request.compiled(), batch);
+                for (int j = 0; j < pending.size(); j++) {
+                    int i = pending.get(j);
+                    results[i] = validated.get(j);
+                    if (cached) caches.validation().put(keys[i], results[i]);
+                }
+            }
+            outcome = "success";
+            return Arrays.asList(results);
+        } finally {
+            metrics.service("validate_batch", outcome, request.size, System.nanoTime() - start);
+        }
     }
 
     /**
      * Convenience method that generates a schedule and validates it in one call.
      */
     public Result generateAndValidate(SchedulingProblem problem) {
-        Schedule schedule = generate(problem);
-        ValidationResult validation = validate(problem, schedule);
+        return generateAndValidate(problem, GenerationOptions.defaults());
+    }
+
+    /**
+     * Generate with per-request options and validate the result.
+     */
+    public Result generateAndValidate(SchedulingProblem problem, GenerationOptions options) {
+        return generateAndValidate(problem, options, false);
+    }
+
+    /**
+     * Generate, validate and, if {@code repair} is set and the schedule has violations, repair it as a final stage.
+     * The repaired schedule is returned only if the validator finds fewer violations in it. Identical concurrent
+     * calls, including the repair flag, are coalesced as in {@link #generate(SchedulingProblem, GenerationOptions)}.
+     */
+    public Result generateAndValidate(SchedulingProblem problem, GenerationOptions options, boolean repair) {
+        Request request = new Request(problem);
+        return coalesce("generate-and-validate", request, options, repair,
+                () -> generateAndValidate(request, options, repair));
+    }
+
+    /**
+     * Generate and validate (optionally repair) for a problem from the {@link ProblemRegistry}.
+     */
+    public Result generateAndValidate(RegisteredProblem problem, GenerationOptions options, boolean repair) {
+        Request request = new Request(problem);
+        return coalesce("generate-and-validate", request, options, repair,
+                () -> generateAndValidate(request, options, repair));
+    }
+
+    private Result generateAndValidate(Request request, GenerationOptions options, boolean repair) {
+        Schedule schedule = generate(request, options);
+        ValidationResult validation = validate(request, schedule);
+        if (repair && !validation.valid()) {
+            RepairResult repaired = repair(request, schedule, validation, options.seed());
+            return new Result(repaired.schedule(), repaired.validation());
+        }
         return new Result(schedule, validation);
     }
 
+    /**
+     * Repair a schedule with min-conflicts moves until it is conflict-free or the time budget runs out, then
+     * validate the outcome with the configured validator.
+     * @param validation the schedule's validation as known to the caller, or null; only a hint, the outcome is
+     *                   decided by the search's own violation counts
+     * @param seed random seed for a reproducible repair (null picks one)
+     * @return the repaired schedule, or the input schedule if the validator finds no improvement
+     */
+    public RepairResult repair(SchedulingProblem problem, Schedule schedule, ValidationResult validation, Long seed) {
+        return repair(new Request(problem), schedule, validation, seed);
+    }
+
+    /**
+     * Repair a schedule of a problem from the {@link ProblemRegistry}.
+     */
+    public RepairResult repair(RegisteredProblem problem, Schedule schedule, ValidationResult validation, Long seed) {
+        return repair(new Request(problem), schedule, validation, seed);
+    }
+
+    /**
+     * Reschedule a changed problem from its previous schedule: lectures keep their room and slot where these still
+     * exist, and only the lectures that are new, lost their room or slot, or conflict with them are moved, with a
+     * penalty for every lecture moved. The outcome is validated with the configured validator.
+     * @param seed random seed for a reproducible reschedule (null picks one)
+     */
+    public RescheduleResult reschedule(SchedulingProblem problem, Schedule previous, Long seed) {
+        Request request = new Request(problem);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            MinConflictsRepair.Result result = repair.reschedule(request.compiled(), previous, seed);
+            ValidationResult validation = validate(request, result.schedule());
+            Map<String, Assignment> before = new HashMap<>();
+            if (previous != null && previous.assignments() != null) {
+                for (Assignment a : previous.assignments()) before.putIfAbsent(a.lectureId(), a);
+            }
+            int kept = 0, moved = 0, added = 0;
+            for (Assignment a : result.schedule().assignments()) {
+                Assignment old = before.get(a.lectureId());
+                if (old == null) added++;
+                else if (old.equals(a)) kept++;
+                else moved++;
+            }
+            outcome = validation.valid() ? "valid" : "invalid";
+            return new RescheduleResult(result.schedule(), validation, kept, moved, added, result.steps());
+        } finally {
+            metrics.service("reschedule", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Solve exactly: a conflict-free schedule, a proof that the problem has none, or a timeout. Unless solved,
+     * the schedule is the best effort built from the deepest partial assignment found; it is validated with the
+     * configured validator.
+     * @param seed random seed for reproducible tie-breaking (null picks one)
+     * @param timeLimit how long the search may take (null for the configured limit)
+     * @throws IllegalArgumentException if the problem has lectures but no rooms or time slots
+     */
+    public SolveResult solve(SchedulingProblem problem, Long seed, Duration timeLimit) {
+        Request request = new Request(problem);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            BacktrackingSolver.Result result = timeLimit == null
+                    ? solver.solve(request.compiled(), seed)
+                    : solver.solve(request.compiled(), seed, timeLimit);
+            if (result.schedule() == null) {
+                throw new IllegalArgumentException("Problem has lectures but no rooms or time slots");
+            }
+            ValidationResult validation = validate(request, result.schedule());
+            outcome = result.outcome().name().toLowerCase();
+            return new SolveResult(result.outcome(), result.schedule(), validation, result.nodes(), result.restarts());
+        } finally {
+            metrics.service("solve", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Race {@code runs} generator runs with distinct seeds and return the best validated candidate: the one
+     * with the fewest violations, then the highest score, then the earliest. Returns as soon as a candidate
+     * has no violations, or at the deadline with the best candidate so far; remaining runs are cancelled, which
+     * interrupts them and kills their external processes. Each run is given the deadline less a tenth of it,
+     * kept for returning and validating, so anytime engines still hand in a partial best-so-far schedule.
+     * @throws IllegalArgumentException for unknown engine names
+     * @throws RuntimeException if no run produced a schedule before the deadline
+     */
+    public PortfolioResult generatePortfolio(SchedulingProblem problem, PortfolioOptions options) {
+        List<ScheduleGenerator> generators = new ArrayList<>();
+        List<String> names = options.engines().isEmpty() ? List.of(engines.primary()) : options.engines();
+        for (String name : names) generators.add(engines.get(name));
+
+        Request request = new Request(problem);
+        CompiledProblem compiled = request.compiled();
+        long start = System.nanoTime();
+        long deadline = start + options.deadline().toNanos();
+        long runDeadline = deadline - options.deadline().toNanos() / 10;
+        long baseSeed = options.seed() != null ? options.seed() : ThreadLocalRandom.current().nextLong();
+        String outcome = "error";
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("portfolio-", 0).factory());
+        try {
+            CompletionService<PortfolioResult> runs = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < options.runs(); i++) {
+                String engine = names.get(i % names.size());
+                ScheduleGenerator g = generators.get(i % generators.size());
+                long seed = baseSeed + i;
+                runs.submit(() -> {
+                    Duration remaining = Duration.ofNanos(Math.max(1, runDeadline - System.nanoTime()));
+                    GenerationOptions runOptions = GenerationOptions.defaults().withSeed(seed).withDeadline(remaining);
+                    Schedule schedule = g.generate(compiled, runOptions);
+                    ValidationResult validation = validator.validate(compiled, schedule);
+                    return new PortfolioResult(schedule, validation, engine, seed, 0, 0);
+                });
+            }
+            PortfolioResult best = null;
+            int completed = 0;
+            int failed = 0;
+            RuntimeException lastError = null;
+            while (completed + failed < options.runs()) {
+                long remaining = deadline - System.nanoTime();
+                Future<PortfolioResult> done = remaining > 0 ? runs.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) break;
+                try {
+                    PortfolioResult candidate = done.get();
+                    completed++;
+                    if (best == null || better(candidate, best)) best = candidate;
+                    if (candidate.validation().valid()) break;
+                } catch (ExecutionException e) {
+                    failed++;
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    lastError = cause instanceof RuntimeException re ? re : new RuntimeException(cause.getMessage(), cause);
+                }
+            }
+            if (best == null) {
+                // Shed by a bulkhead: surface the rejection itself so the caller gets 429 and a retry hint
+                if (failed == options.runs() && lastError instanceof BulkheadRejectedException rejected) throw rejected;
+                if (failed == options.runs() && lastError != null) {
+                    throw new RuntimeException("All portfolio runs failed: " + lastError.getMessage(), lastError);
+                }
+                throw new RuntimeException("No portfolio run finished within " + options.deadline().toMillis() + " ms");
+            }
+            outcome = "success";
+            return new PortfolioResult(best.schedule(), best.validation(), best.engine(), best.seed(), completed, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Portfolio generation interrupted", e);
+        } finally {
+            // Interrupts the runs still in flight; their runners kill the external processes
+            executor.shutdownNow();
+            metrics.service("portfolio", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    private RepairResult repair(Request request, Schedule schedule, ValidationResult validation, Long seed) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            // The search counts violations exactly as the validators do, so its own counts decide; the caller's
+            // validation (possibly grouped or capped) is only reused when the search also finds no conflict
+            MinConflictsRepair.Result result = repair.repair(request.compiled(), schedule, seed);
+            if (result.violations() >= result.initialViolations()) {
+                outcome = "unchanged";
+                ValidationResult before = validation != null && validation.valid() && result.initialViolations() == 0
+                        ? validation : validate(request, schedule);
+                return new RepairResult(schedule, before, result.initialViolations(), result.steps());
+            }
+            ValidationResult after = validate(request, result.schedule());
+            outcome = after.valid() ? "repaired" : "improved";
+            return new RepairResult(result.schedule(), after, result.initialViolations(), result.steps());
+        } finally {
+            metrics.service("repair", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean better(PortfolioResult a, PortfolioResult b) {
+        int va = a.validation().violations().size();
+        int vb = b.validation().violations().size();
+        if (va != vb) return va < vb;
+        double sa = a.schedule().score() == null ? Double.NEGATIVE_INFINITY : a.schedule().score();
+        double sb = b.schedule().score() == null ? Double.NEGATIVE_INFINITY : b.schedule().score();
+        return sa > sb;
+    }
+
+    private Schedule generate(Request request, GenerationOptions options) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Schedule schedule;
+            if (options.seed() == null || !caches.generation().settings().enabled()) {
+                schedule = generator.generate(request.compiled(), options);
+            } else {
+                String key = SchedulingCaches.generationKey(request.hash(), options.seed());
+                schedule = caches.generation().getIfPresent(key);
+                if (schedule == null) {
+                    schedule = generator.generate(request.compiled(), options);
+                    // A deadline-bound snapshot depends on timing, not just on the seed
+                    if (schedule != null && !Boolean.TRUE.equals(schedule.partial())) caches.generation().put(key, schedule);
+                }
+            }
+            outcome = schedule != null && Boolean.TRUE.equals(schedule.partial()) ? "partial" : "success";
+            return schedule;
+        } finally {
+            metrics.service("generate", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    /** Run a generation call, or join the identical one in flight; calls reporting progress always run alone. */
+    private <V> V coalesce(String operation, Request request, GenerationOptions options, boolean repair,
+                           Supplier<V> work) {
+        if (!flights.enabled() || options.progress() != ProgressListener.NONE) return work.get();
+        String key = operation + ":" + request.hash() + ":" + options.seed()
+                + ":" + (options.deadline() == null ? null : options.deadline().toMillis()) + ":" + repair;
+        return flights.call(key, work);
+    }
+
+    private ValidationResult validateShared(Request request, Schedule schedule) {
+        boolean keyed = flights.enabled() || caches.validation().settings().enabled();
+        String key = keyed ? SchedulingCaches.validationKey(request.hash(), CanonicalHash.of(schedule)) : null;
+        if (!flights.enabled()) return validate(request, schedule, key);
+        return flights.call("validate:" + key, () -> validate(request, schedule, key));
+    }
+
+    private ValidationResult validate(Request request, Schedule schedule) {
+        return validate(request, schedule, null);
+    }
+
+    /** Validate through the result cache; {@code key} is the schedule's validation key, or null to compute it. */
+    private ValidationResult validate(Request request, Schedule schedule, String key) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            ValidationResult result;
+            if (!caches.validation().settings().enabled()) {
+                result = validator.validate(request.compiled(), schedule);
+            } else {
+                if (key == null) key = SchedulingCaches.validationKey(request.hash(), CanonicalHash.of(schedule));
+                result = caches.validation().get(key, () -> validator.validate(request.compiled(), schedule));
+            }
+            outcome = "success";
+            return result;
+        } finally {
+            metrics.service("validate", outcome, request.size, System.nanoTime() - start);
+        }
+    }
+
+    /** Builder for {@link #builder}; every collaborator left unset keeps its default. */
+    public static final class Builder {
+        private final ScheduleGenerator generator;
+        private final ScheduleValidator validator;
+        private SchedulingCaches caches = SchedulingCaches.disabled();
+        private SchedulerMetrics metrics = SchedulerMetrics.NOOP;
+        private GeneratorEngines engines;
+        private MinConflictsRepair repair = new MinConflictsRepair();
+        private BacktrackingSolver solver = new BacktrackingSolver();
+        private SingleFlight flights = new SingleFlight();
+
+        private Builder(ScheduleGenerator generator, ScheduleValidator validator) {
+            this.generator = generator;
+            this.validator = validator;
+        }
+
+        public Builder caches(SchedulingCaches caches) { this.caches = caches; return this; }
+
+        public Builder metrics(SchedulerMetrics metrics) { this.metrics = metrics; return this; }
+
+        public Builder engines(GeneratorEngines engines) { this.engines = engines; return this; }
+
+        public Builder repair(MinConflictsRepair repair) { this.repair = repair; return this; }
+
+        public Builder solver(BacktrackingSolver solver) { this.solver = solver; return this; }
+
+        public Builder flights(SingleFlight flights) { this.flights = flights; return this; }
+
+        public SchedulingService build() {
+            GeneratorEngines e = engines != null ? engines : GeneratorEngines.of("default", generator);
+            return new SchedulingService(generator, validator, caches, metrics, e, repair, solver, flights);
+        }
+    }
+
+    /**
+     * One request's problem, compiled and hashed at most once and shared by generation, validation and caches;
+     * for a registered problem both are already known.
+     */
+    private final class Request {
+        private final SchedulingProblem problem;
+        private final Tags size;
+        private CompiledProblem compiled;
+        private String hash;
+
+        Request(SchedulingProblem problem) {
+            this.problem = problem;
+            this.size = SchedulerMetrics.sizeTags(problem);
+        }
+
+        Request(RegisteredProblem registered) {
+            this(registered.compiled().problem());
+            this.compiled = registered.compiled();
+            this.hash = registered.hash();
+        }
+
+        CompiledProblem compiled() {
+            if (compiled == null) {
+                long start = System.nanoTime();
+                compiled = CompiledProblem.of(problem);
+                metrics.stage("service", "compile", size, System.nanoTime() - start);
+            }
+            return compiled;
+        }
+
+        String hash() {
+            if (hash == null) {
+                long start = System.nanoTime();
+                hash = CanonicalHash.of(problem);
+                metrics.stage("service", "hash", size, System.nanoTime() - start);
+            }
+            return hash;
+        }
+    }
+
     /**
      * Tuple result carrying both the generated schedule and its validation result.
      */
     public record Result(Schedule schedule, ValidationResult validation) {}
+
+    /**
+     * Outcome of a repair.
+     * @param schedule the repaired schedule, or the input if repair did not reduce the violations
+     * @param validation validation of {@code schedule} by the configured validator
+     * @param initialViolations violations of the input schedule
+     * @param steps min-conflicts moves made
+     */
+    public record RepairResult(Schedule schedule, ValidationResult validation, int initialViolations, int steps) {}
+
+    /**
+     * Outcome of a reschedule.
+     * @param schedule one assignment per lecture of the changed problem
+     * @param validation validation of {@code schedule} by the configured validator
+     * @param kept lectures left in their previous room and slot
+     * @param moved lectures placed somewhere else than before
+     * @param added lectures the previous schedule did not assign
+     * @param steps min-conflicts moves made
+     */
+    public record RescheduleResult(Schedule schedule, ValidationResult validation, int kept, int moved, int added,
+                                   int steps) {}
+
+    /**
+     * Outcome of an exact solve.
+     * @param outcome {@code SOLVED}, {@code INFEASIBLE} (no conflict-free schedule exists) or {@code TIMEOUT}
+     * @param schedule the solution, or otherwise the best effort
+     * @param validation validation of {@code schedule} by the configured validator
+     * @param nodes assignments tried
+     * @param restarts search restarts made
+     */
+    public record SolveResult(BacktrackingSolver.Outcome outcome, Schedule schedule, ValidationResult validation,
+                              long nodes, int restarts) {}
+
+    /**
+     * Winner of a portfolio race.
+     * @param engine engine that produced the schedule
+     * @param seed seed of the winning run
+     * @param completedRuns runs that finished before the race ended
+     * @param failedRuns runs that threw
+     */
+    public record PortfolioResult(
+            Schedule schedule,
+            ValidationResult validation,
+            String engine,
+            long seed,
+            int completedRuns,
+            int failedRuns
+    ) {}
 }
@@ -0,0 +1,383 @@
+package com.multiparadigm.scheduler.solver;
+
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Exact constraint-propagation solver for small and medium problems: it finds a conflict-free schedule, proves
+ * that none exists, or gives up at its time limit.
+ * <p>
+ * Every lecture has a domain bitset over the values {@code slot * rooms + room}, initially the rooms large enough
+ * for it in every slot. Assigning a lecture forward-checks the others: its room at that slot and at every slot
+ * overlapping it is removed from all unassigned domains, and those slots are removed entirely from the domains of
+ * the other lectures of its course, so a wiped-out domain fails the assignment at once. The next lecture is the
+ * one with the fewest values left (MRV), ties broken by the most unassigned lectures of its course (degree) and
+ * then at random; its values are tried slot by slot in a random slot order, smallest fitting room first. Domain
+ * changes are recorded on a trail and undone on backtracking.
+ * <p>
+ * The search restarts with fresh random tie-breaking after a Luby sequence of failure limits, so an unlucky
+ * early choice cannot trap it. A search that exhausts its tree within the limit proves the problem infeasible, as
+ * does a lecture no room fits or a counting bound (more lectures than room-slots, or more lectures of a course
+ * than slots). Otherwise the deepest partial assignment found is completed greedily with the fewest conflicts.
+ * <p>
+ * As a {@link ScheduleGenerator} it returns the solution, or the best effort marked {@code partial} if the time
+ * limit (or the request's shorter deadline) cut the search short. Instances are thread-safe.
+ */
+public class BacktrackingSolver implements ScheduleGenerator {
+
+    public enum Outcome { SOLVED, INFEASIBLE, TIMEOUT }
+
+    /**
+     * @param timeLimit wall-clock limit of one solve
+     * @param restartBase failed assignments allowed before the first restart; later limits follow the Luby sequence
+     */
+    public record Settings(Duration timeLimit, int restartBase) {
+        public static Settings defaults() { return new Settings(Duration.ofSeconds(2), 100); }
+    }
+
+    /**
+     * @param outcome whether the schedule is a solution, the problem has none, or the time limit came first
+     * @param schedule the solution, or otherwise the best effort; null if the problem has lectures but no rooms
+     *                 or time slots
+     * @param nodes assignments tried
+     * @param restarts restarts made
+     */
+    public record Result(Outcome outcome, Schedule schedule, long nodes, int restarts) {}
+
+    private final Settings settings;
+
+    public BacktrackingSolver() {
+        this(Settings.defaults());
+    }
+
+    public BacktrackingSolver(Settings settings) {
+        this.settings = Objects.requireNonNull(settings);
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem) {
+        return generate(CompiledProblem.of(problem), GenerationOptions.defaults());
+    }
+
+    @Override
+    public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+        return generate(CompiledProblem.of(problem), options);
+    }
+
+    @Override
+    public Schedule generate(CompiledProblem problem, GenerationOptions options) {
+        Duration limit = settings.timeLimit();
+        if (options.deadline() != null && options.deadline().compareTo(limit) < 0) limit = options.deadline();
+        Result result = solve(problem, options.seed(), limit);
+        Schedule schedule = result.schedule();
+        if (schedule == null) throw new IllegalArgumentException("Problem has lectures but no rooms or time slots");
+        if (result.outcome() != Outcome.TIMEOUT) return schedule;
+        return new Schedule(schedule.assignments(), schedule.score(), null, true);
+    }
+
+    /** Solve within the configured time limit. */
+    public Result solve(CompiledProblem problem, Long seed) {
+        return solve(problem, seed, settings.timeLimit());
+    }
+
+    /**
+     * Solve within {@code timeLimit}.
+     * @param seed random seed for reproducible tie-breaking (null picks one); a run cut short by the time limit
+     *             depends on timing even when seeded
+     */
+    public Result solve(CompiledProblem problem, Long seed, Duration timeLimit) {
+        if (problem.lectureCount() == 0) return new Result(Outcome.SOLVED, new Schedule(List.of(), 0.0), 0, 0);
+        if (problem.roomCount() == 0 || problem.timeSlotCount() == 0) return new Result(Outcome.INFEASIBLE, null, 0, 0);
+        SplittableRandom rng = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        return new Search(problem, rng, System.nanoTime() + timeLimit.toNanos()).run();
+    }
+
+    /** The i-th term (1-based) of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ... */
+    static long luby(int i) {
+        int k = 1;
+        while ((1L << k) - 1 < i) k++;
+        if ((1L << k) - 1 == i) return 1L << (k - 1);
+        return luby(i - (int) ((1L << (k - 1)) - 1));
+    }
+
+    private final class Search {
+        private final CompiledProblem p;
+        private final SplittableRandom rng;
+        private final long deadline;
+        private final int lectures, rooms, slots, words;
+        private final long[][] domain;
+        private final int[] size;
+        // Assigned value per lecture, -1 if unassigned
+        private final int[] value;
+        private final int[] unassignedInCourse;
+        // Rooms by capacity, smallest first, and the slot order of the current restart
+        private final int[] roomOrder;
+        private final int[] slotOrder;
+        // Trail of domain words changed since the start: lecture, word index and previous contents
+        private int[] trailLecture = new int[256];
+        private int[] trailWord = new int[256];
+        private long[] trailOld = new long[256];
+        private int trailSize;
+        // Deepest consistent partial assignment seen
+        private int[] best;
+        private int bestAssigned = -1;
+        private int assigned;
+        private long nodes;
+        private int restarts;
+
+        Search(CompiledProblem p, SplittableRandom rng, long deadline) {
+            this.p = p;
+            this.rng = rng;
+            this.deadline = deadline;
+            this.lectures = p.lectureCount();
+            this.rooms = p.roomCount();
+            this.slots = p.timeSlotCount();
+            this.words = (rooms * slots + 63) >>> 6;
+            this.domain = new long[lectures][words];
+            this.size = new int[lectures];
+            this.value = new int[lectures];
+            Arrays.fill(value, -1);
+            this.unassignedInCourse = new int[p.courseCount()];
+            for (int l = 0; l < lectures; l++) {
+                unassignedInCourse[p.course(l)]++;
+                for (int t = 0; t < slots; t++) {
+                    for (int r : p.feasibleRoomList(l)) domain[l][(t * rooms + r) >>> 6] |= 1L << (t * rooms + r);
+                }
+                size[l] = slots * p.feasibleRoomList(l).length;
+            }
+            Integer[] byCapacity = new Integer[rooms];
+            for (int r = 0; r < rooms; r++) byCapacity[r] = r;
+            Arrays.sort(byCapacity, (a, b) -> Integer.compare(p.capacity(a), p.capacity(b)));
+            this.roomOrder = Arrays.stream(byCapacity).mapToInt(Integer::intValue).toArray();
+            this.slotOrder = new int[slots];
+            for (int t = 0; t < slots; t++) slotOrder[t] = t;
+            this.best = value.clone();
+        }
+
+        Result run() {
+            Outcome outcome = bounded() ? null : Outcome.INFEASIBLE;
+            for (int run = 1; outcome == null; run++) {
+                outcome = dfs(settings.restartBase() * luby(run));
+                if (outcome == null) restarts++;
+            }
+            if (outcome == Outcome.SOLVED) {
+                return new Result(outcome, schedule(value, (double) lectures), nodes, restarts);
+            }
+            return new Result(outcome, schedule(complete(best), null), nodes, restarts);
+        }
+
+        /** Necessary conditions: each room-slot seats one lecture, and each course needs a slot per lecture. */
+        private boolean bounded() {
+            if ((long) lectures > (long) rooms * slots) return false;
+            int[] perCourse = new int[p.courseCount()];
+            for (int l = 0; l < lectures; l++) if (++perCourse[p.course(l)] > slots) return false;
+            return true;
+        }
+
+        /**
+         * One restart: depth-first search until solved, the tree is exhausted, more than {@code failureLimit}
+         * assignments failed (null) or the deadline passes.
+         */
+        private Outcome dfs(long failureLimit) {
+            reset();
+            int[] stack = new int[lectures];
+            int[] cursor = new int[lectures];
+            int[] mark = new int[lectures];
+            long failures = 0;
+            int depth = 0;
+            stack[0] = select();
+            while (true) {
+                if ((nodes & 255) == 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+                    return Outcome.TIMEOUT;
+                }
+                int l = stack[depth];
+                if (value[l] >= 0) unassign(l, mark[depth]);
+                int pos = next(l, cursor[depth]);
+                if (pos < 0) {
+                    if (depth == 0) return Outcome.INFEASIBLE;
+                    depth--;
+                    if (++failures > failureLimit) return null;
+                    continue;
+                }
+                cursor[depth] = pos + 1;
+                mark[depth] = trailSize;
+                nodes++;
+                if (!assign(l, slotOrder[pos / rooms] * rooms + roomOrder[pos % rooms])) continue;
+                if (assigned > bestAssigned) {
+                    bestAssigned = assigned;
+                    System.arraycopy(value, 0, best, 0, lectures);
+                }
+                int nextLecture = select();
+                if (nextLecture < 0) return Outcome.SOLVED;
+                stack[++depth] = nextLecture;
+                cursor[depth] = 0;
+            }
+        }
+
+        /** Undo every assignment and shuffle the slot order for a fresh start. */
+        private void reset() {
+            for (int l = 0; l < lectures; l++) {
+                if (value[l] >= 0) {
+                    value[l] = -1;
+                    unassignedInCourse[p.course(l)]++;
+                }
+            }
+            assigned = 0;
+            undo(0);
+            for (int i = slots - 1; i > 0; i--) {
+                int j = rng.nextInt(i + 1);
+                int tmp = slotOrder[i];
+                slotOrder[i] = slotOrder[j];
+                slotOrder[j] = tmp;
+            }
+        }
+
+        /** Unassigned lecture with the fewest values left, then the most unassigned course mates; -1 if none. */
+        private int select() {
+            int chosen = -1, ties = 0;
+            for (int l = 0; l < lectures; l++) {
+                if (value[l] >= 0) continue;
+                int cmp = chosen < 0 ? -1 : size[l] != size[chosen] ? Integer.compare(size[l], size[chosen])
+                        : Integer.compare(unassignedInCourse[p.course(chosen)], unassignedInCourse[p.course(l)]);
+                if (cmp < 0) {
+                    chosen = l;
+                    ties = 1;
+                } else if (cmp == 0 && rng.nextInt(++ties) == 0) {
+                    chosen = l;
+                }
+            }
+            return chosen;
+        }
+
+        /** First position at or after {@code from} in the value order whose value is still in the domain; -1 if none. */
+        private int next(int l, int from) {
+            long[] d = domain[l];
+            for (int pos = from, end = rooms * slots; pos < end; pos++) {
+                int v = slotOrder[pos / rooms] * rooms + roomOrder[pos % rooms];
+                if ((d[v >>> 6] & (1L << v)) != 0) return pos;
+            }
+            return -1;
+        }
+
+        /** Assign and forward-check; false if some other lecture has no value left (undone by the caller). */
+        private boolean assign(int l, int v) {
+            value[l] = v;
+            assigned++;
+            int c = p.course(l);
+            unassignedInCourse[c]--;
+            int t = v / rooms, r = v % rooms;
+            int[] overlapping = p.overlappingSlots(t);
+            for (int m = 0; m < lectures; m++) {
+                if (value[m] >= 0) continue;
+                if (p.course(m) == c) {
+                    clear(m, t * rooms, t * rooms + rooms);
+                    for (int u : overlapping) clear(m, u * rooms, u * rooms + rooms);
+                } else {
+                    clear(m, t * rooms + r, t * rooms + r + 1);
+                    for (int u : overlapping) clear(m, u * rooms + r, u * rooms + r + 1);
+                }
+                if (size[m] == 0) return false;
+            }
+            return true;
+        }
+
+        private void unassign(int l, int mark) {
+            undo(mark);
+            value[l] = -1;
+            assigned--;
+            unassignedInCourse[p.course(l)]++;
+        }
+
+        /** Remove the values {@code [from, to)} from a lecture's domain, recording changed words on the trail. */
+        private void clear(int l, int from, int to) {
+            long[] d = domain[l];
+            for (int w = from >>> 6, last = (to - 1) >>> 6; w <= last; w++) {
+                long mask = -1L;
+                if (w == from >>> 6) mask &= -1L << from;
+                if (w == last) mask &= -1L >>> (63 - ((to - 1) & 63));
+                long old = d[w];
+                if ((old & mask) == 0) continue;
+                push(l, w, old);
+                d[w] = old & ~mask;
+                size[l] -= Long.bitCount(old & mask);
+            }
+        }
+
+        private void push(int l, int w, long old) {
+            if (trailSize == trailOld.length) {
+                trailLecture = Arrays.copyOf(trailLecture, trailSize * 2);
+                trailWord = Arrays.copyOf(trailWord, trailSize * 2);
+                trailOld = Arrays.copyOf(trailOld, trailSize * 2);
+            }
+            trailLecture[trailSize] = l;
+            trailWord[trailSize] = w;
+            trailOld[trailSize++] = old;
+        }
+
+        private void undo(int mark) {
+            while (trailSize > mark) {
+                trailSize--;
+                int l = trailLecture[trailSize];
+                int w = trailWord[trailSize];
+                size[l] += Long.bitCount(trailOld[trailSize]) - Long.bitCount(domain[l][w]);
+                domain[l][w] = trailOld[trailSize];
+            }
+        }
+
+        /**
+         * Complete a conflict-free partial assignment: each unassigned lecture goes where it adds the fewest
+         * conflicts (capacity, room and course overlaps) with the lectures placed so far.
+         */
+        private int[] complete(int[] partial) {
+            int[] out = partial.clone();
+            int[] roomOcc = new int[rooms * slots];
+            int[] courseOcc = new int[p.courseCount() * slots];
+            for (int l = 0; l < lectures; l++) if (out[l] >= 0) occupy(l, out[l], roomOcc, courseOcc);
+            for (int l = 0; l < lectures; l++) {
+                if (out[l] >= 0) continue;
+                int c = p.course(l);
+                int bestValue = 0, bestConflicts = Integer.MAX_VALUE;
+                for (int t = 0; t < slots && bestConflicts > 0; t++) {
+                    int course = courseOcc[c * slots + t];
+                    for (int u : p.overlappingSlots(t)) course += courseOcc[c * slots + u];
+                    for (int r = 0; r < rooms; r++) {
+                        int conflicts = course + (p.fits(l, r) ? 0 : 1) + roomOcc[r * slots + t];
+                        for (int u : p.overlappingSlots(t)) conflicts += roomOcc[r * slots + u];
+                        if (conflicts < bestConflicts) {
+                            bestConflicts = conflicts;
+                            bestValue = t * rooms + r;
+                        }
+                    }
+                }
+                out[l] = bestValue;
+                occupy(l, bestValue, roomOcc, courseOcc);
+            }
+            return out;
+        }
+
+        private void occupy(int l, int v, int[] roomOcc, int[] courseOcc) {
+            int t = v / rooms, r = v % rooms;
+            roomOcc[r * slots + t]++;
+            courseOcc[p.course(l) * slots + t]++;
+        }
+
+        private Schedule schedule(int[] values, Double score) {
+            int[] room = new int[lectures];
+            int[] slot = new int[lectures];
+            for (int l = 0; l < lectures; l++) {
+                room[l] = values[l] % rooms;
+                slot[l] = values[l] / rooms;
+            }
+            return p.toSchedule(room, slot, score);
+        }
+    }
+}
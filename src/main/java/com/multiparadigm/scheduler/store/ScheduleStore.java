@@ -0,0 +1,132 @@
+package com.multiparadigm.scheduler.store;
+
+import com.multiparadigm.scheduler.cache.CanonicalHash;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.util.JsonUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Durable store for problems, schedules and job results, kept in a {@link SegmentLog} so that they survive
+ * restarts without an external database.
+ * <p>
+ * Values are CBOR-encoded under {@code <kind>/<id>} keys. Problems are content-addressed by their
+ * {@link CanonicalHash}, so storing the same problem twice yields the same id; schedules get a random id.
+ * A disabled store keeps nothing: reads find nothing and writes fail.
+ */
+public class ScheduleStore implements Closeable {
+    public static final String PROBLEM = "problem";
+    public static final String SCHEDULE = "schedule";
+
+    /**
+     * A stored schedule.
+     * @param id store id
+     * @param problemId id of the stored problem it was made for (null if unknown)
+     * @param schedule the schedule
+     * @param validation its validation result (null if not validated)
+     * @param storedAt time it was stored
+     */
+    public record StoredSchedule(String id, String problemId, Schedule schedule, ValidationResult validation,
+                                 Instant storedAt) {}
+
+    private final SegmentLog log;
+
+    private ScheduleStore(SegmentLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Open the store, replaying its log.
+     * @throws IOException if the log cannot be opened
+     */
+    public static ScheduleStore open(SegmentLog.Settings settings) throws IOException {
+        return new ScheduleStore(SegmentLog.open(settings));
+    }
+
+    public static ScheduleStore disabled() {
+        return new ScheduleStore(null);
+    }
+
+    public boolean enabled() {
+        return log != null;
+    }
+
+    /** Store a problem; returns its content hash, which is its id. */
+    public String putProblem(SchedulingProblem problem) {
+        String id = CanonicalHash.of(Objects.requireNonNull(problem));
+        if (!requireLog().contains(key(PROBLEM, id))) put(PROBLEM, id, problem);
+        return id;
+    }
+
+    public Optional<SchedulingProblem> problem(String id) {
+        return get(PROBLEM, id, SchedulingProblem.class);
+    }
+
+    /**
+     * Store a schedule under a new id.
+     * @param problemId id of the stored problem it belongs to, or null
+     * @param validation its validation result, or null
+     */
+    public StoredSchedule putSchedule(String problemId, Schedule schedule, ValidationResult validation) {
+        StoredSchedule stored = new StoredSchedule(UUID.randomUUID().toString(), problemId,
+                Objects.requireNonNull(schedule), validation, Instant.now());
+        put(SCHEDULE, stored.id(), stored);
+        return stored;
+    }
+
+    public Optional<StoredSchedule> schedule(String id) {
+        return get(SCHEDULE, id, StoredSchedule.class);
+    }
+
+    /**
+     * Store any value under {@code kind/id}, replacing a previous one.
+     * @throws IllegalStateException if the store is disabled
+     */
+    public void put(String kind, String id, Object value) {
+        SegmentLog segmentLog = requireLog();
+        try {
+            segmentLog.put(key(kind, id), JsonUtil.cbor().writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode " + kind + " " + id, e);
+        }
+    }
+
+    /** The value stored under {@code kind/id}, if any (always empty when the store is disabled). */
+    public <T> Optional<T> get(String kind, String id, Class<T> type) {
+        if (log == null || id == null) return Optional.empty();
+        return log.get(key(kind, id)).map(bytes -> {
+            try {
+                return JsonUtil.cbor().readValue(bytes, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to decode " + kind + " " + id, e);
+            }
+        });
+    }
+
+    /** Log statistics, or empty when the store is disabled. */
+    public Optional<SegmentLog.Stats> stats() {
+        return log == null ? Optional.empty() : Optional.of(log.stats());
+    }
+
+    @Override
+    public void close() {
+        if (log != null) log.close();
+    }
+
+    private SegmentLog requireLog() {
+        if (log == null) throw new IllegalStateException("Store is disabled (app.store.enabled=false)");
+        return log;
+    }
+
+    private static String key(String kind, String id) {
+        return kind + "/" + id;
+    }
+}
@@ -0,0 +1,757 @@
+package com.multiparadigm.scheduler.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Embedded key/value store kept as an append-only log of checksummed records split into segment files.
+ * <p>
+ * Each record is {@code [payload length][CRC32C][seq, op, key length, key, value]}; a put or delete appends one
+ * record to the active segment, which is rolled once it reaches {@code segmentBytes}. The in-memory index maps
+ * every live key to its record's length and one {@code long} packing the segment id and the record offset, so
+ * writes keep the live-byte counts without reading records back. Sealed segments are memory-mapped and read
+ * without locks; the active one is read with positional reads. Every read re-checks the record checksum.
+ * <p>
+ * When a segment is sealed, a hint file listing its keys, sequence numbers and offsets is written next to it,
+ * so startup loads sealed segments from their hints instead of scanning them; only the last segment is scanned,
+ * and a torn record at its tail (crash during a write) is truncated. Records carry a global sequence number and
+ * replay keeps the highest one per key, so segment order does not matter.
+ * <p>
+ * Compaction copies the live records of all sealed segments into new segments, repoints the index where it still
+ * refers to the copied record, and deletes the old files; it runs periodically once at least
+ * {@code minGarbageRatio} of the sealed bytes are overwritten or deleted. Compaction drops tombstones, so the old
+ * segments must go all at once: they are deleted only after the new ones are synced and a {@code .retired}
+ * marker listing them has been atomically renamed into place. Replay first finishes every
+ * retirement it finds a marker for, so a crash halfway through the deletions cannot revive a deleted key from an
+ * older copy (e.g. a previous compaction's output) while its tombstone is already gone. A crash before the
+ * marker exists leaves duplicates that replay resolves by sequence number.
+ * <p>
+ * Writes are serialized; reads are concurrent with writes and compaction. Instances are thread-safe.
+ */
+public class SegmentLog implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SegmentLog.class);
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER = 8;
+    // seq (8) + op (1) + key length (2)
+    private static final int PREFIX = 11;
+    private static final int OFFSET_BITS = 40;
+    private static final String LOG = ".log";
+    private static final String HINT = ".hint";
+    private static final String TMP = ".tmp";
+    private static final String RETIRED = ".retired";
+
+    /**
+     * @param dir directory holding the segment and hint files (created if missing)
+     * @param segmentBytes size at which the active segment is sealed and a new one started
+     * @param sync whether every write is forced to disk before it returns
+     * @param compactionInterval how often to check whether compaction is due (null or zero disables it)
+     * @param minGarbageRatio fraction of sealed bytes that must be dead before compaction runs
+     */
+    public record Settings(Path dir, long segmentBytes, boolean sync, Duration compactionInterval,
+                           double minGarbageRatio) {}
+
+    /**
+     * @param segments segment files, including the active one
+     * @param keys live keys
+     * @param bytes total size of the segment files
+     * @param liveBytes bytes of records the index still refers to
+     */
+    public record Stats(int segments, int keys, long bytes, long liveBytes) {}
+
+    private final Settings settings;
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object compactionLock = new Object();
+    private final ScheduledExecutorService compactor;
+    private Segment active;
+    private int nextId;
+    private long nextSeq;
+    private boolean open = true;
+
+    private SegmentLog(Settings settings) {
+        this.settings = settings;
+        Duration interval = settings.compactionInterval();
+        if (interval != null && !interval.isZero() && !interval.isNegative()) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "segment-log-compaction");
+                t.setDaemon(true);
+                return t;
+            });
+            long millis = interval.toMillis();
+            compactor.scheduleWithFixedDelay(this::compactQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    /**
+     * Open (or create) the log in {@code settings.dir()} and rebuild the index from its segments.
+     * @throws IOException if the directory or a segment cannot be read
+     */
+    public static SegmentLog open(Settings settings) throws IOException {
+        Objects.requireNonNull(settings);
+        if (settings.segmentBytes() <= 0 || settings.segmentBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentBytes must be in (0, " + Integer.MAX_VALUE + "]");
+        }
+        Files.createDirectories(settings.dir());
+        SegmentLog segmentLog = new SegmentLog(settings);
+        try {
+            segmentLog.replay();
+        } catch (IOException | RuntimeException e) {
+            segmentLog.close();
+            throw e;
+        }
+        return segmentLog;
+    }
+
+    /** The value stored under {@code key}, if any. */
+    public Optional<byte[]> get(String key) {
+        // A concurrent compaction may retire the segment between the index lookup and the read; look again
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Entry entry = index.get(key);
+            if (entry == null) return Optional.empty();
+            Segment segment = segments.get(segmentId(entry.location()));
+            if (segment == null) continue;
+            Record record = segment.read(offset(entry.location()));
+            if (record == null) {
+                throw new IllegalStateException("Corrupt record for " + key + " in segment " + segment.id);
+            }
+            return Optional.of(record.value());
+        }
+        throw new IllegalStateException("Record for " + key + " moved repeatedly during compaction");
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /** Store {@code value} under {@code key}, replacing any previous value. */
+    public void put(String key, byte[] value) {
+        byte[] k = key(key);
+        synchronized (this) {
+            Entry entry = append(encode(nextSeq++, PUT, k, Objects.requireNonNull(value)));
+            Entry previous = index.put(key, entry);
+            live(entry, +1);
+            if (previous != null) live(previous, -1);
+        }
+    }
+
+    /** Remove {@code key}; returns whether it was present. */
+    public boolean delete(String key) {
+        byte[] k = key(key);
+        synchronized (this) {
+            Entry previous = index.get(key);
+            if (previous == null) return false;
+            append(encode(nextSeq++, DELETE, k, new byte[0]));
+            index.remove(key);
+            live(previous, -1);
+            return true;
+        }
+    }
+
+    /** Keys starting with {@code prefix}, in no particular order. */
+    public List<String> keys(String prefix) {
+        List<String> out = new ArrayList<>();
+        for (String k : index.keySet()) if (k.startsWith(prefix)) out.add(k);
+        return out;
+    }
+
+    public Stats stats() {
+        long bytes = 0, live = 0;
+        for (Segment s : segments.values()) {
+            bytes += s.size;
+            live += s.live.get();
+        }
+        return new Stats(segments.size(), index.size(), bytes, live);
+    }
+
+    /**
+     * Compact all sealed segments if at least {@code minGarbageRatio} of their bytes are dead.
+     * @return whether compaction ran
+     * @throws IOException if the new segments cannot be written
+     */
+    public boolean compact(double minGarbageRatio) throws IOException {
+        synchronized (compactionLock) {
+            List<Segment> sealed = new ArrayList<>();
+            synchronized (this) {
+                if (!open) return false;
+                for (Segment s : segments.values()) if (s != active) sealed.add(s);
+            }
+            long bytes = 0, live = 0;
+            for (Segment s : sealed) {
+                bytes += s.size;
+                live += s.live.get();
+            }
+            if (bytes == 0 || 1.0 - (double) live / bytes < minGarbageRatio) return false;
+
+            // Copy the records the index still points at; records are copied verbatim, checksum and seq included
+            List<Segment> written = new ArrayList<>();
+            List<Move> moved = new ArrayList<>();
+            Segment out = null;
+            for (Segment s : sealed) {
+                for (Record r : s.scan()) {
+                    Entry current = index.get(r.key());
+                    if (r.op() != PUT || current == null || current.location() != location(s.id, r.offset())) continue;
+                    if (out == null || (out.size > 0 && out.size + r.length() > settings.segmentBytes())) {
+                        if (out != null) out.seal();
+                        out = createSegment();
+                        written.add(out);
+                    }
+                    long offset = out.size;
+                    out.write(s.raw(r));
+                    moved.add(new Move(r.key(), location(s.id, r.offset()), location(out.id, offset), r.length()));
+                }
+            }
+            if (out != null) out.seal();
+            Path marker;
+            try {
+                marker = writeRetired(sealed);
+            } catch (IOException e) {
+                for (Segment s : written) s.delete();
+                throw e;
+            }
+
+            synchronized (this) {
+                for (Segment s : written) segments.put(s.id, s);
+                for (Move m : moved) {
+                    if (index.replace(m.key(), new Entry(m.from(), m.length()), new Entry(m.to(), m.length()))) {
+                        segments.get(segmentId(m.to())).live.addAndGet(m.length());
+                    }
+                }
+                for (Segment s : sealed) segments.remove(s.id);
+            }
+            for (Segment s : sealed) s.delete();
+            Files.delete(marker);
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (compactor != null) compactor.shutdownNow();
+        synchronized (compactionLock) {
+            synchronized (this) {
+                if (!open) return;
+                open = false;
+                if (active != null) active.closeChannel();
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact(settings.minGarbageRatio());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Segment log compaction in {} failed: {}", settings.dir(), e.getMessage());
+        }
+    }
+
+    // ---- writing ----------------------------------------------------------------------------------------------
+
+    /** Append an encoded record to the active segment, rolling it first if full; returns the record's index entry. */
+    private Entry append(ByteBuffer record) {
+        if (!open) throw new IllegalStateException("Segment log is closed");
+        try {
+            if (active.size > 0 && active.size + record.remaining() > settings.segmentBytes()) {
+                Segment sealed = active;
+                active = createSegment();
+                segments.put(active.id, active);
+                sealed.seal();
+            }
+            long offset = active.size;
+            int length = record.remaining();
+            active.write(record);
+            if (settings.sync()) active.force();
+            return new Entry(location(active.id, offset), length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to segment log in " + settings.dir(), e);
+        }
+    }
+
+    private void live(Entry entry, int sign) {
+        Segment s = segments.get(segmentId(entry.location()));
+        if (s != null) s.live.addAndGet(sign * (long) entry.length());
+    }
+
+    private Segment createSegment() throws IOException {
+        int id;
+        synchronized (this) {
+            id = nextId++;
+        }
+        Path path = settings.dir().resolve(name(id, LOG));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, 0);
+    }
+
+    /**
+     * Durably record that {@code retired} are about to be deleted: the marker is written to a temporary file and
+     * renamed, and the directory is synced so the marker (and the new segments' entries) survive a crash.
+     */
+    private Path writeRetired(List<Segment> retired) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(4 * retired.size() + 4);
+        int last = 0;
+        for (Segment s : retired) {
+            buf.putInt(s.id);
+            last = Math.max(last, s.id);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        Path marker = settings.dir().resolve(name(last, RETIRED));
+        Path tmp = marker.resolveSibling(marker.getFileName() + TMP);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, marker, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        return marker;
+    }
+
+    /** Segment ids listed in a retirement marker, or null if the marker is unreadable. */
+    private static int[] readRetired(Path marker) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(marker));
+            if (buf.limit() < 4 || buf.limit() % 4 != 0) return null;
+            CRC32C crc = new CRC32C();
+            crc.update(buf.array(), 0, buf.limit() - 4);
+            if ((int) crc.getValue() != buf.getInt(buf.limit() - 4)) return null;
+            int[] ids = new int[buf.limit() / 4 - 1];
+            for (int i = 0; i < ids.length; i++) ids[i] = buf.getInt();
+            return ids;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel ch = FileChannel.open(settings.dir(), StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // Not every platform can sync a directory; the rename itself is still atomic
+        }
+    }
+
+    private static ByteBuffer encode(long seq, byte op, byte[] key, byte[] value) {
+        int payload = PREFIX + key.length + value.length;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + payload);
+        buf.putInt(payload).putInt(0).putLong(seq).put(op).putShort((short) key.length).put(key).put(value);
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), HEADER, payload);
+        buf.putInt(4, (int) crc.getValue());
+        return buf.flip();
+    }
+
+    private static byte[] key(String key) {
+        byte[] k = Objects.requireNonNull(key).getBytes(StandardCharsets.UTF_8);
+        if (k.length > 0xFFFF) throw new IllegalArgumentException("Key longer than 65535 bytes");
+        return k;
+    }
+
+    // ---- replay -----------------------------------------------------------------------------------------------
+
+    private void replay() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        int maxRetired = 0;
+        try (Stream<Path> files = Files.list(settings.dir())) {
+            for (Path p : files.toList()) {
+                String name = p.getFileName().toString();
+                if (name.endsWith(TMP)) Files.deleteIfExists(p);
+                else if (name.endsWith(RETIRED)) maxRetired = Math.max(maxRetired, finishRetirement(p));
+            }
+        }
+        try (Stream<Path> files = Files.list(settings.dir())) {
+            for (Path p : files.toList()) {
+                String name = p.getFileName().toString();
+                if (name.endsWith(LOG)) ids.add(Integer.parseInt(name.substring(0, name.length() - LOG.length())));
+            }
+        }
+        ids.sort(null);
+        // key -> {seq, location, length, op} of the newest record seen so far
+        Map<String, long[]> latest = new HashMap<>();
+        long maxSeq = -1;
+        for (int i = 0; i < ids.size(); i++) {
+            int id = ids.get(i);
+            boolean last = i == ids.size() - 1;
+            Path path = settings.dir().resolve(name(id, LOG));
+            Segment segment;
+            List<Record> records = null;
+            if (last) {
+                // The last segment becomes the active one again; a hint it may carry goes stale with the next append
+                Files.deleteIfExists(hintPath(path));
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segment = new Segment(id, path, channel, channel.size());
+                records = segment.scanAndTruncate();
+            } else {
+                segment = new Segment(id, path, null, Files.size(path));
+                segment.map();
+                records = segment.readHint();
+                if (records == null) {
+                    records = segment.scan();
+                    segment.writeHint(records);
+                }
+            }
+            segments.put(id, segment);
+            for (Record r : records) {
+                maxSeq = Math.max(maxSeq, r.seq());
+                long[] seen = latest.get(r.key());
+                if (seen == null || seen[0] < r.seq()) {
+                    latest.put(r.key(), new long[] { r.seq(), location(id, r.offset()), r.length(), r.op() });
+                }
+            }
+        }
+        for (Map.Entry<String, long[]> e : latest.entrySet()) {
+            long[] v = e.getValue();
+            if (v[3] != PUT) continue;
+            index.put(e.getKey(), new Entry(v[1], (int) v[2]));
+            segments.get(segmentId(v[1])).live.addAndGet(v[2]);
+        }
+        nextSeq = maxSeq + 1;
+        nextId = Math.max(maxRetired, ids.isEmpty() ? 0 : ids.get(ids.size() - 1)) + 1;
+        if (ids.isEmpty()) {
+            active = createSegment();
+            segments.put(active.id, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+    }
+
+    /**
+     * Delete the segments a compaction had started to retire, then the marker itself.
+     * @return the highest segment id listed, so ids are never reused
+     */
+    private int finishRetirement(Path marker) throws IOException {
+        int[] retired = readRetired(marker);
+        if (retired == null) {
+            // Markers are only renamed into place once complete, so this is media corruption, not a torn write
+            log.warn("Ignoring unreadable retirement marker {}", marker);
+            Files.delete(marker);
+            return 0;
+        }
+        int max = 0;
+        for (int id : retired) {
+            Path path = settings.dir().resolve(name(id, LOG));
+            Files.deleteIfExists(hintPath(path));
+            Files.deleteIfExists(path);
+            max = Math.max(max, id);
+        }
+        syncDirectory();
+        Files.delete(marker);
+        return max;
+    }
+
+    // ---- segments ---------------------------------------------------------------------------------------------
+
+    /** A record's sequence number, operation, key, position and total size; the value only when read for it. */
+    private record Record(long seq, byte op, String key, long offset, int length, byte[] value) {}
+
+    /** Where a live key's record is (packed segment id and offset) and its total size. */
+    private record Entry(long location, int length) {}
+
+    /** A live record copied by compaction from one location to another. */
+    private record Move(String key, long from, long to, int length) {}
+
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final AtomicLong live = new AtomicLong();
+        volatile FileChannel channel;
+        volatile MappedByteBuffer map;
+        volatile long size;
+
+        Segment(int id, Path path, FileChannel channel, long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        void write(ByteBuffer record) throws IOException {
+            long start = size;
+            io(ch -> {
+                while (record.hasRemaining()) ch.write(record, start + record.position());
+                return null;
+            });
+            size = start + record.limit();
+        }
+
+        void force() throws IOException {
+            io(ch -> {
+                ch.force(false);
+                return null;
+            });
+        }
+
+        /** Force the file to disk, map it read-only, write its hint file and drop the channel. */
+        void seal() throws IOException {
+            io(ch -> {
+                ch.force(true);
+                return null;
+            });
+            map();
+            writeHint(scan());
+            closeChannel();
+        }
+
+        void map() throws IOException {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        /** The record at {@code offset} with its value, or null if it is torn or fails its checksum. */
+        Record read(long offset) {
+            MappedByteBuffer m = map;
+            if (m != null) return parse(m, (int) offset, true);
+            try {
+                return readChannel(offset);
+            } catch (ClosedChannelException e) {
+                // Sealed while we were reading: the mapping is set before the channel is dropped
+                m = map;
+                if (m == null) throw new IllegalStateException("Segment log is closed");
+                return parse(m, (int) offset, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read segment " + path, e);
+            }
+        }
+
+        private Record readChannel(long offset) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            readFully(header, offset);
+            int payload = header.getInt(0);
+            if (payload < PREFIX || offset + HEADER + payload > size) return null;
+            ByteBuffer buf = ByteBuffer.allocate(HEADER + payload);
+            readFully(buf, offset);
+            Record r = parse(buf, 0, true);
+            return r == null ? null : new Record(r.seq(), r.op(), r.key(), offset, r.length(), r.value());
+        }
+
+        /** Raw bytes of a record of this (sealed) segment. */
+        ByteBuffer raw(Record r) {
+            return map.slice((int) r.offset(), r.length());
+        }
+
+        /** All intact records from the start, stopping at the first torn or corrupt one. */
+        List<Record> scan() {
+            List<Record> out = new ArrayList<>();
+            MappedByteBuffer m = map;
+            int offset = 0;
+            while (offset < m.limit()) {
+                Record r = parse(m, offset, false);
+                if (r == null) {
+                    log.warn("Segment {} is corrupt at offset {}; ignoring the rest", path, offset);
+                    break;
+                }
+                out.add(r);
+                offset += r.length();
+            }
+            return out;
+        }
+
+        /** Scan the (last) segment and cut off a torn or corrupt tail. */
+        List<Record> scanAndTruncate() throws IOException {
+            map();
+            List<Record> records = new ArrayList<>();
+            int offset = 0;
+            while (offset < map.limit()) {
+                Record r = parse(map, offset, false);
+                if (r == null) break;
+                records.add(r);
+                offset += r.length();
+            }
+            if (offset < size) {
+                log.warn("Truncating torn tail of segment {} at offset {} ({} bytes)", path, offset, size - offset);
+                channel.truncate(offset);
+                size = offset;
+            }
+            map = null;
+            return records;
+        }
+
+        List<Record> readHint() {
+            Path hint = hintPath(path);
+            try {
+                if (!Files.exists(hint)) return null;
+                ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(hint));
+                if (buf.limit() < 4) return null;
+                CRC32C crc = new CRC32C();
+                crc.update(buf.array(), 0, buf.limit() - 4);
+                if ((int) crc.getValue() != buf.getInt(buf.limit() - 4)) return null;
+                List<Record> out = new ArrayList<>();
+                buf.limit(buf.limit() - 4);
+                while (buf.hasRemaining()) {
+                    long seq = buf.getLong();
+                    byte op = buf.get();
+                    byte[] key = new byte[Short.toUnsignedInt(buf.getShort())];
+                    buf.get(key);
+                    int offset = buf.getInt();
+                    int length = buf.getInt();
+                    out.add(new Record(seq, op, new String(key, StandardCharsets.UTF_8), offset, length, null));
+                }
+                return out;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable hint file {}: {}", hint, e.getMessage());
+                return null;
+            }
+        }
+
+        void writeHint(List<Record> records) throws IOException {
+            Path hint = hintPath(path);
+            Path tmp = hint.resolveSibling(hint.getFileName() + TMP);
+            int bytes = 4;
+            List<byte[]> keys = new ArrayList<>(records.size());
+            for (Record r : records) {
+                byte[] k = r.key().getBytes(StandardCharsets.UTF_8);
+                keys.add(k);
+                bytes += PREFIX + k.length + 8;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(bytes);
+            for (int i = 0; i < records.size(); i++) {
+                Record r = records.get(i);
+                buf.putLong(r.seq()).put(r.op()).putShort((short) keys.get(i).length).put(keys.get(i))
+                        .putInt((int) r.offset()).putInt(r.length());
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buf.array(), 0, bytes - 4);
+            buf.putInt((int) crc.getValue());
+            Files.write(tmp, buf.array());
+            Files.move(tmp, hint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        synchronized void closeChannel() {
+            FileChannel ch = channel;
+            channel = null;
+            if (ch == null) return;
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+                // nothing left to flush: writes are complete and sealed segments were forced
+            }
+        }
+
+        void delete() throws IOException {
+            closeChannel();
+            Files.deleteIfExists(hintPath(path));
+            Files.deleteIfExists(path);
+        }
+
+        private void readFully(ByteBuffer buf, long position) throws IOException {
+            io(ch -> {
+                while (buf.hasRemaining()) {
+                    if (ch.read(buf, position + buf.position()) < 0) throw new IOException("Unexpected end of segment " + path);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Run positional I/O on the channel with the thread's interrupt status cleared: an interrupted caller (e.g. a
+         * cancelled job persisting its result) would otherwise close the channel shared by all callers. If an
+         * interrupt arriving mid-operation closes it anyway, the channel is reopened and the operation retried once.
+         * Positional reads and writes make the retry safe.
+         */
+        private <T> T io(ChannelOp<T> op) throws IOException {
+            boolean interrupted = Thread.interrupted();
+            try {
+                for (int attempt = 0; ; attempt++) {
+                    FileChannel ch = channel;
+                    if (ch == null) throw new ClosedChannelException();
+                    try {
+                        return op.run(ch);
+                    } catch (AsynchronousCloseException e) {
+                        interrupted |= Thread.interrupted();
+                        if (attempt > 0) throw e;
+                        synchronized (this) {
+                            // A channel dropped on purpose (sealed or closed) is not reopened
+                            if (channel != ch) throw e;
+                            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                        }
+                    }
+                }
+            } finally {
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Parse and checksum the record at {@code offset}; null if it is torn or corrupt. */
+        private static Record parse(ByteBuffer buf, int offset, boolean withValue) {
+            if (buf.limit() - offset < HEADER) return null;
+            int payload = buf.getInt(offset);
+            if (payload < PREFIX || payload > buf.limit() - offset - HEADER) return null;
+            CRC32C crc = new CRC32C();
+            crc.update(buf.slice(offset + HEADER, payload));
+            if ((int) crc.getValue() != buf.getInt(offset + 4)) return null;
+            long seq = buf.getLong(offset + HEADER);
+            byte op = buf.get(offset + HEADER + 8);
+            int keyLength = Short.toUnsignedInt(buf.getShort(offset + HEADER + 9));
+            if (PREFIX + keyLength > payload) return null;
+            byte[] key = new byte[keyLength];
+            buf.get(offset + HEADER + PREFIX, key);
+            int valueOffset = HEADER + PREFIX + keyLength;
+            byte[] value = null;
+            if (withValue) {
+                value = new byte[HEADER + payload - valueOffset];
+                buf.get(offset + valueOffset, value);
+            }
+            return new Record(seq, op, new String(key, StandardCharsets.UTF_8), offset, HEADER + payload, value);
+        }
+    }
+
+    private interface ChannelOp<T> {
+        T run(FileChannel channel) throws IOException;
+    }
+
+    private static long location(int segment, long offset) {
+        return (long) segment << OFFSET_BITS | offset;
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> OFFSET_BITS);
+    }
+
+    private static long offset(long location) {
+        return location & ((1L << OFFSET_BITS) - 1);
+    }
+
+    private static Path hintPath(Path segment) {
+        return segment.resolveSibling(segment.getFileName().toString().replace(LOG, HINT));
+    }
+
+    private static String name(int id, String suffix) {
+        return String.format("%010d%s", id, suffix);
+    }
+}
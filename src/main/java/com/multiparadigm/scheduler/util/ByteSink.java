@@ -0,0 +1,119 @@
+package com.multiparadigm.scheduler.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Buffered UTF-8 writer over an {@link OutputStream} for hand-rolled text encoders (e.g. Prolog facts).
+ * <p>
+ * Characters are encoded straight into a byte buffer borrowed from a small shared pool, so rendering a large
+ * payload allocates neither intermediate strings nor a fresh buffer per request. {@link #close()} flushes and
+ * returns the buffer to the pool; the underlying stream is left open. Instances are not thread-safe.
+ */
+public final class ByteSink implements Closeable {
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final BlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>(16);
+
+    private final OutputStream out;
+    private byte[] buf;
+    private int pos;
+
+    public ByteSink(OutputStream out) {
+        this.out = out;
+        byte[] pooled = POOL.poll();
+        this.buf = pooled != null ? pooled : new byte[BUFFER_SIZE];
+    }
+
+    /** Write one ASCII character. */
+    public ByteSink ascii(char c) throws IOException {
+        if (pos == buf.length) flushBuffer();
+        buf[pos++] = (byte) c;
+        return this;
+    }
+
+    /** Write a string known to be ASCII (syntax, keywords), without encoding checks. */
+    public ByteSink ascii(String s) throws IOException {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            if (pos == buf.length) flushBuffer();
+            buf[pos++] = (byte) s.charAt(i);
+        }
+        return this;
+    }
+
+    /** Write a decimal integer. */
+    public ByteSink decimal(long v) throws IOException {
+        if (v == Long.MIN_VALUE) return ascii(Long.toString(v));
+        if (v < 0) {
+            ascii('-');
+            v = -v;
+        }
+        if (buf.length - pos < 20) flushBuffer();
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos += digits;
+        return this;
+    }
+
+    /** Write {@code s[from, to)} encoded as UTF-8; unpaired surrogates become {@code '?'}. */
+    public ByteSink text(String s, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (buf.length - pos < 4) flushBuffer();
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    /** Write a whole string encoded as UTF-8. */
+    public ByteSink text(String s) throws IOException {
+        return text(s, 0, s.length());
+    }
+
+    /** Write buffered bytes to the stream and flush it. */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buf == null) return;
+        try {
+            flush();
+        } finally {
+            POOL.offer(buf);
+            buf = null;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
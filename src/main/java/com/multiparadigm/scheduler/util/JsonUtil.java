@@ -1,9 +1,16 @@
 package com.multiparadigm.scheduler.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Small Jackson-based JSON utility for consistent serialization/deserialization across the project.
@@ -13,6 +20,10 @@ public final class JsonUtil {
             .findAndRegisterModules()
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
             .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectMapper CBOR = new CBORMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
     private JsonUtil() {}
 
@@ -21,6 +32,31 @@ public final class JsonUtil {
      */
     public static ObjectMapper mapper() { return MAPPER; }
 
+    /**
+     * Mapper with the same configuration that reads and writes CBOR, the binary encoding of the JSON data model.
+     */
+    public static ObjectMapper cbor() { return CBOR; }
+
+    /**
+     * Serialize a value straight to a stream (e.g. a child process' stdin) using Jackson's recycled buffers,
+     * without materializing the text first.
+     * @param out destination; flushed but not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public static void writeJson(OutputStream out, Object value) throws IOException {
+        write(MAPPER, out, value);
+    }
+
+    /**
+     * Write a value with the given mapper (e.g. {@link #cbor()}); the stream is flushed but not closed.
+     */
+    public static void write(ObjectMapper mapper, OutputStream out, Object value) throws IOException {
+        try (JsonGenerator generator = mapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writeValue(generator, value);
+        }
+    }
+
     /**
      * Serialize the given value to JSON using the shared mapper.
      * @throws RuntimeException if Jackson fails to serialize
@@ -47,4 +83,31 @@ public final class JsonUtil {
             throw new RuntimeException("Failed to deserialize JSON to " + type.getSimpleName(), e);
         }
     }
+
+    /**
+     * Deserialize one JSON value read directly from a stream (e.g., a child process' stdout),
+     * without materializing the text first. Trailing whitespace after the value is allowed.
+     * @param in UTF-8 JSON input; not closed
+     * @param type target class
+     * @param <T> generic type parameter
+     * @return the value, or {@code null} if the stream holds no JSON at all
+     * @throws IOException if the stream cannot be read or does not contain valid JSON for the type
+     */
+    public static <T> T fromJson(InputStream in, Class<T> type) throws IOException {
+        return read(MAPPER, in, type);
+    }
+
+    /**
+     * Read one value with the given mapper (e.g. {@link #cbor()}); {@code null} if the stream is empty.
+     * The stream is not closed.
+     */
+    public static <T> T read(ObjectMapper mapper, InputStream in, Class<T> type) throws IOException {
+        try (JsonParser parser = mapper.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return mapper.readValue(parser, type);
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.exec.Bulkhead;
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationReport;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs every validation of the wrapped engine inside a {@link Bulkhead}, so bursts queue briefly and are then
+ * rejected instead of spawning an unbounded number of {@code swipl} processes. A batch takes a single permit.
+ */
+public class BulkheadScheduleValidator implements ScheduleValidator {
+    private final ScheduleValidator delegate;
+    private final Bulkhead bulkhead;
+
+    public BulkheadScheduleValidator(ScheduleValidator delegate, Bulkhead bulkhead) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.bulkhead = Objects.requireNonNull(bulkhead);
+    }
+
+    @Override
+    public ValidationResult validate(SchedulingProblem problem, Schedule schedule) {
+        return bulkhead.call(() -> delegate.validate(problem, schedule));
+    }
+
+    @Override
+    public ValidationResult validate(CompiledProblem problem, Schedule schedule) {
+        return bulkhead.call(() -> delegate.validate(problem, schedule));
+    }
+
+    @Override
+    public ValidationReport validate(CompiledProblem problem, Schedule schedule, ValidationOptions options) {
+        return bulkhead.call(() -> delegate.validate(problem, schedule, options));
+    }
+
+    @Override
+    public List<ValidationResult> validateAll(CompiledProblem problem, List<Schedule> schedules) {
+        return bulkhead.call(() -> delegate.validateAll(problem, schedules));
+    }
+}
@@ -0,0 +1,315 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Pure-Java implementation of the rules in {@code prolog/validator.pl}.
+ * <p>
+ * The problem is compiled to dense ints ({@link CompiledProblem}), with time slots parsed once into minute
+ * intervals; a single pass over the assignments checks capacity against the precomputed feasible rooms and computes
+ * int keys for (room, day) and (course, day), which are grouped with one primitive sort. Within each group a sweep
+ * line over the assignments sorted by start compares each one only with those still running when it starts, so
+ * overlapping slots are found in O(n log n + conflicts) even when they are differently named. Violation codes,
+ * messages, attribution (the lexicographically smaller lecture of a pair) and ordering match the Prolog validator
+ * so both engines can be compared one-to-one; conflicts carry the window in which the two slots overlap.
+ * <p>
+ * Grouped reports take each connected run of the same sweep as one conflict listing its lectures, so a room with
+ * k lectures at one time costs O(k) instead of O(k²); a violation limit stops the passes as soon as it is reached.
+ * <p>
+ * Batches share the compiled problem, which is read-only, and are validated in parallel on the common pool.
+ */
+public class JavaScheduleValidator implements ScheduleValidator {
+    static final String ROOM_DOUBLE_BOOKED = "room_double_booked";
+    static final String SAME_COURSE_OVERLAP = "same_course_overlap";
+
+    @Override
+    public ValidationResult validate(SchedulingProblem problem, Schedule schedule) {
+        return validate(CompiledProblem.of(problem), schedule);
+    }
+
+    @Override
+    public List<ValidationResult> validateAll(CompiledProblem problem, List<Schedule> schedules) {
+        return schedules.parallelStream().map(s -> validate(problem, s)).toList();
+    }
+
+    @Override
+    public ValidationResult validate(CompiledProblem problem, Schedule schedule) {
+        return ValidationResult.from(violations(problem, schedule, false, Integer.MAX_VALUE));
+    }
+
+    /** Groups conflicts natively and stops searching as soon as there are more than {@code maxViolations}. */
+    @Override
+    public ValidationReport validate(CompiledProblem problem, Schedule schedule, ValidationOptions options) {
+        List<Violation> violations = violations(problem, schedule, options.grouped(), options.searchLimit());
+        // Reaching the search limit means the sweep stopped early: what it found is only a lower bound
+        boolean complete = violations.size() < options.searchLimit();
+        return ValidationReport.of(ValidationResult.from(violations), options.maxViolations(), complete);
+    }
+
+    private static List<Violation> violations(CompiledProblem problem, Schedule schedule, boolean grouped, int limit) {
+        CompiledProblem.CompiledSchedule s = problem.compile(schedule);
+        List<Assignment> assignments = s.assignments();
+        List<Violation> violations = new ArrayList<>();
+        for (int i = 0; i < s.size() && violations.size() < limit; i++) {
+            int l = s.lecture()[i];
+            int r = s.room()[i];
+            if (l >= 0 && r < problem.roomCount() && !problem.fits(l, r)) {
+                Assignment a = assignments.get(i);
+                violations.add(new Violation("capacity_exceeded",
+                        "Enrollment (" + problem.enrollment(l) + ") exceeds room capacity (" + problem.capacity(r) + ").",
+                        a.lectureId(), a.roomId(), a.timeSlotId()));
+            }
+        }
+        if (violations.size() >= limit) return violations;
+        int[][] keys = keys(problem, s);
+        if (grouped) {
+            groups(problem, s, keys[0], ROOM_DOUBLE_BOOKED, limit, violations);
+            groups(problem, s, keys[1], SAME_COURSE_OVERLAP, limit, violations);
+        } else {
+            conflicts(problem, s, keys[0], ROOM_DOUBLE_BOOKED, limit, violations);
+            conflicts(problem, s, keys[1], SAME_COURSE_OVERLAP, limit, violations);
+        }
+        return violations;
+    }
+
+    /**
+     * Turn a pairwise result of any engine into a grouped one: conflicts are replaced by the groups of overlapping
+     * assignments that contain a lecture the engine reported for the same code; other violations are kept as they are.
+     */
+    static ValidationResult regroup(CompiledProblem problem, Schedule schedule, ValidationResult pairwise) {
+        Set<String> roomLectures = new HashSet<>();
+        Set<String> courseLectures = new HashSet<>();
+        List<Violation> violations = new ArrayList<>();
+        for (Violation v : pairwise.violations()) {
+            String id = v.lectureId() == null ? "" : v.lectureId();
+            if (ROOM_DOUBLE_BOOKED.equals(v.code())) roomLectures.add(id);
+            else if (SAME_COURSE_OVERLAP.equals(v.code())) courseLectures.add(id);
+            else violations.add(v);
+        }
+        CompiledProblem.CompiledSchedule s = problem.compile(schedule);
+        int[][] keys = keys(problem, s);
+        List<Violation> found = new ArrayList<>();
+        groups(problem, s, keys[0], ROOM_DOUBLE_BOOKED, Integer.MAX_VALUE, found);
+        groups(problem, s, keys[1], SAME_COURSE_OVERLAP, Integer.MAX_VALUE, found);
+        for (Violation g : found) {
+            Set<String> reported = ROOM_DOUBLE_BOOKED.equals(g.code()) ? roomLectures : courseLectures;
+            if (g.lectureIds().stream().anyMatch(reported::contains)) violations.add(g);
+        }
+        return new ValidationResult(pairwise.valid(), List.copyOf(violations));
+    }
+
+    /** Group keys (room, day) and (course, day) per assignment; -1 for lectures unknown to the problem. */
+    private static int[][] keys(CompiledProblem problem, CompiledProblem.CompiledSchedule s) {
+        int n = s.size();
+        int days = problem.dayCount() + s.slotSpace();
+        int[] roomDay = new int[n];
+        int[] courseDay = new int[n];
+        for (int i = 0; i < n; i++) {
+            int l = s.lecture()[i];
+            int day = problem.slotDay(s.slot()[i]);
+            roomDay[i] = key(s.room()[i], days, day);
+            courseDay[i] = l < 0 ? -1 : key(problem.course(l), days, day);
+        }
+        return new int[][] { roomDay, courseDay };
+    }
+
+    /** Report the overlapping pairs within each group, in the order the Prolog validator finds them. */
+    private static void conflicts(CompiledProblem problem, CompiledProblem.CompiledSchedule s, int[] groups,
+                                  String code, int limit, List<Violation> out) {
+        if (out.size() >= limit) return;
+        List<Assignment> assignments = s.assignments();
+        for (long pair : overlappingPairs(problem, s, groups, limit - out.size())) {
+            int i = (int) (pair >>> 32), j = (int) pair;
+            Assignment a1 = assignments.get(i), a2 = assignments.get(j);
+            out.add(new Violation(code, prefix(code, 2) + a1.lectureId() + " and " + a2.lectureId() + ".",
+                    a1.lectureId(), a1.roomId(), a1.timeSlotId(), problem.overlapWindow(s.slot()[i], s.slot()[j])));
+        }
+    }
+
+    /**
+     * Report each set of assignments with the same group key whose slots overlap one after another (a connected
+     * run of the sweep) once, attributed to its smallest lecture id, without enumerating its pairs. Groups are
+     * ordered like the pairs, by the assignment attributed.
+     */
+    private static void groups(CompiledProblem problem, CompiledProblem.CompiledSchedule s, int[] groups,
+                               String code, int limit, List<Violation> out) {
+        long[] byGroup = sortedByGroup(groups);
+        int m = byGroup.length;
+        int[] slot = s.slot();
+        long[] byStart = new long[m];
+        // Attributed assignment << 32 | index into found
+        LongList order = new LongList();
+        List<Violation> found = new ArrayList<>();
+        int from = 0;
+        while (from < m && out.size() + found.size() < limit) {
+            int to = from + 1;
+            while (to < m && (byGroup[to] >>> 32) == (byGroup[from] >>> 32)) to++;
+            int k = 0;
+            for (int j = from; j < to; j++) {
+                int i = (int) byGroup[j];
+                byStart[k++] = ((long) problem.slotStart(slot[i]) << 32) | i;
+            }
+            Arrays.sort(byStart, 0, k);
+            for (int q = 0; q < k && out.size() + found.size() < limit; ) {
+                int end = problem.slotEnd(slot[(int) byStart[q]]);
+                int run = q + 1;
+                while (run < k && problem.slotStart(slot[(int) byStart[run]]) < end) {
+                    end = Math.max(end, problem.slotEnd(slot[(int) byStart[run]]));
+                    run++;
+                }
+                int attributed = run - q > 1 ? attributed(s, byStart, q, run) : -1;
+                if (attributed >= 0) {
+                    order.add(((long) attributed << 32) | found.size());
+                    found.add(group(problem, s, byStart, q, run, attributed, code));
+                }
+                q = run;
+            }
+            from = to;
+        }
+        long[] sorted = order.toArray();
+        Arrays.sort(sorted);
+        for (long entry : sorted) out.add(found.get((int) entry));
+    }
+
+    /**
+     * The first assignment of the smallest lecture id among {@code byStart[from..to)}, or -1 if they are all
+     * the same lecture.
+     */
+    private static int attributed(CompiledProblem.CompiledSchedule s, long[] byStart, int from, int to) {
+        int first = -1;
+        boolean distinct = false;
+        for (int q = from; q < to; q++) {
+            int i = (int) byStart[q];
+            if (first < 0) {
+                first = i;
+                continue;
+            }
+            int cmp = lectureId(s, i).compareTo(lectureId(s, first));
+            if (cmp != 0) distinct = true;
+            if (cmp < 0 || cmp == 0 && i < first) first = i;
+        }
+        return distinct ? first : -1;
+    }
+
+    private static Violation group(CompiledProblem problem, CompiledProblem.CompiledSchedule s, long[] byStart,
+                                   int from, int to, int attributed, String code) {
+        int[] slot = s.slot();
+        TreeSet<String> ids = new TreeSet<>();
+        int latestStart = (int) byStart[to - 1], earliestEnd = -1;
+        for (int q = from; q < to; q++) {
+            int i = (int) byStart[q];
+            ids.add(lectureId(s, i));
+            if (earliestEnd < 0 || problem.slotEnd(slot[i]) < problem.slotEnd(slot[earliestEnd])) earliestEnd = i;
+        }
+        List<String> members = List.copyOf(ids);
+        String listed = String.join(", ", members.subList(0, members.size() - 1)) + " and " + members.get(members.size() - 1);
+        // All of them overlap only if the last to start begins before the first to end is over
+        TimeWindow window = problem.slotStart(slot[latestStart]) < problem.slotEnd(slot[earliestEnd])
+                ? problem.overlapWindow(slot[latestStart], slot[earliestEnd]) : null;
+        Assignment a = s.assignments().get(attributed);
+        return new Violation(code, prefix(code, members.size()) + listed + ".",
+                a.lectureId(), a.roomId(), a.timeSlotId(), window, members);
+    }
+
+    private static String lectureId(CompiledProblem.CompiledSchedule s, int i) {
+        String id = s.assignments().get(i).lectureId();
+        return id == null ? "" : id;
+    }
+
+    private static String prefix(String code, int lectures) {
+        if (ROOM_DOUBLE_BOOKED.equals(code)) return "Room booked by multiple lectures at the same time: ";
+        return lectures == 2 ? "Two lectures of the same course overlap: " : lectures + " lectures of the same course overlap: ";
+    }
+
+    /** Assignments with a group key as {@code key << 32 | assignment}, sorted. */
+    private static long[] sortedByGroup(int[] groups) {
+        long[] byGroup = new long[groups.length];
+        int m = 0;
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i] >= 0) byGroup[m++] = ((long) groups[i] << 32) | i;
+        }
+        Arrays.sort(byGroup, 0, m);
+        return Arrays.copyOf(byGroup, m);
+    }
+
+    /**
+     * Pairs of assignments with the same group key whose slots overlap, as {@code first << 32 | second} where
+     * {@code first} is the one attributed the violation, sorted (first by assignment, then by partner). With a
+     * {@code limit} the sweep stops once it has found that many, which are then not necessarily the first ones.
+     */
+    private static long[] overlappingPairs(CompiledProblem problem, CompiledProblem.CompiledSchedule s, int[] groups,
+                                           int limit) {
+        long[] byGroup = sortedByGroup(groups);
+        int m = byGroup.length;
+        int[] slot = s.slot();
+        long[] byStart = new long[m];
+        int[] active = new int[m];
+        LongList pairs = new LongList();
+        int from = 0;
+        while (from < m && pairs.size() < limit) {
+            int to = from + 1;
+            while (to < m && (byGroup[to] >>> 32) == (byGroup[from] >>> 32)) to++;
+            int k = 0;
+            for (int j = from; j < to; j++) {
+                int i = (int) byGroup[j];
+                byStart[k++] = ((long) problem.slotStart(slot[i]) << 32) | i;
+            }
+            Arrays.sort(byStart, 0, k);
+            int live = 0;
+            for (int q = 0; q < k && pairs.size() < limit; q++) {
+                int i = (int) byStart[q];
+                int start = problem.slotStart(slot[i]);
+                int kept = 0;
+                for (int a = 0; a < live && pairs.size() < limit; a++) {
+                    int o = active[a];
+                    if (problem.slotEnd(slot[o]) <= start) continue;
+                    active[kept++] = o;
+                    Assignment x = s.assignments().get(o), y = s.assignments().get(i);
+                    if (isOrderedPair(x, y)) pairs.add(((long) o << 32) | i);
+                    else if (isOrderedPair(y, x)) pairs.add(((long) i << 32) | o);
+                }
+                live = kept;
+                active[live++] = i;
+            }
+            from = to;
+        }
+        long[] out = pairs.toArray();
+        Arrays.sort(out);
+        return out;
+    }
+
+    private static int key(int major, int minors, int minor) {
+        long key = (long) major * minors + minor;
+        if (key > Integer.MAX_VALUE) throw new IllegalArgumentException("Problem too large to index");
+        return (int) key;
+    }
+
+    /** Mirrors {@code L1 \= L2, order_pair(L1,L2,L1,_)}: distinct lectures, reported once by the smaller id. */
+    private static boolean isOrderedPair(Assignment a1, Assignment a2) {
+        String l1 = a1.lectureId() == null ? "" : a1.lectureId();
+        String l2 = a2.lectureId() == null ? "" : a2.lectureId();
+        return l1.compareTo(l2) < 0;
+    }
+
+    /** Growable list of primitive longs. */
+    private static final class LongList {
+        private long[] items = new long[16];
+        private int size;
+
+        int size() { return size; }
+
+        void add(long value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = value;
+        }
+
+        long[] toArray() { return Arrays.copyOf(items, size); }
+    }
+}
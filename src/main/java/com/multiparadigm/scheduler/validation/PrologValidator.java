@@ -1,13 +1,32 @@
 package com.multiparadigm.scheduler.validation;
 
-import com.multiparadigm.scheduler.exec.CommandResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.multiparadigm.scheduler.exec.CommandRunner;
+import com.multiparadigm.scheduler.exec.ProcessWorkerPool;
+import com.multiparadigm.scheduler.exec.StdinWriter;
+import com.multiparadigm.scheduler.exec.StreamedCommandResult;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
 import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.util.ByteSink;
 import com.multiparadigm.scheduler.util.JsonUtil;
+import io.micrometer.core.instrument.Tags;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Invokes the external Prolog validator process to check hard scheduling constraints.
@@ -15,41 +34,252 @@ import java.util.Objects;
  * Input is provided as Prolog facts generated from a SchedulingProblem and a Schedule. The validator
  * is expected to print a JSON object matching {@link ValidationResult} to stdout.
  * Any timeout, non-zero exit code, or blank output is treated as an error.
+ * In both modes the facts are encoded straight into the process's stdin through a pooled byte buffer
+ * rather than built up as a string first.
+ * <p>
+ * Two execution modes are supported: one {@code swipl} process per request through a {@link CommandRunner},
+ * or a {@link ProcessWorkerPool} of long-lived workers running {@code validator.pl}'s {@code serve/0} loop,
+ * where each request is framed by a trailing {@code end_of_request.} term and answered with one JSON line.
+ * <p>
+ * When a {@link Batch} is configured, {@link #validateAll} splits the schedules into at most
+ * {@code parallelism} chunks and runs one {@code batch/0} process per chunk concurrently: the problem facts
+ * are sent once per process (up to {@code end_of_problem.}), followed by each schedule's assignments
+ * framed by {@code end_of_request.}, and the answers are read back as one JSON line per schedule.
  */
-public class PrologValidator {
+public class PrologValidator implements ScheduleValidator, AutoCloseable {
+    /** Terminator term that ends one request in the pooled worker protocol. */
+    public static final String END_OF_REQUEST = "end_of_request.\n";
+
+    /** Terminator term that ends the shared problem facts in the batch protocol. */
+    public static final String END_OF_PROBLEM = "end_of_problem.\n";
+
+    private static final String ENGINE = "prolog";
+
+    /**
+     * Batch validation through {@code validator.pl}'s {@code batch/0} entry point.
+     * @param runner runner for the batch processes
+     * @param command batch command, e.g. {@code swipl -q -s prolog/validator.pl -t batch}
+     * @param parallelism maximum number of batch processes per call (values below 1 mean one)
+     */
+    public record Batch(CommandRunner runner, List<String> command, int parallelism) {
+        public Batch {
+            Objects.requireNonNull(runner);
+            command = List.copyOf(command);
+            parallelism = Math.max(1, parallelism);
+        }
+    }
+
     private final CommandRunner runner;
     private final List<String> command;
     private final Duration timeout;
+    private final ProcessWorkerPool pool;
+    private final SchedulerMetrics metrics;
+    private final Batch batch;
 
     public PrologValidator(CommandRunner runner, List<String> command, Duration timeout) {
+        this(runner, command, timeout, SchedulerMetrics.NOOP, null);
+    }
+
+    /**
+     * @param batch batch-mode settings, or null to validate batches one schedule at a time
+     */
+    public PrologValidator(CommandRunner runner, List<String> command, Duration timeout, SchedulerMetrics metrics,
+                           Batch batch) {
         this.runner = Objects.requireNonNull(runner);
         this.command = List.copyOf(command);
         this.timeout = timeout == null ? Duration.ofSeconds(10) : timeout;
+        this.pool = null;
+        this.metrics = Objects.requireNonNull(metrics);
+        this.batch = batch;
+    }
+
+    /**
+     * Create a validator backed by a pool of long-lived Prolog workers.
+     * The pool is owned by this validator and closed with it.
+     */
+    public PrologValidator(ProcessWorkerPool pool) {
+        this(pool, SchedulerMetrics.NOOP, null);
+    }
+
+    public PrologValidator(ProcessWorkerPool pool, SchedulerMetrics metrics, Batch batch) {
+        this.runner = null;
+        this.command = List.of();
+        this.pool = Objects.requireNonNull(pool);
+        this.timeout = pool.settings().timeout();
+        this.metrics = Objects.requireNonNull(metrics);
+        this.batch = batch;
     }
 
     /**
      * Invoke the external Prolog validator with facts derived from the given problem and schedule.
-     * @throws RuntimeException on timeout, non-zero exit, or empty output
+     * @throws RuntimeException on timeout, oversized output, non-zero exit, or empty output
      */
+    @Override
     public ValidationResult validate(SchedulingProblem problem, Schedule schedule) {
-        String facts = toFacts(problem, schedule);
-        CommandResult result;
+        Tags size = SchedulerMetrics.sizeTags(problem);
+        long start = System.nanoTime();
+        try {
+            if (pool != null) {
+                return pool.exchange(out -> {
+                    long encodeStart = System.nanoTime();
+                    try (ByteSink sink = new ByteSink(out)) {
+                        writeProblemFacts(sink, problem);
+                        writeAssignmentFacts(sink, schedule);
+                        sink.ascii(END_OF_REQUEST);
+                    }
+                    metrics.stage(ENGINE, "encode", size, System.nanoTime() - encodeStart);
+                }, null, PrologValidator::parseWorkerAnswer);
+            }
+            return runProcess(out -> {
+                long encodeStart = System.nanoTime();
+                try (ByteSink sink = new ByteSink(out)) {
+                    writeProblemFacts(sink, problem);
+                    writeAssignmentFacts(sink, schedule);
+                }
+                metrics.stage(ENGINE, "encode", size, System.nanoTime() - encodeStart);
+            });
+        } catch (RuntimeException e) {
+            if (pool != null) metrics.failure(ENGINE, "error");
+            throw e;
+        } finally {
+            metrics.stage(ENGINE, "process", size, System.nanoTime() - start);
+        }
+    }
+
+    private ValidationResult runProcess(StdinWriter facts) {
+        StreamedCommandResult<ValidationResult> result;
         try {
-            result = runner.run(command, facts, timeout);
+            result = runner.runPiped(command, facts, timeout, out -> JsonUtil.fromJson(out, ValidationResult.class));
         } catch (Exception e) {
+            metrics.failure(ENGINE, "error");
             throw new RuntimeException("Failed to invoke Prolog validator: " + e.getMessage(), e);
         }
+        String failure = SchedulerMetrics.failureReason(result);
+        if (failure != null) metrics.failure(ENGINE, failure);
         if (result.timedOut()) {
             throw new RuntimeException("Prolog validator timed out");
         }
+        if (result.outputLimitExceeded()) {
+            throw new RuntimeException("Prolog validator exceeded the output limit");
+        }
         if (result.exitCode() != 0) {
             throw new RuntimeException("Prolog validator exited with code " + result.exitCode() + ": " + result.stderr());
         }
-        String stdout = result.stdout();
-        if (stdout == null || stdout.isBlank()) {
+        if (result.value() == null) {
+            throw new RuntimeException("Prolog validator returned no output");
+        }
+        return result.value();
+    }
+
+    /**
+     * Validate many schedules for one problem with the batch protocol, in parallel chunks.
+     * Each batch process may take the configured timeout per schedule it validates.
+     * @throws RuntimeException if any chunk fails or answers a different number of schedules
+     */
+    @Override
+    public List<ValidationResult> validateAll(CompiledProblem problem, List<Schedule> schedules) {
+        if (batch == null || schedules.size() <= 1) {
+            return ScheduleValidator.super.validateAll(problem, schedules);
+        }
+        Tags size = SchedulerMetrics.sizeTags(problem.problem());
+        long start = System.nanoTime();
+        byte[] problemFacts = problemFacts(problem.problem());
+        metrics.stage(ENGINE, "encode", size, System.nanoTime() - start);
+
+        int chunks = Math.min(batch.parallelism(), schedules.size());
+        int chunkSize = (schedules.size() + chunks - 1) / chunks;
+        List<Future<List<ValidationResult>>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < schedules.size(); from += chunkSize) {
+                List<Schedule> chunk = schedules.subList(from, Math.min(schedules.size(), from + chunkSize));
+                futures.add(executor.submit(() -> runBatch(problemFacts, chunk)));
+            }
+            List<ValidationResult> results = new ArrayList<>(schedules.size());
+            for (Future<List<ValidationResult>> f : futures) {
+                results.addAll(f.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Prolog batch validation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Prolog batch validation failed: " + cause.getMessage(), cause);
+        } finally {
+            metrics.stage(ENGINE, "batch", size, System.nanoTime() - started);
+        }
+    }
+
+    private List<ValidationResult> runBatch(byte[] problemFacts, List<Schedule> chunk) {
+        StdinWriter input = out -> {
+            out.write(problemFacts);
+            try (ByteSink sink = new ByteSink(out)) {
+                for (Schedule schedule : chunk) {
+                    writeAssignmentFacts(sink, schedule);
+                    sink.ascii(END_OF_REQUEST);
+                }
+            }
+        };
+        StreamedCommandResult<List<ValidationResult>> result;
+        try {
+            result = batch.runner().runPiped(batch.command(), input, timeout.multipliedBy(chunk.size()),
+                    PrologValidator::readAnswers);
+        } catch (Exception e) {
+            metrics.failure(ENGINE, "error");
+            throw new RuntimeException("Failed to invoke Prolog batch validator: " + e.getMessage(), e);
+        }
+        String failure = SchedulerMetrics.failureReason(result);
+        if (failure != null) metrics.failure(ENGINE, failure);
+        if (result.timedOut()) {
+            throw new RuntimeException("Prolog batch validator timed out");
+        }
+        if (result.outputLimitExceeded()) {
+            throw new RuntimeException("Prolog batch validator exceeded the output limit");
+        }
+        if (result.exitCode() != 0) {
+            throw new RuntimeException("Prolog batch validator exited with code " + result.exitCode() + ": " + result.stderr());
+        }
+        if (result.value() == null || result.value().size() != chunk.size()) {
+            int answered = result.value() == null ? 0 : result.value().size();
+            throw new RuntimeException("Prolog batch validator answered " + answered + " of " + chunk.size() + " schedules");
+        }
+        return result.value();
+    }
+
+    /** One answer per non-blank line, in order. */
+    private static List<ValidationResult> readAnswers(InputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(out, StandardCharsets.UTF_8));
+        List<ValidationResult> answers = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) answers.add(parseWorkerAnswer(line));
+        }
+        return answers;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.close();
+    }
+
+    /**
+     * Parse one answer line of a pooled worker; workers report failures as {@code {"error": "..."}}.
+     */
+    private static ValidationResult parseWorkerAnswer(String line) {
+        if (line == null || line.isBlank()) {
             throw new RuntimeException("Prolog validator returned no output");
         }
-        return JsonUtil.fromJson(stdout, ValidationResult.class);
+        JsonNode node = JsonUtil.fromJson(line, JsonNode.class);
+        if (node.hasNonNull("error")) {
+            throw new RuntimeException("Prolog validator failed: " + node.get("error").asText());
+        }
+        try {
+            return JsonUtil.mapper().treeToValue(node, ValidationResult.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize JSON to ValidationResult", e);
+        }
     }
 
     /**
@@ -57,24 +287,67 @@ public class PrologValidator {
      * Escapes single quotes in IDs to keep facts valid.
      */
     public static String toFacts(SchedulingProblem problem, Schedule schedule) {
-        StringBuilder sb = new StringBuilder();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ByteSink sink = new ByteSink(out)) {
+            writeProblemFacts(sink, problem);
+            writeAssignmentFacts(sink, schedule);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Room, lecture and timeslot facts followed by {@code end_of_problem.}, rendered once per batch. */
+    private static byte[] problemFacts(SchedulingProblem problem) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ByteSink sink = new ByteSink(out)) {
+            writeProblemFacts(sink, problem);
+            sink.ascii(END_OF_PROBLEM);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeProblemFacts(ByteSink sink, SchedulingProblem problem) throws IOException {
         for (Room r : problem.rooms()) {
-            sb.append(String.format("room('%s', %d).\n", esc(r.id()), r.capacity()));
+            sink.ascii("room(");
+            atom(sink, r.id()).ascii(", ").decimal(r.capacity()).ascii(").\n");
         }
         for (Lecture l : problem.lectures()) {
-            sb.append(String.format("lecture('%s', '%s', %d).\n", esc(l.id()), esc(l.courseId()), l.enrollment()));
+            sink.ascii("lecture(");
+            atom(sink, l.id()).ascii(", ");
+            atom(sink, l.courseId()).ascii(", ").decimal(l.enrollment()).ascii(").\n");
         }
         for (TimeSlot t : problem.timeSlots()) {
-            sb.append(String.format("timeslot('%s', '%s', '%s', '%s').\n", esc(t.id()), esc(t.day()), esc(t.start()), esc(t.end())));
+            sink.ascii("timeslot(");
+            atom(sink, t.id()).ascii(", ");
+            atom(sink, t.day()).ascii(", ");
+            atom(sink, t.start()).ascii(", ");
+            atom(sink, t.end()).ascii(").\n");
         }
+    }
+
+    private static void writeAssignmentFacts(ByteSink sink, Schedule schedule) throws IOException {
         for (Assignment a : schedule.assignments()) {
-            sb.append(String.format("assignment('%s', '%s', '%s').\n", esc(a.lectureId()), esc(a.roomId()), esc(a.timeSlotId())));
+            sink.ascii("assignment(");
+            atom(sink, a.lectureId()).ascii(", ");
+            atom(sink, a.roomId()).ascii(", ");
+            atom(sink, a.timeSlotId()).ascii(").\n");
         }
-        return sb.toString();
     }
 
-    private static String esc(String s) {
-        if (s == null) return "";
-        return s.replace("'", "\\'");
+    /** Write a quoted atom, escaping single quotes (null is written as the empty atom). */
+    private static ByteSink atom(ByteSink sink, String s) throws IOException {
+        sink.ascii('\'');
+        if (s != null) {
+            int from = 0;
+            for (int i = s.indexOf('\''); i >= 0; i = s.indexOf('\'', from)) {
+                sink.text(s, from, i).ascii("\\'");
+                from = i + 1;
+            }
+            sink.text(s, from, s.length());
+        }
+        return sink.ascii('\'');
     }
 }
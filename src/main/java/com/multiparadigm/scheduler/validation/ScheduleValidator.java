@@ -0,0 +1,53 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationReport;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks a candidate schedule against the hard scheduling constraints
+ * (capacity, room double booking, same-course overlap).
+ */
+public interface ScheduleValidator {
+    /**
+     * Validate the given schedule against the problem.
+     * @return result listing every violation; {@code valid} is true only if there are none
+     */
+    ValidationResult validate(SchedulingProblem problem, Schedule schedule);
+
+    /**
+     * Validate against a problem that was already compiled for this request (e.g. shared with the generator).
+     * The default implementation validates the original problem.
+     */
+    default ValidationResult validate(CompiledProblem problem, Schedule schedule) {
+        return validate(problem.problem(), schedule);
+    }
+
+    /**
+     * Validate and report as {@code options} ask: grouped conflicts and/or at most {@code maxViolations} of them.
+     * The default implementation validates fully, then groups and truncates the result; engines that can stop
+     * early override it.
+     */
+    default ValidationReport validate(CompiledProblem problem, Schedule schedule, ValidationOptions options) {
+        return options.report(problem, schedule, validate(problem, schedule));
+    }
+
+    /**
+     * Validate several schedules against the same compiled problem.
+     * Engines override this to share per-problem setup across the batch and to work in parallel;
+     * the default validates the schedules one after another.
+     * @return one result per schedule, in the order of {@code schedules}
+     */
+    default List<ValidationResult> validateAll(CompiledProblem problem, List<Schedule> schedules) {
+        List<ValidationResult> results = new ArrayList<>(schedules.size());
+        for (Schedule schedule : schedules) {
+            results.add(validate(problem, schedule));
+        }
+        return results;
+    }
+}
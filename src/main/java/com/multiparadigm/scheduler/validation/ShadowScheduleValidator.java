@@ -0,0 +1,112 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.model.Violation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a primary and a shadow validator on every request, returns the primary result and counts
+ * how often the two disagree. Used to prove parity of a new engine before switching to it.
+ * <p>
+ * Results are compared ignoring violation order. Failures of the shadow engine are counted and logged
+ * but never affect the response; failures of the primary engine propagate unchanged.
+ */
+public class ShadowScheduleValidator implements ScheduleValidator {
+    private static final Logger log = LoggerFactory.getLogger(ShadowScheduleValidator.class);
+
+    private static final Comparator<Violation> ORDER = Comparator
+            .comparing(Violation::code, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Violation::lectureId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Violation::roomId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Violation::timeSlotId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Violation::message, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ScheduleValidator primary;
+    private final ScheduleValidator shadow;
+    private final AtomicLong comparisons = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong shadowFailures = new AtomicLong();
+
+    public ShadowScheduleValidator(ScheduleValidator primary, ScheduleValidator shadow) {
+        this.primary = Objects.requireNonNull(primary);
+        this.shadow = Objects.requireNonNull(shadow);
+    }
+
+    @Override
+    public ValidationResult validate(SchedulingProblem problem, Schedule schedule) {
+        return validate(CompiledProblem.of(problem), schedule);
+    }
+
+    @Override
+    public ValidationResult validate(CompiledProblem problem, Schedule schedule) {
+        ValidationResult expected = primary.validate(problem, schedule);
+        try {
+            ValidationResult actual = shadow.validate(problem, schedule);
+            comparisons.incrementAndGet();
+            if (!sameResult(expected, actual)) {
+                mismatches.incrementAndGet();
+                log.warn("Shadow validator mismatch: primary valid={} violations={}, shadow valid={} violations={}",
+                        expected.valid(), size(expected), actual.valid(), size(actual));
+            }
+        } catch (RuntimeException e) {
+            shadowFailures.incrementAndGet();
+            log.warn("Shadow validator failed: {}", e.getMessage());
+        }
+        return expected;
+    }
+
+    /** Validate the batch with both engines' batch paths and compare the results pairwise. */
+    @Override
+    public List<ValidationResult> validateAll(CompiledProblem problem, List<Schedule> schedules) {
+        List<ValidationResult> expected = primary.validateAll(problem, schedules);
+        try {
+            List<ValidationResult> actual = shadow.validateAll(problem, schedules);
+            for (int i = 0; i < expected.size(); i++) {
+                comparisons.incrementAndGet();
+                if (!sameResult(expected.get(i), actual.get(i))) {
+                    mismatches.incrementAndGet();
+                    log.warn("Shadow validator mismatch in batch item {}: primary valid={} violations={}, shadow valid={} violations={}",
+                            i, expected.get(i).valid(), size(expected.get(i)), actual.get(i).valid(), size(actual.get(i)));
+                }
+            }
+        } catch (RuntimeException e) {
+            shadowFailures.incrementAndGet();
+            log.warn("Shadow validator failed: {}", e.getMessage());
+        }
+        return expected;
+    }
+
+    /** Number of requests for which both engines produced a result. */
+    public long comparisons() { return comparisons.get(); }
+
+    /** Number of compared requests where the engines disagreed. */
+    public long mismatches() { return mismatches.get(); }
+
+    /** Number of requests where the shadow engine threw. */
+    public long shadowFailures() { return shadowFailures.get(); }
+
+    static boolean sameResult(ValidationResult a, ValidationResult b) {
+        if (a.valid() != b.valid()) return false;
+        return sorted(a.violations()).equals(sorted(b.violations()));
+    }
+
+    private static List<Violation> sorted(List<Violation> violations) {
+        List<Violation> copy = new ArrayList<>(violations == null ? List.of() : violations);
+        copy.sort(ORDER);
+        return copy;
+    }
+
+    private static int size(ValidationResult r) {
+        return r.violations() == null ? 0 : r.violations().size();
+    }
+}
@@ -0,0 +1,34 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.CompiledProblem;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationReport;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * How a validation is reported.
+ * @param grouped report one conflict per group of lectures sharing a room (or course) at overlapping times,
+ *                listing its lectures, instead of one per pair; k lectures in one room and slot then give one
+ *                violation instead of k(k-1)/2
+ * @param maxViolations stop after this many violations (0 for no limit); engines that support it stop searching
+ *                      as soon as they know there are more
+ */
+public record ValidationOptions(boolean grouped, int maxViolations) {
+    /** Every violation, pairwise: the plain {@link ScheduleValidator#validate} result. */
+    public static final ValidationOptions FULL = new ValidationOptions(false, 0);
+
+    public ValidationOptions {
+        if (maxViolations < 0) throw new IllegalArgumentException("maxViolations must not be negative");
+    }
+
+    /** Report a complete pairwise result of {@code schedule}, e.g. a cached one, as these options ask. */
+    public ValidationReport report(CompiledProblem problem, Schedule schedule, ValidationResult result) {
+        if (grouped) result = JavaScheduleValidator.regroup(problem, schedule, result);
+        return ValidationReport.of(result, maxViolations);
+    }
+
+    /** Number of violations to look for: one more than the cap, so that a truncated result can be told apart. */
+    int searchLimit() {
+        return maxViolations == 0 || maxViolations == Integer.MAX_VALUE ? Integer.MAX_VALUE : maxViolations + 1;
+    }
+}
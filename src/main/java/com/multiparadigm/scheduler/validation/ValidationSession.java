@@ -0,0 +1,279 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.*;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Stateful validation of a schedule that is edited one lecture at a time.
+ * <p>
+ * The problem and the initial schedule are indexed once by (room, day) and (course, day), with time slots parsed
+ * into minute intervals; every edit then only re-checks the moved lectures against the occupants of the buckets
+ * they leave and enter whose slots overlap theirs, so an edit costs O(affected assignments) instead of re-running
+ * all rules. Violations use the same codes,
+ * messages and attribution as {@link JavaScheduleValidator}, and each edit reports only the violations
+ * it added and removed.
+ * <p>
+ * Each lecture may be assigned at most once. Instances are not thread-safe; callers serialize access.
+ */
+public class ValidationSession {
+
+    private record RoomDay(String roomId, int day) {}
+    private record CourseDay(String courseId, int day) {}
+
+    /** A current violation together with the lectures it involves (one for capacity, two for conflicts). */
+    private record Link(Violation violation, String first, String second) {}
+
+    /**
+     * Violations an edit added and removed, plus the state after the edit.
+     * @param added violations that did not exist before the edit
+     * @param removed violations that no longer exist after the edit
+     * @param valid whether the edited schedule has no violations
+     * @param violationCount total number of violations after the edit
+     */
+    public record Delta(List<Violation> added, List<Violation> removed, boolean valid, int violationCount) {}
+
+    private final String id;
+    private final Map<String, Lecture> lectures = new HashMap<>();
+    private final Map<String, Room> rooms = new HashMap<>();
+    private final Set<String> timeSlots = new HashSet<>();
+    private final CompiledProblem compiled;
+    // Slot ids the problem does not know, each given a day key of its own
+    private final Map<String, Integer> unknownSlots = new HashMap<>();
+    private final LinkedHashMap<String, Assignment> assignments = new LinkedHashMap<>();
+    private final Map<RoomDay, Set<String>> byRoomDay = new HashMap<>();
+    private final Map<CourseDay, Set<String>> byCourseDay = new HashMap<>();
+    private final Map<String, List<Link>> involving = new HashMap<>();
+    private final LinkedHashSet<Violation> violations = new LinkedHashSet<>();
+    private volatile Instant lastAccess = Instant.now();
+
+    /**
+     * @throws IllegalArgumentException if an assignment has no lecture or a lecture is assigned more than once
+     */
+    public ValidationSession(String id, SchedulingProblem problem, Schedule schedule) {
+        this.id = Objects.requireNonNull(id);
+        for (Lecture l : problem.lectures()) lectures.putIfAbsent(l.id(), l);
+        for (Room r : problem.rooms()) rooms.putIfAbsent(r.id(), r);
+        for (TimeSlot t : problem.timeSlots()) timeSlots.add(t.id());
+        this.compiled = CompiledProblem.of(problem);
+        List<Assignment> initial = schedule == null || schedule.assignments() == null ? List.of() : schedule.assignments();
+        for (Assignment a : initial) {
+            if (a.lectureId() == null) {
+                throw new IllegalArgumentException("Assignment without lectureId");
+            }
+            if (assignments.putIfAbsent(a.lectureId(), a) != null) {
+                throw new IllegalArgumentException("Lecture " + a.lectureId() + " is assigned more than once");
+            }
+            index(a);
+        }
+        for (Assignment a : initial) {
+            check(a.lectureId());
+        }
+    }
+
+    public String id() { return id; }
+
+    public Instant lastAccess() { return lastAccess; }
+
+    /** All current violations, in the order capacity, double bookings, course overlaps. */
+    public ValidationResult result() {
+        touch();
+        List<Violation> list = new ArrayList<>(violations);
+        list.sort(Comparator.comparingInt(v -> rank(v.code())));
+        return ValidationResult.from(list);
+    }
+
+    /** The schedule as edited so far. */
+    public Schedule schedule() {
+        touch();
+        return new Schedule(List.copyOf(assignments.values()), null);
+    }
+
+    /**
+     * Assign a lecture to a room and time slot, moving it if it is already assigned.
+     * @throws IllegalArgumentException for unknown lectures, rooms or time slots
+     */
+    public Delta move(String lectureId, String roomId, String timeSlotId) {
+        requireLecture(lectureId);
+        if (!rooms.containsKey(roomId)) throw new IllegalArgumentException("Unknown room " + roomId);
+        if (!timeSlots.contains(timeSlotId)) throw new IllegalArgumentException("Unknown time slot " + timeSlotId);
+        return edit(List.of(lectureId), () -> place(new Assignment(lectureId, roomId, timeSlotId)));
+    }
+
+    /**
+     * Exchange the rooms and time slots of two assigned lectures.
+     * @throws IllegalArgumentException if either lecture is not currently assigned
+     */
+    public Delta swap(String lectureId, String otherLectureId) {
+        Assignment a = requireAssigned(lectureId);
+        Assignment b = requireAssigned(otherLectureId);
+        return edit(List.of(lectureId, otherLectureId), () -> {
+            place(new Assignment(a.lectureId(), b.roomId(), b.timeSlotId()));
+            place(new Assignment(b.lectureId(), a.roomId(), a.timeSlotId()));
+        });
+    }
+
+    /**
+     * Remove a lecture from the schedule.
+     * @throws IllegalArgumentException if the lecture is not currently assigned
+     */
+    public Delta unassign(String lectureId) {
+        requireAssigned(lectureId);
+        return edit(List.of(lectureId), () -> unindex(assignments.remove(lectureId)));
+    }
+
+    /**
+     * Drop the violations involving the given lectures, apply the change, re-check those lectures and
+     * report the difference. Violations dropped and re-derived unchanged cancel out.
+     */
+    private Delta edit(List<String> affected, Runnable change) {
+        touch();
+        LinkedHashSet<Violation> removed = new LinkedHashSet<>();
+        for (String lectureId : affected) {
+            for (Link link : new ArrayList<>(involving.getOrDefault(lectureId, List.of()))) {
+                unlink(link);
+                removed.add(link.violation());
+            }
+        }
+        change.run();
+        LinkedHashSet<Violation> added = new LinkedHashSet<>();
+        for (String lectureId : affected) {
+            added.addAll(check(lectureId));
+        }
+        List<Violation> reallyAdded = new ArrayList<>();
+        for (Violation v : added) if (!removed.remove(v)) reallyAdded.add(v);
+        return new Delta(reallyAdded, List.copyOf(removed), violations.isEmpty(), violations.size());
+    }
+
+    /**
+     * Derive and record the violations of one lecture's current assignment. A conflict already recorded
+     * from the partner's side (checked earlier) is skipped, so every pair is recorded once.
+     */
+    private List<Violation> check(String lectureId) {
+        Assignment a = assignments.get(lectureId);
+        List<Violation> found = new ArrayList<>();
+        if (a == null) return found;
+        Lecture lecture = lectures.get(lectureId);
+        Room room = rooms.get(a.roomId());
+        if (lecture != null && room != null && lecture.enrollment() > room.capacity()) {
+            found.add(record(new Violation("capacity_exceeded",
+                    "Enrollment (" + lecture.enrollment() + ") exceeds room capacity (" + room.capacity() + ").",
+                    a.lectureId(), a.roomId(), a.timeSlotId()), lectureId, null));
+        }
+        int day = day(a.timeSlotId());
+        for (String other : byRoomDay.getOrDefault(new RoomDay(a.roomId(), day), Set.of())) {
+            if (other.equals(lectureId) || !overlap(a, other) || linked(lectureId, other, "room_double_booked")) continue;
+            found.add(pair("room_double_booked", "Room booked by multiple lectures at the same time: ", lectureId, other));
+        }
+        if (lecture != null) {
+            for (String other : byCourseDay.getOrDefault(new CourseDay(lecture.courseId(), day), Set.of())) {
+                if (other.equals(lectureId) || !overlap(a, other) || linked(lectureId, other, "same_course_overlap")) continue;
+                found.add(pair("same_course_overlap", "Two lectures of the same course overlap: ", lectureId, other));
+            }
+        }
+        return found;
+    }
+
+    /** Record a conflict between two lectures, attributed to the lexicographically smaller id. */
+    private Violation pair(String code, String prefix, String x, String y) {
+        String first = x.compareTo(y) < 0 ? x : y;
+        String second = first.equals(x) ? y : x;
+        Assignment a = assignments.get(first);
+        Assignment b = assignments.get(second);
+        TimeWindow window = null;
+        int t = compiled.timeSlotIndex(a.timeSlotId()), u = compiled.timeSlotIndex(b.timeSlotId());
+        if (t >= 0 && u >= 0) window = compiled.overlapWindow(t, u);
+        return record(new Violation(code, prefix + first + " and " + second + ".",
+                first, a.roomId(), a.timeSlotId(), window), first, second);
+    }
+
+    /** Whether an assignment's slot is the same as, or overlaps, the slot of another assigned lecture. */
+    private boolean overlap(Assignment a, String otherLectureId) {
+        String other = assignments.get(otherLectureId).timeSlotId();
+        if (Objects.equals(a.timeSlotId(), other)) return true;
+        int t = compiled.timeSlotIndex(a.timeSlotId()), u = compiled.timeSlotIndex(other);
+        return t >= 0 && u >= 0 && compiled.slotsOverlap(t, u);
+    }
+
+    /** Day key of a slot id: shared by the parsed slots of one day, unique for every other slot. */
+    private int day(String timeSlotId) {
+        int t = compiled.timeSlotIndex(timeSlotId);
+        if (t >= 0) return compiled.slotDay(t);
+        int unknown = unknownSlots.computeIfAbsent(String.valueOf(timeSlotId), k -> unknownSlots.size());
+        return compiled.dayCount() + compiled.timeSlotCount() + unknown;
+    }
+
+    private boolean linked(String x, String y, String code) {
+        for (Link link : involving.getOrDefault(x, List.of())) {
+            if (link.violation().code().equals(code) && (y.equals(link.first()) || y.equals(link.second()))) return true;
+        }
+        return false;
+    }
+
+    private Violation record(Violation v, String first, String second) {
+        Link link = new Link(v, first, second);
+        violations.add(v);
+        involving.computeIfAbsent(first, k -> new ArrayList<>()).add(link);
+        if (second != null) involving.computeIfAbsent(second, k -> new ArrayList<>()).add(link);
+        return v;
+    }
+
+    private void unlink(Link link) {
+        violations.remove(link.violation());
+        involving.getOrDefault(link.first(), new ArrayList<>()).remove(link);
+        if (link.second() != null) involving.getOrDefault(link.second(), new ArrayList<>()).remove(link);
+    }
+
+    private void place(Assignment a) {
+        Assignment previous = assignments.put(a.lectureId(), a);
+        if (previous != null) unindex(previous);
+        index(a);
+    }
+
+    private void index(Assignment a) {
+        int day = day(a.timeSlotId());
+        byRoomDay.computeIfAbsent(new RoomDay(a.roomId(), day), k -> new LinkedHashSet<>()).add(a.lectureId());
+        Lecture lecture = lectures.get(a.lectureId());
+        if (lecture != null) {
+            byCourseDay.computeIfAbsent(new CourseDay(lecture.courseId(), day), k -> new LinkedHashSet<>()).add(a.lectureId());
+        }
+    }
+
+    private void unindex(Assignment a) {
+        int day = day(a.timeSlotId());
+        RoomDay rd = new RoomDay(a.roomId(), day);
+        Set<String> inRoom = byRoomDay.get(rd);
+        if (inRoom != null && inRoom.remove(a.lectureId()) && inRoom.isEmpty()) byRoomDay.remove(rd);
+        Lecture lecture = lectures.get(a.lectureId());
+        if (lecture != null) {
+            CourseDay cd = new CourseDay(lecture.courseId(), day);
+            Set<String> inCourse = byCourseDay.get(cd);
+            if (inCourse != null && inCourse.remove(a.lectureId()) && inCourse.isEmpty()) byCourseDay.remove(cd);
+        }
+    }
+
+    private void requireLecture(String lectureId) {
+        if (lectureId == null || !lectures.containsKey(lectureId)) {
+            throw new IllegalArgumentException("Unknown lecture " + lectureId);
+        }
+    }
+
+    private Assignment requireAssigned(String lectureId) {
+        Assignment a = lectureId == null ? null : assignments.get(lectureId);
+        if (a == null) throw new IllegalArgumentException("Lecture " + lectureId + " is not assigned");
+        return a;
+    }
+
+    private void touch() {
+        lastAccess = Instant.now();
+    }
+
+    private static int rank(String code) {
+        return switch (code) {
+            case "capacity_exceeded" -> 0;
+            case "room_double_booked" -> 1;
+            default -> 2;
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the {@link ValidationSession}s of interactive editors in memory.
+ * <p>
+ * Sessions idle for longer than {@code idleTimeout} are dropped; at most {@code maxSessions} are kept.
+ * Edits of one session are serialized, different sessions are independent.
+ */
+@Service
+public class ValidationSessionService {
+    private final int maxSessions;
+    private final Duration idleTimeout;
+    private final ConcurrentHashMap<String, ValidationSession> sessions = new ConcurrentHashMap<>();
+
+    public ValidationSessionService(
+            @Value("${app.validation.sessions.max:1000}") int maxSessions,
+            @Value("${app.validation.sessions.idle-timeout.minutes:30}") long idleTimeoutMinutes
+    ) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.idleTimeout = Duration.ofMinutes(idleTimeoutMinutes);
+    }
+
+    /**
+     * Index the problem and schedule and open a session for incremental edits.
+     * @throws IllegalArgumentException if the schedule assigns a lecture more than once
+     * @throws IllegalStateException if the session limit is reached
+     */
+    public ValidationSession open(SchedulingProblem problem, Schedule schedule) {
+        purgeIdle();
+        if (sessions.size() >= maxSessions) {
+            throw new IllegalStateException("Too many validation sessions; retry later");
+        }
+        ValidationSession session = new ValidationSession(UUID.randomUUID().toString(), problem, schedule);
+        sessions.put(session.id(), session);
+        return session;
+    }
+
+    public Optional<ValidationSession> find(String id) {
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * Run an operation on a session while holding its lock.
+     * @return empty if there is no such session
+     */
+    public <T> Optional<T> withSession(String id, Function<ValidationSession, T> operation) {
+        ValidationSession session = sessions.get(id);
+        if (session == null) return Optional.empty();
+        synchronized (session) {
+            return Optional.ofNullable(operation.apply(session));
+        }
+    }
+
+    public boolean close(String id) {
+        return sessions.remove(id) != null;
+    }
+
+    private void purgeIdle() {
+        Instant cutoff = Instant.now().minus(idleTimeout);
+        sessions.values().removeIf(s -> s.lastAccess().isBefore(cutoff));
+    }
+}
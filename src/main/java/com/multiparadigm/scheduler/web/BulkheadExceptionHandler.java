@@ -0,0 +1,25 @@
+package com.multiparadigm.scheduler.web;
+
+import com.multiparadigm.scheduler.exec.BulkheadRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps bulkhead rejections from any endpoint to 429 Too Many Requests with a {@code Retry-After} header
+ * (in seconds), whether the engine's wait queue was full or the queue-time deadline passed.
+ */
+@RestControllerAdvice
+public class BulkheadExceptionHandler {
+
+    @ExceptionHandler(BulkheadRejectedException.class)
+    public ResponseEntity<ProblemDetail> rejected(BulkheadRejectedException e) {
+        ProblemDetail body = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.retryAfter().toSeconds()))
+                .body(body);
+    }
+}
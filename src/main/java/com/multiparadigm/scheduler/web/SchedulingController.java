@@ -1,52 +1,417 @@
 package com.multiparadigm.scheduler.web;
 
+import com.multiparadigm.scheduler.cache.CacheStats;
+import com.multiparadigm.scheduler.ga.GenerationOptions;
 import com.multiparadigm.scheduler.model.Schedule;
 import com.multiparadigm.scheduler.model.SchedulingProblem;
 import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.service.PortfolioOptions;
+import com.multiparadigm.scheduler.service.ProblemRegistry;
+import com.multiparadigm.scheduler.service.RegisteredProblem;
 import com.multiparadigm.scheduler.service.SchedulingService;
+import com.multiparadigm.scheduler.validation.ValidationOptions;
+import com.multiparadigm.scheduler.web.dto.BatchValidateRequest;
+import com.multiparadigm.scheduler.web.dto.BatchValidationResult;
 import com.multiparadigm.scheduler.web.dto.GenerateAndValidateResponse;
+import com.multiparadigm.scheduler.web.dto.PortfolioResponse;
+import com.multiparadigm.scheduler.web.dto.RegisteredProblemResponse;
+import com.multiparadigm.scheduler.web.dto.RepairRequest;
+import com.multiparadigm.scheduler.web.dto.RepairResponse;
+import com.multiparadigm.scheduler.web.dto.RescheduleRequest;
+import com.multiparadigm.scheduler.web.dto.RescheduleResponse;
+import com.multiparadigm.scheduler.web.dto.SolveResponse;
 import com.multiparadigm.scheduler.web.dto.ValidateRequest;
+import com.multiparadigm.scheduler.web.dto.ValidationPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
- * REST endpoints for generating and validating schedules.
+ * REST endpoints for generating and validating schedules. Problems can be sent with every request or registered
+ * once under {@code /problems} and then referred to by id. Generate, validate and generate-and-validate calls
+ * are answered asynchronously and fail with 503 once {@code app.schedule.request-timeout.seconds} has passed.
  */
 @RestController
 @RequestMapping(path = "/api/schedule", produces = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
 public class SchedulingController {
 
     private final SchedulingService service;
+    private final ProblemRegistry registry;
+    private final int maxBatchSchedules;
+    private final int maxPortfolioRuns;
+    private final long maxPortfolioDeadlineMillis;
+    private final long maxGenerationDeadlineMillis;
+    private final int maxReportPageSize;
+    private final Duration requestTimeout;
 
-    public SchedulingController(SchedulingService service) {
+    public SchedulingController(
+            SchedulingService service,
+            ProblemRegistry registry,
+            @Value("${app.validation.batch.max-schedules:1000}") int maxBatchSchedules,
+            @Value("${app.portfolio.max-runs:16}") int maxPortfolioRuns,
+            @Value("${app.portfolio.max-deadline.millis:60000}") long maxPortfolioDeadlineMillis,
+            @Value("${app.generation.max-deadline.millis:60000}") long maxGenerationDeadlineMillis,
+            @Value("${app.validation.report.max-page-size:1000}") int maxReportPageSize,
+            @Value("${app.schedule.request-timeout.seconds:120}") long requestTimeoutSeconds
+    ) {
         this.service = service;
+        this.registry = registry;
+        this.maxBatchSchedules = maxBatchSchedules;
+        this.maxPortfolioRuns = maxPortfolioRuns;
+        this.maxPortfolioDeadlineMillis = maxPortfolioDeadlineMillis;
+        this.maxGenerationDeadlineMillis = maxGenerationDeadlineMillis;
+        this.maxReportPageSize = maxReportPageSize;
+        this.requestTimeout = Duration.ofSeconds(requestTimeoutSeconds);
     }
 
     /**
      * Generate a candidate schedule for the provided problem using the GA.
+     * A {@code seed} makes the run reproducible and lets identical requests be served from the cache.
+     * With {@code deadlineMillis} an anytime engine returns its best schedule so far, marked {@code partial},
+     * when the deadline expires.
      */
     @PostMapping(path = "/generate", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
-    public Schedule generate(@RequestBody SchedulingProblem problem) {
-        return service.generate(problem);
+    public DeferredResult<Schedule> generate(
+            @RequestBody SchedulingProblem problem,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "deadlineMillis", required = false) Long deadlineMillis
+    ) {
+        GenerationOptions options = options(seed, deadlineMillis);
+        return async(() -> service.generate(problem, options));
+    }
+
+    /**
+     * Race {@code runs} seeded generator runs (round-robin over {@code engines}, default the configured engine)
+     * and return the best validated schedule, stopping early at the first conflict-free one.
+     */
+    @PostMapping(path = "/generate/portfolio", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public PortfolioResponse generatePortfolio(
+            @RequestBody SchedulingProblem problem,
+            @RequestParam(name = "runs", defaultValue = "${app.portfolio.runs:4}") int runs,
+            @RequestParam(name = "deadlineMillis", defaultValue = "${app.portfolio.deadline.millis:10000}") long deadlineMillis,
+            @RequestParam(name = "engines", required = false) List<String> engines,
+            @RequestParam(name = "seed", required = false) Long seed
+    ) {
+        if (runs < 1 || runs > maxPortfolioRuns) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "runs must be between 1 and " + maxPortfolioRuns);
+        }
+        if (deadlineMillis < 1 || deadlineMillis > maxPortfolioDeadlineMillis) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "deadlineMillis must be between 1 and " + maxPortfolioDeadlineMillis);
+        }
+        PortfolioOptions options = new PortfolioOptions(runs, Duration.ofMillis(deadlineMillis), engines, seed);
+        SchedulingService.PortfolioResult res;
+        try {
+            res = service.generatePortfolio(problem, options);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return new PortfolioResponse(res.schedule(), res.validation(), res.engine(), res.seed(),
+                res.completedRuns(), res.failedRuns());
     }
 
     /**
-     * Validate a provided schedule against the problem using the Prolog validator.
+     * Validate a provided schedule against the problem using the configured validator engine.
      */
     @PostMapping(path = "/validate", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
-    public ValidationResult validate(@RequestBody ValidateRequest request) {
-        return service.validate(request.problem(), request.schedule());
+    public DeferredResult<ValidationResult> validate(@RequestBody ValidateRequest request) {
+        return async(() -> service.validate(request.problem(), request.schedule()));
+    }
+
+    /**
+     * Validate and return one page of the report with counts per code. With {@code grouped} each set of lectures
+     * sharing a room (or course) at overlapping times is one violation listing them all instead of one per pair;
+     * validation stops after {@code maxViolations} (0 for no limit), marking the report {@code truncated}.
+     */
+    @PostMapping(path = "/validate/report", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ValidationPage validateReport(
+            @RequestBody ValidateRequest request,
+            @RequestParam(name = "grouped", defaultValue = "false") boolean grouped,
+            @RequestParam(name = "maxViolations", defaultValue = "${app.validation.report.max-violations:1000}") int maxViolations,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "pageSize", defaultValue = "100") int pageSize
+    ) {
+        if (request.problem() == null || request.schedule() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "problem and schedule are required");
+        }
+        ValidationOptions options = reportOptions(grouped, maxViolations, page, pageSize);
+        return ValidationPage.of(service.validateReport(request.problem(), request.schedule(), options), page, pageSize);
     }
 
     /**
-     * Generate a schedule and validate it in a single request.
+     * Validate many schedules against one problem; results are returned in the order of the request.
+     * With {@code countsOnly} each result carries only the violation counts, not the violations themselves.
+     */
+    @PostMapping(path = "/validate/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public List<BatchValidationResult> validateBatch(
+            @RequestBody BatchValidateRequest request,
+            @RequestParam(name = "countsOnly", defaultValue = "false") boolean countsOnly
+    ) {
+        if (request.problem() == null || request.schedules() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "problem and schedules are required");
+        }
+        if (request.schedules().size() > maxBatchSchedules) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchSchedules + " schedules per batch");
+        }
+        return service.validateAll(request.problem(), request.schedules()).stream()
+                .map(r -> BatchValidationResult.of(r, countsOnly))
+                .toList();
+    }
+
+    /**
+     * Repair a near-miss schedule with min-conflicts moves until it is conflict-free or the time budget runs out.
+     * The validation result in the body is optional; a {@code seed} makes the repair reproducible.
+     */
+    @PostMapping(path = "/repair", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public RepairResponse repair(
+            @RequestBody RepairRequest request,
+            @RequestParam(name = "seed", required = false) Long seed
+    ) {
+        if (request.problem() == null || request.schedule() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "problem and schedule are required");
+        }
+        SchedulingService.RepairResult res = service.repair(request.problem(), request.schedule(), request.validation(), seed);
+        return new RepairResponse(res.schedule(), res.validation(), res.initialViolations(), res.steps());
+    }
+
+    /**
+     * Reschedule a changed problem (rooms closed, lectures added or removed, enrollments changed) starting from the
+     * previous schedule, so that unaffected lectures stay where they were. A {@code seed} makes it reproducible.
+     */
+    @PostMapping(path = "/reschedule", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public RescheduleResponse reschedule(
+            @RequestBody RescheduleRequest request,
+            @RequestParam(name = "seed", required = false) Long seed
+    ) {
+        if (request.problem() == null || request.previous() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "problem and previous are required");
+        }
+        SchedulingService.RescheduleResult res = service.reschedule(request.problem(), request.previous(), seed);
+        return new RescheduleResponse(res.schedule(), res.validation(), res.kept(), res.moved(), res.added(), res.steps());
+    }
+
+    /**
+     * Solve with the exact backtracking solver: the outcome is {@code SOLVED}, {@code INFEASIBLE} (no conflict-free
+     * schedule exists) or {@code TIMEOUT}, with the solution or best-effort schedule and its validation.
+     * {@code timeLimitMillis} overrides the configured time limit.
+     */
+    @PostMapping(path = "/solve", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public SolveResponse solve(
+            @RequestBody SchedulingProblem problem,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "timeLimitMillis", required = false) Long timeLimitMillis
+    ) {
+        if (timeLimitMillis != null && (timeLimitMillis < 1 || timeLimitMillis > maxGenerationDeadlineMillis)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "timeLimitMillis must be between 1 and " + maxGenerationDeadlineMillis);
+        }
+        SchedulingService.SolveResult res;
+        try {
+            res = service.solve(problem, seed, timeLimitMillis == null ? null : Duration.ofMillis(timeLimitMillis));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return new SolveResponse(res.outcome(), res.schedule(), res.validation(), res.nodes(), res.restarts());
+    }
+
+    /**
+     * Generate a schedule and validate it in a single request; with {@code repair} a schedule with violations
+     * is repaired as a final stage. {@code deadlineMillis} bounds the generation as for {@code /generate}.
      */
     @PostMapping(path = "/generate-and-validate", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
-    public GenerateAndValidateResponse generateAndValidate(@RequestBody SchedulingProblem problem) {
-        SchedulingService.Result res = service.generateAndValidate(problem);
-        return new GenerateAndValidateResponse(res.schedule(), res.validation());
+    public DeferredResult<GenerateAndValidateResponse> generateAndValidate(
+            @RequestBody SchedulingProblem problem,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "repair", defaultValue = "${app.repair.on-generate:false}") boolean repair,
+            @RequestParam(name = "deadlineMillis", required = false) Long deadlineMillis
+    ) {
+        GenerationOptions options = options(seed, deadlineMillis);
+        return async(() -> {
+            SchedulingService.Result res = service.generateAndValidate(problem, options, repair);
+            return new GenerateAndValidateResponse(res.schedule(), res.validation());
+        });
+    }
+
+    /**
+     * Register a problem once so later calls can refer to it by id; responds 201 with its id (the content hash,
+     * so registering the same problem again returns the same id).
+     */
+    @PostMapping(path = "/problems", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ResponseEntity<RegisteredProblemResponse> register(@RequestBody SchedulingProblem problem) {
+        RegisteredProblem registered = registry.register(problem);
+        return ResponseEntity.created(URI.create("/api/schedule/problems/" + registered.id()))
+                .body(RegisteredProblemResponse.of(registered));
+    }
+
+    @GetMapping("/problems/{id}")
+    public RegisteredProblemResponse registered(@PathVariable String id) {
+        return RegisteredProblemResponse.of(problem(id));
+    }
+
+    /**
+     * Validate a schedule against a registered problem.
+     */
+    @PostMapping(path = "/problems/{id}/validate", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public DeferredResult<ValidationResult> validateRegistered(@PathVariable String id, @RequestBody Schedule schedule) {
+        RegisteredProblem problem = problem(id);
+        return async(() -> service.validate(problem, schedule));
+    }
+
+    /**
+     * Validation report for a registered problem, with the parameters of {@code /validate/report}.
+     */
+    @PostMapping(path = "/problems/{id}/validate/report", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ValidationPage validateReportRegistered(
+            @PathVariable String id,
+            @RequestBody Schedule schedule,
+            @RequestParam(name = "grouped", defaultValue = "false") boolean grouped,
+            @RequestParam(name = "maxViolations", defaultValue = "${app.validation.report.max-violations:1000}") int maxViolations,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "pageSize", defaultValue = "100") int pageSize
+    ) {
+        ValidationOptions options = reportOptions(grouped, maxViolations, page, pageSize);
+        return ValidationPage.of(service.validateReport(problem(id), schedule, options), page, pageSize);
+    }
+
+    /**
+     * Validate many schedules against a registered problem, as {@code /validate/batch}.
+     */
+    @PostMapping(path = "/problems/{id}/validate/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public List<BatchValidationResult> validateBatchRegistered(
+            @PathVariable String id,
+            @RequestBody List<Schedule> schedules,
+            @RequestParam(name = "countsOnly", defaultValue = "false") boolean countsOnly
+    ) {
+        if (schedules.size() > maxBatchSchedules) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchSchedules + " schedules per batch");
+        }
+        return service.validateAll(problem(id), schedules).stream()
+                .map(r -> BatchValidationResult.of(r, countsOnly))
+                .toList();
+    }
+
+    /**
+     * Generate a schedule for a registered problem, with the parameters of {@code /generate}.
+     */
+    @PostMapping("/problems/{id}/generate")
+    public DeferredResult<Schedule> generateRegistered(
+            @PathVariable String id,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "deadlineMillis", required = false) Long deadlineMillis
+    ) {
+        RegisteredProblem problem = problem(id);
+        GenerationOptions options = options(seed, deadlineMillis);
+        return async(() -> service.generate(problem, options));
+    }
+
+    /**
+     * Generate and validate for a registered problem, with the parameters of {@code /generate-and-validate}.
+     */
+    @PostMapping("/problems/{id}/generate-and-validate")
+    public DeferredResult<GenerateAndValidateResponse> generateAndValidateRegistered(
+            @PathVariable String id,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "repair", defaultValue = "${app.repair.on-generate:false}") boolean repair,
+            @RequestParam(name = "deadlineMillis", required = false) Long deadlineMillis
+    ) {
+        RegisteredProblem problem = problem(id);
+        GenerationOptions options = options(seed, deadlineMillis);
+        return async(() -> {
+            SchedulingService.Result res = service.generateAndValidate(problem, options, repair);
+            return new GenerateAndValidateResponse(res.schedule(), res.validation());
+        });
+    }
+
+    /**
+     * Repair a schedule of a registered problem; the body is that of {@code /repair} without the problem.
+     */
+    @PostMapping(path = "/problems/{id}/repair", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public RepairResponse repairRegistered(
+            @PathVariable String id,
+            @RequestBody RepairRequest request,
+            @RequestParam(name = "seed", required = false) Long seed
+    ) {
+        if (request.schedule() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "schedule is required");
+        }
+        SchedulingService.RepairResult res = service.repair(problem(id), request.schedule(), request.validation(), seed);
+        return new RepairResponse(res.schedule(), res.validation(), res.initialViolations(), res.steps());
+    }
+
+    /**
+     * Run a generate or validate call on a virtual thread of its own and answer the request with its result or
+     * exception. If the request times out or fails (for instance because the client went away) that thread is
+     * interrupted: a call coalesced with identical ones detaches from the shared run, which is cancelled once no
+     * request waits for it, and a call running alone stops its run.
+     */
+    private <T> DeferredResult<T> async(Supplier<T> call) {
+        DeferredResult<T> result = new DeferredResult<>(requestTimeout.toMillis());
+        Thread worker = Thread.ofVirtual().name("schedule-request").unstarted(() -> {
+            try {
+                result.setResult(call.get());
+            } catch (Throwable e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onTimeout(() -> {
+            // Answer 503 before the interrupted call can answer with its own error
+            result.setErrorResult(new AsyncRequestTimeoutException());
+            worker.interrupt();
+        });
+        result.onError(e -> worker.interrupt());
+        worker.start();
+        return result;
+    }
+
+    private RegisteredProblem problem(String id) {
+        return registry.find(id).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown problem " + id));
+    }
+
+    private ValidationOptions reportOptions(boolean grouped, int maxViolations, int page, int pageSize) {
+        if (maxViolations < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxViolations must not be negative");
+        }
+        if (page < 0 || pageSize < 1 || pageSize > maxReportPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must not be negative and pageSize must be between 1 and " + maxReportPageSize);
+        }
+        return new ValidationOptions(grouped, maxViolations);
+    }
+
+    private GenerationOptions options(Long seed, Long deadlineMillis) {
+        GenerationOptions options = GenerationOptions.defaults().withSeed(seed);
+        if (deadlineMillis == null) return options;
+        if (deadlineMillis < 1 || deadlineMillis > maxGenerationDeadlineMillis) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "deadlineMillis must be between 1 and " + maxGenerationDeadlineMillis);
+        }
+        return options.withDeadline(Duration.ofMillis(deadlineMillis));
+    }
+
+    /**
+     * Hit, miss and eviction counters of the generation and validation result caches and of the problem registry.
+     */
+    @GetMapping("/cache/stats")
+    public Map<String, CacheStats> cacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("generation", service.caches().generation().stats());
+        stats.put("validation", service.caches().validation().stats());
+        stats.put("problems", registry.stats());
+        return stats;
     }
 }
@@ -0,0 +1,160 @@
+package com.multiparadigm.scheduler.web;
+
+import com.multiparadigm.scheduler.ga.GenerationProgress;
+import com.multiparadigm.scheduler.jobs.JobListener;
+import com.multiparadigm.scheduler.jobs.JobState;
+import com.multiparadigm.scheduler.jobs.JobStatus;
+import com.multiparadigm.scheduler.jobs.SchedulingJob;
+import com.multiparadigm.scheduler.jobs.SchedulingJobService;
+import com.multiparadigm.scheduler.jobs.StoredJob;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.service.SchedulingService;
+import com.multiparadigm.scheduler.web.dto.GenerateAndValidateResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST endpoints for asynchronous scheduling jobs: submit, poll status, fetch the result,
+ * cancel, and follow best-so-far progress as a server-sent event stream. Status and result of finished
+ * jobs that are no longer in memory are served from the store.
+ */
+@RestController
+@RequestMapping(path = "/api/schedule/jobs", produces = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+public class SchedulingJobController {
+
+    private final SchedulingJobService jobs;
+    private final Duration sseTimeout;
+
+    public SchedulingJobController(
+            SchedulingJobService jobs,
+            @Value("${app.jobs.sse-timeout.seconds:600}") long sseTimeoutSeconds
+    ) {
+        this.jobs = jobs;
+        this.sseTimeout = Duration.ofSeconds(sseTimeoutSeconds);
+    }
+
+    /**
+     * Submit a generation job; the schedule is validated too unless {@code validate=false}.
+     * An optional {@code seed} makes the run reproducible and cacheable.
+     * Responds 202 with the job status and its location, or 429 when the job queue is full.
+     */
+    @PostMapping(consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ResponseEntity<JobStatus> submit(
+            @RequestBody SchedulingProblem problem,
+            @RequestParam(name = "validate", defaultValue = "true") boolean validate,
+            @RequestParam(name = "seed", required = false) Long seed
+    ) {
+        JobStatus status;
+        try {
+            status = jobs.submit(problem, validate, seed);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/schedule/jobs/" + status.id()))
+                .body(status);
+    }
+
+    /**
+     * Current status of a job, including the latest progress.
+     */
+    @GetMapping("/{id}")
+    public JobStatus status(@PathVariable String id) {
+        return jobs.find(id).map(SchedulingJob::status)
+                .or(() -> jobs.stored(id).map(StoredJob::status))
+                .orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Result of a succeeded job; 409 while the job is still active or if it failed or was cancelled.
+     */
+    @GetMapping("/{id}/result")
+    public GenerateAndValidateResponse result(@PathVariable String id) {
+        SchedulingJob job = jobs.find(id).orElse(null);
+        SchedulingService.Result result;
+        JobStatus status;
+        if (job != null) {
+            result = job.result();
+            status = job.status();
+        } else {
+            StoredJob stored = jobs.stored(id).orElseThrow(() -> notFound(id));
+            result = stored.schedule() == null ? null : new SchedulingService.Result(stored.schedule(), stored.validation());
+            status = stored.status();
+        }
+        if (result == null) {
+            String reason = status.state() == JobState.FAILED
+                    ? "Job failed: " + status.error()
+                    : "Job is " + status.state();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, reason);
+        }
+        return new GenerateAndValidateResponse(result.schedule(), result.validation());
+    }
+
+    /**
+     * Cancel a queued or running job.
+     */
+    @DeleteMapping("/{id}")
+    public JobStatus cancel(@PathVariable String id) {
+        return jobs.cancel(id).orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Stream job updates: a {@code status} event on subscription, a {@code progress} event per
+     * best-so-far update, and a final {@code done} event carrying the terminal status.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String id) {
+        SchedulingJob job = job(id);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        JobListener listener = new JobListener() {
+            @Override
+            public void onProgress(GenerationProgress progress) {
+                send(emitter, job, this, SseEmitter.event().name("progress").data(progress));
+            }
+
+            @Override
+            public void onFinished(JobStatus status) {
+                if (send(emitter, job, this, SseEmitter.event().name("done").data(status))) {
+                    emitter.complete();
+                }
+            }
+        };
+        emitter.onCompletion(() -> job.removeListener(listener));
+        emitter.onTimeout(() -> job.removeListener(listener));
+        emitter.onError(e -> job.removeListener(listener));
+        if (send(emitter, job, listener, SseEmitter.event().name("status").data(job.status()))) {
+            job.addListener(listener);
+        }
+        return emitter;
+    }
+
+    private static boolean send(SseEmitter emitter, SchedulingJob job, JobListener listener, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; stop delivering updates to this emitter
+            job.removeListener(listener);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private SchedulingJob job(String id) {
+        return jobs.find(id).orElseThrow(() -> notFound(id));
+    }
+
+    private static ResponseStatusException notFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job " + id);
+    }
+}
@@ -0,0 +1,84 @@
+package com.multiparadigm.scheduler.web;
+
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import com.multiparadigm.scheduler.store.SegmentLog;
+import com.multiparadigm.scheduler.web.dto.StoreScheduleRequest;
+import com.multiparadigm.scheduler.web.dto.StoredResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+
+/**
+ * REST endpoints for the durable store: save problems and schedules and fetch them again by id, also after a
+ * restart. Finished job results are stored automatically and served by the job endpoints.
+ */
+@RestController
+@RequestMapping(path = "/api/store", produces = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+public class StoreController {
+
+    private final ScheduleStore store;
+
+    public StoreController(ScheduleStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Store a problem; responds 201 with its id, the problem's content hash (storing it again yields the same id).
+     */
+    @PostMapping(path = "/problems", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ResponseEntity<StoredResponse> putProblem(@RequestBody SchedulingProblem problem) {
+        String id = requireEnabled().putProblem(problem);
+        return ResponseEntity.created(URI.create("/api/store/problems/" + id)).body(new StoredResponse(id));
+    }
+
+    @GetMapping("/problems/{id}")
+    public SchedulingProblem problem(@PathVariable String id) {
+        return store.problem(id).orElseThrow(() -> notFound("problem", id));
+    }
+
+    /**
+     * Store a schedule with its optional problem id and validation; responds 201 with a new id,
+     * or 400 if the schedule is missing or the problem id is unknown.
+     */
+    @PostMapping(path = "/schedules", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ResponseEntity<StoredResponse> putSchedule(@RequestBody StoreScheduleRequest request) {
+        requireEnabled();
+        if (request.schedule() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "schedule is required");
+        }
+        if (request.problemId() != null && store.problem(request.problemId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown problem " + request.problemId());
+        }
+        String id = store.putSchedule(request.problemId(), request.schedule(), request.validation()).id();
+        return ResponseEntity.created(URI.create("/api/store/schedules/" + id)).body(new StoredResponse(id));
+    }
+
+    @GetMapping("/schedules/{id}")
+    public ScheduleStore.StoredSchedule schedule(@PathVariable String id) {
+        return store.schedule(id).orElseThrow(() -> notFound("schedule", id));
+    }
+
+    /**
+     * Segment count, live keys and total versus live bytes of the log.
+     */
+    @GetMapping("/stats")
+    public SegmentLog.Stats stats() {
+        return requireEnabled().stats().orElseThrow();
+    }
+
+    private ScheduleStore requireEnabled() {
+        if (!store.enabled()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Store is disabled");
+        }
+        return store;
+    }
+
+    private static ResponseStatusException notFound(String kind, String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown " + kind + " " + id);
+    }
+}
@@ -0,0 +1,95 @@
+package com.multiparadigm.scheduler.web;
+
+import com.multiparadigm.scheduler.validation.ValidationSession;
+import com.multiparadigm.scheduler.validation.ValidationSessionService;
+import com.multiparadigm.scheduler.web.dto.ScheduleEdit;
+import com.multiparadigm.scheduler.web.dto.ValidateRequest;
+import com.multiparadigm.scheduler.web.dto.ValidationSessionResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+
+/**
+ * REST endpoints for incremental validation while a schedule is edited interactively: open a session
+ * with a problem and schedule once, then post single edits and receive only the violations they
+ * added or removed.
+ */
+@RestController
+@RequestMapping(path = "/api/schedule/validation-sessions", produces = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+public class ValidationSessionController {
+
+    private final ValidationSessionService sessions;
+
+    public ValidationSessionController(ValidationSessionService sessions) {
+        this.sessions = sessions;
+    }
+
+    /**
+     * Open a session; responds 201 with the full validation of the initial schedule,
+     * 400 if a lecture is assigned twice, or 429 when too many sessions are open.
+     */
+    @PostMapping(consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ResponseEntity<ValidationSessionResponse> open(@RequestBody ValidateRequest request) {
+        ValidationSession session;
+        try {
+            session = sessions.open(request.problem(), request.schedule());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+        return ResponseEntity.created(URI.create("/api/schedule/validation-sessions/" + session.id()))
+                .body(response(session));
+    }
+
+    /**
+     * Current schedule and all violations of a session.
+     */
+    @GetMapping("/{id}")
+    public ValidationSessionResponse get(@PathVariable String id) {
+        return sessions.withSession(id, ValidationSessionController::response).orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Apply one move, swap or unassign edit and return the violations it added and removed.
+     */
+    @PostMapping(path = "/{id}/edits", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/*+json" })
+    public ValidationSession.Delta edit(@PathVariable String id, @RequestBody ScheduleEdit edit) {
+        try {
+            return sessions.withSession(id, s -> apply(s, edit)).orElseThrow(() -> notFound(id));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Close a session.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> close(@PathVariable String id) {
+        if (!sessions.close(id)) throw notFound(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ValidationSession.Delta apply(ValidationSession session, ScheduleEdit edit) {
+        String type = edit.type() == null ? "" : edit.type().trim().toLowerCase();
+        return switch (type) {
+            case "move" -> session.move(edit.lectureId(), edit.roomId(), edit.timeSlotId());
+            case "swap" -> session.swap(edit.lectureId(), edit.otherLectureId());
+            case "unassign" -> session.unassign(edit.lectureId());
+            default -> throw new IllegalArgumentException("Unknown edit type: " + edit.type());
+        };
+    }
+
+    private static ValidationSessionResponse response(ValidationSession session) {
+        return new ValidationSessionResponse(session.id(), session.schedule(), session.result());
+    }
+
+    private static ResponseStatusException notFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown validation session " + id);
+    }
+}
@@ -0,0 +1,14 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+import java.util.List;
+
+/**
+ * Request body for the batch validation endpoint: one problem and the candidate schedules to check against it.
+ */
+public record BatchValidateRequest(
+        SchedulingProblem problem,
+        List<Schedule> schedules
+) {}
@@ -0,0 +1,33 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.model.Violation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Validation outcome of one schedule in a batch.
+ * @param valid whether the schedule satisfies all constraints
+ * @param violationCount total number of violations
+ * @param counts number of violations per code
+ * @param violations full violation list, omitted when only counts were requested
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchValidationResult(
+        boolean valid,
+        int violationCount,
+        Map<String, Integer> counts,
+        List<Violation> violations
+) {
+    public static BatchValidationResult of(ValidationResult result, boolean countsOnly) {
+        List<Violation> violations = result.violations() == null ? List.of() : result.violations();
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Violation v : violations) {
+            counts.merge(v.code(), 1, Integer::sum);
+        }
+        return new BatchValidationResult(result.valid(), violations.size(), counts, countsOnly ? null : violations);
+    }
+}
@@ -0,0 +1,16 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * Response body for portfolio generation: the winning schedule, its validation, and how the race went.
+ */
+public record PortfolioResponse(
+        Schedule schedule,
+        ValidationResult validation,
+        String engine,
+        long seed,
+        int completedRuns,
+        int failedRuns
+) {}
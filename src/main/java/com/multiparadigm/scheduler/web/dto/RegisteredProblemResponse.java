@@ -0,0 +1,23 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.service.RegisteredProblem;
+
+import java.time.Instant;
+
+/**
+ * Response body for problem registration: the id to use in later calls, the content hash (equal to the id)
+ * and the problem's size.
+ */
+public record RegisteredProblemResponse(
+        String id,
+        String hash,
+        int lectures,
+        int rooms,
+        int timeSlots,
+        Instant registeredAt
+) {
+    public static RegisteredProblemResponse of(RegisteredProblem p) {
+        return new RegisteredProblemResponse(p.id(), p.hash(), p.compiled().lectureCount(), p.compiled().roomCount(),
+                p.compiled().timeSlotCount(), p.registeredAt());
+    }
+}
@@ -0,0 +1,15 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * Request body for the repair endpoint: the problem, the schedule to repair and, optionally, its validation
+ * result (validated first when absent).
+ */
+public record RepairRequest(
+        SchedulingProblem problem,
+        Schedule schedule,
+        ValidationResult validation
+) {}
@@ -0,0 +1,15 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * Response body for repair: the repaired schedule (or the input, if nothing improved), its validation,
+ * and the violations and moves it took to get there.
+ */
+public record RepairResponse(
+        Schedule schedule,
+        ValidationResult validation,
+        int initialViolations,
+        int steps
+) {}
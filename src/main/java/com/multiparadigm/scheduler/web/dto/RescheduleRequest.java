@@ -0,0 +1,12 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.SchedulingProblem;
+
+/**
+ * Request body for the reschedule endpoint: the changed problem and the schedule produced for it before the change.
+ */
+public record RescheduleRequest(
+        SchedulingProblem problem,
+        Schedule previous
+) {}
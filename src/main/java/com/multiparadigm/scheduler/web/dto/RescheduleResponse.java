@@ -0,0 +1,17 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * Response body for reschedule: the new schedule, its validation, how many lectures kept their place, moved or
+ * were newly placed, and the moves it took.
+ */
+public record RescheduleResponse(
+        Schedule schedule,
+        ValidationResult validation,
+        int kept,
+        int moved,
+        int added,
+        int steps
+) {}
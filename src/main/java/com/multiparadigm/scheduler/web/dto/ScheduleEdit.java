@@ -0,0 +1,19 @@
+package com.multiparadigm.scheduler.web.dto;
+
+/**
+ * One edit applied to a validation session.
+ * @param type "move" (assign or reassign {@code lectureId} to {@code roomId}/{@code timeSlotId}),
+ *             "swap" (exchange the room and slot of {@code lectureId} and {@code otherLectureId}),
+ *             or "unassign" (remove {@code lectureId} from the schedule)
+ * @param lectureId the edited lecture
+ * @param roomId target room for "move"
+ * @param timeSlotId target time slot for "move"
+ * @param otherLectureId second lecture for "swap"
+ */
+public record ScheduleEdit(
+        String type,
+        String lectureId,
+        String roomId,
+        String timeSlotId,
+        String otherLectureId
+) {}
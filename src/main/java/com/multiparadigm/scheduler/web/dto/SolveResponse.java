@@ -0,0 +1,17 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.solver.BacktrackingSolver;
+
+/**
+ * Response body for solve: whether the problem was solved, proven infeasible or timed out, the solution or best
+ * effort with its validation, and the search effort.
+ */
+public record SolveResponse(
+        BacktrackingSolver.Outcome outcome,
+        Schedule schedule,
+        ValidationResult validation,
+        long nodes,
+        int restarts
+) {}
@@ -0,0 +1,13 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * Request body for storing a schedule: the schedule, optionally the id of its stored problem and its validation.
+ */
+public record StoreScheduleRequest(
+        String problemId,
+        Schedule schedule,
+        ValidationResult validation
+) {}
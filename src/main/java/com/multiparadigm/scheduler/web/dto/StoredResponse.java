@@ -0,0 +1,8 @@
+package com.multiparadigm.scheduler.web.dto;
+
+/**
+ * Response body for store writes: the id under which the value can be fetched again.
+ */
+public record StoredResponse(
+        String id
+) {}
@@ -0,0 +1,40 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.ValidationReport;
+import com.multiparadigm.scheduler.model.Violation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a validation report.
+ * @param valid whether the schedule satisfies all constraints
+ * @param violationCount number of violations in the schedule; a lower bound unless {@code countsExact}
+ * @param counts number of violations per code
+ * @param countsExact whether the counts are totals rather than lower bounds (validation stopped early)
+ * @param truncated whether the report stopped at {@code maxViolations} and the schedule has more
+ * @param page zero-based page number
+ * @param pageSize violations per page
+ * @param totalPages number of pages
+ * @param violations the violations of this page
+ */
+public record ValidationPage(
+        boolean valid,
+        int violationCount,
+        Map<String, Integer> counts,
+        boolean countsExact,
+        boolean truncated,
+        int page,
+        int pageSize,
+        int totalPages,
+        List<Violation> violations
+) {
+    public static ValidationPage of(ValidationReport report, int page, int pageSize) {
+        List<Violation> all = report.violations();
+        int from = (int) Math.min((long) page * pageSize, all.size());
+        int to = (int) Math.min((long) from + pageSize, all.size());
+        int totalPages = (all.size() + pageSize - 1) / pageSize;
+        return new ValidationPage(report.valid(), report.violationCount(), report.counts(), report.countsExact(),
+                report.truncated(), page, pageSize, totalPages, List.copyOf(all.subList(from, to)));
+    }
+}
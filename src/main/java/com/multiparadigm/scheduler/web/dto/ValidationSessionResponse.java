@@ -0,0 +1,13 @@
+package com.multiparadigm.scheduler.web.dto;
+
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.model.ValidationResult;
+
+/**
+ * State of a validation session: its id, the schedule as edited so far and all current violations.
+ */
+public record ValidationSessionResponse(
+        String id,
+        Schedule schedule,
+        ValidationResult validation
+) {}
@@ -3,7 +3,7 @@ package com.multiparadigm.scheduler;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.store.dir=target/test-store")
 class ProjectApplicationTests {
 
     @Test
@@ -0,0 +1,30 @@
+package com.multiparadigm.scheduler.cache;
+
+import com.multiparadigm.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanonicalHashTest {
+
+    @Test
+    void canonicalHashIgnoresListOrder() {
+        Course c1 = new Course("C1", "Algo"), c2 = new Course("C2", "Nets");
+        Lecture l1 = new Lecture("L1", "C1", "Intro", 10), l2 = new Lecture("L2", "C2", "IP", 20);
+        Room r1 = new Room("R1", "A", 30);
+        TimeSlot t1 = new TimeSlot("T1", "MON", "09:00", "10:00"), t2 = new TimeSlot("T2", "MON", "10:00", "11:00");
+        SchedulingProblem p = new SchedulingProblem(List.of(c1, c2), List.of(l1, l2), List.of(r1), List.of(t1, t2));
+        SchedulingProblem shuffled = new SchedulingProblem(List.of(c2, c1), List.of(l2, l1), List.of(r1), List.of(t2, t1));
+        SchedulingProblem changed = new SchedulingProblem(List.of(c1, c2), List.of(l1, new Lecture("L2", "C2", "IP", 21)),
+                List.of(r1), List.of(t1, t2));
+        assertEquals(CanonicalHash.of(p), CanonicalHash.of(shuffled));
+        assertNotEquals(CanonicalHash.of(p), CanonicalHash.of(changed));
+
+        Assignment a1 = new Assignment("L1", "R1", "T1"), a2 = new Assignment("L2", "R1", "T2");
+        assertEquals(CanonicalHash.of(new Schedule(List.of(a1, a2), 1.0)), CanonicalHash.of(new Schedule(List.of(a2, a1), null)));
+        assertNotEquals(CanonicalHash.of(new Schedule(List.of(a1, a2), null)),
+                CanonicalHash.of(new Schedule(List.of(a1, new Assignment("L2", "R1", "T1")), null)));
+    }
+}
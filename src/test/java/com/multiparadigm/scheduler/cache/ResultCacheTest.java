@@ -0,0 +1,69 @@
+package com.multiparadigm.scheduler.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedByCountAndWeight() {
+        ResultCache<String> cache = new ResultCache<>(
+                new ResultCache.Settings(true, 3, 10, null), v -> v.length());
+        cache.put("a", "1");
+        cache.put("b", "22");
+        cache.put("c", "333");
+        cache.get("a", () -> fail("a should be cached"));   // a is now most recently used
+        cache.put("d", "4444");                               // 4 entries > 3: evicts b
+        assertEquals(List.of(), missing(cache, "a", "c", "d"));
+        assertEquals(List.of("b"), missing(cache, "b"));
+
+        cache.put("e", "55555");                              // weight 1+3+4+5+2 > 10: evict LRU until it fits
+        CacheStats stats = cache.stats();
+        assertTrue(stats.weight() <= 10);
+        assertTrue(stats.evictions() >= 2);
+    }
+
+    @Test
+    void expiresEntriesAfterTtlAndCountsHitsAndMisses() {
+        AtomicLong now = new AtomicLong();
+        ResultCache<String> cache = new ResultCache<>(
+                new ResultCache.Settings(true, 10, 0, Duration.ofSeconds(1)), v -> 1, now::get);
+        AtomicInteger computed = new AtomicInteger();
+        cache.get("k", () -> "v" + computed.incrementAndGet());
+        assertEquals("v1", cache.get("k", () -> "v" + computed.incrementAndGet()));
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals("v2", cache.get("k", () -> "v" + computed.incrementAndGet()));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.expirations());
+    }
+
+    @Test
+    void disabledCacheAlwaysComputes() {
+        ResultCache<String> cache = new ResultCache<>(ResultCache.Settings.disabled(), v -> 1);
+        AtomicInteger computed = new AtomicInteger();
+        cache.get("k", () -> "v" + computed.incrementAndGet());
+        cache.get("k", () -> "v" + computed.incrementAndGet());
+        assertEquals(2, computed.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    private static List<String> missing(ResultCache<String> cache, String... keys) {
+        List<String> missing = new ArrayList<>();
+        for (String k : keys) {
+            long before = cache.stats().misses();
+            cache.get(k, () -> null);
+            if (cache.stats().misses() > before) missing.add(k);
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,102 @@
+package com.multiparadigm.scheduler.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneRunAndItsResult() throws Exception {
+        SingleFlight flights = new SingleFlight();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> results = new ArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            callers.add(Thread.ofVirtual().start(() -> {
+                String result = flights.call("k", () -> {
+                    runs.incrementAndGet();
+                    await(release);
+                    return "done";
+                });
+                synchronized (results) { results.add(result); }
+            }));
+        }
+        while (flights.stats().joined() < 4) Thread.sleep(5);
+        release.countDown();
+        for (Thread t : callers) t.join(5000);
+
+        assertEquals(1, runs.get());
+        assertEquals(List.of("done", "done", "done", "done", "done"), results);
+        assertEquals(new SingleFlight.Stats(1, 4, 0, 0), flights.stats());
+        // Finished runs are not remembered
+        assertEquals("again", flights.call("k", () -> "again"));
+
+        RuntimeException failure = new IllegalStateException("boom");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> flights.call("k", () -> { throw failure; })));
+    }
+
+    @Test
+    void runIsCancelledOnlyWhenTheLastWaiterLeaves() throws Exception {
+        SingleFlight flights = new SingleFlight();
+        CountDownLatch running = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicReference<String> survivor = new AtomicReference<>();
+        Thread first = Thread.ofVirtual().start(() -> {
+            try {
+                flights.call("k", () -> {
+                    running.countDown();
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    } finally {
+                        stopped.countDown();
+                    }
+                    return "late";
+                });
+            } catch (RuntimeException ignored) {
+                // interrupted while waiting
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Thread second = Thread.ofVirtual().start(() -> {
+            try {
+                survivor.set(flights.call("k", () -> "second run"));
+            } catch (RuntimeException e) {
+                survivor.set("interrupted");
+            }
+        });
+        while (flights.stats().joined() < 1) Thread.sleep(5);
+
+        first.interrupt();
+        first.join(5000);
+        assertFalse(stopped.await(100, TimeUnit.MILLISECONDS), "work must keep running for the second waiter");
+
+        second.interrupt();
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.get());
+        second.join(5000);
+        assertEquals("interrupted", survivor.get());
+        assertEquals(1, flights.stats().cancelled());
+        assertEquals(0, flights.stats().inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.multiparadigm.scheduler.exec;
+
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void queuesUpToLimitThenRejectsWithRetryHint() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead(new Bulkhead.Settings("generator", 1, 1, Duration.ofSeconds(10)),
+                new SchedulerMetrics(registry));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> bulkhead.call(() -> {
+                running.countDown();
+                await(release);
+                return "first";
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> bulkhead.call(() -> "second"));
+            while (bulkhead.queued() < 1) Thread.sleep(5);
+
+            BulkheadRejectedException e = assertThrows(BulkheadRejectedException.class, () -> bulkhead.call(() -> "third"));
+            assertTrue(e.queueFull());
+            assertTrue(e.retryAfter().toSeconds() >= 1);
+            assertEquals(1.0, registry.get("scheduler.bulkhead.queued").tags("bulkhead", "generator").gauge().value());
+            assertEquals(1.0, registry.get("scheduler.bulkhead.active").tags("bulkhead", "generator").gauge().value());
+
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, bulkhead.queued());
+        assertEquals(0, bulkhead.active());
+        assertEquals(2, registry.get("scheduler.bulkhead.wait").tags("bulkhead", "generator").timer().count());
+        assertEquals(1, registry.get("scheduler.bulkhead.rejected").tags("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void rejectsCallsThatWaitPastTheDeadline() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(new Bulkhead.Settings("validator", 1, 4, Duration.ofMillis(50)),
+                SchedulerMetrics.NOOP);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> bulkhead.call(() -> {
+                running.countDown();
+                await(release);
+                return null;
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            BulkheadRejectedException e = assertThrows(BulkheadRejectedException.class, () -> bulkhead.call(() -> "late"));
+            assertFalse(e.queueFull());
+            assertEquals(0, bulkhead.queued());
+            release.countDown();
+        }
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    @Test
+    void disabledBulkheadRunsDirectly() {
+        Bulkhead bulkhead = new Bulkhead(new Bulkhead.Settings("generator", 0, 0, null), SchedulerMetrics.NOOP);
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.multiparadigm.scheduler.exec;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessWorkerPoolTest {
+
+    // Echo worker: answers "<pid>:<request line>", hangs on "hang"
+    private static final String ECHO_WORKER =
+            "while read l; do if [ \"$l\" = hang ]; then sleep 30; fi; echo \"$$:$l\"; done";
+
+    private static ProcessWorkerPool pool(int size, int maxJobs, Duration timeout) {
+        return new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                "Echo", List.of("sh", "-c", ECHO_WORKER), size, maxJobs, timeout, "ping\n", null));
+    }
+
+    private static String pid(String answer) {
+        return answer.substring(0, answer.indexOf(':'));
+    }
+
+    @Test
+    void reusesWorkerAndRecyclesAfterMaxJobs() {
+        try (ProcessWorkerPool pool = pool(1, 2, Duration.ofSeconds(5))) {
+            String a = pool.exchange("one\n");
+            String b = pool.exchange("two\n");
+            String c = pool.exchange("three\n");
+            assertTrue(a.endsWith(":one"));
+            assertEquals(pid(a), pid(b));
+            assertNotEquals(pid(b), pid(c));
+        }
+    }
+
+    @Test
+    void killsAndReplacesHungWorker() {
+        try (ProcessWorkerPool pool = pool(1, 0, Duration.ofMillis(300))) {
+            String before = pool.exchange("ok\n");
+            RuntimeException ex = assertThrows(RuntimeException.class, () -> pool.exchange("hang\n"));
+            assertTrue(ex.getMessage().toLowerCase().contains("timed out"));
+            String after = pool.exchange("ok\n");
+            assertNotEquals(pid(before), pid(after));
+        }
+    }
+
+    @Test
+    void perCallTimeoutReplacesConfiguredTimeout() {
+        try (ProcessWorkerPool pool = pool(1, 0, Duration.ofSeconds(30))) {
+            pool.exchange("ok\n");
+            long start = System.nanoTime();
+            RuntimeException ex = assertThrows(RuntimeException.class,
+                    () -> pool.exchange("hang\n", Duration.ofMillis(300), line -> line));
+            assertTrue(ex.getMessage().toLowerCase().contains("timed out"));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+            assertTrue(pool.exchange("ok\n", Duration.ofSeconds(5), line -> line).endsWith(":ok"));
+        }
+    }
+
+    @Test
+    void perCallTimeoutCoversTheWaitTheJobAndTheRetry() {
+        // Every worker dies half a second into a "die" request, so the call retries on a fresh one
+        String dying = "while read l; do if [ \"$l\" = die ]; then sleep 0.5; exit 1; fi; echo ok; done";
+        try (ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                "Dying", List.of("sh", "-c", dying), 1, 0, Duration.ofMillis(100), null, null))) {
+            pool.exchange("warm\n");
+            long start = System.nanoTime();
+            RuntimeException ex = assertThrows(RuntimeException.class,
+                    () -> pool.exchange("die\n", Duration.ofMillis(700), line -> line));
+            assertTrue(ex.getMessage().toLowerCase().contains("timed out"), ex.getMessage());
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(950)) < 0);
+        }
+    }
+
+    @Test
+    void shortPerCallTimeoutDoesNotKillStartingWorkers() {
+        // Takes half a second to start, then answers at once
+        String slowStart = "sleep 0.5; while read l; do echo \"$$:$l\"; done";
+        try (ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                "Slow start", List.of("sh", "-c", slowStart), 1, 0, Duration.ofMillis(100), null, null,
+                Duration.ofSeconds(5)))) {
+            String first = pool.exchange("one\n", Duration.ofMillis(100), line -> line);
+            String second = pool.exchange("two\n", Duration.ofMillis(100), line -> line);
+            assertTrue(second.endsWith(":two"));
+            assertEquals(pid(first), pid(second));
+        }
+    }
+
+    @Test
+    void recyclesWorkerWhenHandlerFails() {
+        try (ProcessWorkerPool pool = pool(1, 0, Duration.ofSeconds(5))) {
+            String first = pool.exchange("ok\n");
+            assertThrows(IllegalStateException.class, () -> pool.exchange("bad\n", line -> {
+                throw new IllegalStateException("unparsable");
+            }));
+            assertNotEquals(pid(first), pid(pool.exchange("ok\n")));
+        }
+    }
+
+    @Test
+    void startWarmsUpAndHealthCheckKeepsHealthyWorkers() {
+        try (ProcessWorkerPool pool = pool(2, 0, Duration.ofSeconds(5))) {
+            pool.start();
+            assertEquals(2, pool.liveWorkers());
+            assertEquals(2, pool.idleWorkers());
+            pool.healthCheck();
+            assertEquals(2, pool.idleWorkers());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.multiparadigm.scheduler.exec;
+
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.model.ValidationResult;
+import com.multiparadigm.scheduler.util.JsonUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingCommandRunnerTest {
+
+    private static List<String> sh(String script) {
+        return List.of("sh", "-c", script);
+    }
+
+    @Test
+    void capturesStdoutStderrAndExitCode() throws Exception {
+        CommandResult r = new StreamingCommandRunner().run(
+                sh("cat; echo oops >&2; exit 3"), "héllo", Duration.ofSeconds(5));
+        assertEquals(3, r.exitCode());
+        assertEquals("héllo", r.stdout());
+        assertEquals("oops\n", r.stderr());
+        assertFalse(r.timedOut());
+        assertFalse(r.outputLimitExceeded());
+    }
+
+    @Test
+    void largeInputAndOutputDoNotDeadlock() throws Exception {
+        // cat echoes while stdin is still being written; both directions exceed the pipe buffer
+        String input = "x".repeat(1_000_000);
+        CommandResult r = new StreamingCommandRunner().run(sh("cat"), input, Duration.ofSeconds(10));
+        assertEquals(0, r.exitCode());
+        assertEquals(input.length(), r.stdout().length());
+    }
+
+    @Test
+    void killsProcessOnTimeout() throws Exception {
+        long start = System.nanoTime();
+        CommandResult r = new StreamingCommandRunner().run(sh("sleep 30"), null, Duration.ofMillis(300));
+        assertTrue(r.timedOut());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+    }
+
+    @Test
+    void killsProcessPastOutputLimit() throws Exception {
+        CommandResult r = new StreamingCommandRunner(1024).run(sh("yes"), null, Duration.ofSeconds(10));
+        assertTrue(r.outputLimitExceeded());
+        assertFalse(r.timedOut());
+        assertEquals("", r.stdout());
+    }
+
+    @Test
+    void killsProcessThatKeepsWritingAfterTheHandlerReturns() throws Exception {
+        long start = System.nanoTime();
+        StreamedCommandResult<Integer> r = new StreamingCommandRunner(1024).runStreaming(
+                sh("echo first; yes"), null, Duration.ofSeconds(30), out -> out.read());
+        assertTrue(r.outputLimitExceeded());
+        assertFalse(r.timedOut());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+    }
+
+    @Test
+    void parsesStdoutWhileStreaming() throws Exception {
+        StreamedCommandResult<ValidationResult> r = new StreamingCommandRunner().runStreaming(
+                sh("echo '{\"valid\":true,\"violations\":[]}'"), null, Duration.ofSeconds(5),
+                out -> JsonUtil.fromJson(out, ValidationResult.class));
+        assertEquals(0, r.exitCode());
+        assertTrue(r.value().valid());
+
+        StreamedCommandResult<ValidationResult> empty = new StreamingCommandRunner().runStreaming(
+                sh("true"), null, Duration.ofSeconds(5), out -> JsonUtil.fromJson(out, ValidationResult.class));
+        assertNull(empty.value());
+    }
+
+    @Test
+    void surfacesAFailingStdinWriter() throws Exception {
+        // cat sees the half-written input end and exits cleanly, so only the writer knows it went wrong
+        IllegalStateException bug = new IllegalStateException("encoder bug");
+        RuntimeException e = assertThrows(RuntimeException.class, () -> new StreamingCommandRunner().runPiped(
+                sh("cat"), out -> {
+                    out.write("partial".getBytes());
+                    throw bug;
+                }, Duration.ofSeconds(5), out -> new String(out.readAllBytes())));
+        assertSame(bug, e.getCause());
+    }
+
+    @Test
+    void recordsStagesOutcomesAndOutputBytes() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StreamingCommandRunner runner = new StreamingCommandRunner(1024, new SchedulerMetrics(registry));
+        runner.run(sh("printf hello; exit 2"), null, Duration.ofSeconds(5));
+        runner.run(sh("yes"), null, Duration.ofSeconds(5));
+
+        assertEquals(1, registry.get("scheduler.process").tags("command", "sh", "outcome", "exit_nonzero").timer().count());
+        assertEquals(1, registry.get("scheduler.process").tags("command", "sh", "outcome", "output_limit").timer().count());
+        assertEquals(2, registry.get("scheduler.process.stage").tags("command", "sh", "stage", "spawn").timer().count());
+        assertTrue(registry.get("scheduler.process.stage").tags("stage", "compute").timer().count() >= 1);
+        assertTrue(registry.get("scheduler.process.output").tags("stream", "stdout").summary().totalAmount() >= 5 + 1024);
+    }
+}
@@ -0,0 +1,101 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.exec.Bulkhead;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecomposingScheduleGeneratorTest {
+
+    private static SchedulingProblem problem(int lectures, int slots) {
+        return TestProblems.problem(lectures, 4, slots);
+    }
+
+    @Test
+    void solvesPartsInParallelAndMergesConflictFreeSchedule() {
+        SchedulingProblem problem = problem(24, 12);
+        List<SchedulingProblem> seen = Collections.synchronizedList(new ArrayList<>());
+        List<Long> seeds = Collections.synchronizedList(new ArrayList<>());
+        try (IslandGeneticAlgorithm ga = new IslandGeneticAlgorithm(new IslandGeneticAlgorithm.Settings(
+                2, 40, 2000, 10, 2, 2, 1.0, 3, Duration.ofSeconds(10), 0, 2, null))) {
+            ScheduleGenerator recording = new ScheduleGenerator() {
+                @Override
+                public Schedule generate(SchedulingProblem part) {
+                    return generate(part, GenerationOptions.defaults());
+                }
+
+                @Override
+                public Schedule generate(SchedulingProblem part, GenerationOptions options) {
+                    seen.add(part);
+                    seeds.add(options.seed());
+                    return ga.generate(part, options);
+                }
+            };
+            DecomposingScheduleGenerator generator = new DecomposingScheduleGenerator(
+                    recording, new DecomposingScheduleGenerator.Settings(true, 4));
+            Schedule schedule = generator.generate(problem, GenerationOptions.defaults().withSeed(100L));
+
+            assertEquals(4, seen.size());
+            Set<String> slots = new HashSet<>();
+            for (SchedulingProblem part : seen) {
+                for (TimeSlot t : part.timeSlots()) assertTrue(slots.add(t.id()), "parts share slot " + t.id());
+            }
+            assertEquals(Set.of(100L, 101L, 102L, 103L), new HashSet<>(seeds));
+            assertEquals(problem.lectures().stream().map(Lecture::id).toList(),
+                    schedule.assignments().stream().map(Assignment::lectureId).toList());
+            ValidationResult result = new JavaScheduleValidator().validate(problem, schedule);
+            assertTrue(result.valid(), () -> result.violations().toString());
+        }
+    }
+
+    @Test
+    void bulkheadInsidePartsBoundsConcurrentEngineRuns() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ScheduleGenerator engine = p -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return new Schedule(List.of(), 1.0);
+        };
+        Bulkhead bulkhead = new Bulkhead(new Bulkhead.Settings("generator", 2, 16, Duration.ofSeconds(5)),
+                SchedulerMetrics.NOOP);
+        DecomposingScheduleGenerator generator = new DecomposingScheduleGenerator(
+                new BulkheadScheduleGenerator(engine, bulkhead), new DecomposingScheduleGenerator.Settings(true, 4));
+
+        assertEquals(4.0, generator.generate(problem(24, 12)).score());
+        assertTrue(peak.get() <= 2, "peak " + peak.get());
+    }
+
+    @Test
+    void passesUnsplittableProblemsThrough() {
+        SchedulingProblem problem = problem(6, 3);
+        List<SchedulingProblem> seen = new ArrayList<>();
+        ScheduleGenerator stub = p -> {
+            seen.add(p);
+            return new Schedule(List.of(), 1.0);
+        };
+        new DecomposingScheduleGenerator(stub, new DecomposingScheduleGenerator.Settings(true, 4)).generate(problem);
+        new DecomposingScheduleGenerator(stub, new DecomposingScheduleGenerator.Settings(false, 4))
+                .generate(problem(24, 12));
+        assertEquals(2, seen.size());
+        assertSame(problem, seen.get(0));
+        assertEquals(24, seen.get(1).lectures().size());
+    }
+}
@@ -2,9 +2,17 @@ package com.multiparadigm.scheduler.ga;
 
 import com.multiparadigm.scheduler.exec.CommandResult;
 import com.multiparadigm.scheduler.exec.CommandRunner;
+import com.multiparadigm.scheduler.exec.ProcessWorkerPool;
+import com.multiparadigm.scheduler.exec.StreamingCommandRunner;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.util.JsonUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.multiparadigm.scheduler.model.*;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 
@@ -53,4 +61,81 @@ class HaskellGAClientTest {
         RuntimeException ex3 = assertThrows(RuntimeException.class, ()-> empty.generate(dummy));
         assertTrue(ex3.getMessage().toLowerCase().contains("no output"));
     }
+
+    @Test
+    void pooledClientRestartsCrashedWorkers() {
+        // Fake `ga-exec --serve`: answers one problem per line, then crashes after its first answer
+        String worker = "read l; echo '{\"assignments\":[{\"lectureId\":\"L1\",\"roomId\":\"R1\",\"timeSlotId\":\"T1\"}],\"score\":1.0}'; exit 3";
+        ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                "Haskell GA", List.of("sh", "-c", worker), 1, 0, Duration.ofSeconds(5), HaskellGAClient.PROBE_REQUEST, null));
+        SchedulingProblem dummy = new SchedulingProblem(List.of(), List.of(), List.of(), List.of());
+        try (HaskellGAClient client = new HaskellGAClient(pool)) {
+            for (int i = 0; i < 3; i++) {
+                Schedule schedule = client.generate(dummy);
+                assertEquals("R1", schedule.assignments().get(0).roomId());
+            }
+        }
+    }
+
+    @Test
+    void pooledClientReportsWorkerErrors() {
+        String worker = "while read l; do echo '{\"error\":\"Error parsing JSON: bad\"}'; done";
+        ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                "Haskell GA", List.of("sh", "-c", worker), 1, 0, Duration.ofSeconds(5), HaskellGAClient.PROBE_REQUEST, null));
+        SchedulingProblem dummy = new SchedulingProblem(List.of(), List.of(), List.of(), List.of());
+        try (HaskellGAClient client = new HaskellGAClient(pool)) {
+            RuntimeException ex = assertThrows(RuntimeException.class, () -> client.generate(dummy));
+            assertTrue(ex.getMessage().contains("Error parsing JSON"));
+        }
+    }
+
+    @Test
+    void exchangesCborWithGaStartedWithCborFlag(@TempDir Path dir) throws Exception {
+        Schedule answer = new Schedule(List.of(new Assignment("L1", "R1", "T1")), 2.0);
+        Path out = dir.resolve("out.cbor");
+        Path in = dir.resolve("in.cbor");
+        Files.write(out, JsonUtil.cbor().writeValueAsBytes(answer));
+        // Records its binary stdin and replays the prepared CBOR answer; "$0" is the appended --cbor flag
+        String ga = "[ \"$0\" = --cbor ] || exit 9; cat > '" + in + "'; cat '" + out + "'";
+        HaskellGAClient client = new HaskellGAClient(new StreamingCommandRunner(), List.of("sh", "-c", ga),
+                Duration.ofSeconds(5), SchedulerMetrics.NOOP, HaskellGAClient.Format.CBOR);
+        SchedulingProblem problem = new SchedulingProblem(List.of(new Course("C1", "Ä")), List.of(), List.of(), List.of());
+
+        Schedule schedule = client.generate(problem, GenerationOptions.defaults().withSeed(42L));
+
+        assertEquals(answer, schedule);
+        JsonNode sent = JsonUtil.cbor().readTree(Files.readAllBytes(in));
+        assertEquals(42, sent.get("seed").asInt());
+        assertEquals("Ä", sent.get("courses").get(0).get("name").asText());
+    }
+
+    @Test
+    void anytimeRunReturnsLatestSnapshotAtDeadline() {
+        String first = "{\"assignments\":[{\"lectureId\":\"L1\",\"roomId\":\"R1\",\"timeSlotId\":\"T1\"}],\"score\":-1.0,\"generations\":1,\"partial\":true}";
+        String second = "{\"assignments\":[{\"lectureId\":\"L1\",\"roomId\":\"R2\",\"timeSlotId\":\"T1\"}],\"score\":1.0,\"generations\":7,\"partial\":true}";
+        String done = second.replace("\"partial\":true", "\"partial\":false");
+        // "$0" is the appended --anytime flag; the stand-in prints two snapshots and then either hangs or finishes
+        String ga = "[ \"$0\" = --anytime ] || exit 9; cat > /dev/null; echo '" + first + "'; echo '" + second + "'; ";
+        SchedulingProblem problem = new SchedulingProblem(List.of(), List.of(), List.of(), List.of());
+        HaskellGAClient.Anytime anytime = new HaskellGAClient.Anytime(true, 100);
+
+        HaskellGAClient hanging = new HaskellGAClient(new StreamingCommandRunner(), List.of("sh", "-c", ga + "sleep 30"),
+                Duration.ofSeconds(30), SchedulerMetrics.NOOP, HaskellGAClient.Format.JSON, anytime);
+        long start = System.nanoTime();
+        Schedule partial = hanging.generate(problem, GenerationOptions.defaults().withDeadline(Duration.ofMillis(500)));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        assertEquals(Boolean.TRUE, partial.partial());
+        assertEquals(7, partial.generations());
+        assertEquals("R2", partial.assignments().get(0).roomId());
+
+        HaskellGAClient finishing = new HaskellGAClient(new StreamingCommandRunner(), List.of("sh", "-c", ga + "echo '" + done + "'"),
+                Duration.ofSeconds(5), SchedulerMetrics.NOOP, HaskellGAClient.Format.JSON, anytime);
+        assertEquals(Boolean.FALSE, finishing.generate(problem).partial());
+
+        HaskellGAClient silent = new HaskellGAClient(new StreamingCommandRunner(), List.of("sh", "-c", "sleep 30"),
+                Duration.ofSeconds(30), SchedulerMetrics.NOOP, HaskellGAClient.Format.JSON, anytime);
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> silent.generate(problem, GenerationOptions.defaults().withDeadline(Duration.ofMillis(300))));
+        assertTrue(e.getMessage().contains("timed out"));
+    }
 }
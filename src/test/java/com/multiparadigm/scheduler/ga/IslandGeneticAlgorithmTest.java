@@ -0,0 +1,95 @@
+package com.multiparadigm.scheduler.ga;
+
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.multiparadigm.scheduler.model.TestProblems.problem;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IslandGeneticAlgorithmTest {
+
+    private static IslandGeneticAlgorithm.Settings settings(int maxGenerations, Long seed) {
+        return new IslandGeneticAlgorithm.Settings(4, 40, maxGenerations, 10, 2, 2, 1.0, 3,
+                Duration.ofSeconds(10), 0, 4, seed);
+    }
+
+    @Test
+    void findsConflictFreeScheduleForEasyProblem() {
+        SchedulingProblem problem = problem(30, 6, 8);
+        try (IslandGeneticAlgorithm ga = new IslandGeneticAlgorithm(settings(2000, 7L))) {
+            Schedule schedule = ga.generate(problem);
+            assertEquals(30, schedule.assignments().size());
+            ValidationResult result = new JavaScheduleValidator().validate(problem, schedule);
+            assertTrue(result.valid(), () -> "violations: " + result.violations());
+            assertEquals(30.0, schedule.score());
+        }
+    }
+
+    @Test
+    void returnsBestSoFarMarkedPartialAtRequestDeadline() {
+        // More lectures than room-slots: no conflict-free schedule exists, so only the deadline stops the run
+        SchedulingProblem problem = problem(40, 2, 4);
+        IslandGeneticAlgorithm.Settings endless = new IslandGeneticAlgorithm.Settings(2, 40, Integer.MAX_VALUE, 10, 2, 2,
+                1.0, 3, Duration.ofSeconds(30), 0, 2, 3L);
+        try (IslandGeneticAlgorithm ga = new IslandGeneticAlgorithm(endless)) {
+            long start = System.nanoTime();
+            Schedule schedule = ga.generate(problem, GenerationOptions.defaults().withDeadline(Duration.ofMillis(200)));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+            assertEquals(Boolean.TRUE, schedule.partial());
+            assertTrue(schedule.generations() > 0);
+            assertEquals(40, schedule.assignments().size());
+        }
+        try (IslandGeneticAlgorithm ga = new IslandGeneticAlgorithm(settings(20, 3L))) {
+            Schedule complete = ga.generate(problem, GenerationOptions.defaults().withDeadline(Duration.ofSeconds(30)));
+            assertEquals(Boolean.FALSE, complete.partial());
+            assertEquals(20, complete.generations());
+        }
+    }
+
+    @Test
+    void interruptingTheCallerStopsTheIslands() throws Exception {
+        // Unsolvable and one endless epoch: only the interrupt can end the run
+        SchedulingProblem problem = problem(40, 2, 4);
+        IslandGeneticAlgorithm.Settings endless = new IslandGeneticAlgorithm.Settings(2, 40, Integer.MAX_VALUE,
+                Integer.MAX_VALUE, 2, 2, 1.0, 3, null, 0, 2, 5L);
+        try (IslandGeneticAlgorithm ga = new IslandGeneticAlgorithm(endless)) {
+            AtomicReference<Schedule> result = new AtomicReference<>();
+            AtomicBoolean stillInterrupted = new AtomicBoolean();
+            Thread caller = new Thread(() -> {
+                result.set(ga.generate(problem));
+                stillInterrupted.set(Thread.currentThread().isInterrupted());
+            });
+            caller.start();
+            Thread.sleep(200);
+            caller.interrupt();
+            caller.join(5_000);
+            assertFalse(caller.isAlive());
+            assertEquals(40, result.get().assignments().size());
+            assertTrue(stillInterrupted.get());
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameSchedule() {
+        SchedulingProblem problem = problem(40, 3, 4);
+        try (IslandGeneticAlgorithm a = new IslandGeneticAlgorithm(settings(30, 42L));
+             IslandGeneticAlgorithm b = new IslandGeneticAlgorithm(settings(30, 42L))) {
+            assertEquals(a.generate(problem), b.generate(problem));
+        }
+    }
+
+    @Test
+    void handlesEmptyAndDegenerateProblems() {
+        try (IslandGeneticAlgorithm ga = new IslandGeneticAlgorithm(settings(10, 1L))) {
+            assertTrue(ga.generate(new SchedulingProblem(List.of(), List.of(), List.of(), List.of())).assignments().isEmpty());
+            SchedulingProblem noRooms = new SchedulingProblem(List.of(), List.of(new Lecture("L1", "C1", "x", 1)), List.of(), List.of());
+            assertThrows(IllegalArgumentException.class, () -> ga.generate(noRooms));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.multiparadigm.scheduler.jobs;
+
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.GenerationProgress;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.service.SchedulingService;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import com.multiparadigm.scheduler.store.SegmentLog;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingJobServiceTest {
+
+    private static final SchedulingProblem PROBLEM = new SchedulingProblem(
+            List.of(new Course("C1", "Algorithms")),
+            List.of(new Lecture("L1", "C1", "Intro", 50)),
+            List.of(new Room("R1", "Room A", 60)),
+            List.of(new TimeSlot("T1", "MON", "09:00", "10:00"))
+    );
+
+    /** Reports three generations of progress, then returns a valid schedule. */
+    static class ProgressingGenerator implements ScheduleGenerator {
+        @Override public Schedule generate(SchedulingProblem problem) {
+            return generate(problem, GenerationOptions.defaults());
+        }
+        @Override public Schedule generate(SchedulingProblem problem, GenerationOptions options) {
+            for (int g = 1; g <= 3; g++) options.progress().onProgress(new GenerationProgress(g, g, 3 - g));
+            return new Schedule(List.of(new Assignment("L1", "R1", "T1")), 1.0);
+        }
+    }
+
+    /** Blocks until interrupted. */
+    static class BlockingGenerator implements ScheduleGenerator {
+        @Override public Schedule generate(SchedulingProblem problem) {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted", e);
+            }
+            return new Schedule(List.of(), 0.0);
+        }
+    }
+
+    private static JobStatus await(SchedulingJobService jobs, String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            JobStatus status = jobs.find(id).orElseThrow().status();
+            if (status.state().isTerminal()) return status;
+            Thread.sleep(10);
+        }
+        fail("job did not finish");
+        return null;
+    }
+
+    @Test
+    void runsJobAndStreamsProgressToListeners() throws Exception {
+        SchedulingService service = SchedulingService.builder(new ProgressingGenerator(), new JavaScheduleValidator()).build();
+        SchedulingJobService jobs = new SchedulingJobService(service, 2, 2, 60, ScheduleStore.disabled());
+        List<GenerationProgress> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        JobStatus submitted = jobs.submit(PROBLEM, true);
+        SchedulingJob job = jobs.find(submitted.id()).orElseThrow();
+        job.addListener(new JobListener() {
+            @Override public void onProgress(GenerationProgress progress) { seen.add(progress); }
+            @Override public void onFinished(JobStatus status) { done.countDown(); }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        JobStatus status = await(jobs, submitted.id());
+        assertEquals(JobState.SUCCEEDED, status.state());
+        assertEquals(0, status.violations());
+        assertEquals(1, job.result().schedule().assignments().size());
+        assertTrue(job.result().validation().valid());
+        assertEquals(3, status.progress().generation());
+        // The listener attached after submission may have missed early updates, but never sees them out of order
+        for (int i = 1; i < seen.size(); i++) assertTrue(seen.get(i).generation() > seen.get(i - 1).generation());
+        jobs.shutdown();
+    }
+
+    @Test
+    void cancelsRunningJobsAndRejectsWhenFull() throws Exception {
+        SchedulingService service = SchedulingService.builder(new BlockingGenerator(), new JavaScheduleValidator()).build();
+        SchedulingJobService jobs = new SchedulingJobService(service, 1, 1, 60, ScheduleStore.disabled());
+
+        JobStatus running = jobs.submit(PROBLEM, false);
+        JobStatus queued = jobs.submit(PROBLEM, false);
+        assertThrows(RejectedExecutionException.class, () -> jobs.submit(PROBLEM, false));
+
+        jobs.cancel(queued.id());
+        jobs.cancel(running.id());
+        assertEquals(JobState.CANCELLED, await(jobs, running.id()).state());
+        assertEquals(JobState.CANCELLED, await(jobs, queued.id()).state());
+
+        // Slots are released once the cancelled jobs' threads have wound down
+        JobStatus accepted = null;
+        for (int i = 0; i < 200 && accepted == null; i++) {
+            try {
+                accepted = jobs.submit(PROBLEM, false);
+            } catch (RejectedExecutionException e) {
+                Thread.sleep(10);
+            }
+        }
+        assertNotNull(accepted);
+        jobs.shutdown();
+    }
+
+    @Test
+    void storesFinishedJobsSoTheyOutliveTheService(@TempDir Path dir) throws Exception {
+        SegmentLog.Settings settings = new SegmentLog.Settings(dir, 1 << 20, true, null, 0.5);
+        SchedulingService service = SchedulingService.builder(new ProgressingGenerator(), new JavaScheduleValidator()).build();
+        String id;
+        try (ScheduleStore store = ScheduleStore.open(settings)) {
+            SchedulingJobService jobs = new SchedulingJobService(service, 1, 1, 60, store);
+            id = jobs.submit(PROBLEM, true).id();
+            await(jobs, id);
+            // The job is stored right after it reaches its terminal state
+            for (int i = 0; i < 200 && jobs.stored(id).isEmpty(); i++) Thread.sleep(10);
+            jobs.shutdown();
+        }
+        try (ScheduleStore store = ScheduleStore.open(settings)) {
+            SchedulingJobService restarted = new SchedulingJobService(service, 1, 1, 60, store);
+            assertTrue(restarted.find(id).isEmpty());
+            Optional<StoredJob> stored = restarted.stored(id);
+            assertTrue(stored.isPresent());
+            assertEquals(JobState.SUCCEEDED, stored.get().status().state());
+            assertEquals(List.of(new Assignment("L1", "R1", "T1")), stored.get().schedule().assignments());
+            assertTrue(stored.get().validation().valid());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.multiparadigm.scheduler.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledProblemTest {
+
+    private static final SchedulingProblem PROBLEM = new SchedulingProblem(
+            List.of(new Course("C1", "Algorithms"), new Course("C2", "Networks")),
+            List.of(new Lecture("L1", "C1", "Intro", 50),
+                    new Lecture("L2", "C2", "IP", 90),
+                    new Lecture("L3", "C1", "Sorting", 10)),
+            List.of(new Room("R1", "Small", 40), new Room("R2", "Medium", 60), new Room("R3", "Large", 120)),
+            List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00"))
+    );
+
+    @Test
+    void internsIdsAndPrecomputesFeasibleRooms() {
+        CompiledProblem p = CompiledProblem.of(PROBLEM);
+        assertEquals(3, p.lectureCount());
+        assertEquals(2, p.courseCount());
+        assertEquals(1, p.lectureIndex("L2"));
+        assertEquals(-1, p.lectureIndex("L9"));
+        assertEquals(p.course(0), p.course(2));
+        assertNotEquals(p.course(0), p.course(1));
+        assertEquals("C2", p.courseId(p.course(1)));
+
+        assertArrayEquals(new int[] { 1, 2 }, p.feasibleRoomList(0));
+        assertArrayEquals(new int[] { 2 }, p.feasibleRoomList(1));
+        assertArrayEquals(new int[] { 0, 1, 2 }, p.feasibleRoomList(2));
+        assertFalse(p.fits(0, 0));
+        assertTrue(p.fits(0, 1));
+        assertEquals(1, p.feasibleRooms(1).cardinality());
+    }
+
+    @Test
+    void convertsBackToRecordsAndCompilesSchedules() {
+        CompiledProblem p = CompiledProblem.of(PROBLEM);
+        Schedule schedule = p.toSchedule(new int[] { 1, 2, 0 }, new int[] { 0, 1, 1 }, 3.0);
+        assertEquals(List.of(new Assignment("L1", "R2", "T1"), new Assignment("L2", "R3", "T2"),
+                new Assignment("L3", "R1", "T2")), schedule.assignments());
+
+        CompiledProblem.CompiledSchedule compiled = p.compile(new Schedule(List.of(
+                new Assignment("L3", "R1", "T2"),
+                new Assignment("L9", "X1", "T2"),
+                new Assignment("L1", "X1", "X9")), null));
+        assertArrayEquals(new int[] { 2, -1, 0 }, compiled.lecture());
+        assertArrayEquals(new int[] { 0, 3, 3 }, compiled.room());
+        assertArrayEquals(new int[] { 1, 1, 2 }, compiled.slot());
+        assertEquals(4, compiled.roomSpace());
+        assertEquals(3, compiled.slotSpace());
+    }
+
+    @Test
+    void parsesSlotsIntoIntervalsAndFindsOverlappingSlots() {
+        CompiledProblem p = CompiledProblem.of(new SchedulingProblem(PROBLEM.courses(), PROBLEM.lectures(), PROBLEM.rooms(), List.of(
+                new TimeSlot("T1", "MON", "09:00", "10:30"),
+                new TimeSlot("T2", "TUE", "9:00", "10:00"),
+                new TimeSlot("T3", "Mon", "10:00", "11:00"),
+                new TimeSlot("T4", "MON", "10:30", "11:00"),
+                new TimeSlot("T5", "MON", "11:00", "09:00"))));
+
+        assertEquals(new SlotInterval("TUE", 540, 600), p.interval(1));
+        assertNull(p.interval(4));
+        assertEquals(2, p.dayCount());
+        assertEquals(p.slotDay(0), p.slotDay(2));
+        assertNotEquals(p.slotDay(4), p.slotDay(0));
+        assertTrue(p.hasOverlappingSlots());
+        assertArrayEquals(new int[] { 2 }, p.overlappingSlots(0));
+        assertArrayEquals(new int[] { 0, 3 }, p.overlappingSlots(2));
+        assertArrayEquals(new int[0], p.overlappingSlots(1));
+        assertTrue(p.slotsOverlap(4, 4));
+        assertFalse(p.slotsOverlap(0, 3));
+        assertEquals(new TimeWindow("MON", "10:00", "10:30"), p.overlapWindow(0, 2));
+        assertFalse(CompiledProblem.of(PROBLEM).hasOverlappingSlots());
+    }
+}
@@ -0,0 +1,59 @@
+package com.multiparadigm.scheduler.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemDecompositionTest {
+
+    private static final List<TimeSlot> SLOTS = List.of(
+            new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00"),
+            new TimeSlot("T3", "TUE", "09:00", "10:00"), new TimeSlot("T4", "TUE", "10:00", "11:00"));
+
+    private static final List<Room> ROOMS = List.of(new Room("A", "Hall", 90), new Room("B", "Aula", 100));
+
+    private static List<String> ids(List<?> items) {
+        return items.stream().map(o -> o instanceof Lecture l ? l.id() : o instanceof TimeSlot t ? t.id()
+                : ((Course) o).id()).toList();
+    }
+
+    @Test
+    void splitsCoursesOverDisjointSlotRanges() {
+        CompiledProblem p = CompiledProblem.of(new SchedulingProblem(
+                List.of(new Course("C1", "Bio"), new Course("C2", "Art"), new Course("C3", "Music")),
+                List.of(new Lecture("L1", "C1", "Lab A", 80), new Lecture("L2", "C2", "Talk", 85),
+                        new Lecture("L3", "C1", "Lab B", 70), new Lecture("L4", "C3", "Choir", 95)),
+                ROOMS, SLOTS));
+        assertEquals(3, ProblemDecomposition.components(p).size());
+
+        List<SchedulingProblem> parts = ProblemDecomposition.partition(p, 4);
+        assertEquals(3, parts.size());
+        assertEquals(List.of("L1", "L3"), ids(parts.get(0).lectures()));
+        assertEquals(List.of("C1"), ids(parts.get(0).courses()));
+        assertEquals(ROOMS, parts.get(0).rooms());
+        // C1 needs one slot per lecture, the others one slot each
+        assertEquals(List.of("T1", "T2"), ids(parts.get(0).timeSlots()));
+        assertEquals(List.of("T3"), ids(parts.get(1).timeSlots()));
+        assertEquals(List.of("T4"), ids(parts.get(2).timeSlots()));
+    }
+
+    @Test
+    void usesFewerPartsWhenSlotsAreScarce() {
+        // Only B fits the 95-seat lectures, so a part holding two of them needs two slots
+        List<Lecture> lectures = List.of(new Lecture("L1", "C1", "A", 95), new Lecture("L2", "C2", "B", 95),
+                new Lecture("L3", "C3", "C", 95), new Lecture("L4", "C4", "D", 10));
+        CompiledProblem p = CompiledProblem.of(new SchedulingProblem(null, lectures, ROOMS, SLOTS));
+        assertEquals(4, ProblemDecomposition.partition(p, 4).size());
+        assertEquals(1, ProblemDecomposition.partition(p, 1).size());
+
+        CompiledProblem tight = CompiledProblem.of(new SchedulingProblem(null, lectures, ROOMS, SLOTS.subList(0, 3)));
+        List<SchedulingProblem> parts = ProblemDecomposition.partition(tight, 4);
+        assertEquals(3, parts.size());
+        assertEquals(4, parts.stream().mapToInt(s -> s.lectures().size()).sum());
+
+        CompiledProblem none = CompiledProblem.of(new SchedulingProblem(null, lectures, ROOMS, SLOTS.subList(0, 1)));
+        assertEquals(List.of(none.problem()), ProblemDecomposition.partition(none, 4));
+    }
+}
@@ -0,0 +1,33 @@
+package com.multiparadigm.scheduler.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small deterministic problems shared by engine tests: lectures {@code L<i>} with enrollments 20 to 60, rooms
+ * {@code R<r>} alternating between 40 and 80 seats, and back-to-back one-hour Monday slots {@code T<t>} from 08:00.
+ */
+public final class TestProblems {
+
+    private TestProblems() {}
+
+    /** Problem with three lectures per course. */
+    public static SchedulingProblem problem(int lectures, int rooms, int slots) {
+        return problem(lectures, 3, rooms, slots);
+    }
+
+    /** Problem with {@code perCourse} consecutive lectures per course. */
+    public static SchedulingProblem problem(int lectures, int perCourse, int rooms, int slots) {
+        List<Course> courses = new ArrayList<>();
+        List<Lecture> ls = new ArrayList<>();
+        for (int i = 0; i < lectures; i++) {
+            if (i % perCourse == 0) courses.add(new Course("C" + i / perCourse, "Course " + i / perCourse));
+            ls.add(new Lecture("L" + i, "C" + i / perCourse, "Lecture " + i, 20 + (i % 5) * 10));
+        }
+        List<Room> rs = new ArrayList<>();
+        for (int r = 0; r < rooms; r++) rs.add(new Room("R" + r, "Room " + r, r % 2 == 0 ? 40 : 80));
+        List<TimeSlot> ts = new ArrayList<>();
+        for (int t = 0; t < slots; t++) ts.add(new TimeSlot("T" + t, "MON", String.format("%02d:00", 8 + t), String.format("%02d:00", 9 + t)));
+        return new SchedulingProblem(courses, ls, rs, ts);
+    }
+}
@@ -0,0 +1,119 @@
+package com.multiparadigm.scheduler.repair;
+
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.multiparadigm.scheduler.model.TestProblems.problem;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinConflictsRepairTest {
+
+    @Test
+    void repairsHeavilyConflictingScheduleToValidOne() {
+        SchedulingProblem problem = problem(40, 6, 8);
+        // Everyone in the small room at the first slot: capacity, double bookings and course overlaps
+        List<Assignment> crowded = problem.lectures().stream().map(l -> new Assignment(l.id(), "R0", "T0")).toList();
+        Schedule schedule = new Schedule(crowded, 3.0);
+        int before = new JavaScheduleValidator().validate(problem, schedule).violations().size();
+
+        MinConflictsRepair.Result result = new MinConflictsRepair(new MinConflictsRepair.Settings(
+                Duration.ofSeconds(5), 1_000_000, 7)).repair(CompiledProblem.of(problem), schedule, 1L);
+
+        assertEquals(before, result.initialViolations());
+        assertTrue(result.feasible());
+        assertTrue(result.steps() > 0);
+        assertNull(result.schedule().score());
+        assertEquals(crowded.stream().map(Assignment::lectureId).toList(),
+                result.schedule().assignments().stream().map(Assignment::lectureId).toList());
+        ValidationResult validation = new JavaScheduleValidator().validate(problem, result.schedule());
+        assertTrue(validation.valid(), () -> validation.violations().toString());
+    }
+
+    @Test
+    void repairsConflictsBetweenOverlappingSlots() {
+        SchedulingProblem hourly = problem(30, 4, 10);
+        // Every hour also has a half-hour-shifted slot overlapping it and the next hour
+        List<TimeSlot> slots = new ArrayList<>(hourly.timeSlots());
+        for (int t = 0; t < 10; t++) slots.add(new TimeSlot("H" + t, "MON", String.format("%02d:30", 8 + t), String.format("%02d:30", 9 + t)));
+        SchedulingProblem problem = new SchedulingProblem(hourly.courses(), hourly.lectures(), hourly.rooms(), slots);
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < 30; i++) assignments.add(new Assignment("L" + i, "R" + (i % 2), i % 2 == 0 ? "T0" : "H0"));
+        Schedule schedule = new Schedule(assignments, null);
+        int before = new JavaScheduleValidator().validate(problem, schedule).violations().size();
+
+        MinConflictsRepair.Result result = new MinConflictsRepair().repair(CompiledProblem.of(problem), schedule, 5L);
+
+        assertEquals(before, result.initialViolations());
+        assertTrue(result.feasible());
+        ValidationResult validation = new JavaScheduleValidator().validate(problem, result.schedule());
+        assertTrue(validation.valid(), () -> validation.violations().toString());
+    }
+
+    @Test
+    void placesUnknownPositionsAndKeepsForeignAssignmentsFixed() {
+        SchedulingProblem problem = problem(3, 2, 3);
+        Schedule schedule = new Schedule(List.of(
+                new Assignment("L0", "R1", "T0"),
+                new Assignment("L1", "NOWHERE", "T0"),
+                new Assignment("X9", "R1", "T1"),
+                new Assignment("L2", "R1", "T1")), null);
+
+        MinConflictsRepair.Result result = new MinConflictsRepair().repair(CompiledProblem.of(problem), schedule, 3L);
+
+        List<Assignment> out = result.schedule().assignments();
+        assertEquals(new Assignment("X9", "R1", "T1"), out.get(2));
+        assertNotEquals("NOWHERE", out.get(1).roomId());
+        assertTrue(result.feasible());
+        // The unknown lecture X9 stays put, so L2 has to leave its cell
+        assertNotEquals(new Assignment("L2", "R1", "T1"), out.get(3));
+        assertTrue(new JavaScheduleValidator().validate(problem, result.schedule()).valid());
+    }
+
+    @Test
+    void returnsConflictFreeScheduleUnchanged() {
+        SchedulingProblem problem = problem(2, 2, 2);
+        Schedule schedule = new Schedule(List.of(new Assignment("L0", "R0", "T0"), new Assignment("L1", "R1", "T1")), 2.0);
+        MinConflictsRepair.Result result = new MinConflictsRepair().repair(CompiledProblem.of(problem), schedule, null);
+        assertEquals(0, result.initialViolations());
+        assertEquals(0, result.steps());
+        assertEquals(schedule.assignments(), result.schedule().assignments());
+    }
+
+    @Test
+    void reschedulesChangedProblemKeepingMostLecturesInPlace() {
+        SchedulingProblem problem = problem(60, 8, 10);
+        Schedule previous = new MinConflictsRepair(new MinConflictsRepair.Settings(Duration.ofSeconds(5), 1_000_000, 7))
+                .repair(CompiledProblem.of(problem), new Schedule(problem.lectures().stream()
+                        .map(l -> new Assignment(l.id(), "R1", "T0")).toList(), null), 5L).schedule();
+        assertTrue(new JavaScheduleValidator().validate(problem, previous).valid());
+
+        // Close room R3 and add three lectures of a new course
+        List<Lecture> lectures = new ArrayList<>(problem.lectures());
+        for (int i = 0; i < 3; i++) lectures.add(new Lecture("N" + i, "CN", "New " + i, 30));
+        List<Course> courses = new ArrayList<>(problem.courses());
+        courses.add(new Course("CN", "New course"));
+        List<Room> rooms = problem.rooms().stream().filter(r -> !r.id().equals("R3")).toList();
+        SchedulingProblem changed = new SchedulingProblem(courses, lectures, rooms, problem.timeSlots());
+        long closed = previous.assignments().stream().filter(a -> a.roomId().equals("R3")).count();
+
+        MinConflictsRepair.Result result = new MinConflictsRepair(new MinConflictsRepair.Settings(
+                Duration.ofSeconds(5), 1_000_000, 7, 0.5)).reschedule(CompiledProblem.of(changed), previous, 9L);
+        MinConflictsRepair.Result free = new MinConflictsRepair(new MinConflictsRepair.Settings(
+                Duration.ofSeconds(5), 1_000_000, 7, 0)).reschedule(CompiledProblem.of(changed), previous, 9L);
+
+        assertTrue(result.feasible());
+        List<Assignment> out = result.schedule().assignments();
+        assertEquals(lectures.stream().map(Lecture::id).toList(), out.stream().map(Assignment::lectureId).toList());
+        assertTrue(new JavaScheduleValidator().validate(changed, result.schedule()).valid());
+        long kept = out.stream().filter(previous.assignments()::contains).count();
+        // Each of the 13 lectures to (re)place displaces at most one other, and the move penalty keeps more in place
+        assertTrue(kept >= 60 - closed - 13, () -> "kept " + kept + " of " + (60 - closed));
+        assertTrue(free.feasible());
+        assertTrue(kept > free.schedule().assignments().stream().filter(previous.assignments()::contains).count());
+    }
+}
@@ -0,0 +1,78 @@
+package com.multiparadigm.scheduler.service;
+
+import com.multiparadigm.scheduler.cache.CanonicalHash;
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import com.multiparadigm.scheduler.store.SegmentLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private static SchedulingProblem problem(String lectureName) {
+        return new SchedulingProblem(
+                List.of(new Course("C1", "Algorithms")),
+                List.of(new Lecture("L1", "C1", lectureName, 50)),
+                List.of(new Room("R1", "Room A", 60)),
+                List.of(new TimeSlot("T1", "MON", "09:00", "10:00"))
+        );
+    }
+
+    private static ResultCache.Settings entries(int maxEntries) {
+        return new ResultCache.Settings(true, maxEntries, 0, Duration.ZERO);
+    }
+
+    @Test
+    void registeringTheSameProblemReturnsTheSameCompiledEntry() {
+        ProblemRegistry registry = new ProblemRegistry(entries(4), ScheduleStore.disabled());
+        RegisteredProblem first = registry.register(problem("Intro"));
+        RegisteredProblem again = registry.register(problem("Intro"));
+
+        assertEquals(CanonicalHash.of(problem("Intro")), first.id());
+        assertSame(first, again);
+        assertSame(first, registry.find(first.id()).orElseThrow());
+        assertNotEquals(first.id(), registry.register(problem("Sorting")).id());
+        assertTrue(registry.find("unknown").isEmpty());
+    }
+
+    @Test
+    void reloadsEvictedProblemsFromTheStore() throws Exception {
+        try (ScheduleStore store = ScheduleStore.open(new SegmentLog.Settings(dir, 1 << 20, false, null, 0.5))) {
+            ProblemRegistry registry = new ProblemRegistry(entries(1), store);
+            String intro = registry.register(problem("Intro")).id();
+            registry.register(problem("Sorting"));
+            assertEquals(1, registry.stats().evictions());
+
+            RegisteredProblem reloaded = registry.find(intro).orElseThrow();
+            assertEquals("Intro", reloaded.compiled().problem().lectures().get(0).title());
+
+            // A fresh registry (e.g. after a restart) finds it too
+            assertTrue(new ProblemRegistry(entries(1), store).find(intro).isPresent());
+        }
+    }
+
+    @Test
+    void weighsEntriesByCompiledSize() {
+        // 20 lectures x 20 rooms: the feasible-room tables dominate the weight
+        SchedulingProblem wide = TestProblems.problem(20, 20, 2);
+        long footprint = CompiledProblem.of(wide).footprint();
+        assertTrue(footprint >= 20 * 20, () -> "footprint " + footprint);
+
+        ProblemRegistry registry = new ProblemRegistry(
+                new ResultCache.Settings(true, 16, 500, Duration.ZERO), ScheduleStore.disabled());
+        registry.register(wide);
+        registry.register(TestProblems.problem(20, 21, 2));
+        assertEquals(1, registry.stats().evictions());
+        assertEquals(1, registry.stats().size());
+    }
+}
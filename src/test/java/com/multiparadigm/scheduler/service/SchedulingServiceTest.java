@@ -0,0 +1,362 @@
+package com.multiparadigm.scheduler.service;
+
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.cache.SchedulingCaches;
+import com.multiparadigm.scheduler.cache.SingleFlight;
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.GeneratorEngines;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.solver.BacktrackingSolver;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import com.multiparadigm.scheduler.validation.ScheduleValidator;
+import com.multiparadigm.scheduler.validation.ValidationOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingServiceTest {
+
+    private static final SchedulingProblem PROBLEM = new SchedulingProblem(
+            List.of(new Course("C1", "Algorithms")),
+            List.of(new Lecture("L1", "C1", "Intro", 50), new Lecture("L2", "C1", "Sorting", 50)),
+            List.of(new Room("R1", "Room A", 60)),
+            List.of(new TimeSlot("T1", "MON", "09:00", "10:00"))
+    );
+
+    private static final ResultCache.Settings ON = new ResultCache.Settings(true, 16, 0, Duration.ofMinutes(1));
+
+    @Test
+    void cachesGenerationOnlyWhenSeeded() {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduleGenerator generator = problem -> {
+            runs.incrementAndGet();
+            return new Schedule(List.of(new Assignment("L1", "R1", "T1")), 1.0);
+        };
+        SchedulingService service = SchedulingService.builder(generator, new JavaScheduleValidator()).caches(SchedulingCaches.of(ON, ON)).build();
+
+        service.generate(PROBLEM);
+        service.generate(PROBLEM);
+        assertEquals(2, runs.get());
+
+        service.generate(PROBLEM, GenerationOptions.defaults().withSeed(7L));
+        service.generate(PROBLEM, GenerationOptions.defaults().withSeed(7L));
+        assertEquals(3, runs.get());
+        service.generate(PROBLEM, GenerationOptions.defaults().withSeed(8L));
+        assertEquals(4, runs.get());
+        assertEquals(1, service.caches().generation().stats().hits());
+    }
+
+    @Test
+    void doesNotCachePartialSchedules() {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduleGenerator generator = problem -> {
+            runs.incrementAndGet();
+            return new Schedule(List.of(new Assignment("L1", "R1", "T1")), 1.0, 3, true);
+        };
+        SchedulingService service = SchedulingService.builder(generator, new JavaScheduleValidator()).caches(SchedulingCaches.of(ON, ON)).build();
+        GenerationOptions seeded = GenerationOptions.defaults().withSeed(7L).withDeadline(Duration.ofMillis(100));
+        assertEquals(Boolean.TRUE, service.generate(PROBLEM, seeded).partial());
+        service.generate(PROBLEM, seeded);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void cachesValidationRegardlessOfAssignmentOrder() {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduleValidator validator = (problem, schedule) -> {
+            runs.incrementAndGet();
+            return new JavaScheduleValidator().validate(problem, schedule);
+        };
+        SchedulingService service = SchedulingService.builder(problem -> null, validator).caches(SchedulingCaches.of(ON, ON)).build();
+        Assignment a1 = new Assignment("L1", "R1", "T1"), a2 = new Assignment("L2", "R1", "T1");
+
+        ValidationResult first = service.validate(PROBLEM, new Schedule(List.of(a1, a2), null));
+        ValidationResult second = service.validate(PROBLEM, new Schedule(List.of(a2, a1), 3.0));
+        assertEquals(1, runs.get());
+        assertSame(first, second);
+        assertFalse(first.valid());
+    }
+
+    @Test
+    void recordsTimingsWithProblemSizeTags() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScheduleGenerator generator = problem -> new Schedule(List.of(), null);
+        SchedulingService service = SchedulingService.builder(generator, new JavaScheduleValidator())
+                .caches(SchedulingCaches.of(ON, ON)).metrics(new SchedulerMetrics(registry)).engines(GeneratorEngines.of("test", generator)).build();
+
+        service.generateAndValidate(PROBLEM);
+        service.validate(PROBLEM, new Schedule(List.of(), null));
+
+        assertEquals(1, registry.get("scheduler.service")
+                .tags("operation", "generate", "outcome", "success", "lectures", "le10", "rooms", "le10", "slots", "le10")
+                .timer().count());
+        assertEquals(2, registry.get("scheduler.service").tags("operation", "validate").timer().count());
+        assertEquals(1, service.caches().validation().stats().hits());
+        // the second validation is a cache hit and never compiles the problem
+        assertEquals(1, registry.get("scheduler.engine.stage").tags("engine", "service", "stage", "compile").timer().count());
+        assertEquals("gt10000", SchedulerMetrics.bucket(20_000));
+    }
+
+    @Test
+    void registeredProblemsSkipCompileAndHashStages() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SchedulingService service = SchedulingService.builder(problem -> null, new JavaScheduleValidator())
+                .caches(SchedulingCaches.of(ON, ON)).metrics(new SchedulerMetrics(registry)).engines(GeneratorEngines.of("test", problem -> null)).build();
+        RegisteredProblem registered = new ProblemRegistry(ON, ScheduleStore.disabled())
+                .register(PROBLEM);
+        Schedule clash = new Schedule(List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T1")), null);
+
+        assertFalse(service.validate(registered, clash).valid());
+        // cached under the same key as the plain call
+        assertFalse(service.validate(PROBLEM, clash).valid());
+        assertEquals(1, service.caches().validation().stats().hits());
+        assertEquals(0, registry.find("scheduler.engine.stage").tags("stage", "compile").timers().size());
+        assertEquals(1, registry.get("scheduler.engine.stage").tags("stage", "hash").timer().count());
+    }
+
+    @Test
+    void validatesBatchesInOrderAndReusesCachedResults() {
+        AtomicInteger batched = new AtomicInteger();
+        ScheduleValidator validator = new JavaScheduleValidator() {
+            @Override
+            public List<ValidationResult> validateAll(CompiledProblem problem, List<Schedule> schedules) {
+                batched.addAndGet(schedules.size());
+                return super.validateAll(problem, schedules);
+            }
+        };
+        SchedulingService service = SchedulingService.builder(problem -> null, validator).caches(SchedulingCaches.of(ON, ON)).build();
+        Schedule clash = new Schedule(List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T1")), null);
+        Schedule single = new Schedule(List.of(new Assignment("L1", "R1", "T1")), null);
+        service.validate(PROBLEM, single);
+
+        List<ValidationResult> results = service.validateAll(PROBLEM, List.of(clash, single, clash));
+        assertEquals(List.of(false, true, false), results.stream().map(ValidationResult::valid).toList());
+        assertEquals(2, batched.get());
+    }
+
+    @Test
+    void portfolioReturnsFirstConflictFreeScheduleAndCancelsTheRest() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ScheduleGenerator slow = problem -> {
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return new Schedule(List.of(), 0.0);
+        };
+        ScheduleGenerator clash = problem -> new Schedule(
+                List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T1")), 5.0);
+        ScheduleGenerator good = problem -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Schedule(List.of(new Assignment("L1", "R1", "T1")), 1.0);
+        };
+        GeneratorEngines engines = new GeneratorEngines("slow", Map.of("slow", slow, "clash", clash, "good", good));
+        SchedulingService service = SchedulingService.builder(slow, new JavaScheduleValidator()).engines(engines).build();
+
+        SchedulingService.PortfolioResult result = service.generatePortfolio(PROBLEM,
+                new PortfolioOptions(3, Duration.ofSeconds(10), List.of("slow", "clash", "good"), 100L));
+
+        assertEquals("good", result.engine());
+        assertEquals(102L, result.seed());
+        assertTrue(result.validation().valid());
+        assertEquals(2, result.completedRuns());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+
+        RuntimeException late = assertThrows(RuntimeException.class, () -> service.generatePortfolio(PROBLEM,
+                new PortfolioOptions(2, Duration.ofMillis(100), List.of(), null)));
+        assertTrue(late.getMessage().contains("within 100 ms"));
+        assertThrows(IllegalArgumentException.class, () -> service.generatePortfolio(PROBLEM,
+                new PortfolioOptions(1, Duration.ofSeconds(1), List.of("nope"), null)));
+    }
+
+    @Test
+    void portfolioRunsGetTheDeadlineSoAnytimeEnginesReturnPartialSchedules() {
+        ScheduleGenerator anytime = new ScheduleGenerator() {
+            @Override public Schedule generate(SchedulingProblem problem) {
+                throw new AssertionError("portfolio runs must carry a deadline");
+            }
+
+            @Override public Schedule generate(CompiledProblem problem, GenerationOptions options) {
+                if (options.deadline() == null) return generate(problem.problem());
+                try {
+                    Thread.sleep(options.deadline().toMillis());
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return new Schedule(List.of(new Assignment("L1", "R1", "T1")), 1.0, null, true);
+            }
+        };
+        SchedulingService service = SchedulingService.builder(anytime, new JavaScheduleValidator()).build();
+
+        SchedulingService.PortfolioResult result = service.generatePortfolio(PROBLEM,
+                new PortfolioOptions(2, Duration.ofMillis(500), List.of(), 7L));
+
+        assertEquals(Boolean.TRUE, result.schedule().partial());
+        assertTrue(result.validation().valid());
+    }
+
+    @Test
+    void repairsGeneratedScheduleAsFinalStageWhenAsked() {
+        SchedulingProblem problem = new SchedulingProblem(
+                PROBLEM.courses(), PROBLEM.lectures(), PROBLEM.rooms(),
+                List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00")));
+        ScheduleGenerator generator = p -> new Schedule(
+                List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T1")), 0.0);
+        SchedulingService service = SchedulingService.builder(generator, new JavaScheduleValidator()).build();
+
+        SchedulingService.Result plain = service.generateAndValidate(problem, GenerationOptions.defaults());
+        assertEquals(2, plain.validation().violations().size());
+
+        SchedulingService.Result repaired = service.generateAndValidate(problem, GenerationOptions.defaults().withSeed(1L), true);
+        assertTrue(repaired.validation().valid());
+        assertNotEquals(repaired.schedule().assignments().get(0).timeSlotId(),
+                repaired.schedule().assignments().get(1).timeSlotId());
+
+        SchedulingService.RepairResult direct = service.repair(problem, plain.schedule(), plain.validation(), 1L);
+        assertEquals(2, direct.initialViolations());
+        assertTrue(direct.validation().valid());
+
+        // The caller's validation is not trusted: a wrong "valid" or a grouped, capped report still gets repaired
+        SchedulingService.RepairResult claimedValid = service.repair(problem, plain.schedule(), ValidationResult.ok(), 1L);
+        assertTrue(claimedValid.validation().valid());
+        assertEquals(2, claimedValid.initialViolations());
+        SchedulingProblem crowded = new SchedulingProblem(
+                List.of(new Course("C1", "a"), new Course("C2", "b"), new Course("C3", "c")),
+                List.of(new Lecture("L1", "C1", "x", 10), new Lecture("L2", "C2", "y", 10), new Lecture("L3", "C3", "z", 10)),
+                PROBLEM.rooms(), problem.timeSlots());
+        Schedule clash = new Schedule(List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T1"),
+                new Assignment("L3", "R1", "T1")), null);
+        ValidationResult capped = ValidationResult.from(List.of(service.validate(crowded, clash).violations().get(0)));
+        SchedulingService.RepairResult improved = service.repair(crowded, clash, capped, 1L);
+        assertEquals(3, improved.initialViolations());
+        assertEquals(1, improved.validation().violations().size());
+        assertNotSame(clash, improved.schedule());
+
+        // Only one slot: nothing can improve, so the input comes back
+        SchedulingService.RepairResult stuck = service.repair(PROBLEM, plain.schedule(), null, 1L);
+        assertSame(plain.schedule(), stuck.schedule());
+        assertFalse(stuck.validation().valid());
+    }
+
+    @Test
+    void reschedulesFromPreviousScheduleAndCountsChanges() {
+        SchedulingProblem changed = new SchedulingProblem(
+                List.of(new Course("C1", "Algorithms"), new Course("C2", "Databases")),
+                List.of(new Lecture("L1", "C1", "Intro", 50), new Lecture("L3", "C2", "SQL", 50)),
+                List.of(new Room("R1", "Room A", 60)),
+                List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00")));
+        Schedule previous = new Schedule(List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T2")), 1.0);
+        SchedulingService service = SchedulingService.builder(p -> previous, new JavaScheduleValidator()).build();
+
+        SchedulingService.RescheduleResult res = service.reschedule(changed, previous, 1L);
+
+        assertTrue(res.validation().valid());
+        assertEquals(List.of(new Assignment("L1", "R1", "T1"), new Assignment("L3", "R1", "T2")), res.schedule().assignments());
+        assertEquals(1, res.kept());
+        assertEquals(0, res.moved());
+        assertEquals(1, res.added());
+    }
+
+    @Test
+    void solvesExactlyAndReportsInfeasibleProblems() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SchedulingService service = SchedulingService.builder(problem -> null, new JavaScheduleValidator())
+                .metrics(new SchedulerMetrics(registry)).engines(GeneratorEngines.of("test", problem -> null)).build();
+
+        // Two lectures of one course but a single slot
+        SchedulingService.SolveResult infeasible = service.solve(PROBLEM, 1L, null);
+        assertEquals(BacktrackingSolver.Outcome.INFEASIBLE, infeasible.outcome());
+        assertFalse(infeasible.validation().valid());
+        assertEquals(2, infeasible.schedule().assignments().size());
+
+        SchedulingProblem twoSlots = new SchedulingProblem(PROBLEM.courses(), PROBLEM.lectures(), PROBLEM.rooms(),
+                List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00")));
+        SchedulingService.SolveResult solved = service.solve(twoSlots, 1L, Duration.ofSeconds(1));
+        assertEquals(BacktrackingSolver.Outcome.SOLVED, solved.outcome());
+        assertTrue(solved.validation().valid());
+        assertEquals(1, registry.get("scheduler.service").tags("operation", "solve", "outcome", "solved").timer().count());
+        assertEquals(1, registry.get("scheduler.service").tags("operation", "solve", "outcome", "infeasible").timer().count());
+    }
+
+    @Test
+    void reportsFromCachedResultsAndCachesOnlyCompleteOnes() {
+        AtomicInteger calls = new AtomicInteger();
+        ScheduleValidator validator = new JavaScheduleValidator() {
+            @Override
+            public ValidationReport validate(CompiledProblem problem, Schedule schedule, ValidationOptions options) {
+                calls.incrementAndGet();
+                return super.validate(problem, schedule, options);
+            }
+        };
+        SchedulingService service = SchedulingService.builder(problem -> null, validator).caches(SchedulingCaches.of(ON, ON)).build();
+        Schedule clash = new Schedule(List.of(new Assignment("L1", "R1", "T1"), new Assignment("L2", "R1", "T1")), null);
+
+        ValidationReport capped = service.validateReport(PROBLEM, clash, new ValidationOptions(false, 1));
+        assertTrue(capped.truncated());
+        assertEquals(1, capped.violations().size());
+        assertFalse(capped.countsExact());
+        // A truncated result is not cached, a complete one is and then answers grouped reports too
+        service.validateReport(PROBLEM, clash, new ValidationOptions(false, 10));
+        ValidationReport cappedTotals = service.validateReport(PROBLEM, clash, new ValidationOptions(false, 1));
+        assertTrue(cappedTotals.truncated());
+        assertTrue(cappedTotals.countsExact());
+        assertEquals(2, cappedTotals.violationCount());
+        ValidationReport grouped = service.validateReport(PROBLEM, clash, new ValidationOptions(true, 10));
+        assertEquals(2, calls.get());
+        assertEquals(Map.of("room_double_booked", 1, "same_course_overlap", 1), grouped.counts());
+        assertEquals(List.of("L1", "L2"), grouped.violations().get(0).lectureIds());
+        assertEquals(2, service.validate(PROBLEM, clash).violations().size());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void coalescesIdenticalConcurrentGenerateAndValidateCalls() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduleGenerator generator = problem -> {
+            runs.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Schedule(List.of(new Assignment("L1", "R1", "T1")), 1.0);
+        };
+        SingleFlight flights = new SingleFlight();
+        SchedulingService service = SchedulingService.builder(generator, new JavaScheduleValidator())
+                .engines(GeneratorEngines.of("test", generator)).flights(flights).build();
+        List<Thread> callers = new ArrayList<>();
+        List<SchedulingService.Result> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            callers.add(Thread.ofVirtual().start(() -> results.add(service.generateAndValidate(PROBLEM))));
+        }
+        while (flights.stats().joined() < 2) Thread.sleep(5);
+        release.countDown();
+        for (Thread t : callers) t.join(5000);
+
+        assertEquals(1, runs.get());
+        assertEquals(3, results.size());
+        assertSame(results.get(0), results.get(1));
+        // A different seed is a different request
+        service.generate(PROBLEM, GenerationOptions.defaults().withSeed(7L));
+        assertEquals(2, runs.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.multiparadigm.scheduler.solver;
+
+import com.multiparadigm.scheduler.ga.GenerationOptions;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.ga.SizeRoutingScheduleGenerator;
+import com.multiparadigm.scheduler.model.*;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.multiparadigm.scheduler.model.TestProblems.problem;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktrackingSolverTest {
+
+    /** Every lecture needs the one big room, so at most {@code slots} of them fit: a pigeonhole problem. */
+    private static SchedulingProblem pigeonhole(int lectures, int slots) {
+        SchedulingProblem base = problem(lectures, 1, 1, slots);
+        List<Lecture> big = base.lectures().stream().map(l -> new Lecture(l.id(), l.courseId(), l.title(), 60)).toList();
+        List<Room> rooms = List.of(new Room("BIG", "Big", 100), new Room("S1", "Small", 30), new Room("S2", "Small", 30));
+        return new SchedulingProblem(base.courses(), big, rooms, base.timeSlots());
+    }
+
+    @Test
+    void solvesMediumProblemWithOverlappingSlotsConflictFree() {
+        SchedulingProblem hourly = problem(48, 3, 8, 8);
+        List<TimeSlot> slots = new ArrayList<>(hourly.timeSlots());
+        for (int t = 0; t < 8; t++) slots.add(new TimeSlot("H" + t, "MON", String.format("%02d:30", 8 + t), String.format("%02d:30", 9 + t)));
+        SchedulingProblem problem = new SchedulingProblem(hourly.courses(), hourly.lectures(), hourly.rooms(), slots);
+
+        BacktrackingSolver.Result result = new BacktrackingSolver().solve(CompiledProblem.of(problem), 1L);
+
+        assertEquals(BacktrackingSolver.Outcome.SOLVED, result.outcome());
+        assertEquals(48.0, result.schedule().score());
+        assertEquals(problem.lectures().stream().map(Lecture::id).toList(),
+                result.schedule().assignments().stream().map(Assignment::lectureId).toList());
+        ValidationResult validation = new JavaScheduleValidator().validate(problem, result.schedule());
+        assertTrue(validation.valid(), () -> validation.violations().toString());
+    }
+
+    @Test
+    void provesInfeasibilityByCountingAndBySearch() {
+        BacktrackingSolver solver = new BacktrackingSolver();
+        // Four lectures of one course but only three slots
+        BacktrackingSolver.Result counted = solver.solve(CompiledProblem.of(problem(4, 4, 3, 3)), 1L);
+        assertEquals(BacktrackingSolver.Outcome.INFEASIBLE, counted.outcome());
+        assertEquals(0, counted.nodes());
+
+        SchedulingProblem problem = pigeonhole(4, 3);
+        BacktrackingSolver.Result searched = solver.solve(CompiledProblem.of(problem), 1L);
+        assertEquals(BacktrackingSolver.Outcome.INFEASIBLE, searched.outcome());
+        assertTrue(searched.nodes() > 0);
+        // The best effort still places every lecture, with a single conflict
+        assertEquals(4, searched.schedule().assignments().size());
+        assertNull(searched.schedule().score());
+        assertEquals(1, new JavaScheduleValidator().validate(problem, searched.schedule()).violations().size());
+
+        assertEquals(BacktrackingSolver.Outcome.SOLVED,
+                solver.solve(CompiledProblem.of(new SchedulingProblem(List.of(), List.of(), List.of(), List.of())), 1L).outcome());
+    }
+
+    @Test
+    void timesOutOnHardInstanceAndReportsPartialSchedule() {
+        SchedulingProblem problem = pigeonhole(25, 24);
+        BacktrackingSolver solver = new BacktrackingSolver(new BacktrackingSolver.Settings(Duration.ofMillis(50), 100));
+
+        BacktrackingSolver.Result result = solver.solve(CompiledProblem.of(problem), 1L);
+        assertEquals(BacktrackingSolver.Outcome.TIMEOUT, result.outcome());
+        assertTrue(result.restarts() > 0);
+        assertEquals(25, result.schedule().assignments().size());
+
+        Schedule schedule = solver.generate(problem, GenerationOptions.defaults().withDeadline(Duration.ofMillis(20)));
+        assertEquals(Boolean.TRUE, schedule.partial());
+    }
+
+    @Test
+    void sizeRoutingFallsBackWhenTheSolverTimesOut() {
+        Schedule fallback = new Schedule(List.of(), 1.0);
+        ScheduleGenerator large = p -> fallback;
+        ScheduleGenerator solver = new BacktrackingSolver(new BacktrackingSolver.Settings(Duration.ofMillis(20), 100));
+
+        ScheduleGenerator auto = new SizeRoutingScheduleGenerator(solver, large, 30);
+        assertSame(fallback, auto.generate(pigeonhole(25, 24)));
+        assertNotSame(fallback, auto.generate(problem(12, 3, 2, 6)));
+        // Too large for the solver: straight to the fallback
+        assertSame(fallback, new SizeRoutingScheduleGenerator(solver, large, 10).generate(problem(12, 3, 2, 6)));
+    }
+
+    @Test
+    void lubySequence() {
+        assertEquals(List.of(1L, 1L, 2L, 1L, 1L, 2L, 4L, 1L, 1L, 2L, 1L, 1L, 2L, 4L, 8L),
+                IntStream.rangeClosed(1, 15).mapToObj(BacktrackingSolver::luby).toList());
+    }
+}
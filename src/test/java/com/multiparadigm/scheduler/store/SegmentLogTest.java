@@ -0,0 +1,157 @@
+package com.multiparadigm.scheduler.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentLogTest {
+
+    @TempDir
+    Path dir;
+
+    private SegmentLog open(long segmentBytes) throws IOException {
+        return SegmentLog.open(new SegmentLog.Settings(dir, segmentBytes, false, null, 0.5));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(SegmentLog log, String key) {
+        return log.get(key).map(b -> new String(b, StandardCharsets.UTF_8)).orElse(null);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> p.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    @Test
+    void putsOverwritesAndDeletesAcrossSegmentsAndReplaysThem() throws IOException {
+        try (SegmentLog log = open(256)) {
+            for (int i = 0; i < 50; i++) log.put("k" + i, bytes("v" + i));
+            log.put("k7", bytes("seven"));
+            assertTrue(log.delete("k8"));
+            assertFalse(log.delete("missing"));
+            assertEquals("seven", string(log, "k7"));
+            assertNull(string(log, "k8"));
+            assertEquals(49, log.stats().keys());
+        }
+        assertTrue(files(".log").size() > 3);
+        // Every sealed segment left a hint; the last one is scanned
+        assertEquals(files(".log").size() - 1, files(".hint").size());
+
+        try (SegmentLog log = open(256)) {
+            assertEquals("seven", string(log, "k7"));
+            assertEquals("v49", string(log, "k49"));
+            assertNull(string(log, "k8"));
+            assertEquals(49, log.stats().keys());
+            log.put("k50", bytes("v50"));
+        }
+        try (SegmentLog log = open(256)) {
+            assertEquals("v50", string(log, "k50"));
+        }
+    }
+
+    @Test
+    void truncatesTornTailAndIgnoresBadHints() throws IOException {
+        try (SegmentLog log = open(1 << 20)) {
+            log.put("a", bytes("1"));
+            log.put("b", bytes("2"));
+        }
+        Path segment = files(".log").get(0);
+        long intact = Files.size(segment);
+        // A write cut short by a crash: half a record at the end
+        Files.write(segment, new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        try (SegmentLog log = open(64)) {
+            assertEquals(intact, Files.size(segment));
+            assertEquals("2", string(log, "b"));
+            for (int i = 0; i < 10; i++) log.put("c" + i, bytes("x" + i));
+        }
+        Files.write(files(".hint").get(0), bytes("garbage"));
+        try (SegmentLog log = open(64)) {
+            assertEquals("1", string(log, "a"));
+            assertEquals("x9", string(log, "c9"));
+        }
+    }
+
+    @Test
+    void compactionDropsDeadRecordsAndSurvivesRestart() throws IOException {
+        try (SegmentLog log = open(512)) {
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 20; i++) log.put("k" + i, bytes("round" + round + "-" + i));
+            }
+            for (int i = 10; i < 20; i++) log.delete("k" + i);
+            long before = log.stats().bytes();
+
+            assertFalse(log.compact(0.99));
+            assertTrue(log.compact(0.5));
+
+            assertTrue(log.stats().bytes() < before / 2, () -> log.stats().toString());
+            assertEquals(10, log.stats().keys());
+            assertEquals("round4-3", string(log, "k3"));
+            log.put("k3", bytes("after"));
+        }
+        try (SegmentLog log = open(512)) {
+            assertEquals("after", string(log, "k3"));
+            assertEquals("round4-9", string(log, "k9"));
+            assertNull(string(log, "k15"));
+            assertEquals(10, log.stats().keys());
+        }
+    }
+
+    @Test
+    void deletedKeyStaysDeletedWhenCompactionStopsHalfwayThroughRetiringSegments() throws IOException {
+        Path blocked;
+        try (SegmentLog log = open(128)) {
+            log.put("k", new byte[40]);
+            log.put("f", new byte[60]);
+            // k's put moves to a new segment with a higher id than the active one
+            assertTrue(log.compact(0.0));
+            blocked = files(".hint").get(0);
+            assertTrue(log.delete("k"));
+            log.put("g", new byte[60]);
+
+            // A non-empty directory in place of the output's hint file makes its deletion fail after the older
+            // segment holding k's tombstone is already gone, as a crash at that point would
+            Files.delete(blocked);
+            Files.createDirectories(blocked.resolve("x"));
+            assertThrows(IOException.class, () -> log.compact(0.0));
+        }
+        Files.delete(blocked.resolve("x"));
+        Files.delete(blocked);
+
+        try (SegmentLog log = open(128)) {
+            assertTrue(log.get("k").isEmpty());
+            assertEquals(60, log.get("f").orElseThrow().length);
+            assertEquals(2, log.stats().keys());
+        }
+        assertEquals(List.of(), files(".retired"));
+    }
+
+    @Test
+    void interruptedWriterDoesNotBreakTheLog() throws IOException {
+        try (SegmentLog log = open(1 << 20)) {
+            Thread.currentThread().interrupt();
+            try {
+                log.put("a", bytes("1"));
+                assertEquals("1", string(log, "a"));
+            } finally {
+                assertTrue(Thread.interrupted());
+            }
+            log.put("b", bytes("2"));
+            assertEquals("2", string(log, "b"));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaScheduleValidatorTest {
+
+    private final JavaScheduleValidator validator = new JavaScheduleValidator();
+
+    private SchedulingProblem problem() {
+        return new SchedulingProblem(
+                List.of(new Course("C1", "Algorithms"), new Course("C2", "Databases")),
+                List.of(
+                        new Lecture("L1", "C1", "Intro", 50),
+                        new Lecture("L2", "C1", "Sorting", 30),
+                        new Lecture("L3", "C2", "SQL", 80)
+                ),
+                List.of(new Room("R1", "Room A", 60), new Room("R2", "Room B", 100)),
+                List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00"))
+        );
+    }
+
+    @Test
+    void validScheduleHasNoViolations() {
+        Schedule schedule = new Schedule(List.of(
+                new Assignment("L1", "R1", "T1"),
+                new Assignment("L2", "R1", "T2"),
+                new Assignment("L3", "R2", "T1")
+        ), null);
+        ValidationResult result = validator.validate(problem(), schedule);
+        assertTrue(result.valid());
+        assertTrue(result.violations().isEmpty());
+    }
+
+    @Test
+    void reportsViolationsLikeThePrologValidator() {
+        // L3 exceeds R1; L2/L3 share R1@T1; L1/L2 (same course) both at T1
+        Schedule schedule = new Schedule(List.of(
+                new Assignment("L3", "R1", "T1"),
+                new Assignment("L2", "R1", "T1"),
+                new Assignment("L1", "R2", "T1")
+        ), null);
+        ValidationResult result = validator.validate(problem(), schedule);
+        assertFalse(result.valid());
+        TimeWindow t1 = new TimeWindow("MON", "09:00", "10:00");
+        assertEquals(List.of(
+                new Violation("capacity_exceeded", "Enrollment (80) exceeds room capacity (60).", "L3", "R1", "T1"),
+                new Violation("room_double_booked", "Room booked by multiple lectures at the same time: L2 and L3.", "L2", "R1", "T1", t1),
+                new Violation("same_course_overlap", "Two lectures of the same course overlap: L1 and L2.", "L1", "R2", "T1", t1)
+        ), result.violations());
+    }
+
+    @Test
+    void detectsOverlapsBetweenDifferentlyNamedSlots() {
+        SchedulingProblem p = problem();
+        SchedulingProblem overlapping = new SchedulingProblem(p.courses(), p.lectures(), p.rooms(), List.of(
+                new TimeSlot("T1", "MON", "09:00", "10:30"),
+                new TimeSlot("T2", "mon", "10:00", "11:00"),
+                new TimeSlot("T3", "MON", "10:30", "12:00"),
+                new TimeSlot("T4", "TUE", "09:00", "10:30"),
+                new TimeSlot("TX", "MON", "soon", "later")));
+
+        // L1@T1 and L2@T2 overlap 10:00-10:30 in R2 and in course C1; T3 only touches T1 and overlaps T2
+        ValidationResult result = validator.validate(overlapping, new Schedule(List.of(
+                new Assignment("L1", "R2", "T1"),
+                new Assignment("L2", "R2", "T2"),
+                new Assignment("L3", "R2", "T3")
+        ), null));
+        assertEquals(List.of(
+                new Violation("room_double_booked", "Room booked by multiple lectures at the same time: L1 and L2.",
+                        "L1", "R2", "T1", new TimeWindow("MON", "10:00", "10:30")),
+                new Violation("room_double_booked", "Room booked by multiple lectures at the same time: L2 and L3.",
+                        "L2", "R2", "T2", new TimeWindow("MON", "10:30", "11:00")),
+                new Violation("same_course_overlap", "Two lectures of the same course overlap: L1 and L2.",
+                        "L1", "R2", "T1", new TimeWindow("MON", "10:00", "10:30"))
+        ), result.violations());
+
+        // Another day, and slots whose times do not parse, only conflict with themselves
+        assertTrue(validator.validate(overlapping, new Schedule(List.of(
+                new Assignment("L1", "R2", "T1"), new Assignment("L2", "R2", "T4"), new Assignment("L3", "R2", "TX")), null)).valid());
+        List<Violation> same = validator.validate(overlapping, new Schedule(List.of(
+                new Assignment("L3", "R2", "TX"), new Assignment("L2", "R2", "TX")), null)).violations();
+        assertEquals(1, same.size());
+        assertNull(same.get(0).overlap());
+    }
+
+    @Test
+    void reportsEachConflictingPairOnce() {
+        Schedule schedule = new Schedule(List.of(
+                new Assignment("L1", "R2", "T2"),
+                new Assignment("L2", "R2", "T2"),
+                new Assignment("L3", "R2", "T2")
+        ), null);
+        ValidationResult result = validator.validate(problem(), schedule);
+        long doubleBookings = result.violations().stream().filter(v -> v.code().equals("room_double_booked")).count();
+        long courseOverlaps = result.violations().stream().filter(v -> v.code().equals("same_course_overlap")).count();
+        assertEquals(3, doubleBookings);
+        assertEquals(1, courseOverlaps);
+    }
+
+    @Test
+    void ignoresUnknownLecturesAndRoomsForCapacity() {
+        Schedule schedule = new Schedule(List.of(new Assignment("LX", "RX", "T1")), null);
+        assertTrue(validator.validate(problem(), schedule).valid());
+    }
+
+    @Test
+    void groupsConflictsAndStopsAtTheViolationLimit() {
+        // Twenty lectures of one course crammed into R2 at T1: 190 pairs per code, one group each
+        List<Lecture> lectures = new ArrayList<>();
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 10; i < 30; i++) {
+            lectures.add(new Lecture("L" + i, "C1", "Lecture " + i, 50));
+            assignments.add(new Assignment("L" + i, "R2", "T1"));
+        }
+        assignments.add(new Assignment("L10", "R1", "T2"));
+        SchedulingProblem problem = new SchedulingProblem(List.of(new Course("C1", "Algorithms")), lectures,
+                problem().rooms(), problem().timeSlots());
+        CompiledProblem compiled = CompiledProblem.of(problem);
+        Schedule schedule = new Schedule(assignments, null);
+
+        assertEquals(380, validator.validate(compiled, schedule).violations().size());
+
+        ValidationReport grouped = validator.validate(compiled, schedule, new ValidationOptions(true, 0));
+        assertFalse(grouped.valid());
+        assertFalse(grouped.truncated());
+        assertEquals(Map.of("room_double_booked", 1, "same_course_overlap", 1), grouped.counts());
+        Violation room = grouped.violations().get(0);
+        assertEquals("L10", room.lectureId());
+        assertEquals(new TimeWindow("MON", "09:00", "10:00"), room.overlap());
+        assertEquals(20, room.lectureIds().size());
+        assertTrue(room.message().startsWith("Room booked by multiple lectures at the same time: L10, L11, "));
+        assertTrue(grouped.violations().get(1).message().startsWith("20 lectures of the same course overlap: "));
+
+        // Engines without native grouping derive the same groups from their pairwise result
+        ScheduleValidator pairwiseOnly = (p, s) -> validator.validate(p, s);
+        assertEquals(grouped, pairwiseOnly.validate(compiled, schedule, new ValidationOptions(true, 0)));
+
+        // The sweep stops one past the cap, so its counts are only lower bounds
+        ValidationReport capped = validator.validate(compiled, schedule, new ValidationOptions(false, 25));
+        assertTrue(capped.truncated());
+        assertEquals(25, capped.violations().size());
+        assertEquals(26, capped.violationCount());
+        assertFalse(capped.countsExact());
+        assertEquals(Map.of("room_double_booked", 26), capped.counts());
+
+        // A complete result keeps its totals when the list is capped
+        ValidationReport totals = pairwiseOnly.validate(compiled, schedule, new ValidationOptions(false, 25));
+        assertEquals(25, totals.violations().size());
+        assertEquals(380, totals.violationCount());
+        assertTrue(totals.countsExact());
+        assertEquals(Map.of("room_double_booked", 190, "same_course_overlap", 190), totals.counts());
+
+        ValidationReport roomy = validator.validate(compiled, schedule, new ValidationOptions(false, 380));
+        assertFalse(roomy.truncated());
+        assertEquals(validator.validate(compiled, schedule).violations(), roomy.violations());
+    }
+}
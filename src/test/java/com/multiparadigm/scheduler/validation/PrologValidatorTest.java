@@ -2,13 +2,19 @@ package com.multiparadigm.scheduler.validation;
 
 import com.multiparadigm.scheduler.exec.CommandResult;
 import com.multiparadigm.scheduler.exec.CommandRunner;
+import com.multiparadigm.scheduler.exec.ProcessWorkerPool;
+import com.multiparadigm.scheduler.exec.StreamingCommandRunner;
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
 import com.multiparadigm.scheduler.model.*;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class PrologValidatorTest {
 
@@ -44,6 +50,16 @@ class PrologValidatorTest {
         assertTrue(facts.contains("assignment('L1', 'R1', 'T1')."));
     }
 
+    @Test
+    void toFactsEscapesQuotesAndKeepsUnicode() {
+        SchedulingProblem problem = new SchedulingProblem(List.of(), List.of(new Lecture("O'Brien", "Ç1", "x", 7)),
+                List.of(), List.of(new TimeSlot("T1", "MÖN", "09:00", "10:00")));
+        String facts = PrologValidator.toFacts(problem, new Schedule(List.of(new Assignment("O'Brien", "R\uD83D\uDE00", "T1")), null));
+        assertEquals("lecture('O\\'Brien', 'Ç1', 7).\n"
+                + "timeslot('T1', 'MÖN', '09:00', '10:00').\n"
+                + "assignment('O\\'Brien', 'R\uD83D\uDE00', 'T1').\n", facts);
+    }
+
     @Test
     void validateParsesJsonResult() {
         String json = "{\"valid\":false,\"violations\":[{\"code\":\"capacity_exceeded\",\"message\":\"msg\",\"lectureId\":\"L1\",\"roomId\":\"R1\",\"timeSlotId\":\"T1\"}]}";
@@ -68,4 +84,85 @@ class PrologValidatorTest {
         RuntimeException n = assertThrows(RuntimeException.class, () -> empty.validate(sampleProblem(), sampleSchedule()));
         assertTrue(n.getMessage().toLowerCase().contains("no output"));
     }
+
+    @Test
+    void pooledValidatorFramesRequestsAndReportsWorkerErrors() {
+        // Fake serve/0 loop: one answer per end_of_request., an error answer for a poisoned request
+        String worker = "while read l; do case \"$l\" in "
+                + "*poison*) echo '{\"error\":\"syntax error\"}';; "
+                + "end_of_request.) echo '{\"valid\":true,\"violations\":[]}';; "
+                + "esac; done";
+        ProcessWorkerPool pool = new ProcessWorkerPool(new ProcessWorkerPool.Settings(
+                "Prolog validator", List.of("sh", "-c", worker), 1, 0, Duration.ofSeconds(5), PrologValidator.END_OF_REQUEST, null));
+        try (PrologValidator validator = new PrologValidator(pool)) {
+            assertTrue(validator.validate(sampleProblem(), sampleSchedule()).valid());
+            assertTrue(validator.validate(sampleProblem(), sampleSchedule()).valid());
+
+            Schedule poisoned = new Schedule(List.of(new Assignment("poison", "R1", "T1")), 0.0);
+            RuntimeException e = assertThrows(RuntimeException.class, () -> validator.validate(sampleProblem(), poisoned));
+            assertTrue(e.getMessage().contains("syntax error"));
+        }
+    }
+
+    @Test
+    void validateAllSendsProblemFactsOncePerBatchProcessAndKeepsOrder() {
+        // Stands in for batch/0: fails unless the problem facts come exactly once before end_of_problem,
+        // then answers each request, flagging the ones that use slot T2
+        String batch = "/^room\\(/ { rooms++ } "
+                + "/^end_of_problem/ { if (rooms != 1) exit 3 } "
+                + "/^assignment\\(.*'T2'/ { bad = 1 } "
+                + "/^end_of_request/ { print \"{\\\"valid\\\":\" (bad ? \"false\" : \"true\") \",\\\"violations\\\":[]}\"; bad = 0 }";
+        CommandRunner runner = new StreamingCommandRunner();
+        PrologValidator validator = new PrologValidator(runner, List.of("swipl"), Duration.ofSeconds(5),
+                SchedulerMetrics.NOOP, new PrologValidator.Batch(runner, List.of("awk", batch), 2));
+
+        List<Schedule> schedules = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            schedules.add(new Schedule(List.of(new Assignment("L1", "R1", i % 2 == 0 ? "T1" : "T2")), null));
+        }
+        List<ValidationResult> results = validator.validateAll(CompiledProblem.of(sampleProblem()), schedules);
+        assertEquals(List.of(true, false, true, false, true), results.stream().map(ValidationResult::valid).toList());
+    }
+
+    @Test
+    void realValidatorReportsConflictsBetweenOverlappingDifferentlyNamedSlots() {
+        assumeTrue(swiplInstalled(), "swipl is not installed");
+        SchedulingProblem problem = new SchedulingProblem(
+                List.of(new Course("C1", "Algorithms"), new Course("C2", "Databases")),
+                List.of(new Lecture("L1", "C1", "a", 10), new Lecture("L2", "C2", "b", 10),
+                        new Lecture("L3", "C1", "c", 10), new Lecture("L4", "C2", "d", 10)),
+                List.of(new Room("R1", "Room A", 60), new Room("R2", "Room B", 60)),
+                List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "mon", "9:30", "10:30"),
+                        new TimeSlot("T3", "MON", "10:30", "11:30")));
+        Schedule schedule = new Schedule(List.of(
+                new Assignment("L1", "R1", "T1"),
+                new Assignment("L2", "R1", "T2"),
+                new Assignment("L3", "R2", "T2"),
+                new Assignment("L4", "R1", "T3")), null);
+        PrologValidator validator = new PrologValidator(new StreamingCommandRunner(),
+                List.of("swipl", "-q", "-s", "prolog/validator.pl", "-t", "main"), Duration.ofSeconds(30));
+
+        ValidationResult result = validator.validate(problem, schedule);
+
+        assertFalse(result.valid());
+        assertEquals(2, result.violations().size());
+        TimeWindow window = new TimeWindow("MON", "09:30", "10:00");
+        Violation room = result.violations().stream().filter(v -> v.code().equals("room_double_booked")).findFirst().orElseThrow();
+        assertEquals(List.of("L1", "R1", "T1"), List.of(room.lectureId(), room.roomId(), room.timeSlotId()));
+        assertEquals(window, room.overlap());
+        Violation course = result.violations().stream().filter(v -> v.code().equals("same_course_overlap")).findFirst().orElseThrow();
+        assertEquals("L1", course.lectureId());
+        assertEquals(window, course.overlap());
+    }
+
+    private static boolean swiplInstalled() {
+        try {
+            return new ProcessBuilder("swipl", "--version").redirectErrorStream(true).start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 }
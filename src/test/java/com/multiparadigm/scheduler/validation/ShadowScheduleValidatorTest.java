@@ -0,0 +1,56 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.metrics.SchedulerMetrics;
+import com.multiparadigm.scheduler.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowScheduleValidatorTest {
+
+    private static final SchedulingProblem PROBLEM = new SchedulingProblem(List.of(), List.of(), List.of(), List.of());
+    private static final Schedule SCHEDULE = new Schedule(List.of(), null);
+
+    private static final Violation A = new Violation("capacity_exceeded", "a", "L1", "R1", "T1");
+    private static final Violation B = new Violation("room_double_booked", "b", "L1", "R1", "T1");
+
+    @Test
+    void returnsPrimaryResultAndIgnoresViolationOrder() {
+        ValidationResult primary = ValidationResult.from(List.of(A, B));
+        ShadowScheduleValidator shadow = new ShadowScheduleValidator(
+                (p, s) -> primary, (p, s) -> ValidationResult.from(List.of(B, A)));
+        assertSame(primary, shadow.validate(PROBLEM, SCHEDULE));
+        assertEquals(1, shadow.comparisons());
+        assertEquals(0, shadow.mismatches());
+    }
+
+    @Test
+    void countsMismatchesAndShadowFailures() {
+        ShadowScheduleValidator mismatching = new ShadowScheduleValidator(
+                (p, s) -> ValidationResult.from(List.of(A)), (p, s) -> ValidationResult.ok());
+        assertFalse(mismatching.validate(PROBLEM, SCHEDULE).valid());
+        assertEquals(1, mismatching.mismatches());
+
+        ShadowScheduleValidator failing = new ShadowScheduleValidator(
+                (p, s) -> ValidationResult.ok(), (p, s) -> { throw new IllegalStateException("boom"); });
+        assertTrue(failing.validate(PROBLEM, SCHEDULE).valid());
+        assertEquals(0, failing.comparisons());
+        assertEquals(1, failing.shadowFailures());
+    }
+
+    @Test
+    void exposesCountsAsMeters() {
+        ShadowScheduleValidator shadow = new ShadowScheduleValidator(
+                (p, s) -> ValidationResult.from(List.of(A)), (p, s) -> ValidationResult.ok());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new SchedulerMetrics(registry).shadowValidator(shadow);
+        shadow.validate(PROBLEM, SCHEDULE);
+
+        assertEquals(1, registry.get("scheduler.validator.shadow.comparisons").functionCounter().count());
+        assertEquals(1, registry.get("scheduler.validator.shadow.mismatches").functionCounter().count());
+        assertEquals(0, registry.get("scheduler.validator.shadow.failures").functionCounter().count());
+    }
+}
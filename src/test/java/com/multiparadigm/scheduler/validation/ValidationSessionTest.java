@@ -0,0 +1,88 @@
+package com.multiparadigm.scheduler.validation;
+
+import com.multiparadigm.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationSessionTest {
+
+    private static final SchedulingProblem PROBLEM = new SchedulingProblem(
+            List.of(new Course("C1", "Algorithms"), new Course("C2", "Networks")),
+            List.of(new Lecture("L1", "C1", "Intro", 50),
+                    new Lecture("L2", "C1", "Sorting", 30),
+                    new Lecture("L3", "C2", "IP", 80),
+                    new Lecture("L4", "C2", "TCP", 20)),
+            List.of(new Room("R1", "Room A", 60), new Room("R2", "Room B", 100)),
+            List.of(new TimeSlot("T1", "MON", "09:00", "10:00"), new TimeSlot("T2", "MON", "10:00", "11:00"))
+    );
+
+    @Test
+    void reportsOnlyAddedAndRemovedViolations() {
+        ValidationSession session = new ValidationSession("s", PROBLEM, new Schedule(List.of(
+                new Assignment("L1", "R1", "T1"),
+                new Assignment("L2", "R2", "T2"),
+                new Assignment("L3", "R2", "T1")), null));
+        assertTrue(session.result().valid());
+
+        // L2 joins L1's slot: same-course overlap (attributed to L1) and nothing else
+        ValidationSession.Delta moved = session.move("L2", "R2", "T1");
+        assertEquals(List.of(), moved.removed());
+        assertEquals(2, moved.added().size());
+        assertEquals(Set.of("same_course_overlap", "room_double_booked"),
+                Set.of(moved.added().get(0).code(), moved.added().get(1).code()));
+        assertEquals(2, moved.violationCount());
+
+        ValidationSession.Delta undone = session.move("L2", "R2", "T2");
+        assertEquals(List.of(), undone.added());
+        assertEquals(2, undone.removed().size());
+        assertTrue(undone.valid());
+
+        // L3 (80 students) into R1 (60 seats)
+        ValidationSession.Delta swapped = session.swap("L1", "L3");
+        assertEquals(1, swapped.added().size());
+        assertEquals("capacity_exceeded", swapped.added().get(0).code());
+        assertEquals("L3", swapped.added().get(0).lectureId());
+
+        ValidationSession.Delta unassigned = session.unassign("L3");
+        assertEquals(swapped.added(), unassigned.removed());
+        assertThrows(IllegalArgumentException.class, () -> session.unassign("L3"));
+        assertThrows(IllegalArgumentException.class, () -> session.move("L9", "R1", "T1"));
+    }
+
+    @Test
+    void matchesFullValidationAfterRandomEdits() {
+        List<String> lectures = List.of("L1", "L2", "L3", "L4");
+        List<String> rooms = List.of("R1", "R2");
+        List<String> slots = List.of("T1", "T2");
+        JavaScheduleValidator full = new JavaScheduleValidator();
+        Random random = new Random(42);
+        ValidationSession session = new ValidationSession("s", PROBLEM, new Schedule(List.of(), null));
+        Set<Violation> tracked = new HashSet<>();
+
+        for (int i = 0; i < 500; i++) {
+            String lecture = lectures.get(random.nextInt(lectures.size()));
+            boolean assigned = session.schedule().assignments().stream().anyMatch(a -> a.lectureId().equals(lecture));
+            ValidationSession.Delta delta;
+            int op = random.nextInt(3);
+            if (op == 0 && assigned) {
+                delta = session.unassign(lecture);
+            } else if (op == 1 && assigned) {
+                List<Assignment> current = session.schedule().assignments();
+                delta = session.swap(lecture, current.get(random.nextInt(current.size())).lectureId());
+            } else {
+                delta = session.move(lecture, rooms.get(random.nextInt(2)), slots.get(random.nextInt(2)));
+            }
+            assertTrue(tracked.containsAll(delta.removed()));
+            delta.removed().forEach(tracked::remove);
+            delta.added().forEach(v -> assertTrue(tracked.add(v), "added twice: " + v));
+
+            ValidationResult expected = full.validate(PROBLEM, session.schedule());
+            assertEquals(new HashSet<>(expected.violations()), tracked, "after edit " + i);
+            assertEquals(new HashSet<>(expected.violations()), new HashSet<>(session.result().violations()));
+            assertEquals(expected.valid(), delta.valid());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.multiparadigm.scheduler.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multiparadigm.scheduler.cache.ResultCache;
+import com.multiparadigm.scheduler.cache.SingleFlight;
+import com.multiparadigm.scheduler.ga.ScheduleGenerator;
+import com.multiparadigm.scheduler.model.Assignment;
+import com.multiparadigm.scheduler.model.Schedule;
+import com.multiparadigm.scheduler.service.ProblemRegistry;
+import com.multiparadigm.scheduler.service.SchedulingService;
+import com.multiparadigm.scheduler.store.ScheduleStore;
+import com.multiparadigm.scheduler.validation.JavaScheduleValidator;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.multiparadigm.scheduler.model.TestProblems.problem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class SchedulingControllerTest {
+
+    private static final String PROBLEM;
+
+    static {
+        try {
+            PROBLEM = new ObjectMapper().writeValueAsString(problem(3, 1, 3));
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MockMvc mvc(ScheduleGenerator generator, SingleFlight flights) {
+        SchedulingService service = SchedulingService.builder(generator, new JavaScheduleValidator())
+                .flights(flights).build();
+        ProblemRegistry registry = new ProblemRegistry(
+                new ResultCache.Settings(true, 16, 0, Duration.ofMinutes(1)), ScheduleStore.disabled());
+        return MockMvcBuilders.standaloneSetup(
+                new SchedulingController(service, registry, 1000, 16, 60000, 60000, 1000, 120)).build();
+    }
+
+    private static MvcResult generate(MockMvc mvc) throws Exception {
+        return mvc.perform(post("/api/schedule/generate?seed=7")
+                        .contentType(MediaType.APPLICATION_JSON).content(PROBLEM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /** What the servlet container does when an async request outlives its timeout. */
+    private static void timeOut(MvcResult result) throws Exception {
+        MockAsyncContext context = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : context.getListeners()) listener.onTimeout(new AsyncEvent(context));
+    }
+
+    @Test
+    void generateAnswersAsynchronously() throws Exception {
+        Schedule schedule = new Schedule(List.of(new Assignment("L0", "R0", "T0")), 1.0);
+        MockMvc mvc = mvc(p -> schedule, new SingleFlight());
+
+        mvc.perform(asyncDispatch(generate(mvc)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assignments[0].lectureId").value("L0"));
+    }
+
+    @Test
+    void timedOutRequestsDetachAndTheLastOneCancelsTheSharedRun() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ScheduleGenerator blocking = p -> {
+            running.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        };
+        SingleFlight flights = new SingleFlight();
+        MockMvc mvc = mvc(blocking, flights);
+
+        MvcResult first = generate(mvc);
+        MvcResult second = generate(mvc);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.stats().joined() < 1 && System.nanoTime() < until) Thread.sleep(5);
+        assertEquals(1, flights.stats().started());
+        assertEquals(1, flights.stats().joined());
+
+        timeOut(first);
+        mvc.perform(asyncDispatch(first)).andExpect(status().isServiceUnavailable());
+        // The second request still waits for the run
+        assertFalse(interrupted.await(200, TimeUnit.MILLISECONDS));
+
+        timeOut(second);
+        mvc.perform(asyncDispatch(second)).andExpect(status().isServiceUnavailable());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, flights.stats().cancelled());
+    }
+}
@@ -117,7 +117,12 @@ export default function BuilderPage() {
     setLoadingState({ isLoading: true, operation: "Generating and validating schedule..." })
 
     try {
-      const result = await generateAndValidate(problem)
+      const result = await generateAndValidate(problem, (progress) =>
+        setLoadingState({
+          isLoading: true,
+          operation: `Generating schedule... generation ${progress.generation}, ${progress.violations} violations`,
+        }),
+      )
       LocalStorage.saveSchedule(result.schedule)
       LocalStorage.saveValidation(result.validation)
       toast({
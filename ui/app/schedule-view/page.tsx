@@ -75,7 +75,7 @@ export default function ScheduleViewPage() {
     )
   }
 
-  const violationCount = validation?.violations.length || 0
+  const violationCount = validation?.violationCount ?? validation?.violations.length ?? 0
   const isValid = validation?.valid ?? null
 
   return (
@@ -68,6 +68,8 @@ export function ViolationsList({ validation, problem, onFilterChange }: Violatio
     )
   }
 
+  const total = validation.violationCount ?? validation.violations.length
+
   return (
     <Card>
       <CardHeader>
@@ -77,7 +79,9 @@ export function ViolationsList({ validation, problem, onFilterChange }: Violatio
             {validation.valid ? "Valid with Warnings" : "Invalid"}
           </Badge>
           <span className="text-sm text-muted-foreground">
-            {validation.violations.length} violation{validation.violations.length !== 1 ? "s" : ""} found
+            {validation.countsExact === false ? "At least " : ""}
+            {`${total} violation${total !== 1 ? "s" : ""} found`}
+            {validation.truncated ? ` (showing ${validation.violations.length})` : ""}
           </span>
         </div>
       </CardHeader>
@@ -92,6 +96,9 @@ export function ViolationsList({ validation, problem, onFilterChange }: Violatio
                     <div>
                       <div className="font-medium">{violation.code}</div>
                       <div className="text-sm">{violation.message}</div>
+                      {violation.lectureIds && (
+                        <div className="text-xs text-muted-foreground">{violation.lectureIds.length} lectures involved</div>
+                      )}
                     </div>
                   </div>
 
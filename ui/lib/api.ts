@@ -1,6 +1,26 @@
 import type { z } from "zod"
-import type { SchedulingProblem, Schedule, ValidationResult, GenerateAndValidateResponse, ApiError } from "./types"
-import { zSchedule, zValidationResult, zGenerateAndValidateResponse, zValidateRequest } from "./validators"
+import type {
+  SchedulingProblem,
+  Schedule,
+  ValidationResult,
+  GenerateAndValidateResponse,
+  ApiError,
+  GenerationProgress,
+  JobStatus,
+  ScheduleEdit,
+  ValidationDelta,
+  ValidationSessionState,
+} from "./types"
+import {
+  zSchedule,
+  zValidationPage,
+  zGenerateAndValidateResponse,
+  zValidateRequest,
+  zJobStatus,
+  zGenerationProgress,
+  zValidationSessionState,
+  zValidationDelta,
+} from "./validators"
 
 const API_BASE_URL = "http://localhost:8080"
 const API_TIMEOUT = 10000 // 10 seconds
@@ -118,18 +138,105 @@ class ApiClient {
       throw error
     }
 
-    return this.fetchJson("/api/schedule/validate", zValidationResult, {
+    // Grouped report: one violation per crowded room or course and time instead of one per pair,
+    // capped server-side so badly broken schedules stay cheap to validate and render
+    return this.fetchJson("/api/schedule/validate/report?grouped=true&pageSize=1000", zValidationPage, {
       method: "POST",
       body: JSON.stringify(requestBody),
     })
   }
 
-  async generateAndValidate(problem: SchedulingProblem): Promise<GenerateAndValidateResponse> {
-    return this.fetchJson("/api/schedule/generate-and-validate", zGenerateAndValidateResponse, {
+  /**
+   * Open an incremental validation session; afterwards single edits are validated against the
+   * server-side indexes instead of re-posting the whole problem and schedule.
+   */
+  async openValidationSession(problem: SchedulingProblem, schedule: Schedule): Promise<ValidationSessionState> {
+    return this.fetchJson("/api/schedule/validation-sessions", zValidationSessionState, {
+      method: "POST",
+      body: JSON.stringify({ problem, schedule }),
+    })
+  }
+
+  /** Apply one edit and receive only the violations it added and removed. */
+  async applyScheduleEdit(sessionId: string, edit: ScheduleEdit): Promise<ValidationDelta> {
+    return this.fetchJson(`/api/schedule/validation-sessions/${encodeURIComponent(sessionId)}/edits`, zValidationDelta, {
+      method: "POST",
+      body: JSON.stringify(edit),
+    })
+  }
+
+  async closeValidationSession(sessionId: string): Promise<void> {
+    await fetch(`${API_BASE_URL}/api/schedule/validation-sessions/${encodeURIComponent(sessionId)}`, { method: "DELETE" })
+  }
+
+  async submitJob(problem: SchedulingProblem, validate = true): Promise<JobStatus> {
+    return this.fetchJson(`/api/schedule/jobs?validate=${validate}`, zJobStatus, {
       method: "POST",
       body: JSON.stringify(problem),
     })
   }
+
+  async getJob(id: string): Promise<JobStatus> {
+    return this.fetchJson(`/api/schedule/jobs/${encodeURIComponent(id)}`, zJobStatus)
+  }
+
+  async getJobResult(id: string): Promise<GenerateAndValidateResponse> {
+    return this.fetchJson(`/api/schedule/jobs/${encodeURIComponent(id)}/result`, zGenerateAndValidateResponse)
+  }
+
+  async cancelJob(id: string): Promise<JobStatus> {
+    return this.fetchJson(`/api/schedule/jobs/${encodeURIComponent(id)}`, zJobStatus, { method: "DELETE" })
+  }
+
+  /**
+   * Wait for a job to finish, following its server-sent events and reporting best-so-far progress.
+   * Each request stays short, so long GA runs are not cut off by the per-request timeout.
+   */
+  waitForJob(id: string, onProgress?: (progress: GenerationProgress) => void): Promise<JobStatus> {
+    return new Promise((resolve, reject) => {
+      const source = new EventSource(`${API_BASE_URL}/api/schedule/jobs/${encodeURIComponent(id)}/events`)
+      source.addEventListener("progress", (event) => {
+        const parsed = zGenerationProgress.safeParse(JSON.parse((event as MessageEvent).data))
+        if (parsed.success) onProgress?.(parsed.data)
+      })
+      source.addEventListener("done", (event) => {
+        source.close()
+        resolve(zJobStatus.parse(JSON.parse((event as MessageEvent).data)))
+      })
+      source.onerror = () => {
+        // The stream can drop (e.g. SSE timeout); fall back to polling the job status
+        source.close()
+        this.pollJob(id).then(resolve, reject)
+      }
+    })
+  }
+
+  private async pollJob(id: string): Promise<JobStatus> {
+    for (;;) {
+      const status = await this.getJob(id)
+      if (status.state === "SUCCEEDED" || status.state === "FAILED" || status.state === "CANCELLED") {
+        return status
+      }
+      await new Promise((r) => setTimeout(r, 1000))
+    }
+  }
+
+  async generateAndValidate(
+    problem: SchedulingProblem,
+    onProgress?: (progress: GenerationProgress) => void,
+  ): Promise<GenerateAndValidateResponse> {
+    const job = await this.submitJob(problem, true)
+    const status = await this.waitForJob(job.id, onProgress)
+    if (status.state !== "SUCCEEDED") {
+      const error: ApiError = {
+        status: 500,
+        message: status.state === "FAILED" ? "Schedule generation failed" : `Job ${status.state.toLowerCase()}`,
+        details: status.error ?? undefined,
+      }
+      throw error
+    }
+    return this.getJobResult(job.id)
+  }
 }
 
 // Export singleton instance
@@ -138,4 +245,5 @@ export const apiClient = new ApiClient()
 // Export individual functions for convenience (bound wrappers to preserve context)
 export const generate = (problem: SchedulingProblem) => apiClient.generate(problem)
 export const validate = (problem: SchedulingProblem, schedule: Schedule) => apiClient.validate(problem, schedule)
-export const generateAndValidate = (problem: SchedulingProblem) => apiClient.generateAndValidate(problem)
+export const generateAndValidate = (problem: SchedulingProblem, onProgress?: (progress: GenerationProgress) => void) =>
+  apiClient.generateAndValidate(problem, onProgress)
@@ -41,11 +41,21 @@ export interface Violation {
   lectureId?: string | null
   roomId?: string | null
   timeSlotId?: string | null
+  // Conflicts only: where the two lectures' time slots overlap (for a group: where all of them overlap)
+  overlap?: { day: string; start: string; end: string }
+  // Grouped conflicts only: every lecture sharing the room (or course) at that time
+  lectureIds?: string[]
 }
 
 export interface ValidationResult {
   valid: boolean
   violations: Violation[]
+  // Validation reports only: totals per code (lower bounds unless countsExact), and whether more
+  // violations exist than are listed
+  counts?: Record<string, number>
+  violationCount?: number
+  countsExact?: boolean
+  truncated?: boolean
 }
 
 export interface SchedulingProblem {
@@ -61,6 +71,45 @@ export interface GenerateAndValidateResponse {
   validation: ValidationResult
 }
 
+// Asynchronous job API types
+export type JobState = "QUEUED" | "RUNNING" | "SUCCEEDED" | "FAILED" | "CANCELLED"
+
+export interface GenerationProgress {
+  generation: number
+  bestFitness: number
+  violations: number
+}
+
+export interface JobStatus {
+  id: string
+  state: JobState
+  createdAt: string
+  startedAt?: string | null
+  finishedAt?: string | null
+  progress?: GenerationProgress | null
+  violations?: number | null
+  error?: string | null
+}
+
+// Incremental validation session types
+export type ScheduleEdit =
+  | { type: "move"; lectureId: string; roomId: string; timeSlotId: string }
+  | { type: "swap"; lectureId: string; otherLectureId: string }
+  | { type: "unassign"; lectureId: string }
+
+export interface ValidationSessionState {
+  id: string
+  schedule: Schedule
+  validation: ValidationResult
+}
+
+export interface ValidationDelta {
+  added: Violation[]
+  removed: Violation[]
+  valid: boolean
+  violationCount: number
+}
+
 // UI state types
 export interface ApiError {
   status: number
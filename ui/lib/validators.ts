@@ -48,6 +48,8 @@ export const zViolation = z.object({
   lectureId: z.string().nullable().optional(),
   roomId: z.string().nullable().optional(),
   timeSlotId: z.string().nullable().optional(),
+  overlap: z.object({ day: z.string(), start: z.string(), end: z.string() }).optional(),
+  lectureIds: z.array(z.string()).optional(),
 })
 
 export const zValidationResult = z.object({
@@ -55,6 +57,17 @@ export const zValidationResult = z.object({
   violations: z.array(zViolation),
 })
 
+// One page of /api/schedule/validate/report
+export const zValidationPage = zValidationResult.extend({
+  violationCount: z.number(),
+  counts: z.record(z.number()),
+  countsExact: z.boolean(),
+  truncated: z.boolean(),
+  page: z.number(),
+  pageSize: z.number(),
+  totalPages: z.number(),
+})
+
 export const zSchedulingProblem = z
   .object({
     courses: z.array(zCourse).min(1, "At least one course is required"),
@@ -98,6 +111,36 @@ export const zGenerateAndValidateResponse = z.object({
   validation: zValidationResult,
 })
 
+export const zGenerationProgress = z.object({
+  generation: z.number(),
+  bestFitness: z.number(),
+  violations: z.number(),
+})
+
+export const zJobStatus = z.object({
+  id: z.string(),
+  state: z.enum(["QUEUED", "RUNNING", "SUCCEEDED", "FAILED", "CANCELLED"]),
+  createdAt: z.string(),
+  startedAt: z.string().nullable().optional(),
+  finishedAt: z.string().nullable().optional(),
+  progress: zGenerationProgress.nullable().optional(),
+  violations: z.number().nullable().optional(),
+  error: z.string().nullable().optional(),
+})
+
+export const zValidationSessionState = z.object({
+  id: z.string(),
+  schedule: zSchedule,
+  validation: zValidationResult,
+})
+
+export const zValidationDelta = z.object({
+  added: z.array(zViolation),
+  removed: z.array(zViolation),
+  valid: z.boolean(),
+  violationCount: z.number(),
+})
+
 // Validation request schemas
 export const zValidateRequest = z.object({
   problem: zSchedulingProblem,